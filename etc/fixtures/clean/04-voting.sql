@@ -16,4 +16,4 @@
 -- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
 --
 
-TRUNCATE voting CASCADE;
\ No newline at end of file
+TRUNCATE vote, voting, voting_stats CASCADE;
\ No newline at end of file
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.dataset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Streams rows into a table with <b>COPY ... FROM STDIN</b> in CSV format. Rows are sent to the
+ * server as they're written, so tables of any size can be loaded without keeping them in memory.
+ * Closing the writer ends the COPY operation.
+ *
+ * @since 0.1.0
+ */
+public class CopyWriter implements Dataset.RowSink, AutoCloseable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final transient Writer writer;
+  private transient long rows;
+
+  /**
+   * Starts copying rows into the given columns of a table
+   *
+   * @param connection the connection to the database
+   * @param table the name of the table
+   * @param columns the columns every row has values for, in order
+   * @throws SQLException if the COPY operation can't be started
+   * @since 0.1.0
+   */
+  public CopyWriter(Connection connection, String table, String... columns) throws SQLException {
+    var sql =
+        String.format(
+            "COPY %s (%s) FROM STDIN WITH (FORMAT csv)", table, String.join(", ", columns));
+    var stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+    this.writer = new BufferedWriter(new OutputStreamWriter(stream, UTF_8), BUFFER_SIZE);
+  }
+
+  @Override
+  public void row(Object... values) {
+    try {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        write(values[i]);
+      }
+      writer.write('\n');
+      rows++;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+
+    var text = value.toString();
+    if (value instanceof String) {
+      writer.write('"');
+      writer.write(text.replace("\"", "\"\""));
+      writer.write('"');
+    } else {
+      writer.write(text);
+    }
+  }
+
+  /**
+   * Number of rows written so far
+   *
+   * @return the number of rows
+   * @since 0.1.0
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
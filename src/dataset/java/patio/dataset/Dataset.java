@@ -0,0 +1,503 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.dataset;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Describes a synthetic data set big enough to behave like a production database. Every row is
+ * derived from the seed, so the same settings always produce the same rows, and the history of a
+ * group can be replayed as many times as needed, once per table being loaded, without keeping it in
+ * memory.
+ *
+ * <ul>
+ *   <li>Group sizes follow a log-normal distribution: most groups have a handful of members and a
+ *       few of them have hundreds
+ *   <li>Some users belong to many groups while most of them belong to one or two
+ *   <li>Groups vote every day or every weekday. Each member has their own likelihood to vote and
+ *       scores follow the group's mood, which drifts over time
+ * </ul>
+ *
+ * @since 0.1.0
+ */
+public class Dataset {
+
+  /**
+   * Password of all generated users (<b>patio</b>) hashed with BCrypt
+   *
+   * @since 0.1.0
+   */
+  public static final String PASSWORD =
+      "$2a$10$1ub.pVIArKy1soRZih11TeLs56JbtSQz3HA.JsMNIbkF1On8mRuZu";
+
+  private static final String[] FIRST_NAMES = {
+    "Ana", "Bruno", "Carla", "David", "Elena", "Fernando", "Gloria", "Hugo", "Irene", "Javier",
+    "Kira", "Luis", "Marta", "Nacho", "Olga", "Pablo", "Rosa", "Sergio", "Tania", "Victor"
+  };
+  private static final String[] LAST_NAMES = {
+    "Alonso", "Blanco", "Castro", "Diaz", "Esteban", "Fuentes", "Garcia", "Herrera", "Iglesias",
+    "Jimenez", "Lopez", "Moreno", "Navarro", "Ortega", "Prieto", "Ruiz", "Santos", "Torres"
+  };
+  private static final String[] TEAMS = {
+    "Backend", "Frontend", "Design", "Sales", "Support", "Platform", "Data", "Mobile", "QA", "Ops"
+  };
+  private static final String[] COMMENTS = {
+    "Too many meetings today",
+    "Great pairing session",
+    "Blocked waiting for review",
+    "Shipped it!",
+    "Tired, long week",
+    "Nice retro",
+    "Production issue all morning"
+  };
+
+  private static final int MEDIAN_GROUP_SIZE = 8;
+  private static final double GROUP_SIZE_SIGMA = 0.8;
+  private static final int MIN_GROUP_SIZE = 3;
+  private static final int MAX_GROUP_SIZE = 400;
+  private static final double POWER_USER_SKEW = 1.6;
+  private static final int VOTING_DURATION_HOURS = 24;
+  private static final int MOVING_AVERAGE_DAYS = 59;
+  private static final double COMMENT_PROBABILITY = 0.15;
+  private static final double ANONYMOUS_PROBABILITY = 0.2;
+  private static final double WEEKDAYS_ONLY_PROBABILITY = 0.8;
+
+  private final transient long seed;
+  private final transient int userCount;
+  private final transient LocalDate firstDay;
+  private final transient LocalDate lastDay;
+  private final transient OffsetDateTime now;
+  private final transient UUID[] userIds;
+  private final transient UUID[] groupIds;
+  private final transient int[][] members;
+  private final transient int[] favouriteGroups;
+
+  /**
+   * Builds the users, groups and memberships of the data set. Votings and votes are generated on
+   * demand with {@link #replay(int, HistoryVisitor)}
+   *
+   * @param seed the seed all the rows are derived from
+   * @param users number of users
+   * @param groups number of groups
+   * @param days number of days with votings
+   * @param lastDay day of the last voting, the data set is considered to be loaded at midday
+   * @since 0.1.0
+   */
+  public Dataset(long seed, int users, int groups, int days, LocalDate lastDay) {
+    this.seed = seed;
+    this.userCount = users;
+    this.lastDay = lastDay;
+    this.firstDay = lastDay.minusDays(days - 1L);
+    this.now = lastDay.atTime(LocalTime.NOON).atOffset(ZoneOffset.UTC);
+    this.userIds = new UUID[users];
+    this.groupIds = new UUID[groups];
+    this.members = new int[groups][];
+    this.favouriteGroups = new int[users];
+
+    var random = new Random(seed);
+    var created = firstDay.atStartOfDay().atOffset(ZoneOffset.UTC).minusDays(1);
+    for (int u = 0; u < users; u++) {
+      userIds[u] = uuid(random, created);
+    }
+    for (int g = 0; g < groups; g++) {
+      groupIds[g] = uuid(random, created);
+    }
+
+    Arrays.fill(favouriteGroups, -1);
+    for (int g = 0; g < groups; g++) {
+      members[g] = pickMembers(random, g);
+    }
+  }
+
+  private int[] pickMembers(Random random, int group) {
+    var size =
+        (int)
+            Math.round(
+                Math.exp(Math.log(MEDIAN_GROUP_SIZE) + GROUP_SIZE_SIGMA * random.nextGaussian()));
+    var bounded = Math.min(userCount, Math.max(MIN_GROUP_SIZE, Math.min(MAX_GROUP_SIZE, size)));
+    Set<Integer> picked = new HashSet<>();
+    var result = new int[bounded];
+
+    for (int i = 0; i < bounded; i++) {
+      int user = (int) (userCount * Math.pow(random.nextDouble(), POWER_USER_SKEW));
+      while (!picked.add(user)) {
+        user = (user + 1) % userCount;
+      }
+      result[i] = user;
+      if (favouriteGroups[user] < 0) {
+        favouriteGroups[user] = group;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Number of users of the data set
+   *
+   * @return the number of users
+   * @since 0.1.0
+   */
+  public int getUserCount() {
+    return userCount;
+  }
+
+  /**
+   * Number of groups of the data set
+   *
+   * @return the number of groups
+   * @since 0.1.0
+   */
+  public int getGroupCount() {
+    return groupIds.length;
+  }
+
+  /**
+   * First day with votings
+   *
+   * @return the day of the first votings
+   * @since 0.1.0
+   */
+  public LocalDate getFirstDay() {
+    return firstDay;
+  }
+
+  /**
+   * Last day with votings
+   *
+   * @return the day of the last votings
+   * @since 0.1.0
+   */
+  public LocalDate getLastDay() {
+    return lastDay;
+  }
+
+  /**
+   * Writes the rows of the <b>users</b> table: id, name, email, password and favourite group
+   *
+   * @param sink where to write the rows to
+   * @since 0.1.0
+   */
+  public void users(RowSink sink) {
+    for (int u = 0; u < userCount; u++) {
+      var favourite = favouriteGroups[u] < 0 ? null : groupIds[favouriteGroups[u]];
+      sink.row(userIds[u], name(u), email(u), PASSWORD, favourite);
+    }
+  }
+
+  /**
+   * Name of a generated user
+   *
+   * @param user index of the user
+   * @return the name of the user
+   * @since 0.1.0
+   */
+  public static String name(int user) {
+    return firstName(user) + " " + lastName(user) + " " + user;
+  }
+
+  /**
+   * Email of a generated user. Tools using the data set, such as load tests, can log in as any of
+   * its users knowing only their index
+   *
+   * @param user index of the user
+   * @return the email of the user
+   * @since 0.1.0
+   */
+  public static String email(int user) {
+    return (firstName(user) + "." + lastName(user) + "." + user + "@patio.local")
+        .toLowerCase(Locale.ROOT);
+  }
+
+  private static String firstName(int user) {
+    return FIRST_NAMES[user % FIRST_NAMES.length];
+  }
+
+  private static String lastName(int user) {
+    return LAST_NAMES[user / FIRST_NAMES.length % LAST_NAMES.length];
+  }
+
+  /**
+   * Writes the rows of the <b>groups</b> table: id, name, anonymous vote, voting time, voting days,
+   * voting duration and member count
+   *
+   * @param sink where to write the rows to
+   * @since 0.1.0
+   */
+  public void groups(RowSink sink) {
+    for (int g = 0; g < groupIds.length; g++) {
+      var settings = new GroupSettings(new Random(groupSeed(g)));
+
+      sink.row(
+          groupIds[g],
+          TEAMS[g % TEAMS.length] + " " + g,
+          settings.anonymous,
+          settings.votingTime + ":00+00",
+          "{" + String.join(",", settings.votingDayNames()) + "}",
+          VOTING_DURATION_HOURS,
+          members[g].length);
+    }
+  }
+
+  /**
+   * Writes the rows of the <b>users_groups</b> table: user id, group id and whether the user is
+   * admin or not. The first member of every group is its admin
+   *
+   * @param sink where to write the rows to
+   * @since 0.1.0
+   */
+  public void memberships(RowSink sink) {
+    for (int g = 0; g < groupIds.length; g++) {
+      for (int m = 0; m < members[g].length; m++) {
+        sink.row(userIds[members[g][m]], groupIds[g], m == 0);
+      }
+    }
+  }
+
+  /**
+   * Replays the whole history of a group, day by day. Replaying the same group always produces the
+   * same votings and votes
+   *
+   * @param group index of the group
+   * @param visitor receives every voting and its votes
+   * @since 0.1.0
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  public void replay(int group, HistoryVisitor visitor) {
+    var random = new Random(groupSeed(group));
+    var settings = new GroupSettings(random);
+    var likelihoods = new double[members[group].length];
+    for (int m = 0; m < likelihoods.length; m++) {
+      likelihoods[m] = 0.2 + 0.75 * Math.sqrt(random.nextDouble());
+    }
+
+    Deque<double[]> window = new ArrayDeque<>();
+    var mood = settings.mood;
+    var scores = new ArrayList<Integer>();
+
+    for (var day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+      if (!settings.votingDays.contains(day.getDayOfWeek())) {
+        continue;
+      }
+
+      var createdAt = day.atTime(settings.votingTime).atOffset(ZoneOffset.UTC);
+      if (createdAt.isAfter(now)) {
+        break;
+      }
+
+      mood = Math.max(1.5, Math.min(4.8, mood + 0.05 * random.nextGaussian()));
+      var voting = new VotingRow(groupIds[group], uuid(random, createdAt), uuid(random, createdAt));
+      voting.createdAt = createdAt;
+      voting.expired = createdAt.plusHours(VOTING_DURATION_HOURS).isBefore(now);
+
+      scores.clear();
+      for (int m = 0; m < likelihoods.length; m++) {
+        if (random.nextDouble() < likelihoods[m]) {
+          var vote = vote(random, voting, userIds[members[group][m]], mood);
+          if (!vote.createdAt.isAfter(now)) {
+            scores.add(vote.score);
+            visitor.vote(vote);
+          }
+        }
+      }
+
+      voting.average =
+          scores.isEmpty() ? null : scores.stream().mapToInt(i -> i).average().orElse(0);
+      voting.movingAverage = movingAverage(window, voting);
+      visitor.voting(voting);
+    }
+  }
+
+  private static Double movingAverage(Deque<double[]> window, VotingRow voting) {
+    var epochDay = voting.createdAt.toLocalDate().toEpochDay();
+    while (!window.isEmpty() && window.peekFirst()[0] < epochDay - MOVING_AVERAGE_DAYS) {
+      window.removeFirst();
+    }
+    if (voting.average != null) {
+      window.addLast(new double[] {epochDay, voting.average});
+    }
+
+    return window.isEmpty()
+        ? null
+        : window.stream().mapToDouble(entry -> entry[1]).average().orElse(0);
+  }
+
+  private static VoteRow vote(Random random, VotingRow voting, UUID user, double mood) {
+    var minutes = (int) (VOTING_DURATION_HOURS * 60 * Math.pow(random.nextDouble(), 2));
+    var createdAt = voting.createdAt.plusMinutes(minutes);
+    var score = (int) Math.round(mood + 0.9 * random.nextGaussian());
+    var comment =
+        random.nextDouble() < COMMENT_PROBABILITY
+            ? COMMENTS[random.nextInt(COMMENTS.length)]
+            : null;
+
+    var vote = new VoteRow(uuid(random, createdAt), voting.id, user);
+    vote.createdAt = createdAt;
+    vote.score = Math.max(1, Math.min(5, score));
+    vote.comment = comment;
+    return vote;
+  }
+
+  private long groupSeed(int group) {
+    return seed * 1_000_003L + group;
+  }
+
+  /**
+   * Time ordered UUID (version 7) whose random bits come from the seeded generator so that ids are
+   * the same every time the data set is generated
+   */
+  private static UUID uuid(Random random, OffsetDateTime createdAt) {
+    long millis = createdAt.toInstant().toEpochMilli();
+    long msb = millis << 16 | 0x7000L | random.nextInt(0x1000);
+    long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  private static class GroupSettings {
+    private final transient boolean anonymous;
+    private final transient LocalTime votingTime;
+    private final transient Set<DayOfWeek> votingDays;
+    private final transient double mood;
+
+    /* default */ GroupSettings(Random random) {
+      this.anonymous = random.nextDouble() < ANONYMOUS_PROBABILITY;
+      this.votingTime = LocalTime.of(8 + random.nextInt(10), 0);
+      this.votingDays =
+          random.nextDouble() < WEEKDAYS_ONLY_PROBABILITY
+              ? Set.of(
+                  DayOfWeek.MONDAY,
+                  DayOfWeek.TUESDAY,
+                  DayOfWeek.WEDNESDAY,
+                  DayOfWeek.THURSDAY,
+                  DayOfWeek.FRIDAY)
+              : Set.of(DayOfWeek.values());
+      this.mood = 3.2 + 0.5 * random.nextGaussian();
+    }
+
+    /* default */ List<String> votingDayNames() {
+      var names = new ArrayList<String>();
+      for (DayOfWeek day : DayOfWeek.values()) {
+        if (votingDays.contains(day)) {
+          names.add(day.name());
+        }
+      }
+      return names;
+    }
+  }
+
+  /**
+   * Receives rows of a table
+   *
+   * @since 0.1.0
+   */
+  @FunctionalInterface
+  public interface RowSink {
+
+    /**
+     * Receives a row with its values in the same order as the columns of the table
+     *
+     * @param values the values of the row
+     * @since 0.1.0
+     */
+    void row(Object... values);
+  }
+
+  /**
+   * Receives the votings and votes of a group while its history is replayed. Votes of a voting are
+   * received before the voting itself, as its statistics depend on them
+   *
+   * @since 0.1.0
+   */
+  public interface HistoryVisitor {
+
+    /**
+     * Receives a voting once all its votes have been received
+     *
+     * @param voting the voting
+     * @since 0.1.0
+     */
+    default void voting(VotingRow voting) {
+      /* nothing to do by default */
+    }
+
+    /**
+     * Receives a vote
+     *
+     * @param vote the vote
+     * @since 0.1.0
+     */
+    default void vote(VoteRow vote) {
+      /* nothing to do by default */
+    }
+  }
+
+  /**
+   * A generated voting along with its statistics
+   *
+   * @since 0.1.0
+   */
+  public static class VotingRow {
+    /* default */ final UUID groupId;
+    /* default */ final UUID id;
+    /* default */ final UUID statsId;
+    /* default */ OffsetDateTime createdAt;
+    /* default */ boolean expired;
+    /* default */ Double average;
+    /* default */ Double movingAverage;
+
+    /* default */ VotingRow(UUID groupId, UUID id, UUID statsId) {
+      this.groupId = groupId;
+      this.id = id;
+      this.statsId = statsId;
+    }
+  }
+
+  /**
+   * A generated vote
+   *
+   * @since 0.1.0
+   */
+  public static class VoteRow {
+    /* default */ final UUID id;
+    /* default */ final UUID votingId;
+    /* default */ final UUID createdBy;
+    /* default */ OffsetDateTime createdAt;
+    /* default */ int score;
+    /* default */ String comment;
+
+    /* default */ VoteRow(UUID id, UUID votingId, UUID createdBy) {
+      this.id = id;
+      this.votingId = votingId;
+      this.createdBy = createdBy;
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.dataset;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a {@link Dataset} into a PostgreSQL database. The schema is migrated first, then every
+ * table is loaded with <b>COPY</b> in a single transaction. Arguments are passed as
+ * <b>name=value</b> pairs:
+ *
+ * <ul>
+ *   <li><b>url</b>, <b>user</b> and <b>password</b>: database connection
+ *   <li><b>seed</b>: seed all the rows are derived from (42)
+ *   <li><b>users</b>: number of users (20000)
+ *   <li><b>groups</b>: number of groups (2500)
+ *   <li><b>years</b>: years of votings (3)
+ *   <li><b>end</b>: day of the last votings (today)
+ *   <li><b>clean</b>: whether to remove existing data first (true)
+ * </ul>
+ *
+ * <p>The default values produce around 16 million votes
+ *
+ * @since 0.1.0
+ */
+public final class DatasetGenerator {
+  private static final Logger LOG = LoggerFactory.getLogger(DatasetGenerator.class);
+
+  private static final int DAYS_PER_YEAR = 365;
+  private static final int MONTHS_AHEAD = 3;
+
+  private DatasetGenerator() {
+    /* empty */
+  }
+
+  /**
+   * Generates and loads the data set
+   *
+   * @param args <b>name=value</b> pairs overriding the default settings
+   * @throws SQLException if the data set couldn't be loaded
+   * @throws IOException if rows couldn't be streamed to the database
+   * @since 0.1.0
+   */
+  public static void main(String[] args) throws SQLException, IOException {
+    var settings = parse(args);
+    var url = settings.getOrDefault("url", "jdbc:postgresql://localhost:5433/patio");
+    var user = settings.getOrDefault("user", "patio");
+    var password = settings.getOrDefault("password", "patio");
+
+    Flyway.configure()
+        .dataSource(url, user, password)
+        .locations("classpath:migrations")
+        .schemas("public", "patio_archive")
+        .load()
+        .migrate();
+
+    var dataset =
+        new Dataset(
+            Long.parseLong(settings.getOrDefault("seed", "42")),
+            Integer.parseInt(settings.getOrDefault("users", "20000")),
+            Integer.parseInt(settings.getOrDefault("groups", "2500")),
+            Integer.parseInt(settings.getOrDefault("years", "3")) * DAYS_PER_YEAR,
+            LocalDate.parse(settings.getOrDefault("end", LocalDate.now().toString())));
+
+    try (Connection connection = DriverManager.getConnection(url, user, password)) {
+      connection.setAutoCommit(false);
+      load(connection, dataset, Boolean.parseBoolean(settings.getOrDefault("clean", "true")));
+      connection.commit();
+
+      connection.setAutoCommit(true);
+      execute(connection, "ANALYZE");
+    }
+  }
+
+  private static Map<String, String> parse(String... args) {
+    Map<String, String> settings = new HashMap<>();
+    for (String arg : args) {
+      var separator = arg.indexOf('=');
+      if (separator < 1) {
+        throw new IllegalArgumentException("arguments must be name=value pairs: " + arg);
+      }
+      settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    return settings;
+  }
+
+  private static void load(Connection connection, Dataset dataset, boolean clean)
+      throws SQLException, IOException {
+    if (clean) {
+      execute(
+          connection,
+          "TRUNCATE user_tokens, vote, voting, voting_stats, users_groups, users, groups CASCADE");
+    }
+
+    try (var partitions =
+        connection.prepareStatement("SELECT create_monthly_voting_partitions(?, ?)")) {
+      partitions.setObject(1, dataset.getFirstDay());
+      partitions.setObject(2, dataset.getLastDay().plusMonths(MONTHS_AHEAD));
+      partitions.execute();
+    }
+
+    try (var groups =
+        new CopyWriter(
+            connection,
+            "groups",
+            "id",
+            "name",
+            "anonymous_vote",
+            "voting_time",
+            "voting_days",
+            "voting_duration",
+            "member_count")) {
+      dataset.groups(groups);
+      LOG.info("{} groups", groups.getRows());
+    }
+
+    try (var users =
+        new CopyWriter(
+            connection, "users", "id", "name", "email", "password", "favourite_group_id")) {
+      dataset.users(users);
+      LOG.info("{} users", users.getRows());
+    }
+
+    // member counts are already part of the groups rows
+    execute(connection, "ALTER TABLE users_groups DISABLE TRIGGER users_groups_member_count");
+    try (var memberships =
+        new CopyWriter(connection, "users_groups", "user_id", "group_id", "is_admin")) {
+      dataset.memberships(memberships);
+      LOG.info("{} memberships", memberships.getRows());
+    }
+    execute(connection, "ALTER TABLE users_groups ENABLE TRIGGER users_groups_member_count");
+
+    loadHistory(connection, dataset);
+
+    execute(
+        connection,
+        "UPDATE groups g SET last_voting_id = last.id FROM ("
+            + "SELECT DISTINCT ON (v.group_id) v.group_id, v.id FROM voting v "
+            + "ORDER BY v.group_id, v.created_at DESC) last "
+            + "WHERE last.group_id = g.id");
+  }
+
+  /**
+   * Only one COPY can be in progress per connection, so the history of every group is replayed once
+   * per table
+   */
+  private static void loadHistory(Connection connection, Dataset dataset)
+      throws SQLException, IOException {
+    try (var stats =
+        new CopyWriter(
+            connection,
+            "voting_stats",
+            "id",
+            "voting_id",
+            "created_at",
+            "average",
+            "moving_average")) {
+      replayAll(
+          dataset,
+          new Dataset.HistoryVisitor() {
+            @Override
+            public void voting(Dataset.VotingRow voting) {
+              stats.row(
+                  voting.statsId,
+                  voting.id,
+                  voting.createdAt,
+                  voting.average,
+                  voting.movingAverage);
+            }
+          });
+      LOG.info("{} voting stats", stats.getRows());
+    }
+
+    try (var votings =
+        new CopyWriter(
+            connection, "voting", "id", "group_id", "created_at", "voting_stats_id", "expired")) {
+      replayAll(
+          dataset,
+          new Dataset.HistoryVisitor() {
+            @Override
+            public void voting(Dataset.VotingRow voting) {
+              votings.row(
+                  voting.id, voting.groupId, voting.createdAt, voting.statsId, voting.expired);
+            }
+          });
+      LOG.info("{} votings", votings.getRows());
+    }
+
+    try (var votes =
+        new CopyWriter(
+            connection,
+            "vote",
+            "id",
+            "voting_id",
+            "created_by",
+            "created_at",
+            "comment",
+            "score")) {
+      replayAll(
+          dataset,
+          new Dataset.HistoryVisitor() {
+            @Override
+            public void vote(Dataset.VoteRow vote) {
+              votes.row(
+                  vote.id, vote.votingId, vote.createdBy, vote.createdAt, vote.comment, vote.score);
+            }
+          });
+      LOG.info("{} votes", votes.getRows());
+    }
+  }
+
+  private static void replayAll(Dataset dataset, Dataset.HistoryVisitor visitor) {
+    for (int g = 0; g < dataset.getGroupCount(); g++) {
+      dataset.replay(g, visitor);
+    }
+  }
+
+  private static void execute(Connection connection, String sql) throws SQLException {
+    try (var statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.common.domain.utils;
+
+import static patio.common.domain.utils.Check.checkIsFalse;
+import static patio.common.domain.utils.Check.checkIsTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of the {@link Result} chains every service uses to validate its input
+ * before doing any work: a chain passing all its checks and a chain failing at the first one.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultBenchmark {
+
+  private static final Error ERROR = new Error("API_ERRORS.BENCHMARK", "benchmark error");
+
+  private boolean userExists = true;
+  private boolean groupExists = true;
+  private boolean alreadyVoted;
+
+  /**
+   * Runs a chain whose checks all pass so the final supplier is executed
+   *
+   * @return the result of the chain
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Result<String> successfulChain() {
+    return Result.<String>create()
+        .thenCheck(() -> checkIsTrue(userExists, ERROR))
+        .thenCheck(() -> checkIsTrue(groupExists, ERROR))
+        .thenCheck(() -> checkIsFalse(alreadyVoted, ERROR))
+        .then(() -> "vote")
+        .map(String::length)
+        .map(String::valueOf);
+  }
+
+  /**
+   * Runs a chain whose first check fails, so the remaining steps are skipped
+   *
+   * @return the result of the chain
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Result<String> failingChain() {
+    return Result.<String>create()
+        .thenCheck(() -> checkIsFalse(userExists, ERROR))
+        .thenCheck(() -> checkIsTrue(groupExists, ERROR))
+        .thenCheck(() -> checkIsFalse(alreadyVoted, ERROR))
+        .then(() -> "vote")
+        .map(String::length)
+        .map(String::valueOf);
+  }
+}
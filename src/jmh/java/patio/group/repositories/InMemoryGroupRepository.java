@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.repositories;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import patio.group.domain.Group;
+import patio.group.domain.UserGroup;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.infrastructure.persistence.InMemoryRepository;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
+import patio.infrastructure.utils.IterableUtils;
+import patio.voting.domain.Voting;
+
+/**
+ * In memory implementation of {@link GroupRepository}. Like the SQL queries, the voting period of a
+ * group starts today at the hour and minute of its voting time.
+ *
+ * @since 0.1.0
+ */
+public class InMemoryGroupRepository extends InMemoryRepository<Group, UUID>
+    implements GroupRepository {
+
+  private final transient InMemoryDatabase database;
+
+  /**
+   * Initializes the repository
+   *
+   * @param database the database the repository belongs to
+   * @since 0.1.0
+   */
+  public InMemoryGroupRepository(InMemoryDatabase database) {
+    this.database = database;
+  }
+
+  @Override
+  protected UUID idOf(Group group) {
+    if (group.getId() == null) {
+      group.setId(TimeOrderedUuidGenerator.next());
+    }
+    return group.getId();
+  }
+
+  @Override
+  public Stream<Group> findAllGroupsInVotingDayAndInVotingPeriod(String day, OffsetDateTime time) {
+    return stream()
+        .filter(
+            group -> group.getVotingDays().stream().map(DayOfWeek::toString).anyMatch(day::equals))
+        .filter(group -> isInVotingPeriod(group, time, OffsetDateTime.now()));
+  }
+
+  @Override
+  public Stream<Group> findAllGroupsWithVotingInCurrentVotingPeriod() {
+    OffsetDateTime now = OffsetDateTime.now();
+    return IterableUtils.iterableToStream(database.getVotingRepository().findAll())
+        .filter(voting -> isInVotingPeriod(voting.getGroup(), voting.getCreatedAtDateTime(), now))
+        .map(Voting::getGroup);
+  }
+
+  @Override
+  public Stream<Voting> findAllExpiredVotingsByTime(OffsetDateTime time) {
+    return IterableUtils.iterableToStream(database.getVotingRepository().findAll())
+        .filter(voting -> !Boolean.TRUE.equals(voting.getExpired()))
+        .filter(
+            voting -> !time.isBefore(votingEnd(voting.getGroup(), voting.getCreatedAtDateTime())));
+  }
+
+  @Override
+  public List<Group> findAllByUserIdOrderByName(UUID userId) {
+    return database
+        .getUserGroupRepository()
+        .findAllByUserId(userId)
+        .map(UserGroup::getGroup)
+        .sorted(Comparator.comparing(Group::getName))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Group> findMyFavouriteGroupByUserId(UUID userId) {
+    return database.getUserRepository().findFavouriteGroupId(userId).flatMap(this::findById);
+  }
+
+  @Override
+  public void updateLastVoting(UUID groupId, UUID votingId) {
+    findById(groupId).ifPresent(group -> group.setLastVotingId(votingId));
+  }
+
+  @Override
+  public void evictFromCache(UUID groupId) {
+    /* there's no cache in memory */
+  }
+
+  private static boolean isInVotingPeriod(Group group, OffsetDateTime time, OffsetDateTime today) {
+    OffsetDateTime start = votingStart(group, today);
+    return !time.isBefore(start) && !time.isAfter(votingEnd(group, start));
+  }
+
+  private static OffsetDateTime votingStart(Group group, OffsetDateTime day) {
+    return day.truncatedTo(ChronoUnit.DAYS)
+        .withHour(group.getVotingTime().getHour())
+        .withMinute(group.getVotingTime().getMinute());
+  }
+
+  private static OffsetDateTime votingEnd(Group group, OffsetDateTime start) {
+    return start.plusHours(group.getVotingDuration());
+  }
+}
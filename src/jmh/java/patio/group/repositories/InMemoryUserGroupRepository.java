@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import patio.group.domain.Group;
+import patio.group.domain.UserGroup;
+import patio.group.domain.UserGroupKey;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.infrastructure.persistence.InMemoryRepository;
+
+/**
+ * In memory implementation of {@link UserGroupRepository}. It keeps the member count of the groups
+ * up to date the same way the database triggers do.
+ *
+ * @since 0.1.0
+ */
+public class InMemoryUserGroupRepository extends InMemoryRepository<UserGroup, UserGroupKey>
+    implements UserGroupRepository {
+
+  private final transient InMemoryDatabase database;
+  private final transient Map<UUID, Set<UserGroup>> byUser = new ConcurrentHashMap<>();
+  private final transient Map<UUID, Set<UserGroup>> byGroup = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes the repository
+   *
+   * @param database the database the repository belongs to
+   * @since 0.1.0
+   */
+  public InMemoryUserGroupRepository(InMemoryDatabase database) {
+    this.database = database;
+  }
+
+  @Override
+  protected UserGroupKey idOf(UserGroup userGroup) {
+    if (userGroup.getId() == null) {
+      userGroup.setId(new UserGroupKey(userGroup.getUser().getId(), userGroup.getGroup().getId()));
+    }
+    return userGroup.getId();
+  }
+
+  @Override
+  protected Object keyOf(UserGroupKey id) {
+    return List.of(id.getUserId(), id.getGroupId());
+  }
+
+  @Override
+  protected void onSave(UserGroup userGroup) {
+    index(byUser, userGroup.getId().getUserId(), userGroup);
+    index(byGroup, userGroup.getId().getGroupId(), userGroup);
+    updateMemberCount(userGroup.getGroup());
+  }
+
+  @Override
+  protected void onDelete(UserGroup userGroup) {
+    unindex(byUser, userGroup.getId().getUserId(), userGroup);
+    unindex(byGroup, userGroup.getId().getGroupId(), userGroup);
+    updateMemberCount(userGroup.getGroup());
+  }
+
+  @Override
+  public Map<UUID, Boolean> findAllMembershipsByUserId(UUID userId) {
+    return findAllByUserId(userId)
+        .collect(Collectors.toMap(ug -> ug.getId().getGroupId(), UserGroup::isAdmin));
+  }
+
+  @Override
+  public List<UUID> addMembers(UUID groupId, List<UUID> userIds) {
+    var group = database.getGroupRepository().findById(groupId).orElseThrow();
+    var members =
+        findAllByGroupId(groupId).map(ug -> ug.getId().getUserId()).collect(Collectors.toSet());
+
+    return userIds.stream()
+        .distinct()
+        .filter(userId -> !members.contains(userId))
+        .map(database.getUserRepository()::findById)
+        .flatMap(Optional::stream)
+        .map(user -> save(new UserGroup(user, group)))
+        .map(ug -> ug.getId().getUserId())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Streams the memberships of a given user
+   *
+   * @param userId the user's id
+   * @return the user's memberships
+   * @since 0.1.0
+   */
+  public Stream<UserGroup> findAllByUserId(UUID userId) {
+    return byUser.getOrDefault(userId, Set.of()).stream();
+  }
+
+  /**
+   * Streams the memberships of a given group
+   *
+   * @param groupId the group's id
+   * @return the group's memberships
+   * @since 0.1.0
+   */
+  public Stream<UserGroup> findAllByGroupId(UUID groupId) {
+    return byGroup.getOrDefault(groupId, Set.of()).stream();
+  }
+
+  private void updateMemberCount(Group group) {
+    group.setMemberCount(byGroup.getOrDefault(group.getId(), Set.of()).size());
+  }
+
+  private static void index(Map<UUID, Set<UserGroup>> index, UUID key, UserGroup userGroup) {
+    Set<UserGroup> memberships = index.computeIfAbsent(key, id -> ConcurrentHashMap.newKeySet());
+    memberships.removeIf(ug -> isSameMembership(ug, userGroup));
+    memberships.add(userGroup);
+  }
+
+  private static void unindex(Map<UUID, Set<UserGroup>> index, UUID key, UserGroup userGroup) {
+    Optional.ofNullable(index.get(key))
+        .ifPresent(memberships -> memberships.removeIf(ug -> isSameMembership(ug, userGroup)));
+  }
+
+  private static boolean isSameMembership(UserGroup left, UserGroup right) {
+    return left.getId().getUserId().equals(right.getId().getUserId())
+        && left.getId().getGroupId().equals(right.getId().getGroupId());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.email.services.internal;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares email throughput of pooled SMTP connections against opening a new connection per
+ * message. A <b>maxMessages</b> of 1 behaves as a per-message connection.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+public class SmtpConnectionPoolBenchmark {
+
+  @Param({"1", "100"})
+  private int maxMessages;
+
+  private GreenMail greenMail;
+  private SmtpConnectionPool pool;
+  private MimeMessage message;
+
+  /**
+   * Starts the in-process SMTP server and the pool under test
+   *
+   * @throws MessagingException if the message can't be built
+   * @since 0.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws MessagingException {
+    greenMail = new GreenMail(ServerSetupTest.SMTP);
+    greenMail.setUser("patio@localhost", "patio", "secret");
+    greenMail.start();
+
+    Properties properties = new Properties();
+    properties.setProperty("mail.transport.protocol", "smtp");
+    properties.setProperty("mail.smtp.host", "localhost");
+    properties.setProperty("mail.smtp.port", String.valueOf(ServerSetupTest.SMTP.getPort()));
+    properties.setProperty("mail.smtp.auth", "true");
+    properties.setProperty("mail.smtp.quitwait", "false");
+
+    Session session = Session.getInstance(properties);
+    SmtpConnectionPool.Settings settings =
+        new SmtpConnectionPool.Settings(
+            4, maxMessages, Duration.ofSeconds(30), Duration.ofSeconds(10));
+
+    pool = new SmtpConnectionPool(session, "patio", "secret", settings, Clock.systemUTC());
+    message = new MimeMessage(session);
+    message.setFrom(new InternetAddress("noreply@patio.com"));
+    message.setRecipients(Message.RecipientType.TO, "john@example.com");
+    message.setSubject("How are you today?");
+    message.setText("Looking forward to hearing from you");
+    message.saveChanges();
+  }
+
+  /**
+   * Closes pooled connections and stops the server
+   *
+   * @since 0.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.close();
+    greenMail.stop();
+  }
+
+  /**
+   * Sends a single message through the pool
+   *
+   * @throws MessagingException if the message couldn't be sent
+   * @since 0.1.0
+   */
+  @Benchmark
+  public void send() throws MessagingException {
+    pool.send(message);
+  }
+}
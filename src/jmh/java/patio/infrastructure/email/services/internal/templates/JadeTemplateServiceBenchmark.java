@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.email.services.internal.templates;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the rendering of the voting email, sent to every member of a group each time a voting
+ * starts, with and without the <b>templates.cached</b> option.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JadeTemplateServiceBenchmark {
+
+  private static final String TEMPLATE = "templates/voting.pug";
+
+  @Param({"true", "false"})
+  private boolean cached;
+
+  private JadeTemplateService templateService;
+  private Map<String, Object> data;
+
+  /**
+   * Creates the template service and the template data
+   *
+   * @since 0.1.0
+   */
+  @Setup
+  public void setUp() {
+    templateService = new JadeTemplateService(new JadeConfigurationFactory("UTF-8", cached));
+    data =
+        Map.of(
+            "question", "How do you feel today?",
+            "today", "Today is Monday",
+            "greetings", "Hi Sue Storm!",
+            "groupName", "Fantastic Four",
+            "thanks", "Thanks",
+            "disclaimer", "You received this email because you're a member of Fantastic Four",
+            "link", "http://localhost:1234/team/d64db962/7772e35c/vote",
+            "frontUrl", "http://localhost:1234");
+  }
+
+  /**
+   * Renders the voting email
+   *
+   * @return the html of the email
+   * @since 0.1.0
+   */
+  @Benchmark
+  public String render() {
+    return templateService.render(TEMPLATE, data);
+  }
+}
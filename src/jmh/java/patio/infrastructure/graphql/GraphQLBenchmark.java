@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import graphql.ExecutionResult;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.user.domain.User;
+import patio.voting.domain.Voting;
+
+/**
+ * Executes the operations behind the main screens of the application end to end, from resolving the
+ * user out of the authentication token to serializing the result, with the database replaced by
+ * {@link InMemoryDatabase}. It measures the cost of the GraphQL layer, the services and the domain
+ * checks, leaving SQL out of the picture.
+ *
+ * <ul>
+ *   <li><b>dashboard</b>: the user's profile, groups and their last votings
+ *   <li><b>stats</b>: statistics of the favourite group and the details of its last voting
+ *   <li><b>vote</b>: voting in the current voting of the favourite group
+ * </ul>
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphQLBenchmark {
+
+  private static final long SEED = 42;
+  private static final int GROUPS = 8;
+  private static final int MEMBERS_PER_GROUP = 40;
+  private static final int DAYS = 90;
+
+  @Param({"dashboard", "stats", "vote"})
+  private String operation;
+
+  private InMemoryDatabase database;
+  private InMemoryGraphQL graphQL;
+  private User user;
+  private Voting voting;
+  private String token;
+  private String query;
+  private Map<String, Object> variables;
+
+  /**
+   * Seeds the database and wires the GraphQL engine, executing the operation once to make sure it
+   * doesn't fail
+   *
+   * @throws IOException if the operation can't be read
+   * @since 0.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    database = InMemoryDatabase.seed(SEED, GROUPS, MEMBERS_PER_GROUP, DAYS);
+    graphQL = new InMemoryGraphQL(database);
+    user = database.getUserRepository().findByEmail("member0000@patio.local").orElseThrow();
+    token = graphQL.tokenOf(user);
+
+    var group =
+        database.getGroupRepository().findMyFavouriteGroupByUserId(user.getId()).orElseThrow();
+    voting = database.getVotingRepository().findById(group.getLastVotingId()).orElseThrow();
+    variables =
+        Map.of(
+            "groupId",
+            group.getId(),
+            "votingId",
+            voting.getId(),
+            "score",
+            4,
+            "comment",
+            "Looking forward to the weekend");
+
+    try (var stream = getClass().getResourceAsStream("operations/" + operation + ".graphql")) {
+      query = new String(stream.readAllBytes(), UTF_8);
+    }
+
+    removeVote();
+    var result = execute();
+    if (!result.getErrors().isEmpty()) {
+      throw new IllegalStateException(operation + " failed: " + result.getErrors());
+    }
+  }
+
+  /**
+   * Stops the engine
+   *
+   * @since 0.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphQL.close();
+  }
+
+  /**
+   * Executes the operation. The vote created by the <b>vote</b> operation is removed afterwards so
+   * that the next execution isn't rejected because the user already voted
+   *
+   * @return the result of the operation
+   * @since 0.1.0
+   */
+  @Benchmark
+  public ExecutionResult execute() {
+    var result = graphQL.execute(token, query, variables);
+    if ("vote".equals(operation)) {
+      removeVote();
+    }
+    return result;
+  }
+
+  private void removeVote() {
+    var votes = database.getVoteRepository();
+    votes.findByCreatedByAndVoting(user, voting).ifPresent(votes::delete);
+  }
+}
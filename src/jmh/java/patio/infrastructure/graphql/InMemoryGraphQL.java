@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.transaction.TransactionCallback;
+import io.micronaut.transaction.TransactionDefinition;
+import io.micronaut.transaction.TransactionOperations;
+import io.reactivex.Flowable;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.dataloader.DataLoaderRegistry;
+import org.mockito.Mockito;
+import patio.common.graphql.CommonScalarProvider;
+import patio.group.graphql.GroupFetcher;
+import patio.group.graphql.GroupProvider;
+import patio.group.graphql.GroupTypeProvider;
+import patio.group.graphql.UserGroupFetcher;
+import patio.group.services.internal.DefaultGroupService;
+import patio.group.services.internal.DefaultUserGroupService;
+import patio.group.services.internal.GroupMembershipIndex;
+import patio.infrastructure.graphql.dataloader.DataLoaderRegistryFactory;
+import patio.infrastructure.graphql.instrumentation.SlowOperationInstrumentation;
+import patio.infrastructure.graphql.instrumentation.SlowOperationLog;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.infrastructure.tracing.Tracer;
+import patio.security.graphql.ResetPasswordFetcher;
+import patio.security.graphql.SecurityFetcher;
+import patio.security.graphql.SecurityProvider;
+import patio.security.repositories.UserTokenRepository;
+import patio.security.services.GoogleUserService;
+import patio.security.services.OauthService;
+import patio.security.services.ResetPasswordService;
+import patio.security.services.internal.Auth0CryptoService;
+import patio.security.services.internal.DefaultLoginThrottleService;
+import patio.security.services.internal.DefaultSecurityService;
+import patio.security.services.internal.OtpExpiredForUser;
+import patio.security.services.internal.PasswordHasher;
+import patio.security.services.internal.SecurityConfiguration;
+import patio.user.domain.User;
+import patio.user.graphql.UserBatchLoader;
+import patio.user.graphql.UserFetcher;
+import patio.user.graphql.UserProvider;
+import patio.user.services.internal.DefaultUserService;
+import patio.voting.graphql.VotingBatchLoader;
+import patio.voting.graphql.VotingFetcher;
+import patio.voting.graphql.VotingProvider;
+import patio.voting.graphql.VotingStatsFetcher;
+import patio.voting.services.internal.DefaultVotingService;
+import patio.voting.services.internal.DefaultVotingStatsService;
+
+/**
+ * Wires the same {@link GraphQL} instance the application builds, with every provider, fetcher,
+ * service, data loader and instrumentation, on top of an {@link InMemoryDatabase}. Wiring is done
+ * by hand so that operations can be executed without starting the application context or a
+ * database. Services none of the benchmarked operations need, such as OAuth or password reset, are
+ * mocked.
+ *
+ * @since 0.1.0
+ */
+public class InMemoryGraphQL {
+
+  private static final String SCHEMA = "classpath:graphql/schema.graphqls";
+  private static final Tracer TRACER = new Tracer(false, List.of());
+
+  private final transient GraphQL graphQL;
+  private final transient ExecutionInputCustomizer customizer;
+  private final transient Auth0CryptoService cryptoService;
+  private final transient PasswordHasher passwordHasher;
+
+  /**
+   * Wires the GraphQL engine on top of the given database
+   *
+   * @param database the database the services will use
+   * @since 0.1.0
+   */
+  public InMemoryGraphQL(InMemoryDatabase database) {
+    var users = database.getUserRepository();
+    var groups = database.getGroupRepository();
+    var userGroups = database.getUserGroupRepository();
+    var votings = database.getVotingRepository();
+    var votes = database.getVoteRepository();
+    var votingStats = database.getVotingStatsRepository();
+
+    var membershipIndex =
+        new GroupMembershipIndex(userGroups, 10_000, Duration.ofSeconds(30), Clock.systemUTC());
+    var userService = new DefaultUserService(users);
+    var groupService = new DefaultGroupService(groups, users, userGroups, membershipIndex);
+    var userGroupService = new DefaultUserGroupService(groups, users, userGroups, membershipIndex);
+    var votingStatsService = new DefaultVotingStatsService(votingStats, votings, votes, groups);
+    var votingService =
+        new DefaultVotingService(
+            votings, votes, votingStatsService, userGroups, users, groups, membershipIndex);
+
+    this.passwordHasher = new PasswordHasher(4, 1, 16);
+    this.cryptoService =
+        new Auth0CryptoService(
+            new SecurityConfiguration("patio", 1, Algorithm.HMAC256("benchmark")), passwordHasher);
+    var securityService =
+        new DefaultSecurityService(
+            cryptoService,
+            Mockito.mock(GoogleUserService.class),
+            Mockito.mock(OauthService.class),
+            users,
+            Mockito.mock(UserTokenRepository.class),
+            new OtpExpiredForUser());
+    var throttle = new DefaultLoginThrottleService(false, 60, 30, 10, 4096, Clock.systemUTC());
+
+    var userFetcher = new UserFetcher(userService);
+    var groupFetcher = new GroupFetcher(groupService);
+    var userGroupFetcher = new UserGroupFetcher(userGroupService);
+    var votingFetcher = new VotingFetcher(votingService);
+    var votingStatsFetcher = new VotingStatsFetcher(votingStatsService);
+    var securityFetcher = new SecurityFetcher(securityService, throttle);
+    var resetPasswordFetcher =
+        new ResetPasswordFetcher(Mockito.mock(ResetPasswordService.class), throttle);
+
+    var userProvider = new UserProvider(userFetcher, groupFetcher);
+    var groupProvider = new GroupProvider(groupFetcher, userGroupFetcher);
+    var votingProvider = new VotingProvider(votingFetcher, votingStatsFetcher);
+    var securityProvider = new SecurityProvider(securityFetcher, resetPasswordFetcher);
+
+    var registry = new TypeDefinitionRegistryFactory().load(SCHEMA, new ResourceResolver());
+    var schema =
+        new GraphQLSchemaFactory()
+            .getSchema(
+                registry,
+                List.of(userProvider, groupProvider, votingProvider, securityProvider),
+                List.of(userProvider, groupProvider, votingProvider, securityProvider),
+                List.of(
+                    userProvider,
+                    new GroupTypeProvider(userGroupFetcher, votingFetcher),
+                    votingProvider),
+                List.of(new CommonScalarProvider()));
+
+    DataLoaderRegistry dataLoaderRegistry =
+        new DataLoaderRegistryFactory()
+            .create(new UserBatchLoader(userService), new VotingBatchLoader(votingService));
+
+    this.graphQL =
+        new GraphQLFactory()
+            .graphQL(
+                schema,
+                new NoTransactions(),
+                new ReplicaRouting(false, 5, Clock.systemUTC()),
+                Mockito.mock(EntityManager.class),
+                TRACER,
+                new StatementCountInstrumentation(false),
+                new SlowOperationInstrumentation(
+                    new SlowOperationLog(
+                        new SlowOperationLog.Config(100, "", 10, 5, false, 3), null),
+                    Duration.ofSeconds(1)),
+                new ParsedDocumentCache(100),
+                true);
+    this.customizer =
+        new ExecutionInputCustomizer(securityService, dataLoaderRegistry, false, TRACER);
+  }
+
+  /**
+   * Creates the authentication token a client would send on behalf of the given user
+   *
+   * @param user the authenticated user
+   * @return a valid authentication token
+   * @since 0.1.0
+   */
+  public String tokenOf(User user) {
+    return cryptoService.createTokens(user).getAuthenticationToken();
+  }
+
+  /**
+   * Executes an operation the same way the GraphQL endpoint does, resolving the user from the
+   * authentication token and attaching the data loaders
+   *
+   * @param token the authentication token of the user
+   * @param query the operation document
+   * @param variables the operation variables
+   * @return the result of the operation
+   * @since 0.1.0
+   */
+  public ExecutionResult execute(String token, String query, Map<String, Object> variables) {
+    var request = HttpRequest.POST("/graphql", query).header("Authorization", "JWT " + token);
+    var input = ExecutionInput.newExecutionInput().query(query).variables(variables).build();
+    var customized = Flowable.fromPublisher(customizer.customize(input, request)).blockingFirst();
+
+    return graphQL.execute(customized);
+  }
+
+  /**
+   * Stops the threads used to hash passwords
+   *
+   * @since 0.1.0
+   */
+  public void close() {
+    passwordHasher.close();
+  }
+
+  private static class NoTransactions implements TransactionOperations<Connection> {
+
+    // nothing reads from the connection, the repositories keep their entities in memory
+    private final transient Connection connection = Mockito.mock(Connection.class);
+
+    @Override
+    public Connection getConnection() {
+      return connection;
+    }
+
+    @Override
+    public <R> R execute(
+        TransactionDefinition definition, TransactionCallback<Connection, R> callback) {
+      return callback.apply(null);
+    }
+
+    @Override
+    public <R> R executeRead(TransactionCallback<Connection, R> callback) {
+      return callback.apply(null);
+    }
+
+    @Override
+    public <R> R executeWrite(TransactionCallback<Connection, R> callback) {
+      return callback.apply(null);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.execution.ExecutionContextBuilder;
+import graphql.execution.ExecutionId;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import patio.infrastructure.graphql.Context;
+import patio.user.domain.User;
+
+/**
+ * Measures the authentication check executed for every field of every request. The <b>caller</b>
+ * parameter selects an authenticated user, an anonymous user reading a field annotated with
+ * <b>@anonymousAllowed</b>, or an anonymous user rejected because the field is not annotated.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationCheckBenchmark {
+
+  private static final String SCHEMA =
+      "directive @anonymousAllowed on FIELD_DEFINITION "
+          + "type Query { login: String @anonymousAllowed dashboard: String }";
+
+  @Param({"authenticated", "anonymous-allowed", "anonymous-denied"})
+  private String caller;
+
+  private final AuthenticationCheck instrumentation = new AuthenticationCheck();
+  private final DataFetcher<String> fetcher = env -> "result";
+  private InstrumentationFieldFetchParameters params;
+
+  /**
+   * Creates the field fetch parameters of the selected caller
+   *
+   * @since 0.1.0
+   */
+  @Setup
+  public void setUp() {
+    var registry = new SchemaParser().parse(SCHEMA);
+    var wiring = RuntimeWiring.newRuntimeWiring().build();
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+    GraphQLFieldDefinition field =
+        schema
+            .getQueryType()
+            .getFieldDefinition(caller.equals("anonymous-allowed") ? "login" : "dashboard");
+
+    var context = new Context();
+    if (caller.equals("authenticated")) {
+      context.setAuthenticatedUser(User.builder().with(u -> u.setName("Sue Storm")).build());
+    }
+
+    var executionContext =
+        ExecutionContextBuilder.newExecutionContextBuilder()
+            .executionId(ExecutionId.generate())
+            .graphQLSchema(schema)
+            .context(context)
+            .build();
+    var environment =
+        DataFetchingEnvironmentImpl.newDataFetchingEnvironment(executionContext)
+            .fieldDefinition(field)
+            .build();
+
+    params =
+        new InstrumentationFieldFetchParameters(executionContext, field, environment, null, false);
+  }
+
+  /**
+   * Instruments a field fetcher, as done once per resolved field
+   *
+   * @return the instrumented fetcher
+   * @since 0.1.0
+   */
+  @Benchmark
+  public DataFetcher<?> instrumentDataFetcher() {
+    var fieldParams = params.withNewState(new AuthenticationCheckState(false));
+
+    return instrumentation.instrumentDataFetcher(fetcher, fieldParams);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.micronaut.context.ApplicationContext;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.dataloader.DataLoaderRegistry;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.tests.Fixtures;
+import patio.user.repositories.UserRepository;
+
+/**
+ * Executes the dashboard query through the GraphQL engine of the application, comparing the
+ * operation running in a single read-only transaction, as {@link ReadOnlyQueryStrategy} does,
+ * against every service opening its own read-write transaction. Run it with the gc profiler to see
+ * the allocation rate of both modes: ./gradlew jmh -Pjmh.include=ReadOnly -Pjmh.profilers=gc
+ *
+ * <p>It requires Docker, the database is started by testcontainers
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReadOnlyQueriesBenchmark {
+
+  private static final UUID USER = UUID.fromString("24c9e15e-52af-c47c-225b-757e7bee1f9d");
+  private static final String OPERATION =
+      "/patio/infrastructure/graphql/operations/dashboard.graphql";
+
+  @Param({"read-only", "read-write"})
+  private String mode;
+
+  private ApplicationContext context;
+  private GraphQL graphQL;
+  private DataLoaderRegistry dataLoaderRegistry;
+  private Context graphQLContext;
+  private String query;
+
+  /**
+   * Starts the application, migrates the database and loads a group with 90 days of votes,
+   * executing the operation once to make sure it doesn't fail
+   *
+   * @throws IOException if the operation can't be read
+   * @since 0.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    context =
+        ApplicationContext.run(
+            Map.of(
+                "jpa.default.properties.hibernate.show_sql",
+                false,
+                "graphql.read-only-queries.enabled",
+                "read-only".equals(mode)));
+
+    Flyway flyway = context.getBean(Flyway.class);
+    flyway.clean();
+    flyway.migrate();
+    context.getBean(Fixtures.class).load(ReadOnlyQueriesBenchmark.class, "dashboard.sql");
+
+    graphQL = context.getBean(GraphQL.class);
+    dataLoaderRegistry = context.getBean(DataLoaderRegistry.class);
+    graphQLContext = new Context();
+    graphQLContext.setAuthenticatedUser(
+        context.getBean(UserRepository.class).findById(USER).orElseThrow());
+
+    try (var stream = getClass().getResourceAsStream(OPERATION)) {
+      query = new String(stream.readAllBytes(), UTF_8);
+    }
+
+    var result = dashboard();
+    if (!result.getErrors().isEmpty()) {
+      throw new IllegalStateException("dashboard failed: " + result.getErrors());
+    }
+  }
+
+  /**
+   * Stops the application
+   *
+   * @since 0.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  /**
+   * Loads the profile of the user, its groups and their last votings with their statistics
+   *
+   * @return the result of the operation
+   * @since 0.1.0
+   */
+  @Benchmark
+  public ExecutionResult dashboard() {
+    var input =
+        ExecutionInput.newExecutionInput()
+            .query(query)
+            .context(graphQLContext)
+            .dataLoaderRegistry(dataLoaderRegistry)
+            .build();
+
+    return graphQL.execute(input);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.scalars.internal;
+
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import patio.infrastructure.graphql.scalars.ScalarsConstants;
+
+/**
+ * Measures the coercions of the custom scalars, executed for every id, day of the week and date
+ * sent to or received from clients.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalarCoercingBenchmark {
+
+  private static final String ID = "486590a3-fcc1-4657-a9ed-5f0f95dadea1";
+  private static final String DATE_TIME = "2020-06-20T12:12:00.000+02:00";
+
+  private final UUIDCoercing uuidCoercing = new UUIDCoercing();
+  private final DayOfWeekCoercing dayOfWeekCoercing = new DayOfWeekCoercing();
+  private final Coercing<?, ?> dateTimeCoercing = ScalarsConstants.DATE_TIME.getCoercing();
+
+  private final UUID uuid = UUID.fromString(ID);
+  private final StringValue uuidLiteral = new StringValue(ID);
+  private final StringValue dayOfWeekLiteral = new StringValue("WEDNESDAY");
+  private final OffsetDateTime dateTime = OffsetDateTime.parse(DATE_TIME);
+
+  /**
+   * Serializes an id sent to the client
+   *
+   * @return the serialized id
+   * @since 0.1.0
+   */
+  @Benchmark
+  public String uuidSerialize() {
+    return uuidCoercing.serialize(uuid);
+  }
+
+  /**
+   * Parses an id received as a variable
+   *
+   * @return the parsed id
+   * @since 0.1.0
+   */
+  @Benchmark
+  public UUID uuidParseValue() {
+    return uuidCoercing.parseValue(ID);
+  }
+
+  /**
+   * Parses an id received inline in the query
+   *
+   * @return the parsed id
+   * @since 0.1.0
+   */
+  @Benchmark
+  public UUID uuidParseLiteral() {
+    return uuidCoercing.parseLiteral(uuidLiteral);
+  }
+
+  /**
+   * Serializes a day of the week sent to the client
+   *
+   * @return the serialized day
+   * @since 0.1.0
+   */
+  @Benchmark
+  public String dayOfWeekSerialize() {
+    return dayOfWeekCoercing.serialize(DayOfWeek.WEDNESDAY);
+  }
+
+  /**
+   * Parses a day of the week received as a variable
+   *
+   * @return the parsed day
+   * @since 0.1.0
+   */
+  @Benchmark
+  public DayOfWeek dayOfWeekParseValue() {
+    return dayOfWeekCoercing.parseValue("WEDNESDAY");
+  }
+
+  /**
+   * Parses a day of the week received inline in the query
+   *
+   * @return the parsed day
+   * @since 0.1.0
+   */
+  @Benchmark
+  public DayOfWeek dayOfWeekParseLiteral() {
+    return dayOfWeekCoercing.parseLiteral(dayOfWeekLiteral);
+  }
+
+  /**
+   * Serializes a date time sent to the client
+   *
+   * @return the serialized date time
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Object dateTimeSerialize() {
+    return dateTimeCoercing.serialize(dateTime);
+  }
+
+  /**
+   * Parses a date time received as a variable
+   *
+   * @return the parsed date time
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Object dateTimeParseValue() {
+    return dateTimeCoercing.parseValue(DATE_TIME);
+  }
+}
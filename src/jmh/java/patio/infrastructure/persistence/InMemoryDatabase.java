@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import patio.group.domain.Group;
+import patio.group.domain.UserGroup;
+import patio.group.repositories.InMemoryGroupRepository;
+import patio.group.repositories.InMemoryUserGroupRepository;
+import patio.user.domain.User;
+import patio.user.repositories.InMemoryUserRepository;
+import patio.voting.domain.Vote;
+import patio.voting.domain.Voting;
+import patio.voting.domain.VotingStats;
+import patio.voting.repositories.InMemoryVoteRepository;
+import patio.voting.repositories.InMemoryVotingRepository;
+import patio.voting.repositories.InMemoryVotingStatsRepository;
+
+/**
+ * Holds all the in memory repositories so that they can resolve the relationships between entities
+ * the way the database joins do. {@link #seed(long, int, int, int)} fills them with a deterministic
+ * data set resembling a team using PATIO every day.
+ *
+ * @since 0.1.0
+ */
+public class InMemoryDatabase {
+
+  private static final int MOVING_AVERAGE_DAYS = 59;
+  private static final int VOTE_PERCENTAGE = 70;
+  private static final int COMMENT_PERCENTAGE = 30;
+
+  private final transient InMemoryUserRepository userRepository;
+  private final transient InMemoryGroupRepository groupRepository;
+  private final transient InMemoryUserGroupRepository userGroupRepository;
+  private final transient InMemoryVotingRepository votingRepository;
+  private final transient InMemoryVoteRepository voteRepository;
+  private final transient InMemoryVotingStatsRepository votingStatsRepository;
+
+  /**
+   * Initializes an empty database
+   *
+   * @since 0.1.0
+   */
+  public InMemoryDatabase() {
+    this.userRepository = new InMemoryUserRepository(this);
+    this.groupRepository = new InMemoryGroupRepository(this);
+    this.userGroupRepository = new InMemoryUserGroupRepository(this);
+    this.votingRepository = new InMemoryVotingRepository(this);
+    this.voteRepository = new InMemoryVoteRepository();
+    this.votingStatsRepository = new InMemoryVotingStatsRepository();
+  }
+
+  /**
+   * Creates a database with a number of groups sharing part of their members. Every group has had a
+   * voting a day, all of them expired but the last one, and around two thirds of the members vote
+   * every time. The first user belongs to every group, is admin of all of them and the first group
+   * is its favourite one.
+   *
+   * @param seed seed used to generate the data, same seeds generate the same data
+   * @param groups number of groups
+   * @param membersPerGroup number of members of every group
+   * @param days number of days with a voting
+   * @return a database filled with data
+   * @since 0.1.0
+   */
+  public static InMemoryDatabase seed(long seed, int groups, int membersPerGroup, int days) {
+    var database = new InMemoryDatabase();
+    var random = new Random(seed);
+    var now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+    var users = new ArrayList<User>();
+
+    for (int i = 0; i < groups * membersPerGroup / 2 + membersPerGroup; i++) {
+      users.add(database.userRepository.save(user(i)));
+    }
+
+    for (int g = 0; g < groups; g++) {
+      var group = database.groupRepository.save(group(g));
+      var members = new ArrayList<User>();
+
+      members.add(users.get(0));
+      for (int m = 1; m < membersPerGroup; m++) {
+        members.add(users.get(1 + (g * membersPerGroup / 2 + m) % (users.size() - 1)));
+      }
+
+      for (User member : members) {
+        var userGroup = new UserGroup(member, group);
+        userGroup.setAdmin(member.equals(users.get(0)));
+        database.userGroupRepository.save(userGroup);
+      }
+
+      database.seedVotings(random, group, members, now, days);
+    }
+
+    database.userRepository.updateFavouriteGroup(
+        users.get(0).getId(),
+        database.groupRepository.findAllByUserIdOrderByName(users.get(0).getId()).get(0).getId());
+
+    return database;
+  }
+
+  private void seedVotings(
+      Random random, Group group, List<User> members, OffsetDateTime now, int days) {
+    var averages = new ArrayList<Double>();
+
+    for (int day = days - 1; day >= 0; day--) {
+      var createdAt = now.minusDays(day);
+      var voting =
+          Voting.newBuilder()
+              .with(v -> v.setGroup(group))
+              .with(v -> v.setCreatedBy(members.get(0)))
+              .with(v -> v.setCreatedAtDateTime(createdAt))
+              .build();
+      voting.setExpired(day > 0);
+      votingRepository.save(voting);
+
+      for (User member : members) {
+        if (random.nextInt(100) < VOTE_PERCENTAGE) {
+          voteRepository.save(vote(random, voting, member, createdAt));
+        }
+      }
+
+      var average = voteRepository.findAvgScoreByVoting(voting);
+      if (average != null) {
+        averages.add(average);
+      }
+
+      var window =
+          averages.subList(Math.max(0, averages.size() - MOVING_AVERAGE_DAYS), averages.size());
+      var stats =
+          VotingStats.newBuilder()
+              .with(s -> s.setVoting(voting))
+              .with(s -> s.setCreatedAtDateTime(createdAt))
+              .with(s -> s.setAverage(average))
+              .with(
+                  s ->
+                      s.setMovingAverage(
+                          window.stream().mapToDouble(Double::doubleValue).average().orElse(0)))
+              .build();
+      voting.setStats(votingStatsRepository.save(stats));
+      groupRepository.updateLastVoting(group.getId(), voting.getId());
+    }
+  }
+
+  private static User user(int index) {
+    return User.builder()
+        .with(u -> u.setName(String.format("Member %04d", index)))
+        .with(u -> u.setEmail(String.format("member%04d@patio.local", index)))
+        .with(u -> u.setPassword("$2a$04$invalidinvalidinvalidinvalidinvalidinvalidinvalidinval"))
+        .build();
+  }
+
+  private static Group group(int index) {
+    return Group.builder()
+        .with(g -> g.setName(String.format("Team %02d", index)))
+        .with(g -> g.setAnonymousVote(index % 2 == 1))
+        .with(g -> g.setVotingDays(List.of(DayOfWeek.values())))
+        .with(g -> g.setVotingTime(OffsetTime.of(10, 0, 0, 0, ZoneOffset.UTC)))
+        .with(g -> g.setVotingDuration(24))
+        .with(g -> g.setMemberCount(0))
+        .build();
+  }
+
+  private static Vote vote(Random random, Voting voting, User member, OffsetDateTime createdAt) {
+    var score = 1 + random.nextInt(5);
+    var comment = random.nextInt(100) < COMMENT_PERCENTAGE ? "Feeling like a " + score : null;
+    var minutes = random.nextInt(600);
+
+    return Vote.newBuilder()
+        .with(v -> v.setVoting(voting))
+        .with(v -> v.setCreatedBy(member))
+        .with(v -> v.setCreatedAtDateTime(createdAt.plusMinutes(minutes)))
+        .with(v -> v.setScore(score))
+        .with(v -> v.setComment(comment))
+        .build();
+  }
+
+  /**
+   * Gets the user repository
+   *
+   * @return the user repository
+   * @since 0.1.0
+   */
+  public InMemoryUserRepository getUserRepository() {
+    return userRepository;
+  }
+
+  /**
+   * Gets the group repository
+   *
+   * @return the group repository
+   * @since 0.1.0
+   */
+  public InMemoryGroupRepository getGroupRepository() {
+    return groupRepository;
+  }
+
+  /**
+   * Gets the membership repository
+   *
+   * @return the membership repository
+   * @since 0.1.0
+   */
+  public InMemoryUserGroupRepository getUserGroupRepository() {
+    return userGroupRepository;
+  }
+
+  /**
+   * Gets the voting repository
+   *
+   * @return the voting repository
+   * @since 0.1.0
+   */
+  public InMemoryVotingRepository getVotingRepository() {
+    return votingRepository;
+  }
+
+  /**
+   * Gets the vote repository
+   *
+   * @return the vote repository
+   * @since 0.1.0
+   */
+  public InMemoryVoteRepository getVoteRepository() {
+    return voteRepository;
+  }
+
+  /**
+   * Gets the voting statistics repository
+   *
+   * @return the voting statistics repository
+   * @since 0.1.0
+   */
+  public InMemoryVotingStatsRepository getVotingStatsRepository() {
+    return votingStatsRepository;
+  }
+}
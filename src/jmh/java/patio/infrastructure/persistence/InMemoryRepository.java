@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.PageableRepository;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps entities in memory so that benchmarks can measure the cost of the code sitting on top of
+ * the repositories without the database. Subclasses implement the queries of their repository
+ * interfaces over {@link #stream()} and may keep their own indexes up to date by overriding {@link
+ * #onSave(Object)} and {@link #onDelete(Object)}.
+ *
+ * @param <E> the type of the entity
+ * @param <I> the type of the entity's identifier
+ * @since 0.1.0
+ */
+public abstract class InMemoryRepository<E, I> implements PageableRepository<E, I> {
+
+  private final transient Map<Object, E> entities = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the identifier of the entity, assigning a new one if it doesn't have any yet
+   *
+   * @param entity the entity
+   * @return the entity's identifier
+   * @since 0.1.0
+   */
+  protected abstract I idOf(E entity);
+
+  /**
+   * Converts an identifier into the key used to store the entity. Identifiers not implementing
+   * {@link Object#equals(Object)} must be converted into a value that does
+   *
+   * @param id the entity's identifier
+   * @return the key the entity is stored with
+   * @since 0.1.0
+   */
+  protected Object keyOf(I id) {
+    return id;
+  }
+
+  /**
+   * Invoked every time an entity is saved
+   *
+   * @param entity the saved entity
+   * @since 0.1.0
+   */
+  protected void onSave(E entity) {
+    /* nothing to index by default */
+  }
+
+  /**
+   * Invoked every time an entity is removed
+   *
+   * @param entity the removed entity
+   * @since 0.1.0
+   */
+  protected void onDelete(E entity) {
+    /* nothing to index by default */
+  }
+
+  /**
+   * Streams all the stored entities
+   *
+   * @return a {@link Stream} of all the entities
+   * @since 0.1.0
+   */
+  protected Stream<E> stream() {
+    return entities.values().stream();
+  }
+
+  @Override
+  public <S extends E> S save(S entity) {
+    entities.put(keyOf(idOf(entity)), entity);
+    onSave(entity);
+    return entity;
+  }
+
+  @Override
+  public <S extends E> S update(S entity) {
+    return save(entity);
+  }
+
+  @Override
+  public <S extends E> Iterable<S> saveAll(Iterable<S> entities) {
+    entities.forEach(this::save);
+    return entities;
+  }
+
+  @Override
+  public Optional<E> findById(I id) {
+    return Optional.ofNullable(id).map(this::keyOf).map(entities::get);
+  }
+
+  @Override
+  public boolean existsById(I id) {
+    return findById(id).isPresent();
+  }
+
+  @Override
+  public Iterable<E> findAll() {
+    return List.copyOf(entities.values());
+  }
+
+  @Override
+  public Iterable<E> findAll(Sort sort) {
+    return sorted(stream(), sort).collect(Collectors.toList());
+  }
+
+  @Override
+  public Page<E> findAll(Pageable pageable) {
+    return page(sorted(stream(), pageable.getSort()), pageable);
+  }
+
+  @Override
+  public long count() {
+    return entities.size();
+  }
+
+  @Override
+  public void deleteById(I id) {
+    findById(id).ifPresent(this::delete);
+  }
+
+  @Override
+  public void delete(E entity) {
+    Optional.ofNullable(entities.remove(keyOf(idOf(entity)))).ifPresent(this::onDelete);
+  }
+
+  @Override
+  public void deleteAll(Iterable<? extends E> entities) {
+    entities.forEach(this::delete);
+  }
+
+  @Override
+  public void deleteAll() {
+    List.copyOf(entities.values()).forEach(this::delete);
+  }
+
+  /**
+   * Sorts the elements by the properties of the {@link Sort}, reading them through their getters.
+   * Nested properties are separated by dots and null values go last.
+   *
+   * @param <T> the type of the elements
+   * @param elements the elements to sort
+   * @param sort the properties to sort by
+   * @return the sorted elements
+   * @since 0.1.0
+   */
+  protected static <T> Stream<T> sorted(Stream<T> elements, Sort sort) {
+    Comparator<T> comparator = (left, right) -> 0;
+    for (Sort.Order order : sort.getOrderBy()) {
+      Comparator<T> byProperty =
+          Comparator.comparing(
+              element -> propertyOf(element, order),
+              Comparator.nullsLast(Comparator.naturalOrder()));
+      comparator =
+          comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+    }
+
+    return sort.isSorted() ? elements.sorted(comparator) : elements;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparable propertyOf(Object element, Sort.Order order) {
+    Object value = element;
+    for (String property : order.getProperty().split("\\.")) {
+      if (value == null) {
+        return null;
+      }
+      value = getProperty(value, property);
+    }
+
+    return order.isIgnoreCase() && value instanceof String
+        ? ((String) value).toLowerCase(Locale.ROOT)
+        : (Comparable) value;
+  }
+
+  private static Object getProperty(Object bean, String property) {
+    String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    try {
+      return findGetter(bean.getClass(), suffix).invoke(bean);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("can't read " + property + " of " + bean, e);
+    }
+  }
+
+  private static Method findGetter(Class<?> type, String suffix) throws NoSuchMethodException {
+    try {
+      return type.getMethod("get" + suffix);
+    } catch (NoSuchMethodException e) {
+      return type.getMethod("is" + suffix);
+    }
+  }
+
+  /**
+   * Gets the page of the stream of entities described by the {@link Pageable}
+   *
+   * @param <T> the type of the elements
+   * @param elements all the elements, already sorted
+   * @param pageable page requested
+   * @return the requested page
+   * @since 0.1.0
+   */
+  protected static <T> Page<T> page(Stream<T> elements, Pageable pageable) {
+    List<T> all = elements.collect(Collectors.toList());
+    List<T> content =
+        all.stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getSize() < 0 ? all.size() : pageable.getSize())
+            .collect(Collectors.toList());
+
+    return Page.of(content, pageable, all.size());
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares inserting votes with random ids against inserting them with {@link
+ * TimeOrderedUuidGenerator} ids. Every invocation inserts the votes of a new voting, as it happens
+ * during a voting burst, into a table already holding half a million votes. The size of the primary
+ * key and voting foreign key indexes is logged at the end of every trial.
+ *
+ * <p>It requires Docker, the database is started by testcontainers
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TimeOrderedUuidBenchmark {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimeOrderedUuidBenchmark.class);
+  private static final String URL = "jdbc:tc:postgresql:10-alpine://localhost/patio";
+  private static final int VOTES_PER_VOTING = 500;
+  private static final int PREFILLED_VOTINGS = 1_000;
+  private static final int MEMBERS = 30;
+
+  @Param({"random", "time-ordered"})
+  private String ids;
+
+  private Connection connection;
+  private Supplier<UUID> generator;
+  private UUID[] members;
+
+  /**
+   * Creates the votes table and fills it with the votes of previous votings
+   *
+   * @throws SQLException if the table can't be created
+   * @since 0.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    generator = "random".equals(ids) ? UUID::randomUUID : TimeOrderedUuidGenerator::next;
+    members = Stream.generate(generator).limit(MEMBERS).toArray(UUID[]::new);
+    connection = DriverManager.getConnection(URL, "patio", "patio");
+    connection.setAutoCommit(false);
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS vote_ids");
+      statement.execute(
+          "CREATE TABLE vote_ids (id UUID PRIMARY KEY, voting_id UUID NOT NULL, "
+              + "created_by UUID NOT NULL, created_at timestamp with time zone NOT NULL, "
+              + "score int NOT NULL)");
+      statement.execute("CREATE INDEX vote_ids_voting_id_idx ON vote_ids (voting_id)");
+    }
+    connection.commit();
+
+    for (int i = 0; i < PREFILLED_VOTINGS; i++) {
+      insertVoting();
+    }
+  }
+
+  /**
+   * Logs the size of the indexes and drops the votes table
+   *
+   * @throws SQLException if the table can't be dropped
+   * @since 0.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet sizes =
+            statement.executeQuery(
+                "SELECT pg_size_pretty(pg_relation_size('vote_ids_pkey')), "
+                    + "pg_size_pretty(pg_relation_size('vote_ids_voting_id_idx')), "
+                    + "(SELECT count(*) FROM vote_ids)")) {
+      sizes.next();
+      LOG.info(
+          "{} ids, {} votes: primary key index {}, voting_id index {}",
+          ids,
+          sizes.getLong(3),
+          sizes.getString(1),
+          sizes.getString(2));
+
+      statement.execute("DROP TABLE vote_ids");
+    }
+    connection.commit();
+    connection.close();
+  }
+
+  /**
+   * Inserts the votes of a new voting in a single transaction
+   *
+   * @throws SQLException if the votes can't be inserted
+   * @since 0.1.0
+   */
+  @Benchmark
+  public void insertVoting() throws SQLException {
+    UUID votingId = generator.get();
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+
+    try (PreparedStatement insert =
+        connection.prepareStatement(
+            "INSERT INTO vote_ids (id, voting_id, created_by, created_at, score) "
+                + "VALUES (?, ?, ?, ?, ?)")) {
+      for (int i = 0; i < VOTES_PER_VOTING; i++) {
+        insert.setObject(1, generator.get());
+        insert.setObject(2, votingId);
+        insert.setObject(3, members[i % MEMBERS]);
+        insert.setTimestamp(4, now);
+        insert.setInt(5, ThreadLocalRandom.current().nextInt(1, 6));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+    connection.commit();
+  }
+}
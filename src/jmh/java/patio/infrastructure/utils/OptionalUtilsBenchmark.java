@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.utils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link OptionalUtils#combine(Optional, Optional)} against nesting {@link
+ * Optional#flatMap} calls, both when both values are present and when one of them is missing.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptionalUtilsBenchmark {
+
+  @Param({"true", "false"})
+  private boolean rightPresent;
+
+  private Optional<String> left;
+  private Optional<Integer> right;
+
+  /**
+   * Creates the optional values to combine
+   *
+   * @since 0.1.0
+   */
+  @Setup
+  public void setUp() {
+    left = Optional.of("voting");
+    right = rightPresent ? Optional.of(42) : Optional.empty();
+  }
+
+  /**
+   * Combines both values with {@link OptionalUtils#combine(Optional, Optional)}
+   *
+   * @return the combined value if both are present
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Optional<String> combine() {
+    return OptionalUtils.combine(left, right).into((l, r) -> l + r);
+  }
+
+  /**
+   * Combines both values with nested {@link Optional#flatMap} calls
+   *
+   * @return the combined value if both are present
+   * @since 0.1.0
+   */
+  @Benchmark
+  public Optional<String> flatMap() {
+    return left.flatMap(l -> right.map(r -> l + r));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of hashing and verifying passwords for different BCrypt costs. Useful to pick
+ * the <b>crypto.bcrypt.cost</b> and <b>crypto.bcrypt.threads</b> values for a given machine.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+  private static final String PASSWORD = "johnycashpassword";
+
+  @Param({"4", "8", "10", "12"})
+  private int cost;
+
+  private PasswordHasher hasher;
+  private String hashed;
+
+  /**
+   * Creates the hasher and a hash to verify against
+   *
+   * @since 0.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    hasher = new PasswordHasher(cost, 1, 16);
+    hashed = hasher.hash(PASSWORD);
+  }
+
+  /**
+   * Stops the hashing pool
+   *
+   * @since 0.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    hasher.close();
+  }
+
+  /**
+   * Hashes a new password, as done when changing the password
+   *
+   * @return the hashed password
+   * @since 0.1.0
+   */
+  @Benchmark
+  public String hash() {
+    return hasher.hash(PASSWORD);
+  }
+
+  /**
+   * Verifies a password, as done on every login
+   *
+   * @return whether the password matches
+   * @since 0.1.0
+   */
+  @Benchmark
+  public boolean verify() {
+    return hasher.verify(PASSWORD, hashed);
+  }
+}
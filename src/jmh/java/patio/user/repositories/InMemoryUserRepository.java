@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.user.repositories;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import patio.group.domain.Group;
+import patio.group.domain.UserGroup;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.infrastructure.persistence.InMemoryRepository;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
+import patio.user.domain.User;
+
+/**
+ * In memory implementation of {@link UserRepository}
+ *
+ * @since 0.1.0
+ */
+public class InMemoryUserRepository extends InMemoryRepository<User, UUID>
+    implements UserRepository {
+
+  private final transient InMemoryDatabase database;
+  private final transient Map<String, User> byEmail = new ConcurrentHashMap<>();
+  private final transient Map<UUID, UUID> favouriteGroups = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes the repository
+   *
+   * @param database the database the repository belongs to
+   * @since 0.1.0
+   */
+  public InMemoryUserRepository(InMemoryDatabase database) {
+    this.database = database;
+  }
+
+  @Override
+  protected UUID idOf(User user) {
+    if (user.getId() == null) {
+      user.setId(TimeOrderedUuidGenerator.next());
+    }
+    return user.getId();
+  }
+
+  @Override
+  protected void onSave(User user) {
+    Optional.ofNullable(user.getEmail()).ifPresent(email -> byEmail.put(email, user));
+  }
+
+  @Override
+  protected void onDelete(User user) {
+    Optional.ofNullable(user.getEmail()).ifPresent(byEmail::remove);
+    favouriteGroups.remove(user.getId());
+  }
+
+  @Override
+  public List<User> findAllByIdInList(List<UUID> ids) {
+    return ids.stream().map(this::findById).flatMap(Optional::stream).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<User> findAllByEmailInList(List<String> emails) {
+    return emails.stream()
+        .map(byEmail::get)
+        .filter(user -> user != null)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Iterable<User> findAllByGroup(Group group) {
+    return database
+        .getUserGroupRepository()
+        .findAllByGroupId(group.getId())
+        .map(UserGroup::getUser)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<User> findAllByGroupAfter(
+      UUID groupId, String namePrefix, String afterName, UUID afterId, int limit) {
+    var prefix = Optional.ofNullable(namePrefix).map(p -> p.toLowerCase(Locale.ROOT)).orElse("");
+
+    return database
+        .getUserGroupRepository()
+        .findAllByGroupId(groupId)
+        .map(UserGroup::getUser)
+        .filter(user -> user.getName().toLowerCase(Locale.ROOT).startsWith(prefix))
+        .filter(user -> isAfter(user, afterName, afterId))
+        .sorted(Comparator.comparing(User::getName).thenComparing(User::getId))
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  private static boolean isAfter(User user, String afterName, UUID afterId) {
+    if (afterName == null) {
+      return true;
+    }
+    int byName = user.getName().compareTo(afterName);
+    return byName > 0 || byName == 0 && user.getId().compareTo(afterId) > 0;
+  }
+
+  @Override
+  public Optional<User> findByEmailOrCreate(User user) {
+    return Optional.ofNullable(user.getEmail())
+        .flatMap(this::findByEmail)
+        .or(() -> Optional.of(save(user)));
+  }
+
+  @Override
+  public Optional<User> findByEmail(String email) {
+    return Optional.ofNullable(email).map(byEmail::get);
+  }
+
+  @Override
+  public void updateFavouriteGroup(UUID userId, UUID groupId) {
+    favouriteGroups.put(userId, groupId);
+  }
+
+  @Override
+  public void updateFavouriteGroupWhereMissing(UUID groupId) {
+    database
+        .getUserGroupRepository()
+        .findAllByGroupId(groupId)
+        .forEach(ug -> favouriteGroups.putIfAbsent(ug.getUser().getId(), groupId));
+  }
+
+  @Override
+  public void removeFavouriteGroup(UUID userId, UUID groupId) {
+    favouriteGroups.remove(userId, groupId);
+  }
+
+  /**
+   * Gets the id of the favourite group of a user
+   *
+   * @param userId the user's id
+   * @return the id of the user's favourite group if any
+   * @since 0.1.0
+   */
+  public Optional<UUID> findFavouriteGroupId(UUID userId) {
+    return Optional.ofNullable(userId).map(favouriteGroups::get);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.repositories;
+
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import patio.group.domain.Group;
+import patio.infrastructure.persistence.InMemoryRepository;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
+import patio.user.domain.User;
+import patio.voting.domain.Vote;
+import patio.voting.domain.Voting;
+
+/**
+ * In memory implementation of {@link VoteRepository}
+ *
+ * @since 0.1.0
+ */
+public class InMemoryVoteRepository extends InMemoryRepository<Vote, UUID>
+    implements VoteRepository {
+
+  private final transient Map<UUID, Set<Vote>> byVoting = new ConcurrentHashMap<>();
+
+  @Override
+  protected UUID idOf(Vote vote) {
+    if (vote.getId() == null) {
+      vote.setId(TimeOrderedUuidGenerator.next());
+    }
+    return vote.getId();
+  }
+
+  @Override
+  protected void onSave(Vote vote) {
+    if (vote.getCreatedAtDateTime() == null) {
+      vote.setCreatedAtDateTime(OffsetDateTime.now());
+    }
+    byVoting
+        .computeIfAbsent(vote.getVoting().getId(), id -> ConcurrentHashMap.newKeySet())
+        .add(vote);
+  }
+
+  @Override
+  protected void onDelete(Vote vote) {
+    Optional.ofNullable(byVoting.get(vote.getVoting().getId()))
+        .ifPresent(votes -> votes.remove(vote));
+  }
+
+  @Override
+  public Double findAvgScoreByVoting(Voting voting) {
+    var average = findAllByVotingId(voting.getId()).mapToInt(Vote::getScore).average();
+    return average.isPresent() ? average.getAsDouble() : null;
+  }
+
+  @Override
+  public Optional<Vote> findByCreatedByAndVoting(User createdBy, Voting voting) {
+    return findAllByVotingId(voting.getId())
+        .filter(vote -> vote.getCreatedBy() != null)
+        .filter(vote -> vote.getCreatedBy().getId().equals(createdBy.getId()))
+        .findFirst();
+  }
+
+  @Override
+  public Stream<Vote> findAllByUserAndGroupAndCreatedAtBetween(
+      User user, Group group, OffsetDateTime fromDate, OffsetDateTime toDate) {
+    return stream()
+        .filter(vote -> vote.getCreatedBy() != null)
+        .filter(vote -> vote.getCreatedBy().getId().equals(user.getId()))
+        .filter(vote -> vote.getVoting().getGroup().getId().equals(group.getId()))
+        .filter(vote -> !vote.getCreatedAtDateTime().isBefore(fromDate))
+        .filter(vote -> !vote.getCreatedAtDateTime().isAfter(toDate))
+        .filter(vote -> !vote.getVoting().getCreatedAtDateTime().isAfter(toDate));
+  }
+
+  @Override
+  public Page<Vote> findByVotingOrderByCreatedAtDateTimeDesc(Voting voting, Pageable pageable) {
+    return page(
+        findAllByVotingId(voting.getId())
+            .sorted(Comparator.comparing(Vote::getCreatedAtDateTime).reversed()),
+        pageable);
+  }
+
+  @Override
+  public Long getMaxExpectedVoteCountByVoting(Voting voting) {
+    return voting.getGroup().getMemberCount().longValue();
+  }
+
+  @Override
+  public Long getVoteCountByVoting(Voting voting) {
+    return findAllByVotingId(voting.getId()).count();
+  }
+
+  /**
+   * Streams the votes of a given voting
+   *
+   * @param votingId the voting's id
+   * @return the votes of the voting
+   * @since 0.1.0
+   */
+  public Stream<Vote> findAllByVotingId(UUID votingId) {
+    return byVoting.getOrDefault(votingId, Set.of()).stream();
+  }
+}
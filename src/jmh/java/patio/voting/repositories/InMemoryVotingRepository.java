@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.repositories;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import patio.group.domain.Group;
+import patio.infrastructure.persistence.InMemoryDatabase;
+import patio.infrastructure.persistence.InMemoryRepository;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
+import patio.user.domain.User;
+import patio.voting.domain.Vote;
+import patio.voting.domain.VoteByMoodDTO;
+import patio.voting.domain.Voting;
+
+/**
+ * In memory implementation of {@link VotingRepository}. Partition maintenance does nothing as there
+ * are no partitions in memory.
+ *
+ * @since 0.1.0
+ */
+public class InMemoryVotingRepository extends InMemoryRepository<Voting, UUID>
+    implements VotingRepository {
+
+  private final transient InMemoryDatabase database;
+  private final transient Map<UUID, Set<Voting>> byGroup = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes the repository
+   *
+   * @param database the database the repository belongs to
+   * @since 0.1.0
+   */
+  public InMemoryVotingRepository(InMemoryDatabase database) {
+    this.database = database;
+  }
+
+  @Override
+  protected UUID idOf(Voting voting) {
+    if (voting.getId() == null) {
+      voting.setId(TimeOrderedUuidGenerator.next());
+    }
+    return voting.getId();
+  }
+
+  @Override
+  protected void onSave(Voting voting) {
+    if (voting.getCreatedAtDateTime() == null) {
+      voting.setCreatedAtDateTime(OffsetDateTime.now());
+    }
+    byGroup
+        .computeIfAbsent(voting.getGroup().getId(), id -> ConcurrentHashMap.newKeySet())
+        .add(voting);
+  }
+
+  @Override
+  protected void onDelete(Voting voting) {
+    Optional.ofNullable(byGroup.get(voting.getGroup().getId()))
+        .ifPresent(votings -> votings.remove(voting));
+  }
+
+  @Override
+  public Optional<Voting> findByIdAndVotingUser(UUID votingId, User user) {
+    return findById(votingId)
+        .filter(
+            voting ->
+                database
+                    .getUserGroupRepository()
+                    .findAllByGroupId(voting.getGroup().getId())
+                    .anyMatch(ug -> ug.getUser().getId().equals(user.getId())));
+  }
+
+  @Override
+  public Stream<Voting> findAllByGroupAndCreatedAtDateTimeBetween(
+      Group group, OffsetDateTime startDate, OffsetDateTime endDate) {
+    return byGroup(group)
+        .filter(voting -> !voting.getCreatedAtDateTime().isBefore(startDate))
+        .filter(voting -> !voting.getCreatedAtDateTime().isAfter(endDate));
+  }
+
+  @Override
+  public Integer findVoteAverage(Voting voting) {
+    return (int) votes(voting).mapToInt(Vote::getScore).average().orElse(0);
+  }
+
+  @Override
+  public List<Voting> findAllByIdInList(List<UUID> ids) {
+    return ids.stream().map(this::findById).flatMap(Optional::stream).collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Voting> findByGroupOrderByCreatedAtDateTimeDesc(Group group) {
+    return byGroup(group).max(Comparator.comparing(Voting::getCreatedAtDateTime));
+  }
+
+  @Override
+  public List<VoteByMoodDTO> findAllVotesByMood(Voting voting) {
+    return votes(voting).collect(Collectors.groupingBy(Vote::getScore, Collectors.counting()))
+        .entrySet().stream()
+        .sorted(Map.Entry.<Integer, Long>comparingByKey().reversed())
+        .map(entry -> new VoteByMoodDTO(entry.getValue(), entry.getKey()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Long> getAvgVoteCountByVoting(Voting voting) {
+    var average =
+        byGroup(voting.getGroup())
+            .mapToLong(each -> votes(each).count())
+            .filter(count -> count > 0)
+            .average();
+
+    return average.isPresent() ? Optional.of(Math.round(average.getAsDouble())) : Optional.empty();
+  }
+
+  @Override
+  public Optional<Voting> getPreviousVotingByGroupAndDate(Group group, OffsetDateTime date) {
+    return byGroup(group)
+        .filter(voting -> voting.getCreatedAtDateTime().isBefore(date))
+        .max(Comparator.comparing(Voting::getCreatedAtDateTime));
+  }
+
+  @Override
+  public Optional<Voting> getNextVotingByGroupAndDate(Group group, OffsetDateTime date) {
+    return byGroup(group)
+        .filter(voting -> voting.getCreatedAtDateTime().isAfter(date))
+        .min(Comparator.comparing(Voting::getCreatedAtDateTime));
+  }
+
+  @Override
+  public void createMonthlyPartitions(LocalDate fromMonth, LocalDate toMonth) {
+    /* there are no partitions in memory */
+  }
+
+  @Override
+  public List<String> archivePartitionsBefore(LocalDate before) {
+    return List.of();
+  }
+
+  private Stream<Voting> byGroup(Group group) {
+    return byGroup.getOrDefault(group.getId(), Set.of()).stream();
+  }
+
+  private Stream<Vote> votes(Voting voting) {
+    return database.getVoteRepository().findAllByVotingId(voting.getId());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import patio.common.domain.utils.OffsetPaginationRequest;
+import patio.common.domain.utils.OffsetPaginationResult;
+import patio.group.domain.Group;
+import patio.infrastructure.persistence.InMemoryRepository;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
+import patio.voting.domain.VotingStats;
+
+/**
+ * In memory implementation of {@link VotingStatsRepository}
+ *
+ * @since 0.1.0
+ */
+public class InMemoryVotingStatsRepository extends InMemoryRepository<VotingStats, UUID>
+    implements VotingStatsRepository {
+
+  @Override
+  protected UUID idOf(VotingStats stats) {
+    if (stats.getId() == null) {
+      stats.setId(TimeOrderedUuidGenerator.next());
+    }
+    return stats.getId();
+  }
+
+  @Override
+  protected void onSave(VotingStats stats) {
+    if (stats.getCreatedAtDateTime() == null) {
+      stats.setCreatedAtDateTime(OffsetDateTime.now());
+    }
+  }
+
+  @Override
+  public Optional<Double> findMovingAverageByGroup(Group group, OffsetDateTime interval) {
+    var average =
+        byGroup(group)
+            .filter(stats -> stats.getVoting().getCreatedAtDateTime().isAfter(interval))
+            .filter(stats -> stats.getAverage() != null)
+            .mapToDouble(VotingStats::getAverage)
+            .average();
+
+    return average.isPresent() ? Optional.of(average.getAsDouble()) : Optional.empty();
+  }
+
+  @Override
+  public OffsetPaginationResult<VotingStats> findStatsByGroup(
+      Group group, OffsetPaginationRequest paginationRequest) {
+    List<VotingStats> all =
+        byGroup(group)
+            .sorted(Comparator.comparing(VotingStats::getCreatedAtDateTime).reversed())
+            .collect(Collectors.toList());
+    List<VotingStats> data =
+        all.stream()
+            .skip(paginationRequest.getOffset())
+            .limit(paginationRequest.getMax())
+            .collect(Collectors.toList());
+
+    return new OffsetPaginationResult<>(all.size(), paginationRequest.getOffset(), data);
+  }
+
+  private Stream<VotingStats> byGroup(Group group) {
+    return stream()
+        .filter(stats -> stats.getVoting() != null)
+        .filter(stats -> stats.getVoting().getGroup().getId().equals(group.getId()));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.services.internal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import patio.voting.domain.VoteByMoodDTO;
+
+/**
+ * Measures how long it takes to fill the missing moods of a voting's stats, executed every time the
+ * stats of a voting are requested. The number of moods coming from the database varies from none to
+ * all of them.
+ *
+ * @since 0.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompleteListBenchmark {
+
+  @Param({"0", "3", "5"})
+  private int moods;
+
+  private List<VoteByMoodDTO> fromDatabase;
+
+  /**
+   * Creates the vote counts by mood as returned by the database
+   *
+   * @since 0.1.0
+   */
+  @Setup
+  public void setUp() {
+    fromDatabase =
+        IntStream.iterate(5, mood -> mood - 1)
+            .limit(moods)
+            .mapToObj(mood -> new VoteByMoodDTO(mood * 2L, mood))
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Completes the list of votes by mood
+   *
+   * @return a list with all the moods
+   * @since 0.1.0
+   */
+  @Benchmark
+  public List<VoteByMoodDTO> completeList() {
+    return DefaultVotingService.completeList(fromDatabase);
+  }
+}
@@ -0,0 +1,26 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+-- A group with 30 members who voted every day during the last 90 days
+INSERT INTO users (id, name, email, password) SELECT md5('user' || i)::uuid, 'User ' || i, 'user' || i || '@email.com', 'password' FROM generate_series(1, 30) AS i;
+INSERT INTO groups (id, name, anonymous_vote, voting_time, voting_days, voting_duration) VALUES ('d64db962-3455-11e9-b210-d663bd873d93', 'Fantastic Four', false, time with time zone '00:00:00.146512+01:00', '{"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"}', 24);
+INSERT INTO users_groups (group_id, user_id, is_admin) SELECT 'd64db962-3455-11e9-b210-d663bd873d93', md5('user' || i)::uuid, i = 1 FROM generate_series(1, 30) AS i;
+INSERT INTO voting (id, group_id, voting_stats_id, created_at, created_by, expired) SELECT md5('voting' || i)::uuid, 'd64db962-3455-11e9-b210-d663bd873d93', md5('stats' || i)::uuid, now() - i * interval '1 day', md5('user1')::uuid, i > 1 FROM generate_series(1, 90) AS i;
+INSERT INTO voting_stats (id, voting_id, created_at, average, moving_average) SELECT md5('stats' || i)::uuid, md5('voting' || i)::uuid, now() - i * interval '1 day', 3, 3 FROM generate_series(1, 90) AS i;
+INSERT INTO vote (id, voting_id, created_by, created_at, score) SELECT md5('vote' || i || '-' || j)::uuid, md5('voting' || i)::uuid, md5('user' || j)::uuid, now() - i * interval '1 day', 1 + (i + j) % 5 FROM generate_series(1, 90) AS i, generate_series(1, 30) AS j;
+UPDATE groups SET last_voting_id = md5('voting1')::uuid;
+UPDATE users SET favourite_group_id = 'd64db962-3455-11e9-b210-d663bd873d93';
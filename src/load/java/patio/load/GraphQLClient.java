@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends GraphQL operations to the <b>/graphql</b> endpoint without blocking, so that a handful of
+ * threads can keep thousands of requests in flight
+ *
+ * @since 0.1.0
+ */
+public class GraphQLClient {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final transient HttpClient client;
+  private final transient URI uri;
+  private final transient Duration timeout;
+
+  /**
+   * Initializes the client
+   *
+   * @param uri the url of the GraphQL endpoint
+   * @param timeout maximum time to wait for a response
+   * @since 0.1.0
+   */
+  public GraphQLClient(URI uri, Duration timeout) {
+    this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    this.uri = uri;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Executes an operation
+   *
+   * @param token authentication token of the user executing the operation, null if anonymous
+   * @param document the operation document
+   * @param variables the operation variables
+   * @return the <b>data</b> of the response. It completes exceptionally with {@link
+   *     GraphQLException} if the response has errors or an unexpected status
+   * @since 0.1.0
+   */
+  public CompletableFuture<JsonNode> execute(
+      String token, String document, Map<String, Object> variables) {
+    var builder =
+        HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body(document, variables)));
+    Optional.ofNullable(token).ifPresent(value -> builder.header("Authorization", "JWT " + value));
+
+    return client
+        .sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+        .thenApply(GraphQLClient::data);
+  }
+
+  /**
+   * Reads a GraphQL document bundled with the load generator
+   *
+   * @param name name of the document without extension
+   * @return the document
+   * @since 0.1.0
+   */
+  public static String document(String name) {
+    try (InputStream stream = GraphQLClient.class.getResourceAsStream(name + ".graphql")) {
+      return new String(stream.readAllBytes(), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] body(String document, Map<String, Object> variables) {
+    try {
+      return MAPPER.writeValueAsBytes(Map.of("query", document, "variables", variables));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static JsonNode data(HttpResponse<byte[]> response) {
+    if (response.statusCode() != 200) {
+      throw new GraphQLException("HTTP " + response.statusCode());
+    }
+
+    JsonNode root;
+    try {
+      root = MAPPER.readTree(response.body());
+    } catch (IOException e) {
+      throw new GraphQLException("invalid response: " + e.getMessage());
+    }
+
+    var errors = root.path("errors");
+    if (errors.size() > 0) {
+      var error = errors.get(0);
+      throw new GraphQLException(
+          error.path("message").asText("unknown error"),
+          error.path("extensions").path("code").textValue());
+    }
+    return root.path("data");
+  }
+
+  /**
+   * Raised when an operation doesn't succeed
+   *
+   * @since 0.1.0
+   */
+  public static class GraphQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String code;
+
+    /**
+     * Initializes the exception
+     *
+     * @param message what went wrong
+     * @since 0.1.0
+     */
+    public GraphQLException(String message) {
+      this(message, null);
+    }
+
+    /**
+     * Initializes the exception with the code of the first GraphQL error
+     *
+     * @param message what went wrong
+     * @param code the code of the error, null if it has none
+     * @since 0.1.0
+     */
+    public GraphQLException(String message, String code) {
+      super(message);
+      this.code = code;
+    }
+
+    /**
+     * Returns the code of the first GraphQL error of the response
+     *
+     * @return the error code or null if the error has none
+     * @since 0.1.0
+     */
+    public String getCode() {
+      return code;
+    }
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.dataset.Dataset;
+
+/**
+ * Drives the <b>/graphql</b> endpoint of a running instance loaded with the synthetic data set.
+ * Every virtual user logs in as one of the users of the data set and then the following workloads
+ * run at the same time. All of them log in from the same address, so the instance must run with
+ * login throttling disabled (PATIO_THROTTLE_ENABLED=false), the generator stops as soon as a login
+ * is throttled.
+ *
+ * <ul>
+ *   <li><b>login</b>: users logging in again
+ *   <li><b>dashboard</b>: last voting of the favourite group, what the front page shows
+ *   <li><b>stats</b>: statistics of the favourite group and the votes of its last voting
+ *   <li><b>vote</b>: every virtual user voting once right after the start, the spike seen when a
+ *       voting opens
+ * </ul>
+ *
+ * <p>Arguments are passed as <b>name=value</b> pairs:
+ *
+ * <ul>
+ *   <li><b>url</b>: GraphQL endpoint (http://localhost:8080/graphql)
+ *   <li><b>users</b>: number of virtual users, the first users of the data set (500)
+ *   <li><b>password</b>: password of the users of the data set (patio)
+ *   <li><b>duration</b>: seconds the login, dashboard and stats workloads last (300)
+ *   <li><b>login</b>, <b>dashboard</b>, <b>stats</b>: requests per second of each workload (2, 50
+ *       and 10)
+ *   <li><b>storm</b>: seconds over which all virtual users vote, 0 to disable voting (60)
+ *   <li><b>timeout</b>: seconds to wait for a response (30)
+ *   <li><b>seed</b>: seed used to plan arrivals and pick users (42)
+ *   <li><b>report</b>: directory where the full latency distributions are written
+ *       (build/reports/load)
+ * </ul>
+ *
+ * @since 0.1.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class LoadGenerator {
+  private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+  private static final int LOGIN_CONCURRENCY = 16;
+  private static final String TOO_MANY_REQUESTS = "API_ERRORS.TOO_MANY_REQUESTS";
+  private static final double MICROS_PER_MILLI = 1000.0;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private static final String LOGIN = GraphQLClient.document("login");
+  private static final String PROFILE = GraphQLClient.document("profile");
+  private static final String DASHBOARD = GraphQLClient.document("dashboard");
+  private static final String STATS = GraphQLClient.document("stats");
+  private static final String VOTE = GraphQLClient.document("vote");
+
+  private LoadGenerator() {
+    /* empty */
+  }
+
+  /**
+   * Runs the workloads and reports latencies and errors of every operation
+   *
+   * @param args <b>name=value</b> pairs overriding the default settings
+   * @throws IOException if the report can't be written
+   * @since 0.1.0
+   */
+  public static void main(String[] args) throws IOException {
+    var settings = parse(args);
+    var timeout = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("timeout", "30")));
+    var client =
+        new GraphQLClient(
+            URI.create(settings.getOrDefault("url", "http://localhost:8080/graphql")), timeout);
+    var password = settings.getOrDefault("password", "patio");
+    var random = new Random(Long.parseLong(settings.getOrDefault("seed", "42")));
+
+    var users = login(client, Integer.parseInt(settings.getOrDefault("users", "500")), password);
+    var members = users.stream().filter(VirtualUser::isMember).collect(Collectors.toList());
+    LOG.info("{} virtual users logged in, {} of them with a voting", users.size(), members.size());
+    if (members.isEmpty()) {
+      throw new IllegalStateException("no virtual user could log in, is the data set loaded?");
+    }
+
+    var duration = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("duration", "300")));
+    var storm = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("storm", "60")));
+    var workloads = new ArrayList<Workload>();
+
+    workloads.add(
+        new Workload(
+            new OperationStats("login"),
+            Workload.poisson(random, rate(settings, "login", "2"), duration),
+            i -> {
+              var user = users.get(random(random, users.size()));
+              return client.execute(null, LOGIN, credentials(user.getEmail(), password));
+            }));
+    workloads.add(
+        new Workload(
+            new OperationStats("dashboard"),
+            Workload.poisson(random, rate(settings, "dashboard", "50"), duration),
+            i -> {
+              var user = members.get(random(random, members.size()));
+              return client.execute(
+                  user.getToken(), DASHBOARD, Map.of("groupId", user.getGroupId()));
+            }));
+    workloads.add(
+        new Workload(
+            new OperationStats("stats"),
+            Workload.poisson(random, rate(settings, "stats", "10"), duration),
+            i -> {
+              var user = members.get(random(random, members.size()));
+              return client.execute(
+                  user.getToken(),
+                  STATS,
+                  Map.of("groupId", user.getGroupId(), "votingId", user.getVotingId()));
+            }));
+    if (!storm.isZero()) {
+      workloads.add(
+          new Workload(
+              new OperationStats("vote"),
+              Workload.burst(random, members.size(), storm),
+              i -> {
+                var user = members.get(i);
+                return client.execute(
+                    user.getToken(),
+                    VOTE,
+                    Map.of("votingId", user.getVotingId(), "score", 1 + random(random, 5)));
+              }));
+    }
+
+    for (int i = 0; i < workloads.size(); i++) {
+      new Thread(workloads.get(i), "load-" + i).start();
+    }
+    var stats =
+        workloads.stream()
+            .map(Workload::getCompletion)
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+
+    report(stats, Path.of(settings.getOrDefault("report", "build/reports/load")));
+  }
+
+  private static Map<String, String> parse(String... args) {
+    Map<String, String> settings = new HashMap<>();
+    for (String arg : args) {
+      var separator = arg.indexOf('=');
+      if (separator < 1) {
+        throw new IllegalArgumentException("arguments must be name=value pairs: " + arg);
+      }
+      settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+    }
+    return settings;
+  }
+
+  private static double rate(Map<String, String> settings, String name, String defaultValue) {
+    return Double.parseDouble(settings.getOrDefault(name, defaultValue));
+  }
+
+  private static int random(Random random, int bound) {
+    synchronized (random) {
+      return random.nextInt(bound);
+    }
+  }
+
+  private static Map<String, Object> credentials(String email, String password) {
+    return Map.of("email", email, "password", password);
+  }
+
+  /** Logs in a few users at a time, users that can't log in are left out */
+  private static List<VirtualUser> login(GraphQLClient client, int count, String password) {
+    var users = new ArrayList<VirtualUser>();
+
+    for (int from = 0; from < count; from += LOGIN_CONCURRENCY) {
+      var batch = new ArrayList<CompletableFuture<Optional<VirtualUser>>>();
+      for (int user = from; user < Math.min(count, from + LOGIN_CONCURRENCY); user++) {
+        batch.add(login(client, Dataset.email(user), password));
+      }
+      batch.stream().map(CompletableFuture::join).flatMap(Optional::stream).forEach(users::add);
+    }
+
+    return users;
+  }
+
+  private static CompletableFuture<Optional<VirtualUser>> login(
+      GraphQLClient client, String email, String password) {
+    return client
+        .execute(null, LOGIN, credentials(email, password))
+        .thenCompose(
+            login -> {
+              var token = login.path("login").path("tokens").path("authenticationToken").asText();
+              return client
+                  .execute(token, PROFILE, Map.of())
+                  .thenApply(profile -> toVirtualUser(email, token, profile));
+            })
+        .thenApply(Optional::of)
+        .exceptionally(
+            error -> {
+              if (isThrottled(error)) {
+                throw new IllegalStateException(
+                    "logins are throttled, run the instance with PATIO_THROTTLE_ENABLED=false");
+              }
+              LOG.warn("{} couldn't log in: {}", email, error.getMessage());
+              return Optional.empty();
+            });
+  }
+
+  private static boolean isThrottled(Throwable error) {
+    var cause = error instanceof CompletionException ? error.getCause() : error;
+    return cause instanceof GraphQLClient.GraphQLException
+        && TOO_MANY_REQUESTS.equals(((GraphQLClient.GraphQLException) cause).getCode());
+  }
+
+  private static VirtualUser toVirtualUser(String email, String token, JsonNode profile) {
+    var group = profile.path("myProfile").path("favouriteGroup");
+    var groupId = group.path("id").textValue();
+    var votingId = group.path("lastVoting").path("id").textValue();
+
+    return new VirtualUser(email, token, groupId, votingId);
+  }
+
+  private static void report(List<OperationStats> stats, Path directory) throws IOException {
+    Files.createDirectories(directory);
+    LOG.info(
+        String.format(
+            "%-10s %9s %8s %7s %9s %9s %9s %9s %9s",
+            "operation",
+            "requests",
+            "errors",
+            "error%",
+            "p50 ms",
+            "p90 ms",
+            "p99 ms",
+            "p99.9 ms",
+            "max ms"));
+
+    for (OperationStats operation : stats) {
+      var latencies = operation.getLatencies();
+      var requests = latencies.getTotalCount();
+      var line = new StringBuilder(128);
+      line.append(
+          String.format(
+              "%-10s %9d %8d %7.2f",
+              operation.getName(),
+              requests,
+              operation.getErrors(),
+              requests == 0 ? 0.0 : operation.getErrors() * 100.0 / requests));
+      for (double percentile : PERCENTILES) {
+        line.append(
+            String.format(" %9.2f", latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI));
+      }
+      line.append(String.format(" %9.2f", latencies.getMaxValue() / MICROS_PER_MILLI));
+      LOG.info(line.toString());
+
+      try (var out =
+          new PrintStream(
+              Files.newOutputStream(directory.resolve(operation.getName() + ".hgrm")),
+              false,
+              UTF_8.name())) {
+        latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+      }
+    }
+  }
+}
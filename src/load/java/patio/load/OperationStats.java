@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of one kind of operation. Latencies are kept in an HDR histogram with 3
+ * significant digits, from 1 microsecond up to a minute, so percentiles are accurate no matter how
+ * many requests are recorded.
+ *
+ * @since 0.1.0
+ */
+public class OperationStats {
+
+  private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final transient String name;
+  private final transient Recorder recorder = new Recorder(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+  private final transient Histogram histogram = new Histogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+  private final transient AtomicLong errors = new AtomicLong();
+
+  /**
+   * Initializes the statistics of an operation
+   *
+   * @param name the name of the operation
+   * @since 0.1.0
+   */
+  public OperationStats(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Records a finished request. It can be invoked from any thread
+   *
+   * @param latencyNanos time from the moment the request was meant to be sent until the response
+   *     was received
+   * @param success whether the operation succeeded or not
+   * @since 0.1.0
+   */
+  public void record(long latencyNanos, boolean success) {
+    recorder.recordValue(
+        Math.min(HIGHEST_LATENCY, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+    if (!success) {
+      errors.incrementAndGet();
+    }
+  }
+
+  /**
+   * Gets the name of the operation
+   *
+   * @return the name of the operation
+   * @since 0.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of failed requests
+   *
+   * @return the number of errors
+   * @since 0.1.0
+   */
+  public long getErrors() {
+    return errors.get();
+  }
+
+  /**
+   * Gets the latencies, in microseconds, of all the requests recorded so far
+   *
+   * @return an histogram with all the latencies
+   * @since 0.1.0
+   */
+  public synchronized Histogram getLatencies() {
+    histogram.add(recorder.getIntervalHistogram());
+    return histogram.copy();
+  }
+}
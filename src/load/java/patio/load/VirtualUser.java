@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.load;
+
+/**
+ * A user of the data set logged in by the load generator, along with the group it works with: its
+ * favourite group and the last voting of that group
+ *
+ * @since 0.1.0
+ */
+public class VirtualUser {
+
+  private final transient String email;
+  private final transient String token;
+  private final transient String groupId;
+  private final transient String votingId;
+
+  /**
+   * Initializes the user
+   *
+   * @param email the user's email
+   * @param token the user's authentication token
+   * @param groupId the user's favourite group, null if the user doesn't belong to any
+   * @param votingId the last voting of the favourite group, null if there's none
+   * @since 0.1.0
+   */
+  public VirtualUser(String email, String token, String groupId, String votingId) {
+    this.email = email;
+    this.token = token;
+    this.groupId = groupId;
+    this.votingId = votingId;
+  }
+
+  /**
+   * Gets the user's email
+   *
+   * @return the user's email
+   * @since 0.1.0
+   */
+  public String getEmail() {
+    return email;
+  }
+
+  /**
+   * Gets the user's authentication token
+   *
+   * @return the authentication token
+   * @since 0.1.0
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Gets the id of the favourite group
+   *
+   * @return the id of the group
+   * @since 0.1.0
+   */
+  public String getGroupId() {
+    return groupId;
+  }
+
+  /**
+   * Gets the id of the last voting of the favourite group
+   *
+   * @return the id of the voting
+   * @since 0.1.0
+   */
+  public String getVotingId() {
+    return votingId;
+  }
+
+  /**
+   * Whether the user has a group and a voting to work with
+   *
+   * @return true if the user can vote and browse statistics
+   * @since 0.1.0
+   */
+  public boolean isMember() {
+    return groupId != null && votingId != null;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Sends requests following an open model: every request is sent at its planned arrival time no
+ * matter how many previous requests are still waiting for a response, the way real users keep
+ * arriving when the server slows down. Latency is measured from the planned arrival time instead of
+ * the moment the request was actually sent, so a stalled generator doesn't hide server stalls.
+ *
+ * @since 0.1.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class Workload implements Runnable {
+
+  private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+  private final transient OperationStats stats;
+  private final transient long[] arrivals;
+  private final transient IntFunction<CompletionStage<?>> request;
+  private final transient AtomicInteger pending;
+  private final transient CompletableFuture<OperationStats> completion = new CompletableFuture<>();
+
+  /**
+   * Initializes the workload
+   *
+   * @param stats where to record latencies and errors
+   * @param arrivals arrival times, in nanoseconds since the workload starts, in ascending order
+   * @param request sends the request of the arrival with the given index
+   * @since 0.1.0
+   */
+  public Workload(OperationStats stats, long[] arrivals, IntFunction<CompletionStage<?>> request) {
+    this.stats = stats;
+    this.arrivals = Arrays.copyOf(arrivals, arrivals.length);
+    this.request = request;
+    this.pending = new AtomicInteger(arrivals.length + 1);
+  }
+
+  /**
+   * Arrivals of a Poisson process, the usual model of independent users arriving at a given rate
+   *
+   * @param random source of randomness
+   * @param perSecond mean number of arrivals per second
+   * @param duration how long arrivals keep coming
+   * @return arrival times in nanoseconds
+   * @since 0.1.0
+   */
+  public static long[] poisson(Random random, double perSecond, Duration duration) {
+    if (perSecond <= 0) {
+      return new long[0];
+    }
+
+    var arrivals = new long[(int) (perSecond * duration.toSeconds() * 2) + 16];
+    var count = 0;
+    var time = 0.0;
+    while (true) {
+      time += -Math.log(1 - random.nextDouble()) / perSecond;
+      if (time * NANOS_PER_SECOND >= duration.toNanos()) {
+        break;
+      }
+      if (count == arrivals.length) {
+        arrivals = Arrays.copyOf(arrivals, count * 2);
+      }
+      arrivals[count++] = (long) (time * NANOS_PER_SECOND);
+    }
+
+    return Arrays.copyOf(arrivals, count);
+  }
+
+  /**
+   * A fixed number of arrivals spread uniformly at random over a window, such as every member of a
+   * team voting right after the voting opens
+   *
+   * @param random source of randomness
+   * @param count number of arrivals
+   * @param window time the arrivals are spread over
+   * @return arrival times in nanoseconds
+   * @since 0.1.0
+   */
+  public static long[] burst(Random random, int count, Duration window) {
+    var arrivals = new long[count];
+    for (int i = 0; i < count; i++) {
+      arrivals[i] = (long) (random.nextDouble() * window.toNanos());
+    }
+    Arrays.sort(arrivals);
+    return arrivals;
+  }
+
+  @Override
+  public void run() {
+    var start = System.nanoTime();
+
+    for (int i = 0; i < arrivals.length; i++) {
+      var planned = start + arrivals[i];
+      var wait = planned - System.nanoTime();
+      while (wait > 0) {
+        LockSupport.parkNanos(wait);
+        wait = planned - System.nanoTime();
+      }
+      send(i, planned);
+    }
+
+    done();
+  }
+
+  private void send(int index, long planned) {
+    try {
+      request
+          .apply(index)
+          .whenComplete(
+              (result, error) -> {
+                stats.record(System.nanoTime() - planned, error == null);
+                done();
+              });
+    } catch (RuntimeException e) {
+      stats.record(System.nanoTime() - planned, false);
+      done();
+    }
+  }
+
+  private void done() {
+    if (pending.decrementAndGet() == 0) {
+      completion.complete(stats);
+    }
+  }
+
+  /**
+   * Completes once all requests have been sent and all responses received
+   *
+   * @return a future completed with the statistics of the workload
+   * @since 0.1.0
+   */
+  public CompletableFuture<OperationStats> getCompletion() {
+    return completion;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.common.domain.utils;
+
+import java.util.List;
+
+/**
+ * Represents the result of a cursor based pagination. Every element comes with an opaque cursor
+ * that can be used to ask for the elements following it.
+ *
+ * @param <T> the wrapped type to be paginated over
+ * @since 0.1.0
+ */
+public class CursorPaginationResult<T> {
+
+  private final List<Edge<T>> edges;
+  private final PageInfo pageInfo;
+
+  /**
+   * Inits a {@link CursorPaginationResult} with the current page elements and whether there're more
+   * elements after them
+   *
+   * @param edges elements of the current page with their cursors
+   * @param hasNextPage whether there're more elements after the last one
+   * @since 0.1.0
+   */
+  public CursorPaginationResult(List<Edge<T>> edges, boolean hasNextPage) {
+    this.edges = edges;
+    this.pageInfo =
+        new PageInfo(hasNextPage, edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor);
+  }
+
+  /**
+   * Returns the elements of the current page
+   *
+   * @return the elements with their cursors
+   * @since 0.1.0
+   */
+  public List<Edge<T>> getEdges() {
+    return edges;
+  }
+
+  /**
+   * Returns information about the current page
+   *
+   * @return an instance of {@link PageInfo}
+   * @since 0.1.0
+   */
+  public PageInfo getPageInfo() {
+    return pageInfo;
+  }
+
+  /**
+   * An element of the result with its cursor
+   *
+   * @param <T> the type of the element
+   * @since 0.1.0
+   */
+  public static class Edge<T> {
+    private final String cursor;
+    private final T node;
+
+    /**
+     * Inits the edge
+     *
+     * @param cursor cursor pointing to this element
+     * @param node the element
+     * @since 0.1.0
+     */
+    public Edge(String cursor, T node) {
+      this.cursor = cursor;
+      this.node = node;
+    }
+
+    /**
+     * Returns the cursor pointing to this element
+     *
+     * @return the cursor of the element
+     * @since 0.1.0
+     */
+    public String getCursor() {
+      return cursor;
+    }
+
+    /**
+     * Returns the element
+     *
+     * @return the element
+     * @since 0.1.0
+     */
+    public T getNode() {
+      return node;
+    }
+  }
+
+  /**
+   * Tells whether there's a next page and how to get it
+   *
+   * @since 0.1.0
+   */
+  public static class PageInfo {
+    private final boolean hasNextPage;
+    private final String endCursor;
+
+    private PageInfo(boolean hasNextPage, String endCursor) {
+      this.hasNextPage = hasNextPage;
+      this.endCursor = endCursor;
+    }
+
+    /**
+     * Returns whether there're more elements after the current page
+     *
+     * @return true if there's a next page
+     * @since 0.1.0
+     */
+    public boolean isHasNextPage() {
+      return hasNextPage;
+    }
+
+    /**
+     * Returns the cursor of the last element of the current page
+     *
+     * @return the cursor to use to get the next page or null if the page is empty
+     * @since 0.1.0
+     */
+    public String getEndCursor() {
+      return endCursor;
+    }
+  }
+}
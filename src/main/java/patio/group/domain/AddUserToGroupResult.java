@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.domain;
+
+/**
+ * Outcome of adding a single email to a group in a bulk membership import
+ *
+ * @since 0.1.0
+ */
+public class AddUserToGroupResult {
+
+  /**
+   * What happened with a given email
+   *
+   * @since 0.1.0
+   */
+  public enum Status {
+    /** The user has been added to the group */
+    ADDED,
+    /** The user already belonged to the group */
+    ALREADY_MEMBER,
+    /** There's no user registered with that email */
+    USER_NOT_FOUND
+  }
+
+  private final String email;
+  private final Status status;
+
+  /**
+   * Initializes the result of a given email
+   *
+   * @param email the email as it was sent
+   * @param status what happened with the email
+   * @since 0.1.0
+   */
+  public AddUserToGroupResult(String email, Status status) {
+    this.email = email;
+    this.status = status;
+  }
+
+  /**
+   * Gets the email
+   *
+   * @return the email as it was sent
+   * @since 0.1.0
+   */
+  public String getEmail() {
+    return email;
+  }
+
+  /**
+   * Gets what happened with the email
+   *
+   * @return an instance of {@link Status}
+   * @since 0.1.0
+   */
+  public Status getStatus() {
+    return status;
+  }
+}
@@ -23,16 +23,22 @@ import java.time.OffsetTime;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 import patio.common.domain.utils.Builder;
+import patio.infrastructure.persistence.CacheRegions;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
 
 /**
  * Represents the different groups a user could belong to
@@ -40,6 +46,8 @@ import patio.common.domain.utils.Builder;
  * @since 0.1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUPS)
 @Table(name = "groups")
 @TypeDef(name = "list-array", typeClass = ListArrayType.class)
 public final class Group {
@@ -47,7 +55,12 @@ public final class Group {
   @Column(name = "name")
   private String name;
 
-  @Id @GeneratedValue private UUID id;
+  @Id
+  @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+  @GenericGenerator(
+      name = TimeOrderedUuidGenerator.NAME,
+      strategy = TimeOrderedUuidGenerator.STRATEGY)
+  private UUID id;
 
   @Column(name = "anonymous_vote")
   private boolean anonymousVote;
@@ -62,11 +75,18 @@ public final class Group {
   private OffsetTime votingTime;
 
   @OneToMany(mappedBy = "group")
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUP_MEMBERS)
   private Set<UserGroup> users;
 
   @Column(name = "voting_duration")
   private Integer votingDuration; /* in hours */
 
+  @Column(name = "last_voting_id", insertable = false, updatable = false)
+  private UUID lastVotingId;
+
+  @Column(name = "member_count", insertable = false, updatable = false)
+  private Integer memberCount;
+
   /**
    * Creates a new {@link Group} builder
    *
@@ -202,4 +222,43 @@ public final class Group {
   public void setUsers(Set<UserGroup> users) {
     this.users = users;
   }
+
+  /**
+   * Gets the id of the last voting created for this group. It's kept by {@link
+   * patio.group.repositories.GroupRepository#updateLastVoting(UUID, UUID)} and never written when
+   * saving the group.
+   *
+   * @return the id of the last voting or null if the group has no votings yet
+   */
+  public UUID getLastVotingId() {
+    return lastVotingId;
+  }
+
+  /**
+   * Sets the id of the last voting created for this group
+   *
+   * @param lastVotingId the id of the last voting
+   */
+  public void setLastVotingId(UUID lastVotingId) {
+    this.lastVotingId = lastVotingId;
+  }
+
+  /**
+   * Gets the number of members of the group. It's kept by the database every time a member joins or
+   * leaves the group and never written when saving the group.
+   *
+   * @return the number of members of the group
+   */
+  public Integer getMemberCount() {
+    return memberCount;
+  }
+
+  /**
+   * Sets the number of members of the group
+   *
+   * @param memberCount the number of members
+   */
+  public void setMemberCount(Integer memberCount) {
+    this.memberCount = memberCount;
+  }
 }
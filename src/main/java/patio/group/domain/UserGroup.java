@@ -17,6 +17,7 @@
  */
 package patio.group.domain;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
@@ -24,7 +25,10 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import patio.common.domain.utils.Builder;
+import patio.infrastructure.persistence.CacheRegions;
 import patio.user.domain.User;
 
 /**
@@ -33,6 +37,8 @@ import patio.user.domain.User;
  * @since 0.1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.MEMBERSHIPS)
 @Table(name = "users_groups")
 public final class UserGroup {
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.graphql;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Input to add several users, by their emails, to a group at once
+ *
+ * @since 0.1.0
+ */
+public class AddUsersToGroupInput {
+  private final UUID currentUserId;
+  private final List<String> emails;
+  private final UUID groupId;
+
+  /**
+   * Initializes the input
+   *
+   * @param currentUserId the user adding the members
+   * @param emails the emails of the users to add
+   * @param groupId the group the users are added to
+   * @since 0.1.0
+   */
+  public AddUsersToGroupInput(UUID currentUserId, List<String> emails, UUID groupId) {
+    this.currentUserId = currentUserId;
+    this.emails = emails;
+    this.groupId = groupId;
+  }
+
+  /**
+   * Gets the id of the user adding the members
+   *
+   * @return the current user's id
+   * @since 0.1.0
+   */
+  public UUID getCurrentUserId() {
+    return currentUserId;
+  }
+
+  /**
+   * Gets the emails of the users to add
+   *
+   * @return a list of emails
+   * @since 0.1.0
+   */
+  public List<String> getEmails() {
+    return emails;
+  }
+
+  /**
+   * Gets the id of the group
+   *
+   * @return the group id
+   * @since 0.1.0
+   */
+  public UUID getGroupId() {
+    return groupId;
+  }
+}
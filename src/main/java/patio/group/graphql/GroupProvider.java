@@ -53,6 +53,7 @@ public class GroupProvider implements QueryProvider, MutationProvider {
             .dataFetcher("createGroup", groupFetcher::createGroup)
             .dataFetcher("updateGroup", groupFetcher::updateGroup)
             .dataFetcher("addUserToGroup", userGroupFetcher::addUserToGroup)
+            .dataFetcher("addUsersToGroup", userGroupFetcher::addUsersToGroup)
             .dataFetcher("leaveGroup", userGroupFetcher::leaveGroup);
   }
 
@@ -53,7 +53,9 @@ public class GroupTypeProvider implements TypeProvider {
             builder ->
                 builder
                     .dataFetcher("members", userGroupFetcher::listUsersGroup)
+                    .dataFetcher("membersConnection", userGroupFetcher::listMembersConnection)
                     .dataFetcher("isCurrentUserAdmin", userGroupFetcher::isCurrentUserAdmin)
-                    .dataFetcher("votings", votingFetcher::listVotingsGroup));
+                    .dataFetcher("votings", votingFetcher::listVotingsGroup)
+                    .dataFetcher("lastVoting", votingFetcher::getLastVoting));
   }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.graphql;
+
+import java.util.UUID;
+import patio.common.domain.utils.Builder;
+
+/**
+ * Input to list the members of a group page by page
+ *
+ * @since 0.1.0
+ */
+public class ListMembersInput {
+  private UUID currentUserId;
+  private UUID groupId;
+  private Integer first;
+  private String after;
+  private String namePrefix;
+
+  /**
+   * Creates a new fluent builder to build instances of type {@link ListMembersInput}
+   *
+   * @return an instance of the input builder
+   * @since 0.1.0
+   */
+  public static Builder<ListMembersInput> newBuilder() {
+    return Builder.build(ListMembersInput::new);
+  }
+
+  /**
+   * Gets the id of the user asking for the members
+   *
+   * @return the current user's id
+   * @since 0.1.0
+   */
+  public UUID getCurrentUserId() {
+    return currentUserId;
+  }
+
+  /**
+   * Sets the id of the user asking for the members
+   *
+   * @param currentUserId the current user's id
+   * @since 0.1.0
+   */
+  public void setCurrentUserId(UUID currentUserId) {
+    this.currentUserId = currentUserId;
+  }
+
+  /**
+   * Gets the group id
+   *
+   * @return the group id
+   * @since 0.1.0
+   */
+  public UUID getGroupId() {
+    return groupId;
+  }
+
+  /**
+   * Sets the group id
+   *
+   * @param groupId the group id
+   * @since 0.1.0
+   */
+  public void setGroupId(UUID groupId) {
+    this.groupId = groupId;
+  }
+
+  /**
+   * Gets the maximum number of members to return
+   *
+   * @return the page size or null if not set
+   * @since 0.1.0
+   */
+  public Integer getFirst() {
+    return first;
+  }
+
+  /**
+   * Sets the maximum number of members to return
+   *
+   * @param first the page size
+   * @since 0.1.0
+   */
+  public void setFirst(Integer first) {
+    this.first = first;
+  }
+
+  /**
+   * Gets the cursor of the member after which the page starts
+   *
+   * @return the cursor or null to start from the beginning
+   * @since 0.1.0
+   */
+  public String getAfter() {
+    return after;
+  }
+
+  /**
+   * Sets the cursor of the member after which the page starts
+   *
+   * @param after the cursor of a previous member
+   * @since 0.1.0
+   */
+  public void setAfter(String after) {
+    this.after = after;
+  }
+
+  /**
+   * Gets the prefix members' names should start with
+   *
+   * @return the name prefix or null if members are not filtered
+   * @since 0.1.0
+   */
+  public String getNamePrefix() {
+    return namePrefix;
+  }
+
+  /**
+   * Sets the prefix members' names should start with (case insensitive)
+   *
+   * @param namePrefix the name prefix
+   * @since 0.1.0
+   */
+  public void setNamePrefix(String namePrefix) {
+    this.namePrefix = namePrefix;
+  }
+}
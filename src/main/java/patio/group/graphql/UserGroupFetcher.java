@@ -19,8 +19,11 @@ package patio.group.graphql;
 
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
+import java.util.List;
 import javax.inject.Singleton;
+import patio.common.domain.utils.CursorPaginationResult;
 import patio.common.domain.utils.Result;
+import patio.group.domain.AddUserToGroupResult;
 import patio.group.domain.Group;
 import patio.group.domain.UserGroup;
 import patio.group.services.UserGroupService;
@@ -67,6 +70,20 @@ public class UserGroupFetcher {
     return ResultUtils.render(result);
   }
 
+  /**
+   * Adds several users to a group at once
+   *
+   * @param env GraphQL execution environment
+   * @return an instance of {@link DataFetcherResult} with the result of every email because it
+   *     could return errors
+   * @since 0.1.0
+   */
+  public DataFetcherResult<List<AddUserToGroupResult>> addUsersToGroup(
+      DataFetchingEnvironment env) {
+    AddUsersToGroupInput input = UserGroupFetcherUtils.addUsersToGroupInput(env);
+    return ResultUtils.render(service.addUsersToGroup(input));
+  }
+
   /**
    * Get if the current user an admin of the group
    *
@@ -94,6 +111,19 @@ public class UserGroupFetcher {
     return service.listUsersGroup(input);
   }
 
+  /**
+   * Fetches a page of the users that belong to a group
+   *
+   * @param env GraphQL execution environment
+   * @return an instance of {@link DataFetcherResult} because it could return errors
+   * @since 0.1.0
+   */
+  public DataFetcherResult<CursorPaginationResult<User>> listMembersConnection(
+      DataFetchingEnvironment env) {
+    ListMembersInput input = UserGroupFetcherUtils.listMembersInput(env);
+    return ResultUtils.render(service.listMembers(input));
+  }
+
   /**
    * Leave the specified group
    *
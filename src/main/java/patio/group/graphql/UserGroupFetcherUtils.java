@@ -18,6 +18,7 @@
 package patio.group.graphql;
 
 import graphql.schema.DataFetchingEnvironment;
+import java.util.List;
 import java.util.UUID;
 import patio.group.domain.Group;
 import patio.infrastructure.graphql.Context;
@@ -56,6 +57,30 @@ final class UserGroupFetcherUtils {
     return new ListUsersGroupInput(currentUser.getId(), group.getId());
   }
 
+  /**
+   * Creates a {@link ListMembersInput} from the data coming from the {@link
+   * DataFetchingEnvironment}
+   *
+   * @param environment the GraphQL {@link DataFetchingEnvironment}
+   * @return an instance of {@link ListMembersInput}
+   * @since 0.1.0
+   */
+  /* default */ static ListMembersInput listMembersInput(DataFetchingEnvironment environment) {
+    User currentUser = getCurrentUser(environment);
+    Group group = environment.getSource();
+    Integer first = environment.getArgument("first");
+    String after = environment.getArgument("after");
+    String namePrefix = environment.getArgument("namePrefix");
+
+    return ListMembersInput.newBuilder()
+        .with(input -> input.setCurrentUserId(currentUser.getId()))
+        .with(input -> input.setGroupId(group.getId()))
+        .with(input -> input.setFirst(first))
+        .with(input -> input.setAfter(after))
+        .with(input -> input.setNamePrefix(namePrefix))
+        .build();
+  }
+
   /**
    * Creates a {@link AddUserToGroupInput} from the data coming from the {@link
    * DataFetchingEnvironment}
@@ -74,6 +99,23 @@ final class UserGroupFetcherUtils {
     return new AddUserToGroupInput(currentUser.getId(), email, groupId);
   }
 
+  /**
+   * Creates a {@link AddUsersToGroupInput} from the data coming from the {@link
+   * DataFetchingEnvironment}
+   *
+   * @param environment the GraphQL {@link DataFetchingEnvironment}
+   * @return an instance of {@link AddUsersToGroupInput}
+   * @since 0.1.0
+   */
+  /* default */ static AddUsersToGroupInput addUsersToGroupInput(
+      DataFetchingEnvironment environment) {
+    List<String> emails = environment.getArgument("emails");
+    UUID groupId = environment.getArgument("groupId");
+    User currentUser = getCurrentUser(environment);
+
+    return new AddUsersToGroupInput(currentUser.getId(), emails, groupId);
+  }
+
   /**
    * Creates a {@link LeaveGroupInput} from the data coming from the {@link DataFetchingEnvironment}
    *
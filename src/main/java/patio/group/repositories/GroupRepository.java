@@ -20,6 +20,7 @@ package patio.group.repositories;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.repository.PageableRepository;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -88,12 +89,43 @@ public interface GroupRepository extends PageableRepository<Group, UUID> {
   Stream<Voting> findAllExpiredVotingsByTime(OffsetDateTime time);
 
   /**
-   * Returns the user's favourite {@link Group}
+   * Lists the groups a user belongs to sorted by name
+   *
+   * @param userId user's identifier
+   * @return a list of the user's {@link Group} instances sorted by name
+   */
+  @Query("SELECT g FROM UserGroup ug JOIN ug.group g WHERE ug.user.id = :userId ORDER BY g.name")
+  List<Group> findAllByUserIdOrderByName(UUID userId);
+
+  /**
+   * Returns the user's favourite {@link Group}. It's the group of the user's last vote or, until
+   * the user votes, the first of the user's groups having a voting.
    *
    * @param userId user's identifier
    * @return its favourite {@link Group}
    */
   @Query(
-      "SELECT v.group FROM Voting v JOIN v.group.users u WHERE u.user.id = :userId ORDER BY v.createdAtDateTime")
+      value =
+          "SELECT g.* FROM groups g "
+              + "JOIN users u ON u.favourite_group_id = g.id "
+              + "WHERE u.id = :userId",
+      nativeQuery = true)
   Optional<Group> findMyFavouriteGroupByUserId(UUID userId);
+
+  /**
+   * Points the group to the last voting created for it
+   *
+   * @param groupId the group's id
+   * @param votingId the id of the group's last voting
+   */
+  void updateLastVoting(UUID groupId, UUID votingId);
+
+  /**
+   * Removes the group from the second level cache, now and once the current transaction finishes.
+   * Its member count is kept by the database, so the cached group must be evicted every time a
+   * member joins or leaves the group through an entity operation.
+   *
+   * @param groupId the group's id
+   */
+  void evictFromCache(UUID groupId);
 }
@@ -18,8 +18,31 @@
 package patio.group.repositories;
 
 import io.micronaut.data.repository.PageableRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import patio.group.domain.UserGroup;
 import patio.group.domain.UserGroupKey;
 
 /** All database actions related to {@link UserGroup} entity */
-public interface UserGroupRepository extends PageableRepository<UserGroup, UserGroupKey> {}
+public interface UserGroupRepository extends PageableRepository<UserGroup, UserGroupKey> {
+
+  /**
+   * Lists the groups a user belongs to without loading neither the groups nor the user
+   *
+   * @param userId the user's id
+   * @return a map with the ids of the user's groups and whether the user is admin of each of them
+   */
+  Map<UUID, Boolean> findAllMembershipsByUserId(UUID userId);
+
+  /**
+   * Adds the given users as regular members of a group. Users already belonging to the group are
+   * left untouched. Memberships are looked up and inserted in batches, so adding hundreds of users
+   * costs a couple of statements per batch.
+   *
+   * @param groupId the group's id
+   * @param userIds the ids of the users to add
+   * @return the ids of the users that were actually added
+   */
+  List<UUID> addMembers(UUID groupId, List<UUID> userIds);
+}
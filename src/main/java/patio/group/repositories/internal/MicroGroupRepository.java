@@ -18,13 +18,20 @@
 package patio.group.repositories.internal;
 
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import java.util.UUID;
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
 import patio.group.domain.Group;
 import patio.group.repositories.GroupRepository;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 
 /** Persistence implementation access for {@link Group} */
 @Repository
+@Traced
 public abstract class MicroGroupRepository extends MicroBaseRepository implements GroupRepository {
 
   /**
@@ -35,4 +42,30 @@ public abstract class MicroGroupRepository extends MicroBaseRepository implement
   public MicroGroupRepository(EntityManager entityManager) {
     super(entityManager);
   }
+
+  @Override
+  @Transactional
+  public void updateLastVoting(UUID groupId, UUID votingId) {
+    createNativeUpdate(
+            "UPDATE groups SET last_voting_id = :votingId WHERE id = :groupId", Group.class)
+        .setParameter("votingId", votingId)
+        .setParameter("groupId", groupId)
+        .executeUpdate();
+  }
+
+  @Override
+  public void evictFromCache(UUID groupId) {
+    Cache cache = getEntityManager().getEntityManagerFactory().getCache();
+    cache.evict(Group.class, groupId);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(Status status) {
+              cache.evict(Group.class, groupId);
+            }
+          });
+    }
+  }
 }
@@ -18,16 +18,29 @@
 package patio.group.repositories.internal;
 
 import io.micronaut.data.annotation.Repository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import org.hibernate.annotations.QueryHints;
+import patio.group.domain.Group;
 import patio.group.domain.UserGroup;
 import patio.group.repositories.UserGroupRepository;
+import patio.infrastructure.persistence.CacheRegions;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 
 /** Persistence implementation access for {@link UserGroup} */
 @Repository
+@Traced
 public abstract class MicroUserGroupRepository extends MicroBaseRepository
     implements UserGroupRepository {
 
+  private static final int INSERT_BATCH_SIZE = 500;
+
   /**
    * Initializes repository with {@link EntityManager}
    *
@@ -36,4 +49,50 @@ public abstract class MicroUserGroupRepository extends MicroBaseRepository
   public MicroUserGroupRepository(EntityManager entityManager) {
     super(entityManager);
   }
+
+  @Override
+  @Transactional
+  public Map<UUID, Boolean> findAllMembershipsByUserId(UUID userId) {
+    return getEntityManager()
+        .createQuery(
+            "SELECT ug.group.id, ug.admin FROM UserGroup ug WHERE ug.user.id = :userId",
+            Object[].class)
+        .setParameter("userId", userId)
+        .setHint(QueryHints.CACHEABLE, true)
+        .setHint(QueryHints.CACHE_REGION, CacheRegions.MEMBERSHIP_QUERIES)
+        .getResultStream()
+        .collect(Collectors.toMap(row -> (UUID) row[0], row -> (Boolean) row[1]));
+  }
+
+  @Override
+  @Transactional
+  public List<UUID> addMembers(UUID groupId, List<UUID> userIds) {
+    List<UUID> added = new ArrayList<>(userIds.size());
+    for (int from = 0; from < userIds.size(); from += INSERT_BATCH_SIZE) {
+      List<UUID> batch = userIds.subList(from, Math.min(from + INSERT_BATCH_SIZE, userIds.size()));
+      added.addAll(insertMembers(groupId, batch));
+    }
+    return added;
+  }
+
+  private List<UUID> insertMembers(UUID groupId, List<UUID> userIds) {
+    var sql = new StringBuilder(64 + userIds.size() * 32);
+    sql.append("INSERT INTO users_groups (user_id, group_id, is_admin) VALUES ");
+    for (int i = 0; i < userIds.size(); i++) {
+      sql.append(i == 0 ? "" : ", ").append("(:user").append(i).append(", :groupId, false)");
+    }
+    sql.append(" ON CONFLICT DO NOTHING RETURNING CAST(user_id AS varchar)");
+
+    // new rows change the members' collections and the member count of the group
+    var query = createNativeUpdate(sql.toString(), UserGroup.class, Group.class);
+    query.setParameter("groupId", groupId);
+    for (int i = 0; i < userIds.size(); i++) {
+      query.setParameter("user" + i, userIds.get(i));
+    }
+
+    return getNativeUpdateResultList(query, UserGroup.class, Group.class).stream()
+        .map(String::valueOf)
+        .map(UUID::fromString)
+        .collect(Collectors.toList());
+  }
 }
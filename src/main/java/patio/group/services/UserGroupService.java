@@ -17,11 +17,16 @@
  */
 package patio.group.services;
 
+import java.util.List;
 import java.util.UUID;
+import patio.common.domain.utils.CursorPaginationResult;
 import patio.common.domain.utils.Result;
+import patio.group.domain.AddUserToGroupResult;
 import patio.group.domain.Group;
 import patio.group.graphql.AddUserToGroupInput;
+import patio.group.graphql.AddUsersToGroupInput;
 import patio.group.graphql.LeaveGroupInput;
+import patio.group.graphql.ListMembersInput;
 import patio.group.graphql.ListUsersGroupInput;
 import patio.user.domain.User;
 
@@ -41,6 +46,18 @@ public interface UserGroupService {
    */
   Result<Boolean> addUserToGroup(AddUserToGroupInput input);
 
+  /**
+   * Adds several users to a group at once, if the current user is admin of the group. Emails not
+   * belonging to any user and users already in the group are reported but don't make the whole
+   * operation fail.
+   *
+   * @param input emails of the users and group information
+   * @return an instance of {@link Result} (a list of {@link AddUserToGroupResult}, one per email, |
+   *     {@link Error})
+   * @since 0.1.0
+   */
+  Result<List<AddUserToGroupResult>> addUsersToGroup(AddUsersToGroupInput input);
+
   /**
    * Fetches the list of users in a Group. ifMatches the user is not allowed to build them, returns
    * an empty list
@@ -51,6 +68,16 @@ public interface UserGroupService {
    */
   Iterable<User> listUsersGroup(ListUsersGroupInput input);
 
+  /**
+   * Fetches a page of the members of a group sorted by name. Every member comes with a cursor that
+   * can be used to ask for the members following it.
+   *
+   * @param input the group, the page size, the cursor to start after and an optional name prefix
+   * @return an instance of {@link Result} ({@link CursorPaginationResult} | {@link Error})
+   * @since 0.1.0
+   */
+  Result<CursorPaginationResult<User>> listMembers(ListMembersInput input);
+
   /**
    * Make the current user leave the specified group
    *
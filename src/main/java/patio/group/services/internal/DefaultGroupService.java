@@ -17,12 +17,9 @@
  */
 package patio.group.services.internal;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
 import patio.common.domain.utils.Builder;
@@ -35,6 +32,7 @@ import patio.group.graphql.UpsertGroupInput;
 import patio.group.repositories.GroupRepository;
 import patio.group.repositories.UserGroupRepository;
 import patio.group.services.GroupService;
+import patio.infrastructure.tracing.Traced;
 import patio.infrastructure.utils.OptionalUtils;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -46,11 +44,13 @@ import patio.user.repositories.UserRepository;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultGroupService implements GroupService {
 
   private final transient GroupRepository groupRepository;
   private final transient UserGroupRepository userGroupRepository;
   private final transient UserRepository userRepository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
    * Initializes service by using the database repositories
@@ -58,15 +58,18 @@ public class DefaultGroupService implements GroupService {
    * @param groupRepository an instance of {@link GroupRepository}
    * @param userRepository an instance of {@link UserRepository}
    * @param userGroupRepository an instance of {@link UserGroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
   public DefaultGroupService(
       GroupRepository groupRepository,
       UserRepository userRepository,
-      UserGroupRepository userGroupRepository) {
+      UserGroupRepository userGroupRepository,
+      GroupMembershipIndex membershipIndex) {
     this.groupRepository = groupRepository;
     this.userRepository = userRepository;
     this.userGroupRepository = userGroupRepository;
+    this.membershipIndex = membershipIndex;
   }
 
   @Override
@@ -76,12 +79,7 @@ public class DefaultGroupService implements GroupService {
 
   @Override
   public List<Group> listGroupsUser(UUID userId) {
-    return userRepository.findById(userId).stream()
-        .map(User::getGroups)
-        .flatMap(Set::stream)
-        .map(UserGroup::getGroup)
-        .sorted(Comparator.comparing(Group::getName))
-        .collect(Collectors.toList());
+    return groupRepository.findAllByUserIdOrderByName(userId);
   }
 
   @Override
@@ -98,11 +96,16 @@ public class DefaultGroupService implements GroupService {
     Optional<User> user = userRepository.findById(input.getCurrentUserId());
     Optional<Group> group = Optional.of(groupRepository.save(groupToSave));
 
-    return OptionalUtils.combine(user, group)
-        .into(this::createUserGroupAdmin)
-        .map(userGroupRepository::save)
-        .map(UserGroup::getGroup)
-        .orElse(null);
+    Optional<Group> created =
+        OptionalUtils.combine(user, group)
+            .into(this::createUserGroupAdmin)
+            .map(userGroupRepository::save)
+            .map(UserGroup::getGroup);
+
+    membershipIndex.invalidate(input.getCurrentUserId());
+    created.map(Group::getId).ifPresent(groupRepository::evictFromCache);
+
+    return created.orElse(null);
   }
 
   private UserGroup createUserGroupAdmin(User user, Group group) {
@@ -113,7 +116,7 @@ public class DefaultGroupService implements GroupService {
 
   @Override
   public Result<Group> updateGroup(UpsertGroupInput input) {
-    UserIsGroupAdmin userIsGroupAdmin = new UserIsGroupAdmin(userGroupRepository);
+    UserIsGroupAdmin userIsGroupAdmin = new UserIsGroupAdmin(membershipIndex);
 
     return Result.<Group>create()
         .thenCheck(() -> userIsGroupAdmin.check(input.getCurrentUserId(), input.getGroupId()))
@@ -140,7 +143,7 @@ public class DefaultGroupService implements GroupService {
     Optional<User> currentUser = userRepository.findById(input.getCurrentUserId());
 
     NotPresent notPresent = new NotPresent();
-    UserIsInGroup userIsInGroup = new UserIsInGroup();
+    UserIsInGroup userIsInGroup = new UserIsInGroup(membershipIndex);
 
     return Result.<Group>create()
         .thenCheck(() -> notPresent.check(group))
@@ -17,22 +17,38 @@
  */
 package patio.group.services.internal;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
+import patio.common.domain.utils.CursorPaginationResult;
+import patio.common.domain.utils.CursorPaginationResult.Edge;
 import patio.common.domain.utils.NotPresent;
 import patio.common.domain.utils.Result;
+import patio.group.domain.AddUserToGroupResult;
+import patio.group.domain.AddUserToGroupResult.Status;
 import patio.group.domain.Group;
 import patio.group.domain.UserGroup;
 import patio.group.domain.UserGroupKey;
 import patio.group.graphql.AddUserToGroupInput;
+import patio.group.graphql.AddUsersToGroupInput;
 import patio.group.graphql.LeaveGroupInput;
+import patio.group.graphql.ListMembersInput;
 import patio.group.graphql.ListUsersGroupInput;
 import patio.group.repositories.GroupRepository;
 import patio.group.repositories.UserGroupRepository;
 import patio.group.services.UserGroupService;
+import patio.infrastructure.tracing.Traced;
+import patio.infrastructure.utils.ErrorConstants;
 import patio.infrastructure.utils.OptionalUtils;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -44,11 +60,17 @@ import patio.user.repositories.UserRepository;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultUserGroupService implements UserGroupService {
 
+  private static final int DEFAULT_PAGE_SIZE = 20;
+  private static final int MAX_PAGE_SIZE = 100;
+  private static final String CURSOR_SEPARATOR = ":";
+
   private final transient GroupRepository groupRepository;
   private final transient UserRepository userRepository;
   private final transient UserGroupRepository userGroupRepository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
    * Initializes service by using the database repositories
@@ -56,15 +78,18 @@ public class DefaultUserGroupService implements UserGroupService {
    * @param groupRepository an instance of {@link GroupRepository}
    * @param userRepository an instance of {@link UserRepository}
    * @param userGroupRepository an instance of {@link UserGroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
   public DefaultUserGroupService(
       GroupRepository groupRepository,
       UserRepository userRepository,
-      UserGroupRepository userGroupRepository) {
+      UserGroupRepository userGroupRepository,
+      GroupMembershipIndex membershipIndex) {
     this.groupRepository = groupRepository;
     this.userRepository = userRepository;
     this.userGroupRepository = userGroupRepository;
+    this.membershipIndex = membershipIndex;
   }
 
   @Override
@@ -73,15 +98,17 @@ public class DefaultUserGroupService implements UserGroupService {
     Optional<User> user = userRepository.findByEmail(input.getEmail());
 
     NotPresent notPresent = new NotPresent();
-    UserIsGroupAdmin userIsGroupAdmin = new UserIsGroupAdmin(userGroupRepository);
-    UserIsNotInGroup notInGroupChecker = new UserIsNotInGroup(userGroupRepository);
+    UserIsGroupAdmin userIsGroupAdmin = new UserIsGroupAdmin(membershipIndex);
+    UserIsNotInGroup notInGroupChecker = new UserIsNotInGroup(membershipIndex);
 
     return Result.<Boolean>create()
         .thenCheck(() -> notPresent.check(group))
         .thenCheck(() -> notPresent.check(user))
         .thenCheck(() -> userIsGroupAdmin.check(input.getCurrentUserId(), input.getGroupId()))
         .thenCheck(() -> notInGroupChecker.check(user.get().getId(), input.getGroupId()))
-        .then(() -> addUserToGroupIfSuccess(user, group));
+        .then(() -> addUserToGroupIfSuccess(user, group))
+        .sideEffect((added) -> membershipIndex.invalidate(user.get().getId()))
+        .sideEffect((added) -> groupRepository.evictFromCache(input.getGroupId()));
   }
 
   private Boolean addUserToGroupIfSuccess(Optional<User> user, Optional<Group> group) {
@@ -91,6 +118,50 @@ public class DefaultUserGroupService implements UserGroupService {
         .isPresent();
   }
 
+  @Override
+  public Result<List<AddUserToGroupResult>> addUsersToGroup(AddUsersToGroupInput input) {
+    Optional<Group> group = groupRepository.findById(input.getGroupId());
+
+    NotPresent notPresent = new NotPresent();
+    UserIsGroupAdmin userIsGroupAdmin = new UserIsGroupAdmin(membershipIndex);
+
+    return Result.<List<AddUserToGroupResult>>create()
+        .thenCheck(() -> notPresent.check(group))
+        .thenCheck(() -> userIsGroupAdmin.check(input.getCurrentUserId(), input.getGroupId()))
+        .then(() -> addUsersToGroupIfSuccess(input));
+  }
+
+  private List<AddUserToGroupResult> addUsersToGroupIfSuccess(AddUsersToGroupInput input) {
+    List<String> emails = input.getEmails().stream().distinct().collect(toList());
+    Map<String, UUID> userIdsByEmail =
+        emails.isEmpty()
+            ? Map.of()
+            : userRepository.findAllByEmailInList(emails).stream()
+                .collect(toMap(User::getEmail, User::getId, (first, second) -> first));
+
+    List<UUID> userIds = List.copyOf(new HashSet<>(userIdsByEmail.values()));
+    var added =
+        new HashSet<>(
+            userIds.isEmpty()
+                ? List.<UUID>of()
+                : userGroupRepository.addMembers(input.getGroupId(), userIds));
+
+    added.forEach(membershipIndex::invalidate);
+
+    Function<String, Status> statusOf =
+        (email) -> {
+          UUID userId = userIdsByEmail.get(email);
+          if (userId == null) {
+            return Status.USER_NOT_FOUND;
+          }
+          return added.contains(userId) ? Status.ADDED : Status.ALREADY_MEMBER;
+        };
+
+    return input.getEmails().stream()
+        .map(email -> new AddUserToGroupResult(email, statusOf.apply(email)))
+        .collect(toList());
+  }
+
   @Override
   public Iterable<User> listUsersGroup(ListUsersGroupInput input) {
     return groupRepository
@@ -99,6 +170,51 @@ public class DefaultUserGroupService implements UserGroupService {
         .orElseGet(List::of);
   }
 
+  @Override
+  public Result<CursorPaginationResult<User>> listMembers(ListMembersInput input) {
+    Optional<String[]> after = Optional.ofNullable(input.getAfter()).map(this::decodeCursor);
+    if (input.getAfter() != null && after.isEmpty()) {
+      return Result.error(ErrorConstants.INVALID_CURSOR);
+    }
+
+    int pageSize =
+        Math.min(
+            MAX_PAGE_SIZE,
+            Math.max(1, Optional.ofNullable(input.getFirst()).orElse(DEFAULT_PAGE_SIZE)));
+    String namePrefix =
+        Optional.ofNullable(input.getNamePrefix()).filter(p -> !p.isBlank()).orElse(null);
+    String afterName = after.map(cursor -> cursor[1]).orElse(null);
+    UUID afterId = after.map(cursor -> UUID.fromString(cursor[0])).orElse(null);
+
+    List<User> members =
+        userRepository.findAllByGroupAfter(
+            input.getGroupId(), namePrefix, afterName, afterId, pageSize + 1);
+    List<Edge<User>> edges =
+        members.stream()
+            .limit(pageSize)
+            .map(member -> new Edge<>(encodeCursor(member), member))
+            .collect(toList());
+
+    return Result.result(new CursorPaginationResult<>(edges, members.size() > pageSize));
+  }
+
+  private String encodeCursor(User user) {
+    String cursor = user.getId() + CURSOR_SEPARATOR + user.getName();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(UTF_8));
+  }
+
+  @SuppressWarnings("PMD.ReturnEmptyArrayRatherThanNull")
+  private String[] decodeCursor(String cursor) {
+    try {
+      String[] parts =
+          new String(Base64.getUrlDecoder().decode(cursor), UTF_8).split(CURSOR_SEPARATOR, 2);
+      UUID.fromString(parts[0]);
+      return parts.length == 2 ? parts : null;
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
   @Override
   public Result<Boolean> leaveGroup(LeaveGroupInput input) {
     Optional<User> currentUser = userRepository.findById(input.getCurrentUserId());
@@ -108,13 +224,18 @@ public class DefaultUserGroupService implements UserGroupService {
             .flatmapInto(
                 (u, g) -> userGroupRepository.findById(new UserGroupKey(u.getId(), g.getId())));
 
-    UserIsInGroup userIsInGroup = new UserIsInGroup();
+    UserIsInGroup userIsInGroup = new UserIsInGroup(membershipIndex);
     UserIsNotUniqueGroupAdmin notUniqueAdmin = new UserIsNotUniqueGroupAdmin();
 
     return Result.<Boolean>create()
         .thenCheck(() -> userIsInGroup.check(currentUser, group))
         .thenCheck(() -> notUniqueAdmin.check(userGroup))
-        .then(() -> leaveGroupIfSuccess(input));
+        .then(() -> leaveGroupIfSuccess(input))
+        .sideEffect((left) -> membershipIndex.invalidate(input.getCurrentUserId()))
+        .sideEffect((left) -> groupRepository.evictFromCache(input.getGroupId()))
+        .sideEffect(
+            (left) ->
+                userRepository.removeFavouriteGroup(input.getCurrentUserId(), input.getGroupId()));
   }
 
   private Boolean leaveGroupIfSuccess(LeaveGroupInput input) {
@@ -130,9 +251,6 @@ public class DefaultUserGroupService implements UserGroupService {
 
   @Override
   public boolean isAdmin(UUID userId, UUID groupId) {
-    return userGroupRepository
-        .findById(new UserGroupKey(userId, groupId))
-        .map(UserGroup::isAdmin)
-        .orElse(false);
+    return membershipIndex.isAdmin(userId, groupId);
   }
 }
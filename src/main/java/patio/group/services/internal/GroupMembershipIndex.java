@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.services.internal;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import patio.group.domain.UserGroup;
+import patio.group.repositories.UserGroupRepository;
+
+/**
+ * Keeps, for the most recently seen users, the ids of the groups they belong to and whether they
+ * are admins of each of them, so that authorization checks don't have to load the user's {@link
+ * UserGroup} collection. Entries are loaded with a single query the first time a user is checked,
+ * evicted in least recently used order once the configured size is reached, and must be invalidated
+ * whenever the user's memberships change. Invalidations only reach the instance where the change
+ * happened, so entries also expire a short time after being loaded, bounding how long other
+ * instances can answer with stale memberships.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class GroupMembershipIndex {
+
+  private final transient UserGroupRepository repository;
+  private final transient Map<UUID, Memberships> cache;
+  private final transient AtomicLong invalidations = new AtomicLong();
+  private final transient Duration expireAfterWrite;
+  private final transient Clock clock;
+
+  /**
+   * Initializes the index
+   *
+   * @param repository repository used to load the memberships of a user
+   * @param maxSize maximum number of users kept in memory
+   * @param expireAfterWrite how long the memberships of a user are kept once loaded
+   * @since 0.1.0
+   */
+  @Inject
+  public GroupMembershipIndex(
+      UserGroupRepository repository,
+      @Value("${groups.membership-cache.size:10000}") int maxSize,
+      @Value("${groups.membership-cache.expire-after-write:30s}") Duration expireAfterWrite) {
+    this(repository, maxSize, expireAfterWrite, Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the index with a specific {@link Clock}
+   *
+   * @param repository repository used to load the memberships of a user
+   * @param maxSize maximum number of users kept in memory
+   * @param expireAfterWrite how long the memberships of a user are kept once loaded
+   * @param clock clock used to expire entries
+   * @since 0.1.0
+   */
+  public GroupMembershipIndex(
+      UserGroupRepository repository, int maxSize, Duration expireAfterWrite, Clock clock) {
+    this.repository = repository;
+    this.cache = Collections.synchronizedMap(new LruMap(Math.max(1, maxSize)));
+    this.expireAfterWrite = expireAfterWrite;
+    this.clock = clock;
+  }
+
+  /**
+   * Checks whether a user belongs to a group
+   *
+   * @param userId the user's id
+   * @param groupId the group's id
+   * @return true if the user is a member of the group
+   * @since 0.1.0
+   */
+  public boolean isMember(UUID userId, UUID groupId) {
+    return userId != null && groupId != null && get(userId).indexOf(groupId) >= 0;
+  }
+
+  /**
+   * Checks whether a user is an admin of a group
+   *
+   * @param userId the user's id
+   * @param groupId the group's id
+   * @return true if the user is a member and an admin of the group
+   * @since 0.1.0
+   */
+  public boolean isAdmin(UUID userId, UUID groupId) {
+    return userId != null && groupId != null && get(userId).isAdmin(groupId);
+  }
+
+  /**
+   * Discards the memberships kept for a user. If there's a transaction in progress the entry is
+   * discarded again once the transaction finishes, so that a concurrent check can't keep the
+   * memberships it read before the change was committed.
+   *
+   * @param userId the user's id
+   * @since 0.1.0
+   */
+  public void invalidate(UUID userId) {
+    evict(userId);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(Status status) {
+              evict(userId);
+            }
+          });
+    }
+  }
+
+  /**
+   * Returns the number of users currently kept in memory
+   *
+   * @return the number of cached users
+   * @since 0.1.0
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  private void evict(UUID userId) {
+    invalidations.incrementAndGet();
+    cache.remove(userId);
+  }
+
+  private Memberships get(UUID userId) {
+    Instant now = clock.instant();
+    Memberships memberships = cache.get(userId);
+    if (memberships != null && now.isBefore(memberships.expiresAt)) {
+      return memberships;
+    }
+
+    long stamp = invalidations.get();
+    Memberships loaded =
+        Memberships.from(repository.findAllMembershipsByUserId(userId), now.plus(expireAfterWrite));
+
+    if (invalidations.get() == stamp) {
+      cache.put(userId, loaded);
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Sorted group ids of a given user, stored as pairs of longs, and a bit per group telling whether
+   * the user is admin of that group
+   *
+   * @since 0.1.0
+   */
+  private static final class Memberships {
+    private final transient long[] mostSignificant;
+    private final transient long[] leastSignificant;
+    private final transient BitSet admin;
+    private final transient Instant expiresAt;
+
+    private Memberships(
+        long[] mostSignificant, long[] leastSignificant, BitSet admin, Instant expiresAt) {
+      this.mostSignificant = mostSignificant;
+      this.leastSignificant = leastSignificant;
+      this.admin = admin;
+      this.expiresAt = expiresAt;
+    }
+
+    private static Memberships from(Map<UUID, Boolean> groups, Instant expiresAt) {
+      UUID[] ids = groups.keySet().toArray(new UUID[0]);
+      Arrays.sort(
+          ids,
+          Comparator.comparingLong(UUID::getMostSignificantBits)
+              .thenComparingLong(UUID::getLeastSignificantBits));
+
+      long[] most = new long[ids.length];
+      long[] least = new long[ids.length];
+      BitSet admin = new BitSet(ids.length);
+
+      for (int i = 0; i < ids.length; i++) {
+        most[i] = ids[i].getMostSignificantBits();
+        least[i] = ids[i].getLeastSignificantBits();
+        admin.set(i, Boolean.TRUE.equals(groups.get(ids[i])));
+      }
+
+      return new Memberships(most, least, admin, expiresAt);
+    }
+
+    private int indexOf(UUID groupId) {
+      long most = groupId.getMostSignificantBits();
+      long least = groupId.getLeastSignificantBits();
+      int low = 0;
+      int high = mostSignificant.length - 1;
+
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        int comparison = Long.compare(mostSignificant[middle], most);
+        if (comparison == 0) {
+          comparison = Long.compare(leastSignificant[middle], least);
+        }
+
+        if (comparison < 0) {
+          low = middle + 1;
+        } else if (comparison > 0) {
+          high = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+
+      return -1;
+    }
+
+    private boolean isAdmin(UUID groupId) {
+      int index = indexOf(groupId);
+      return index >= 0 && admin.get(index);
+    }
+  }
+
+  /**
+   * Access ordered map dropping the least recently used entry once it's full
+   *
+   * @since 0.1.0
+   */
+  private static final class LruMap extends LinkedHashMap<UUID, Memberships> {
+    private static final long serialVersionUID = 0;
+    private final transient int maxSize;
+
+    private LruMap(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<UUID, Memberships> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
@@ -20,13 +20,9 @@ package patio.group.services.internal;
 import static patio.common.domain.utils.Check.checkIsTrue;
 import static patio.infrastructure.utils.ErrorConstants.NOT_ALLOWED;
 
-import java.util.Optional;
 import java.util.UUID;
 import patio.common.domain.utils.Check;
 import patio.common.domain.utils.Result;
-import patio.group.domain.UserGroup;
-import patio.group.domain.UserGroupKey;
-import patio.group.repositories.UserGroupRepository;
 
 /**
  * Checks if a given user is allowed to see members of a given group
@@ -35,16 +31,16 @@ import patio.group.repositories.UserGroupRepository;
  */
 public class UserCanSeeGroupMembers {
 
-  private final transient UserGroupRepository repository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
-   * Constructor receiving a repository to access the underlying datastore
+   * Constructor receiving the index of group memberships
    *
-   * @param repository an instance of {@link UserGroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
-  public UserCanSeeGroupMembers(UserGroupRepository repository) {
-    this.repository = repository;
+  public UserCanSeeGroupMembers(GroupMembershipIndex membershipIndex) {
+    this.membershipIndex = membershipIndex;
   }
 
   /**
@@ -58,8 +54,7 @@ public class UserCanSeeGroupMembers {
    * @since 0.1.0
    */
   public Check check(UUID userId, UUID groupId, boolean isVisibleMemberList) {
-    Optional<UserGroup> userGroup = repository.findById(new UserGroupKey(userId, groupId));
-    boolean isAdmin = userGroup.map(UserGroup::isAdmin).orElse(false);
+    boolean isAdmin = membershipIndex.isAdmin(userId, groupId);
     return checkIsTrue(isAdmin || isVisibleMemberList, NOT_ALLOWED);
   }
 }
@@ -19,13 +19,9 @@ package patio.group.services.internal;
 
 import static patio.common.domain.utils.Check.checkIsTrue;
 
-import java.util.Optional;
 import java.util.UUID;
 import patio.common.domain.utils.Check;
 import patio.common.domain.utils.Result;
-import patio.group.domain.UserGroup;
-import patio.group.domain.UserGroupKey;
-import patio.group.repositories.UserGroupRepository;
 import patio.infrastructure.utils.ErrorConstants;
 
 /**
@@ -35,16 +31,16 @@ import patio.infrastructure.utils.ErrorConstants;
  */
 public class UserIsGroupAdmin {
 
-  private final transient UserGroupRepository repository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
-   * Constructor receiving access to the underlying datastore
+   * Constructor receiving the index of group memberships
    *
-   * @param repository an instance of type {@link UserGroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
-  public UserIsGroupAdmin(UserGroupRepository repository) {
-    this.repository = repository;
+  public UserIsGroupAdmin(GroupMembershipIndex membershipIndex) {
+    this.membershipIndex = membershipIndex;
   }
 
   /**
@@ -54,9 +50,6 @@ public class UserIsGroupAdmin {
    * @since 0.1.0
    */
   public Check check(UUID userId, UUID groupId) {
-    Optional<UserGroup> userGroup = repository.findById(new UserGroupKey(userId, groupId));
-
-    return checkIsTrue(
-        userGroup.map(UserGroup::isAdmin).orElse(false), ErrorConstants.NOT_AN_ADMIN);
+    return checkIsTrue(membershipIndex.isAdmin(userId, groupId), ErrorConstants.NOT_AN_ADMIN);
   }
 }
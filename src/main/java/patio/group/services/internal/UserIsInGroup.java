@@ -20,12 +20,11 @@ package patio.group.services.internal;
 import static patio.common.domain.utils.Check.checkIsTrue;
 
 import java.util.Optional;
-import java.util.stream.Collectors;
 import patio.common.domain.utils.Check;
 import patio.common.domain.utils.Result;
 import patio.group.domain.Group;
-import patio.group.domain.UserGroup;
 import patio.infrastructure.utils.ErrorConstants;
+import patio.infrastructure.utils.OptionalUtils;
 import patio.user.domain.User;
 
 /**
@@ -35,6 +34,18 @@ import patio.user.domain.User;
  */
 public class UserIsInGroup {
 
+  private final transient GroupMembershipIndex membershipIndex;
+
+  /**
+   * Constructor receiving the index of group memberships
+   *
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
+   * @since 0.1.0
+   */
+  public UserIsInGroup(GroupMembershipIndex membershipIndex) {
+    this.membershipIndex = membershipIndex;
+  }
+
   /**
    * Checks whether a user belongs to a group or not
    *
@@ -44,12 +55,10 @@ public class UserIsInGroup {
    * @since 0.1.0
    */
   public Check check(Optional<User> user, Optional<Group> group) {
-    var userGroups =
-        user.stream()
-            .flatMap(u -> u.getGroups().stream())
-            .map(UserGroup::getGroup)
-            .collect(Collectors.toSet());
-    var userIsInGroup = group.map(userGroups::contains).orElse(false);
+    var userIsInGroup =
+        OptionalUtils.combine(user, group)
+            .into((u, g) -> membershipIndex.isMember(u.getId(), g.getId()))
+            .orElse(false);
 
     return checkIsTrue(userIsInGroup, ErrorConstants.USER_NOT_IN_GROUP);
   }
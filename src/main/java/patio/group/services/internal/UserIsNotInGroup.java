@@ -19,13 +19,9 @@ package patio.group.services.internal;
 
 import static patio.common.domain.utils.Check.checkIsTrue;
 
-import java.util.Optional;
 import java.util.UUID;
 import patio.common.domain.utils.Check;
 import patio.common.domain.utils.Result;
-import patio.group.domain.UserGroup;
-import patio.group.domain.UserGroupKey;
-import patio.group.repositories.UserGroupRepository;
 import patio.infrastructure.utils.ErrorConstants;
 
 /**
@@ -35,16 +31,16 @@ import patio.infrastructure.utils.ErrorConstants;
  */
 public class UserIsNotInGroup {
 
-  private final transient UserGroupRepository repository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
-   * Constructor receiving access to the underlying data store
+   * Constructor receiving the index of group memberships
    *
-   * @param repository an instance of {@link UserGroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
-  public UserIsNotInGroup(UserGroupRepository repository) {
-    this.repository = repository;
+  public UserIsNotInGroup(GroupMembershipIndex membershipIndex) {
+    this.membershipIndex = membershipIndex;
   }
 
   /**
@@ -56,8 +52,7 @@ public class UserIsNotInGroup {
    * @since 0.1.0
    */
   public Check check(UUID userId, UUID groupId) {
-    Optional<UserGroup> userGroup = repository.findById(new UserGroupKey(userId, groupId));
-
-    return checkIsTrue(userGroup.isEmpty(), ErrorConstants.USER_ALREADY_ON_GROUP);
+    return checkIsTrue(
+        !membershipIndex.isMember(userId, groupId), ErrorConstants.USER_ALREADY_ON_GROUP);
   }
 }
@@ -27,23 +27,32 @@ import com.amazonaws.services.simpleemail.model.Message;
 import com.amazonaws.services.simpleemail.model.SendEmailRequest;
 import com.amazonaws.services.simpleemail.model.SendEmailResult;
 import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.annotation.Value;
+import java.util.function.Supplier;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.EmailService;
+import patio.infrastructure.jfr.EmailSendEvent;
+import patio.infrastructure.tracing.Traced;
+import patio.infrastructure.utils.FunctionsUtils;
 
 /**
- * Sends emails using AWS infrastructure
+ * Sends emails using AWS infrastructure. It's the default provider, used unless the property
+ * <b>email.provider</b> is set to something different than <b>ses</b>
  *
  * @since 0.1.0
  */
 @Singleton
 @Primary
+@Requires(property = "email.provider", value = "ses", defaultValue = "ses")
 @SuppressWarnings("all")
+@Traced
 public class AwsSesMailService implements EmailService {
   private static final Logger LOG = LoggerFactory.getLogger(AwsSesMailService.class);
+  private static final String PROVIDER = "ses";
 
   private final String awsRegion;
 
@@ -51,10 +60,11 @@ public class AwsSesMailService implements EmailService {
 
   private final boolean emailEnabled;
 
-  private final AWSCredentialsProvider credentialsProvider;
+  private final Supplier<AmazonSimpleEmailService> client;
 
   /**
-   * Initializes email service
+   * Initializes email service. The SES client is built the first time an email is sent and then
+   * reused for the following ones.
    *
    * @param credentialsProvider authentication credentials
    * @param emailEnabled whether sending emails should be enabled or not
@@ -67,10 +77,16 @@ public class AwsSesMailService implements EmailService {
       @Value("${aws.mail.enabled}") boolean emailEnabled,
       @Value("${aws.mail.region:none}") String awsRegion,
       @Value("${aws.mail.sourceemail:none}") String sourceEmail) {
-    this.credentialsProvider = credentialsProvider;
     this.emailEnabled = emailEnabled;
     this.awsRegion = awsRegion;
     this.sourceEmail = sourceEmail;
+    this.client =
+        FunctionsUtils.memoize(
+            () ->
+                AmazonSimpleEmailServiceClientBuilder.standard()
+                    .withCredentials(credentialsProvider)
+                    .withRegion(awsRegion)
+                    .build());
   }
 
   private Body bodyOfEmail(Email email) {
@@ -87,14 +103,19 @@ public class AwsSesMailService implements EmailService {
 
   @Override
   public void send(Email email) {
+    EmailSendEvent event = new EmailSendEvent(PROVIDER, email);
+    event.begin();
+
     if (this.emailEnabled) {
-      sendEmail(email);
+      event.setSent(sendEmail(email));
     } else {
       LOG.info("Sending email is disabled");
     }
+
+    event.commit();
   }
 
-  private void sendEmail(Email email) {
+  private boolean sendEmail(Email email) {
     Destination destination = new Destination().withToAddresses(email.getRecipient());
     if (email.getCc() != null) {
       destination = destination.withCcAddresses(email.getCc());
@@ -121,22 +142,18 @@ public class AwsSesMailService implements EmailService {
         LOG.info("Attempting to send an email through Amazon SES by using the AWS SDK for Java...");
       }
 
-      AmazonSimpleEmailService client =
-          AmazonSimpleEmailServiceClientBuilder.standard()
-              .withCredentials(credentialsProvider)
-              .withRegion(awsRegion)
-              .build();
-
-      SendEmailResult sendEmailResult = client.sendEmail(request);
+      SendEmailResult sendEmailResult = client.get().sendEmail(request);
 
       if (LOG.isInfoEnabled()) {
         LOG.info("Email sent! {}", sendEmailResult.toString());
       }
+      return true;
     } catch (Exception ex) {
       if (LOG.isWarnEnabled()) {
         LOG.warn("The email was not sent.");
         LOG.warn("Error message: {}", ex.getMessage());
       }
+      return false;
     }
   }
 }
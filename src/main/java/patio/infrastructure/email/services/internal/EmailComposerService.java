@@ -32,6 +32,7 @@ import javax.transaction.Transactional;
 import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.EmailComposer;
 import patio.infrastructure.email.services.internal.templates.JadeTemplateService;
+import patio.infrastructure.tracing.Traced;
 
 /**
  * Business logic regarding the composition of an {@link Email}
@@ -40,6 +41,7 @@ import patio.infrastructure.email.services.internal.templates.JadeTemplateServic
  */
 @Singleton
 @Transactional
+@Traced
 public class EmailComposerService implements EmailComposer {
 
   private static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.email.services.internal;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a bounded set of authenticated SMTP connections so that several messages can be sent
+ * through the same connection instead of paying the TCP/TLS handshake and the AUTH exchange for
+ * every email. A connection is retired once it has sent the configured maximum number of messages
+ * or when it has been idle for too long.
+ *
+ * @since 0.1.0
+ */
+public class SmtpConnectionPool implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+  private final transient Session session;
+  private final transient String username;
+  private final transient String password;
+  private final transient int maxMessagesPerConnection;
+  private final transient Duration maxIdleTime;
+  private final transient Duration acquireTimeout;
+  private final transient Clock clock;
+  private final transient Semaphore permits;
+  private final transient BlockingQueue<PooledConnection> idle;
+
+  /**
+   * Initializes the pool. No connection is opened until the first message is sent.
+   *
+   * @param session mail session holding the SMTP host configuration
+   * @param username user to authenticate with or null if the server doesn't require it
+   * @param password password to authenticate with
+   * @param settings pool sizing and connection lifecycle settings
+   * @param clock clock used to measure connection idle time
+   * @since 0.1.0
+   */
+  public SmtpConnectionPool(
+      Session session, String username, String password, Settings settings, Clock clock) {
+    this.session = session;
+    this.username = username;
+    this.password = password;
+    this.maxMessagesPerConnection = Math.max(1, settings.maxMessagesPerConnection);
+    this.maxIdleTime = settings.maxIdleTime;
+    this.acquireTimeout = settings.acquireTimeout;
+    this.clock = clock;
+    this.permits = new Semaphore(Math.max(1, settings.size), true);
+    this.idle = new LinkedBlockingQueue<>();
+  }
+
+  /**
+   * Sends the message using a pooled connection. If sending fails, whatever the error, the
+   * connection is discarded and the error is propagated to the caller.
+   *
+   * @param message the message to send
+   * @throws MessagingException if the message couldn't be delivered or there was no connection
+   *     available within the configured acquire timeout
+   * @since 0.1.0
+   */
+  public void send(Message message) throws MessagingException {
+    acquirePermit();
+    PooledConnection connection = null;
+    boolean sent = false;
+    try {
+      connection = borrow();
+      connection.transport.sendMessage(message, message.getAllRecipients());
+      connection.sent++;
+      sent = true;
+      giveBack(connection);
+    } finally {
+      if (!sent) {
+        discard(connection);
+      }
+      permits.release();
+    }
+  }
+
+  /**
+   * Returns the number of connections currently open and waiting to be reused
+   *
+   * @return the number of idle connections
+   * @since 0.1.0
+   */
+  public int getIdleConnections() {
+    return idle.size();
+  }
+
+  @Override
+  public void close() {
+    PooledConnection connection = idle.poll();
+    while (connection != null) {
+      discard(connection);
+      connection = idle.poll();
+    }
+  }
+
+  private void acquirePermit() throws MessagingException {
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new MessagingException("No SMTP connection available");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new MessagingException("Interrupted while waiting for an SMTP connection", ex);
+    }
+  }
+
+  private PooledConnection borrow() throws MessagingException {
+    PooledConnection connection = idle.poll();
+    while (connection != null) {
+      if (isReusable(connection)) {
+        return connection;
+      }
+      discard(connection);
+      connection = idle.poll();
+    }
+    return open();
+  }
+
+  private boolean isReusable(PooledConnection connection) {
+    var idleTime = Duration.between(connection.lastUsed, clock.instant());
+
+    return idleTime.compareTo(maxIdleTime) < 0 && connection.transport.isConnected();
+  }
+
+  private PooledConnection open() throws MessagingException {
+    Transport transport = session.getTransport();
+    transport.connect(username, password);
+
+    LOG.debug("opened new SMTP connection");
+
+    return new PooledConnection(transport);
+  }
+
+  private void giveBack(PooledConnection connection) {
+    if (connection.sent >= maxMessagesPerConnection) {
+      discard(connection);
+    } else {
+      connection.lastUsed = clock.instant();
+      idle.offer(connection);
+    }
+  }
+
+  private void discard(PooledConnection connection) {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.transport.close();
+    } catch (MessagingException ex) {
+      LOG.debug("error while closing SMTP connection: {}", ex.getMessage());
+    }
+  }
+
+  /**
+   * Wraps an open {@link Transport} with the bookkeeping required to retire it
+   *
+   * @since 0.1.0
+   */
+  private class PooledConnection {
+    private final transient Transport transport;
+    private transient int sent;
+    private transient Instant lastUsed;
+
+    private PooledConnection(Transport transport) {
+      this.transport = transport;
+      this.lastUsed = clock.instant();
+    }
+  }
+
+  /**
+   * Pool sizing and connection lifecycle settings
+   *
+   * @since 0.1.0
+   */
+  public static class Settings {
+    private final transient int size;
+    private final transient int maxMessagesPerConnection;
+    private final transient Duration maxIdleTime;
+    private final transient Duration acquireTimeout;
+
+    /**
+     * Initializes the pool settings
+     *
+     * @param size maximum number of simultaneous SMTP connections
+     * @param maxMessagesPerConnection messages sent through a connection before closing it
+     * @param maxIdleTime idle time after which a connection is not reused
+     * @param acquireTimeout how long to wait for a free connection
+     * @since 0.1.0
+     */
+    public Settings(
+        int size, int maxMessagesPerConnection, Duration maxIdleTime, Duration acquireTimeout) {
+      this.size = size;
+      this.maxMessagesPerConnection = maxMessagesPerConnection;
+      this.maxIdleTime = maxIdleTime;
+      this.acquireTimeout = acquireTimeout;
+    }
+  }
+}
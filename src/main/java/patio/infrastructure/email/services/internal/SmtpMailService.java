@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.email.services.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.email.domain.Email;
+import patio.infrastructure.email.services.EmailService;
+import patio.infrastructure.jfr.EmailSendEvent;
+import patio.infrastructure.tracing.Traced;
+
+/**
+ * Sends emails through a SMTP server reusing authenticated connections. It's enabled by setting the
+ * property <b>email.provider</b> to <b>smtp</b>
+ *
+ * @since 0.1.0
+ * @see SmtpConnectionPool
+ */
+@Singleton
+@Requires(property = "email.provider", value = "smtp")
+@Traced
+public class SmtpMailService implements EmailService {
+  private static final Logger LOG = LoggerFactory.getLogger(SmtpMailService.class);
+  private static final String PROVIDER = "smtp";
+
+  private final transient boolean emailEnabled;
+  private final transient String sourceEmail;
+  private final transient Session session;
+  private final transient SmtpConnectionPool pool;
+
+  /**
+   * Initializes the email service
+   *
+   * @param config SMTP server and pool configuration
+   * @since 0.1.0
+   */
+  public SmtpMailService(Config config) {
+    this.emailEnabled = config.enabled;
+    this.sourceEmail = config.sourceEmail;
+    this.session = Session.getInstance(config.toProperties());
+    this.pool =
+        new SmtpConnectionPool(
+            session,
+            config.username,
+            config.password,
+            new SmtpConnectionPool.Settings(
+                config.poolSize,
+                config.maxMessagesPerConnection,
+                Duration.ofSeconds(config.maxIdleSeconds),
+                Duration.ofSeconds(config.acquireTimeoutSeconds)),
+            Clock.systemUTC());
+  }
+
+  @Override
+  public void send(Email email) {
+    EmailSendEvent event = new EmailSendEvent(PROVIDER, email);
+    event.begin();
+
+    if (this.emailEnabled) {
+      event.setSent(sendEmail(email));
+    } else {
+      LOG.info("Sending email is disabled");
+    }
+
+    event.commit();
+  }
+
+  /**
+   * Closes all the connections kept by the pool
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public void close() {
+    pool.close();
+  }
+
+  private boolean sendEmail(Email email) {
+    try {
+      pool.send(toMessage(email));
+      return true;
+    } catch (MessagingException ex) {
+      if (LOG.isWarnEnabled()) {
+        LOG.warn("The email was not sent.");
+        LOG.warn("Error message: {}", ex.getMessage());
+      }
+      return false;
+    }
+  }
+
+  private Message toMessage(Email email) throws MessagingException {
+    MimeMessage message = new MimeMessage(session);
+
+    message.setFrom(new InternetAddress(sourceEmail));
+    message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient()));
+    message.setRecipients(Message.RecipientType.CC, toAddresses(email.getCc()));
+    message.setRecipients(Message.RecipientType.BCC, toAddresses(email.getBcc()));
+    message.setSubject(email.getSubject(), UTF_8.name());
+
+    if (email.getReplyTo() != null) {
+      message.setReplyTo(InternetAddress.parse(email.getReplyTo()));
+    }
+
+    Optional<String> htmlBody = Optional.ofNullable(email.getHtmlBody()).filter(b -> !b.isEmpty());
+    if (htmlBody.isPresent()) {
+      message.setText(htmlBody.get(), UTF_8.name(), "html");
+    } else {
+      message.setText(Optional.ofNullable(email.getTextBody()).orElse(""), UTF_8.name());
+    }
+
+    return message;
+  }
+
+  private static InternetAddress[] toAddresses(List<String> emails) throws AddressException {
+    if (emails == null || emails.isEmpty()) {
+      return new InternetAddress[0];
+    }
+    return InternetAddress.parse(String.join(",", emails));
+  }
+
+  /**
+   * SMTP server and connection pool configuration
+   *
+   * @since 0.1.0
+   */
+  @Singleton
+  @Requires(property = "email.provider", value = "smtp")
+  public static class Config {
+    private final transient boolean enabled;
+    private final transient String host;
+    private final transient int port;
+    private final transient String username;
+    private final transient String password;
+    private final transient boolean startTls;
+    private final transient String sourceEmail;
+    private final transient int poolSize;
+    private final transient int maxMessagesPerConnection;
+    private final transient long maxIdleSeconds;
+    private final transient long acquireTimeoutSeconds;
+
+    /**
+     * Initializes the SMTP configuration
+     *
+     * @param enabled whether sending emails should be enabled or not
+     * @param host SMTP server host
+     * @param port SMTP server port
+     * @param username SMTP user (empty if no authentication is required)
+     * @param password SMTP user's password
+     * @param startTls whether to upgrade the connection with STARTTLS or not
+     * @param sourceEmail source email
+     * @param poolSize maximum number of simultaneous SMTP connections
+     * @param maxMessagesPerConnection messages sent through a connection before closing it
+     * @param maxIdleSeconds seconds a connection can be idle before being discarded
+     * @param acquireTimeoutSeconds seconds to wait for a free connection
+     * @since 0.1.0
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public Config(
+        @Value("${smtp.mail.enabled:false}") boolean enabled,
+        @Value("${smtp.mail.host:localhost}") String host,
+        @Value("${smtp.mail.port:25}") int port,
+        @Value("${smtp.mail.username:}") String username,
+        @Value("${smtp.mail.password:}") String password,
+        @Value("${smtp.mail.starttls:false}") boolean startTls,
+        @Value("${smtp.mail.sourceemail:none}") String sourceEmail,
+        @Value("${smtp.mail.pool.size:4}") int poolSize,
+        @Value("${smtp.mail.pool.max-messages:100}") int maxMessagesPerConnection,
+        @Value("${smtp.mail.pool.max-idle-seconds:30}") long maxIdleSeconds,
+        @Value("${smtp.mail.pool.acquire-timeout-seconds:10}") long acquireTimeoutSeconds) {
+      this.enabled = enabled;
+      this.host = host;
+      this.port = port;
+      this.username = Optional.ofNullable(username).filter(u -> !u.isBlank()).orElse(null);
+      this.password = password;
+      this.startTls = startTls;
+      this.sourceEmail = sourceEmail;
+      this.poolSize = poolSize;
+      this.maxMessagesPerConnection = maxMessagesPerConnection;
+      this.maxIdleSeconds = maxIdleSeconds;
+      this.acquireTimeoutSeconds = acquireTimeoutSeconds;
+    }
+
+    private Properties toProperties() {
+      Properties properties = new Properties();
+
+      properties.setProperty("mail.transport.protocol", "smtp");
+      properties.setProperty("mail.smtp.host", host);
+      properties.setProperty("mail.smtp.port", String.valueOf(port));
+      properties.setProperty("mail.smtp.auth", String.valueOf(username != null));
+      properties.setProperty("mail.smtp.starttls.enable", String.valueOf(startTls));
+      properties.setProperty("mail.smtp.starttls.required", String.valueOf(startTls));
+      properties.setProperty("mail.smtp.quitwait", "false");
+
+      return properties;
+    }
+  }
+}
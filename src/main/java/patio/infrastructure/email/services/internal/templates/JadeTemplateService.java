@@ -21,9 +21,12 @@ import de.neuland.jade4j.JadeConfiguration;
 import de.neuland.jade4j.template.JadeTemplate;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import patio.infrastructure.utils.FunctionsUtils;
 
 /**
  * This service resolves and renders a given Jade template
@@ -34,17 +37,18 @@ import org.slf4j.LoggerFactory;
 public class JadeTemplateService {
 
   private static final Logger LOG = LoggerFactory.getLogger(JadeTemplateService.class);
-  private final transient JadeConfiguration configuration;
+  private final transient Supplier<JadeConfiguration> configuration;
 
   /**
    * Default constructor receiving the {@link JadeConfiguration} containing information about
-   * templates location, templates cache.
+   * templates location, templates cache. The configuration is not created until the first template
+   * is rendered, so that it doesn't slow down the application startup.
    *
-   * @param configuration instance of {@link JadeConfiguration}
+   * @param configuration provider of the {@link JadeConfiguration}
    * @since 0.1.0
    */
-  public JadeTemplateService(JadeConfiguration configuration) {
-    this.configuration = configuration;
+  public JadeTemplateService(Provider<JadeConfiguration> configuration) {
+    this.configuration = FunctionsUtils.memoize(configuration::get);
   }
 
   /**
@@ -58,14 +62,14 @@ public class JadeTemplateService {
   public String render(String templateName, Map<String, Object> data) {
     return Optional.ofNullable(templateName)
         .flatMap(this::getTemplateSafely)
-        .map(template -> configuration.renderTemplate(template, data))
+        .map(template -> configuration.get().renderTemplate(template, data))
         .orElse("");
   }
 
   @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.AvoidCatchingThrowable"})
   private Optional<JadeTemplate> getTemplateSafely(String name) {
     try {
-      return Optional.ofNullable(configuration.getTemplate(name));
+      return Optional.ofNullable(configuration.get().getTemplate(name));
     } catch (Throwable throwable) {
       LOG.error(String.format("Problem loading template: %s", throwable.getMessage()));
       return Optional.empty();
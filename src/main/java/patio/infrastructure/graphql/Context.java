@@ -17,6 +17,8 @@
  */
 package patio.infrastructure.graphql;
 
+import patio.infrastructure.persistence.StatementCounter;
+import patio.infrastructure.tracing.Span;
 import patio.user.domain.User;
 
 /**
@@ -27,6 +29,9 @@ import patio.user.domain.User;
 public class Context {
 
   private User authenticatedUser;
+  private String clientAddress;
+  private Span span = Span.NOOP;
+  private StatementCounter statementCounter;
 
   /**
    * Returns the current authenticated user
@@ -47,4 +52,64 @@ public class Context {
   public void setAuthenticatedUser(User authenticatedUser) {
     this.authenticatedUser = authenticatedUser;
   }
+
+  /**
+   * Returns the address of the client performing the request
+   *
+   * @return the client's address or null if it couldn't be resolved
+   * @since 0.1.0
+   */
+  public String getClientAddress() {
+    return clientAddress;
+  }
+
+  /**
+   * Sets the address of the client performing the request
+   *
+   * @param clientAddress the client's address
+   * @since 0.1.0
+   */
+  public void setClientAddress(String clientAddress) {
+    this.clientAddress = clientAddress;
+  }
+
+  /**
+   * Returns the span recording the request, started before resolving the authenticated user
+   *
+   * @return the request span or {@link Span#NOOP} if tracing is disabled
+   * @since 0.1.0
+   */
+  public Span getSpan() {
+    return span;
+  }
+
+  /**
+   * Sets the span recording the request
+   *
+   * @param span the request span
+   * @since 0.1.0
+   */
+  public void setSpan(Span span) {
+    this.span = span;
+  }
+
+  /**
+   * Returns the counter of the SQL statements executed by the operation
+   *
+   * @return the operation counter or null if statements are not counted
+   * @since 0.1.0
+   */
+  public StatementCounter getStatementCounter() {
+    return statementCounter;
+  }
+
+  /**
+   * Sets the counter of the SQL statements executed by the operation
+   *
+   * @param statementCounter the operation counter
+   * @since 0.1.0
+   */
+  public void setStatementCounter(StatementCounter statementCounter) {
+    this.statementCounter = statementCounter;
+  }
 }
@@ -20,12 +20,18 @@ package patio.infrastructure.graphql;
 import graphql.ExecutionInput;
 import io.micronaut.configuration.graphql.GraphQLExecutionInputCustomizer;
 import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.http.HttpRequest;
+import java.net.InetSocketAddress;
 import java.util.Optional;
 import javax.inject.Singleton;
 import org.dataloader.DataLoaderRegistry;
 import org.reactivestreams.Publisher;
+import patio.infrastructure.graphql.instrumentation.TracingInstrumentation;
+import patio.infrastructure.tracing.Span;
+import patio.infrastructure.tracing.SpanContext;
+import patio.infrastructure.tracing.Tracer;
 import patio.security.services.SecurityService;
 
 /**
@@ -40,6 +46,9 @@ public class ExecutionInputCustomizer implements GraphQLExecutionInputCustomizer
 
   private static final String JWT_PREFIX = "JWT ";
   private static final String EMPTY = "";
+  private static final String FORWARDED_FOR = "X-Forwarded-For";
+  private static final String TRACE_PARENT = "traceparent";
+  private static final String PRINCIPAL_SPAN = "graphql.principal";
 
   /**
    * Service responsible to resolve the user from the provided token
@@ -50,17 +59,29 @@ public class ExecutionInputCustomizer implements GraphQLExecutionInputCustomizer
 
   private final transient DataLoaderRegistry dataLoaderRegistry;
 
+  private final transient boolean trustForwardedFor;
+
+  private final transient Tracer tracer;
+
   /**
    * Initializes the execution input customizer with security and data loading information
    *
    * @param securityService required to inject authenticated user information to context
    * @param dataLoaderRegistry required to access registered data loaders
+   * @param trustForwardedFor whether the client address should be taken from the X-Forwarded-For
+   *     header (only when running behind a trusted proxy) or from the connection
+   * @param tracer used to trace the request, continuing the trace of the <b>traceparent</b> header
    * @since 0.1.0
    */
   public ExecutionInputCustomizer(
-      SecurityService securityService, DataLoaderRegistry dataLoaderRegistry) {
+      SecurityService securityService,
+      DataLoaderRegistry dataLoaderRegistry,
+      @Value("${http.trust-forwarded-for:false}") boolean trustForwardedFor,
+      Tracer tracer) {
     this.securityService = securityService;
     this.dataLoaderRegistry = dataLoaderRegistry;
+    this.trustForwardedFor = trustForwardedFor;
+    this.tracer = tracer;
   }
 
   private Optional<String> extractToken(String authorization) {
@@ -78,16 +99,43 @@ public class ExecutionInputCustomizer implements GraphQLExecutionInputCustomizer
             });
   }
 
+  private String resolveClientAddress(HttpRequest<?> httpRequest) {
+    Optional<String> forwardedFor =
+        Optional.ofNullable(httpRequest.getHeaders().get(FORWARDED_FOR))
+            .filter(header -> trustForwardedFor)
+            .map(header -> header.split(",")[0].trim());
+
+    return forwardedFor.orElseGet(
+        () ->
+            Optional.ofNullable(httpRequest.getRemoteAddress())
+                .map(InetSocketAddress::getHostString)
+                .orElse(null));
+  }
+
   @Override
   public Publisher<ExecutionInput> customize(
       ExecutionInput executionInput, HttpRequest httpRequest) {
-    Context context =
-        httpRequest
-            .getHeaders()
-            .getAuthorization()
-            .flatMap(this::extractToken)
-            .flatMap(this::resolveUser)
-            .orElseGet(Context::new);
+    Span span =
+        tracer.start(
+            TracingInstrumentation.OPERATION_SPAN,
+            SpanContext.fromTraceParent(httpRequest.getHeaders().get(TRACE_PARENT)).orElse(null));
+    Span principal = tracer.start(PRINCIPAL_SPAN, span.getContext());
+
+    Context context;
+    try (Span.Scope scope = principal.activate()) {
+      context =
+          httpRequest
+              .getHeaders()
+              .getAuthorization()
+              .flatMap(this::extractToken)
+              .flatMap(this::resolveUser)
+              .orElseGet(Context::new);
+    } finally {
+      principal.end();
+    }
+
+    context.setSpan(span);
+    context.setClientAddress(resolveClientAddress(httpRequest));
 
     ExecutionInput input =
         ExecutionInput.newExecutionInput()
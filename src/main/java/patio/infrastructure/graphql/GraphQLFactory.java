@@ -18,12 +18,26 @@
 package patio.infrastructure.graphql;
 
 import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
 import graphql.schema.GraphQLSchema;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.transaction.TransactionOperations;
+import java.sql.Connection;
+import java.util.List;
 import javax.inject.Singleton;
+import javax.persistence.EntityManager;
 import patio.infrastructure.graphql.instrumentation.AuthenticationCheck;
+import patio.infrastructure.graphql.instrumentation.FlightRecorderInstrumentation;
+import patio.infrastructure.graphql.instrumentation.ReadOnlyQueries;
+import patio.infrastructure.graphql.instrumentation.ReadOnlyQueryStrategy;
+import patio.infrastructure.graphql.instrumentation.SlowOperationInstrumentation;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.graphql.instrumentation.TracingInstrumentation;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.infrastructure.tracing.Tracer;
 
 /**
  * Maps the schema with the functions that are actually operating over the real data
@@ -37,15 +51,50 @@ public class GraphQLFactory {
    * Configures the GraphQL environment mapping fetchers with fields in the schema.
    *
    * @param schema the {@link GraphQLSchema}
+   * @param transactions used to run query operations in read-only transactions
+   * @param routing decides whether query operations can be served by the read-only replica
+   * @param entityManager the current session, read-only queries tune it when using the replica
+   * @param tracer records spans of operations and resolvers
+   * @param statementCount counts the SQL statements executed by every operation
+   * @param slowOperations records operations slower than the threshold
+   * @param documents keeps the parsed documents of the most recent operations
+   * @param readOnlyQueries whether query operations run in a single read-only transaction
    * @return an instance of {@link GraphQL}
    * @since 0.1.0
    */
   @Bean
   @Singleton
-  public GraphQL graphQL(GraphQLSchema schema) {
-    return GraphQL.newGraphQL(schema)
-        .instrumentation(new AuthenticationCheck())
-        .instrumentation(new DataLoaderDispatcherInstrumentation())
-        .build();
+  public GraphQL graphQL(
+      GraphQLSchema schema,
+      TransactionOperations<Connection> transactions,
+      ReplicaRouting routing,
+      EntityManager entityManager,
+      Tracer tracer,
+      StatementCountInstrumentation statementCount,
+      SlowOperationInstrumentation slowOperations,
+      ParsedDocumentCache documents,
+      @Value("${graphql.read-only-queries.enabled:true}") boolean readOnlyQueries) {
+    var instrumentation =
+        new ChainedInstrumentation(
+            List.of(
+                new TracingInstrumentation(tracer),
+                new FlightRecorderInstrumentation(),
+                statementCount,
+                slowOperations,
+                new AuthenticationCheck(),
+                new ReadOnlyQueries(routing),
+                new DataLoaderDispatcherInstrumentation()));
+
+    var builder =
+        GraphQL.newGraphQL(schema)
+            .instrumentation(instrumentation)
+            .preparsedDocumentProvider(documents);
+
+    if (readOnlyQueries) {
+      builder.queryExecutionStrategy(
+          new ReadOnlyQueryStrategy(transactions, routing, entityManager));
+    }
+
+    return builder.build();
   }
 }
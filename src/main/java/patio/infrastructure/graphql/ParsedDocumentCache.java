@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micronaut.context.annotation.Value;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import javax.inject.Singleton;
+
+/**
+ * Keeps the parsed and validated documents of the most recent GraphQL operations, keyed by their
+ * text, so that clients sending the same operation don't pay for parsing and validating it again.
+ * Documents with errors are never kept and entries are evicted in least recently used order once
+ * <b>graphql.document-cache.size</b> is reached.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class ParsedDocumentCache implements PreparsedDocumentProvider {
+
+  private final transient Map<String, PreparsedDocumentEntry> cache;
+
+  /**
+   * Initializes the cache
+   *
+   * @param maxSize maximum number of documents kept in memory
+   * @since 0.1.0
+   */
+  public ParsedDocumentCache(@Value("${graphql.document-cache.size:500}") int maxSize) {
+    this.cache = Collections.synchronizedMap(new LruMap(Math.max(1, maxSize)));
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> computeFunction) {
+    String query = executionInput.getQuery();
+    PreparsedDocumentEntry entry = cache.get(query);
+
+    if (entry == null) {
+      entry = computeFunction.apply(executionInput);
+      if (!entry.hasErrors()) {
+        cache.put(query, entry);
+      }
+    }
+
+    return entry;
+  }
+
+  /**
+   * Returns the number of documents currently kept in memory
+   *
+   * @return the number of cached documents
+   * @since 0.1.0
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * Access ordered map discarding the least recently used document when it's full
+   *
+   * @since 0.1.0
+   */
+  private static final class LruMap extends LinkedHashMap<String, PreparsedDocumentEntry> {
+    private static final long serialVersionUID = 0;
+    private final transient int maxSize;
+
+    private LruMap(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.dataloader;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import org.dataloader.BatchLoader;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.BatchLoaderWithContext;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.persistence.StatementCounter;
+
+/**
+ * Counts the SQL statements executed by a batch load in the operations that requested its keys.
+ * Data loaders are dispatched by whichever thread completes the previous level of the operation, so
+ * the counter of the operation can't be taken from the current thread. Instead, keys have to be
+ * loaded with the {@link Context} of the operation as key context.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values
+ * @since 0.1.0
+ * @see patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation
+ */
+public class CountingBatchLoader<K, V> implements BatchLoaderWithContext<K, V> {
+
+  private final transient BatchLoader<K, V> loader;
+
+  /**
+   * Initializes the batch loader
+   *
+   * @param loader the batch loader executing the statements
+   * @since 0.1.0
+   */
+  public CountingBatchLoader(BatchLoader<K, V> loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  public CompletionStage<List<V>> load(List<K> keys, BatchLoaderEnvironment environment) {
+    List<StatementCounter> counters =
+        environment.getKeyContexts().values().stream()
+            .filter(Context.class::isInstance)
+            .map(Context.class::cast)
+            .map(Context::getStatementCounter)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+
+    Deque<StatementCounter.Scope> scopes = new ArrayDeque<>();
+    try {
+      counters.forEach(counter -> scopes.push(counter.activate()));
+      return loader.load(keys);
+    } finally {
+      while (!scopes.isEmpty()) {
+        scopes.pop().close();
+      }
+    }
+  }
+}
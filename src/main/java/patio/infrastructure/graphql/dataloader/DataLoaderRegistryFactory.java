@@ -21,9 +21,12 @@ import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import javax.inject.Singleton;
 import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
 import org.dataloader.DataLoaderRegistry;
 import patio.user.domain.User;
 import patio.user.graphql.UserBatchLoader;
+import patio.voting.domain.Voting;
+import patio.voting.graphql.VotingBatchLoader;
 
 /**
  * Data loaders are important specially when batching data in nested GraphQL queries
@@ -41,18 +44,37 @@ public class DataLoaderRegistryFactory {
    */
   public static final String DL_USERS_BY_IDS = "users_by_id";
 
+  /**
+   * Key that can be used within a {@link graphql.schema.DataFetcher} to get an instance of a {@link
+   * VotingBatchLoader}
+   *
+   * @since 0.1.0
+   */
+  public static final String DL_VOTINGS_BY_IDS = "votings_by_id";
+
   /**
    * Creates a new {@link DataLoaderRegistry}
    *
    * @param userBatchLoader an instance of {@link UserBatchLoader} to load {@link User} data
+   * @param votingBatchLoader an instance of {@link VotingBatchLoader} to load {@link Voting} data
    * @return a new instance of {@link DataLoaderRegistry}
    * @since 0.1.0
    */
   @Bean
   @Singleton
-  public DataLoaderRegistry create(UserBatchLoader userBatchLoader) {
+  public DataLoaderRegistry create(
+      UserBatchLoader userBatchLoader, VotingBatchLoader votingBatchLoader) {
     DataLoaderRegistry registry = new DataLoaderRegistry();
 
-    return registry.register(DL_USERS_BY_IDS, DataLoader.newDataLoader(userBatchLoader));
+    // the registry is shared among requests, votings change too often to be cached forever
+    DataLoaderOptions uncached = DataLoaderOptions.newOptions().setCachingEnabled(false);
+
+    // keys are loaded with the GraphQL context as key context to count the statements of the batch
+    return registry
+        .register(
+            DL_USERS_BY_IDS, DataLoader.newDataLoader(new CountingBatchLoader<>(userBatchLoader)))
+        .register(
+            DL_VOTINGS_BY_IDS,
+            DataLoader.newDataLoader(new CountingBatchLoader<>(votingBatchLoader), uncached));
   }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import java.util.concurrent.atomic.AtomicInteger;
+import patio.infrastructure.jfr.GraphQLOperationEvent;
+
+/**
+ * Emits a {@link GraphQLOperationEvent} for every executed operation. When no flight recording is
+ * running the operation isn't instrumented at all.
+ *
+ * @since 0.1.0
+ */
+public class FlightRecorderInstrumentation extends SimpleInstrumentation {
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters params) {
+    return new FlightRecorderState();
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters params) {
+    GraphQLOperationEvent event = new GraphQLOperationEvent();
+    if (!event.isEnabled()) {
+      return super.beginExecution(params);
+    }
+
+    FlightRecorderState state = params.getInstrumentationState();
+    state.event = event;
+    event.setOperationName(params.getOperation());
+    event.begin();
+
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, error) -> {
+          event.end();
+          event.setFieldCount(state.fieldCount.get());
+          event.setErrorCount(result == null ? 1 : result.getErrors().size());
+          event.commit();
+        });
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters params) {
+    FlightRecorderState state = params.getInstrumentationState();
+    if (state.event != null) {
+      state.event.setOperationType(
+          params.getExecutionContext().getOperationDefinition().getOperation().name());
+    }
+
+    return super.beginExecuteOperation(params);
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginField(InstrumentationFieldParameters params) {
+    FlightRecorderState state = params.getInstrumentationState();
+    if (state.event != null) {
+      state.fieldCount.incrementAndGet();
+    }
+
+    return super.beginField(params);
+  }
+
+  /**
+   * Keeps the event of the operation and the number of fields resolved so far
+   *
+   * @since 0.1.0
+   */
+  private static class FlightRecorderState implements InstrumentationState {
+    private final transient AtomicInteger fieldCount = new AtomicInteger();
+    private transient volatile GraphQLOperationEvent event;
+  }
+}
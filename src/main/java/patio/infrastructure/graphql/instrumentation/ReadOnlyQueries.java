@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import java.util.Optional;
+import java.util.UUID;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.user.domain.User;
+
+/**
+ * Records the users executing mutations, so that their following queries read their own writes from
+ * the primary database instead of the read-only replica. Query operations are run in a single
+ * read-only transaction by {@link ReadOnlyQueryStrategy}.
+ *
+ * @since 0.1.0
+ * @see ReplicaRouting
+ */
+public class ReadOnlyQueries extends SimpleInstrumentation {
+
+  private final transient ReplicaRouting routing;
+
+  /**
+   * Initializes the instrumentation with the routing recording the writes of every user
+   *
+   * @param routing decides whether read-only transactions can be served by the replica
+   * @since 0.1.0
+   */
+  public ReadOnlyQueries(ReplicaRouting routing) {
+    this.routing = routing;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters params) {
+    ExecutionContext executionContext = params.getExecutionContext();
+    if (!isMutation(executionContext)) {
+      return super.beginExecuteOperation(params);
+    }
+
+    Optional<UUID> writer = currentUserId(executionContext.getContext());
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, error) -> writer.ifPresent(routing::recordWrite));
+  }
+
+  private static boolean isMutation(ExecutionContext context) {
+    return Optional.ofNullable(context.getOperationDefinition())
+        .map(OperationDefinition::getOperation)
+        .map(OperationDefinition.Operation.MUTATION::equals)
+        .orElse(false);
+  }
+
+  private static Optional<UUID> currentUserId(Object context) {
+    return Optional.ofNullable(context)
+        .filter(Context.class::isInstance)
+        .map(Context.class::cast)
+        .map(Context::getAuthenticatedUser)
+        .map(User::getId);
+  }
+}
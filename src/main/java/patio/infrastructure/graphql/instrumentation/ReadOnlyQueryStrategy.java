@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.MergedField;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import io.micronaut.transaction.TransactionOperations;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.user.domain.User;
+
+/**
+ * Executes every query operation inside a single read-only transaction. Read-only transactions
+ * don't flush the session (FlushMode.MANUAL) and load entities as read-only, so Hibernate neither
+ * keeps snapshots of the loaded entities nor dirty checks them. Services joining the transaction
+ * keep their @Transactional boundaries but inherit the read-only mode, and all of them share the
+ * same connection and session.
+ *
+ * <ul>
+ *   <li>Mutations use their own execution strategy, they keep their read-write semantics
+ *   <li>Operations selecting a field annotated with @readWrite (e.g. login) use their own
+ *       transactions
+ * </ul>
+ *
+ * <p>When the read-only replica is enabled the transaction is served by the replica, unless the
+ * current user executed a mutation within the read your writes window (see {@link
+ * ReadOnlyQueries}). Replica sessions only read from the second level cache: entities loaded from a
+ * lagging replica are never put in the shared cache, where they would be served to every session as
+ * if they were current.
+ *
+ * <p>Batch loads dispatched after a data loader completes in another thread run in that thread and
+ * therefore outside this transaction.
+ *
+ * @since 0.1.0
+ * @see ReplicaRouting
+ */
+public class ReadOnlyQueryStrategy extends AsyncExecutionStrategy {
+
+  private static final String DIRECTIVE_READ_WRITE = "readWrite";
+
+  private final transient TransactionOperations<?> transactions;
+  private final transient ReplicaRouting routing;
+  private final transient EntityManager entityManager;
+
+  /**
+   * Initializes the strategy with the operations used to open read-only transactions
+   *
+   * @param transactions the {@link TransactionOperations} used to open transactions
+   * @param routing decides whether read-only transactions can be served by the replica
+   * @param entityManager the current session, used to set the cache mode of replica transactions
+   * @since 0.1.0
+   */
+  public ReadOnlyQueryStrategy(
+      TransactionOperations<?> transactions, ReplicaRouting routing, EntityManager entityManager) {
+    super();
+    this.transactions = transactions;
+    this.routing = routing;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  public CompletableFuture<ExecutionResult> execute(
+      ExecutionContext context, ExecutionStrategyParameters parameters) {
+    // nested objects are completed by calling the strategy again, the transaction is only opened
+    // for the root of the operation
+    if (!ExecutionPath.rootPath().equals(parameters.getPath())
+        || selectsReadWriteField(context, parameters)) {
+      return super.execute(context, parameters);
+    }
+
+    try {
+      return CompletableFuture.completedFuture(executeInTransaction(context, parameters));
+    } catch (CompletionException e) {
+      return CompletableFuture.failedFuture(e.getCause());
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+  private ExecutionResult executeInTransaction(
+      ExecutionContext context, ExecutionStrategyParameters parameters) throws Exception {
+    UUID reader = currentUserId(context.getContext()).orElse(null);
+    if (routing.isReplicaAllowed(reader)) {
+      return ReplicaRouting.onReplica(
+          () -> transactions.executeRead((status) -> executeOnReplica(context, parameters)));
+    }
+    return transactions.executeRead((status) -> executeAndWait(context, parameters));
+  }
+
+  private ExecutionResult executeOnReplica(
+      ExecutionContext context, ExecutionStrategyParameters parameters) {
+    Session session = entityManager.unwrap(Session.class);
+    CacheMode previous = session.getCacheMode();
+    session.setCacheMode(CacheMode.GET);
+
+    try {
+      return executeAndWait(context, parameters);
+    } finally {
+      session.setCacheMode(previous);
+    }
+  }
+
+  private ExecutionResult executeAndWait(
+      ExecutionContext context, ExecutionStrategyParameters parameters) {
+    // the transaction can't be closed before the fields resolved by data loaders are completed
+    return super.execute(context, parameters).join();
+  }
+
+  private static boolean selectsReadWriteField(
+      ExecutionContext context, ExecutionStrategyParameters parameters) {
+    GraphQLObjectType queryType = context.getGraphQLSchema().getQueryType();
+
+    return parameters.getFields().getSubFields().values().stream()
+        .map(MergedField::getName)
+        .map(queryType::getFieldDefinition)
+        .anyMatch(ReadOnlyQueryStrategy::isReadWrite);
+  }
+
+  private static Optional<UUID> currentUserId(Object context) {
+    return Optional.ofNullable(context)
+        .filter(Context.class::isInstance)
+        .map(Context.class::cast)
+        .map(Context::getAuthenticatedUser)
+        .map(User::getId);
+  }
+
+  private static boolean isReadWrite(GraphQLFieldDefinition field) {
+    return Optional.ofNullable(field)
+        .map(GraphQLFieldDefinition::getDefinition)
+        .map(def -> def.getDirective(DIRECTIVE_READ_WRITE))
+        .isPresent();
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import patio.infrastructure.persistence.StatementExecution;
+
+/**
+ * A GraphQL operation that took longer than the slow operation threshold, with what it spent its
+ * time on: resolvers and SQL statements. Variables are kept without their values.
+ *
+ * @since 0.1.0
+ * @see SlowOperationInstrumentation
+ */
+public class SlowOperation {
+
+  private final transient OffsetDateTime createdAtDateTime;
+  private final transient String operationName;
+  private final transient String operationHash;
+  private final transient long durationMillis;
+  private final transient Map<String, Object> variables;
+  private final transient long statementCount;
+  private final transient long rowCount;
+  private final transient List<Resolver> resolvers;
+  private final transient List<Statement> statements;
+
+  /**
+   * Initializes the slow operation
+   *
+   * @param createdAtDateTime when the operation finished
+   * @param operationName name of the operation, if any
+   * @param operationHash hash of the operation document
+   * @param durationMillis how long the operation took
+   * @param variables variables of the operation, with their values redacted
+   * @param statementCount number of SQL statements executed
+   * @param rowCount number of rows read or changed
+   * @param resolvers time spent by every resolver, slowest first
+   * @param statements SQL statements executed, in order
+   * @since 0.1.0
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  public SlowOperation(
+      OffsetDateTime createdAtDateTime,
+      String operationName,
+      String operationHash,
+      long durationMillis,
+      Map<String, Object> variables,
+      long statementCount,
+      long rowCount,
+      List<Resolver> resolvers,
+      List<Statement> statements) {
+    this.createdAtDateTime = createdAtDateTime;
+    this.operationName = operationName;
+    this.operationHash = operationHash;
+    this.durationMillis = durationMillis;
+    this.variables = variables;
+    this.statementCount = statementCount;
+    this.rowCount = rowCount;
+    this.resolvers = List.copyOf(resolvers);
+    this.statements = List.copyOf(statements);
+  }
+
+  /**
+   * Returns when the operation finished
+   *
+   * @return the date and time the operation finished
+   * @since 0.1.0
+   */
+  public OffsetDateTime getCreatedAtDateTime() {
+    return createdAtDateTime;
+  }
+
+  /**
+   * Returns the name of the operation
+   *
+   * @return the name of the operation or null if it's anonymous
+   * @since 0.1.0
+   */
+  public String getOperationName() {
+    return operationName;
+  }
+
+  /**
+   * Returns the SHA-256 hash of the operation document, so that executions of the same operation
+   * can be grouped
+   *
+   * @return the hash in hexadecimal
+   * @since 0.1.0
+   */
+  public String getOperationHash() {
+    return operationHash;
+  }
+
+  /**
+   * Returns how long the operation took
+   *
+   * @return the duration in milliseconds
+   * @since 0.1.0
+   */
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * Returns the variables of the operation with every value replaced by its type
+   *
+   * @return the redacted variables
+   * @since 0.1.0
+   */
+  public Map<String, Object> getVariables() {
+    return variables;
+  }
+
+  /**
+   * Returns the number of SQL statements executed by the operation
+   *
+   * @return the number of statements
+   * @since 0.1.0
+   */
+  public long getStatementCount() {
+    return statementCount;
+  }
+
+  /**
+   * Returns the number of rows read or changed by the operation
+   *
+   * @return the number of rows
+   * @since 0.1.0
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the time spent by every resolver
+   *
+   * @return the resolvers, slowest first
+   * @since 0.1.0
+   */
+  public List<Resolver> getResolvers() {
+    return resolvers;
+  }
+
+  /**
+   * Returns the SQL statements executed by the operation
+   *
+   * @return the first statements executed, in order
+   * @since 0.1.0
+   */
+  public List<Statement> getStatements() {
+    return statements;
+  }
+
+  /**
+   * Time spent by all the invocations of a resolver
+   *
+   * @since 0.1.0
+   */
+  public static class Resolver {
+    private final transient String field;
+    private final transient long count;
+    private final transient double totalMillis;
+    private final transient double maxMillis;
+
+    /**
+     * Initializes the resolver
+     *
+     * @param field resolved field as <b>Type.field</b>
+     * @param count number of times the resolver was invoked
+     * @param totalMillis time spent by all the invocations
+     * @param maxMillis time spent by the slowest invocation
+     * @since 0.1.0
+     */
+    public Resolver(String field, long count, double totalMillis, double maxMillis) {
+      this.field = field;
+      this.count = count;
+      this.totalMillis = totalMillis;
+      this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Returns the resolved field
+     *
+     * @return the field as <b>Type.field</b>
+     * @since 0.1.0
+     */
+    public String getField() {
+      return field;
+    }
+
+    /**
+     * Returns the number of times the resolver was invoked
+     *
+     * @return the number of invocations
+     * @since 0.1.0
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Returns the time spent by all the invocations
+     *
+     * @return the time in milliseconds
+     * @since 0.1.0
+     */
+    public double getTotalMillis() {
+      return totalMillis;
+    }
+
+    /**
+     * Returns the time spent by the slowest invocation
+     *
+     * @return the time in milliseconds
+     * @since 0.1.0
+     */
+    public double getMaxMillis() {
+      return maxMillis;
+    }
+  }
+
+  /**
+   * A SQL statement executed by the operation. Its plan is added later on, when explaining
+   * statements is enabled.
+   *
+   * @since 0.1.0
+   */
+  public static class Statement {
+    private final transient String sql;
+    private final transient double durationMillis;
+    private final transient List<String> bindShape;
+    private transient volatile String plan;
+    private transient volatile StatementExecution execution;
+
+    /**
+     * Initializes the statement from its execution, which is kept until it's explained
+     *
+     * @param execution the execution of the statement
+     * @since 0.1.0
+     */
+    public Statement(StatementExecution execution) {
+      this.sql = execution.getSql();
+      this.durationMillis =
+          execution.getDurationNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+      this.bindShape = execution.getBindShape();
+      this.execution = execution;
+    }
+
+    /**
+     * Returns the statement executed
+     *
+     * @return the SQL of the statement
+     * @since 0.1.0
+     */
+    public String getSql() {
+      return sql;
+    }
+
+    /**
+     * Returns how long the statement took
+     *
+     * @return the duration in milliseconds
+     * @since 0.1.0
+     */
+    public double getDurationMillis() {
+      return durationMillis;
+    }
+
+    /**
+     * Returns the types of the values bound to the statement
+     *
+     * @return the simple class name of every bound value
+     * @since 0.1.0
+     */
+    public List<String> getBindShape() {
+      return bindShape;
+    }
+
+    /**
+     * Returns the plan of the statement
+     *
+     * @return the plan or null if the statement hasn't been explained
+     * @since 0.1.0
+     */
+    public String getPlan() {
+      return plan;
+    }
+
+    /**
+     * Sets the plan of the statement
+     *
+     * @param plan the plan returned by the database
+     * @since 0.1.0
+     */
+    public void setPlan(String plan) {
+      this.plan = plan;
+    }
+
+    /* default */ Optional<StatementExecution> takeExecution() {
+      Optional<StatementExecution> taken = Optional.ofNullable(execution);
+      execution = null;
+      return taken;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.GraphQLTypeUtil;
+import io.micronaut.context.annotation.Value;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.inject.Singleton;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.persistence.StatementCounter;
+
+/**
+ * Records every GraphQL operation taking longer than <b>graphql.slow-operation-threshold</b> in the
+ * {@link SlowOperationLog}, with the time spent by its non trivial resolvers and the SQL statements
+ * it executed.
+ *
+ * <p>Statements are taken from the counter {@link StatementCountInstrumentation} keeps in the
+ * {@link Context} of the operation.
+ *
+ * @since 0.1.0
+ * @see SlowOperation
+ */
+@Singleton
+public class SlowOperationInstrumentation extends SimpleInstrumentation {
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final transient SlowOperationLog log;
+  private final transient long slowOperationThresholdNanos;
+
+  /**
+   * Initializes the instrumentation
+   *
+   * @param log where slow operations are recorded
+   * @param slowOperationThreshold operations taking longer than this are recorded
+   * @since 0.1.0
+   */
+  public SlowOperationInstrumentation(
+      SlowOperationLog log,
+      @Value("${graphql.slow-operation-threshold:1s}") Duration slowOperationThreshold) {
+    this.log = log;
+    this.slowOperationThresholdNanos = slowOperationThreshold.toNanos();
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters params) {
+    return new SlowOperationState();
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters params) {
+    if (params.isTrivialDataFetcher()) {
+      return super.beginFieldFetch(params);
+    }
+
+    SlowOperationState state = params.getInstrumentationState();
+    String parentType = GraphQLTypeUtil.simplePrint(params.getEnvironment().getParentType());
+    String field = parentType + "." + params.getField().getName();
+    long start = System.nanoTime();
+
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, error) -> state.addResolver(field, System.nanoTime() - start));
+  }
+
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+      ExecutionResult executionResult, InstrumentationExecutionParameters params) {
+    SlowOperationState state = params.getInstrumentationState();
+    long elapsed = System.nanoTime() - state.startNanos;
+
+    if (elapsed > slowOperationThresholdNanos) {
+      log.record(toSlowOperation(params, state, elapsed));
+    }
+
+    return CompletableFuture.completedFuture(executionResult);
+  }
+
+  private static SlowOperation toSlowOperation(
+      InstrumentationExecutionParameters params, SlowOperationState state, long elapsed) {
+    Optional<StatementCounter> counter =
+        Optional.ofNullable(params.getContext())
+            .filter(Context.class::isInstance)
+            .map(Context.class::cast)
+            .map(Context::getStatementCounter);
+    List<SlowOperation.Statement> statements =
+        counter.map(StatementCounter::getExecutions).orElse(List.of()).stream()
+            .map(SlowOperation.Statement::new)
+            .collect(Collectors.toList());
+
+    return new SlowOperation(
+        OffsetDateTime.now(),
+        params.getOperation(),
+        hash(params.getQuery()),
+        TimeUnit.NANOSECONDS.toMillis(elapsed),
+        redact(Optional.ofNullable(params.getVariables()).orElse(Map.of())),
+        counter.map(StatementCounter::getStatements).orElse(0L),
+        counter.map(StatementCounter::getRows).orElse(0L),
+        state.getResolvers(),
+        statements);
+  }
+
+  /**
+   * Hashes the operation document ignoring differences in whitespace
+   *
+   * @param query the operation document
+   * @return the SHA-256 hash in hexadecimal
+   * @since 0.1.0
+   */
+  /* default */ static String hash(String query) {
+    String normalized = Optional.ofNullable(query).orElse("").strip().replaceAll("\\s+", " ");
+
+    try {
+      byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(normalized.getBytes(UTF_8));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Replaces every value of the variables by its type, keeping the structure of maps and lists so
+   * that the shape of the input is still visible
+   *
+   * @param variables the variables of the operation
+   * @return the redacted variables
+   * @since 0.1.0
+   */
+  /* default */ static Map<String, Object> redact(Map<String, Object> variables) {
+    Map<String, Object> redacted = new LinkedHashMap<>();
+    variables.forEach((name, value) -> redacted.put(name, redactValue(value)));
+    return redacted;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object redactValue(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Map) {
+      return redact((Map<String, Object>) value);
+    }
+    if (value instanceof List) {
+      return ((List<Object>) value)
+          .stream().map(SlowOperationInstrumentation::redactValue).collect(Collectors.toList());
+    }
+    return value.getClass().getSimpleName();
+  }
+
+  /**
+   * Keeps when the operation started and the time spent by its resolvers
+   *
+   * @since 0.1.0
+   */
+  private static class SlowOperationState implements InstrumentationState {
+    private final transient long startNanos = System.nanoTime();
+    private final transient Map<String, ResolverTimes> resolvers = new ConcurrentHashMap<>();
+
+    /* default */ void addResolver(String field, long nanos) {
+      resolvers.computeIfAbsent(field, key -> new ResolverTimes()).add(nanos);
+    }
+
+    /* default */ List<SlowOperation.Resolver> getResolvers() {
+      return resolvers.entrySet().stream()
+          .map(entry -> entry.getValue().toResolver(entry.getKey()))
+          .sorted(Comparator.comparingDouble(SlowOperation.Resolver::getTotalMillis).reversed())
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Accumulates the invocations of a resolver
+   *
+   * @since 0.1.0
+   */
+  private static class ResolverTimes {
+    private transient long count;
+    private transient long totalNanos;
+    private transient long maxNanos;
+
+    /* default */ synchronized void add(long nanos) {
+      count++;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /* default */ synchronized SlowOperation.Resolver toResolver(String field) {
+      return new SlowOperation.Resolver(
+          field, count, totalNanos / NANOS_PER_MILLI, maxNanos / NANOS_PER_MILLI);
+    }
+  }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.annotation.Value;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.persistence.StatementExplainer;
+
+/**
+ * Keeps the last slow operations in memory and appends them to a file, one JSON object per line,
+ * rotated when it reaches its maximum size. When enabled, the slowest statements of every operation
+ * are explained before the operation is written to the file. Explaining and writing happen in a
+ * background thread, and operations are only kept in memory when it can't keep up.
+ *
+ * @since 0.1.0
+ * @see SlowOperationInstrumentation
+ */
+@Singleton
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class SlowOperationLog {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SlowOperationLog.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String THREAD_NAME = "slow-operations";
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+  private final transient int capacity;
+  private final transient Deque<SlowOperation> operations;
+  private final transient Config config;
+  private final transient StatementExplainer explainer;
+  private final transient ThreadPoolExecutor executor;
+  private transient Writer writer;
+  private transient long fileSize;
+
+  /**
+   * Initializes the log
+   *
+   * @param config where and how many operations are kept
+   * @param explainer used to get the plans of the slowest statements
+   * @since 0.1.0
+   */
+  public SlowOperationLog(Config config, StatementExplainer explainer) {
+    this.capacity = Math.max(1, config.capacity);
+    this.operations = new ArrayDeque<>(capacity);
+    this.config = config;
+    this.explainer = explainer;
+    this.executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, THREAD_NAME);
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  /**
+   * Keeps the operation, dropping the oldest one when the log is full
+   *
+   * @param operation the slow operation
+   * @since 0.1.0
+   */
+  public void record(SlowOperation operation) {
+    if (!config.explain) {
+      operation.getStatements().forEach(SlowOperation.Statement::takeExecution);
+    }
+
+    synchronized (operations) {
+      if (operations.size() == capacity) {
+        operations.removeFirst();
+      }
+      operations.addLast(operation);
+    }
+
+    if (config.explain || config.file.isPresent()) {
+      executor.execute(() -> process(operation));
+    }
+  }
+
+  /**
+   * Returns the last slow operations
+   *
+   * @param max maximum number of operations to return
+   * @return the operations, most recent first
+   * @since 0.1.0
+   */
+  public List<SlowOperation> list(int max) {
+    List<SlowOperation> last = new ArrayList<>();
+    synchronized (operations) {
+      operations.descendingIterator().forEachRemaining(last::add);
+    }
+    return last.stream().limit(Math.max(0, max)).collect(Collectors.toList());
+  }
+
+  /**
+   * Waits for the operations already recorded to be written, and closes the file
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public void close() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException ex) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    closeWriter();
+  }
+
+  private void process(SlowOperation operation) {
+    if (config.explain) {
+      // bound values are kept until here, they're dropped once statements are explained
+      operation.getStatements().stream()
+          .sorted(Comparator.comparingDouble(SlowOperation.Statement::getDurationMillis).reversed())
+          .limit(config.explainStatements)
+          .forEach(
+              statement ->
+                  statement
+                      .takeExecution()
+                      .flatMap(explainer::explain)
+                      .ifPresent(statement::setPlan));
+    }
+    operation.getStatements().forEach(SlowOperation.Statement::takeExecution);
+
+    config.file.ifPresent(file -> write(file, operation));
+  }
+
+  private void write(Path file, SlowOperation operation) {
+    try {
+      String line = MAPPER.writeValueAsString(toMap(operation)) + System.lineSeparator();
+      long bytes = line.getBytes(UTF_8).length;
+
+      if (writer != null && fileSize > 0 && fileSize + bytes > config.maxFileBytes) {
+        closeWriter();
+        rotate(file);
+      }
+      if (writer == null) {
+        writer = open(file);
+      }
+
+      writer.write(line);
+      writer.flush();
+      fileSize += bytes;
+    } catch (JsonProcessingException ex) {
+      LOG.warn("slow operation couldn't be serialized: {}", ex.getMessage());
+    } catch (IOException ex) {
+      LOG.warn("slow operation couldn't be written to {}: {}", file, ex.getMessage());
+      closeWriter();
+    }
+  }
+
+  private Writer open(Path file) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    fileSize = Files.exists(file) ? Files.size(file) : 0;
+
+    return Files.newBufferedWriter(
+        file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private void rotate(Path file) throws IOException {
+    Files.deleteIfExists(rotated(file, config.maxFiles));
+    for (int i = config.maxFiles - 1; i > 0; i--) {
+      if (Files.exists(rotated(file, i))) {
+        Files.move(rotated(file, i), rotated(file, i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    if (config.maxFiles > 0) {
+      Files.move(file, rotated(file, 1), StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.delete(file);
+    }
+  }
+
+  private void closeWriter() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException ex) {
+      LOG.warn("slow operations file couldn't be closed: {}", ex.getMessage());
+    }
+    writer = null;
+  }
+
+  private static Path rotated(Path file, int index) {
+    return file.resolveSibling(file.getFileName() + "." + index);
+  }
+
+  private static Map<String, Object> toMap(SlowOperation operation) {
+    Map<String, Object> json = new LinkedHashMap<>();
+
+    json.put("createdAt", operation.getCreatedAtDateTime().toString());
+    json.put("operationName", operation.getOperationName());
+    json.put("operationHash", operation.getOperationHash());
+    json.put("durationMillis", operation.getDurationMillis());
+    json.put("variables", operation.getVariables());
+    json.put("statementCount", operation.getStatementCount());
+    json.put("rowCount", operation.getRowCount());
+    json.put("resolvers", operation.getResolvers());
+    json.put("statements", operation.getStatements());
+
+    return json;
+  }
+
+  /**
+   * Where and how many slow operations are kept
+   *
+   * @since 0.1.0
+   */
+  @Singleton
+  public static class Config {
+    private final transient int capacity;
+    private final transient Optional<Path> file;
+    private final transient long maxFileBytes;
+    private final transient int maxFiles;
+    private final transient boolean explain;
+    private final transient int explainStatements;
+
+    /**
+     * Initializes the configuration
+     *
+     * @param capacity number of operations kept in memory
+     * @param file file operations are appended to, no file is written if it's empty
+     * @param maxFileSizeMb size of the file before it's rotated
+     * @param maxFiles number of rotated files kept
+     * @param explain whether to explain the slowest statements or not
+     * @param explainStatements number of statements explained per operation
+     * @since 0.1.0
+     */
+    public Config(
+        @Value("${graphql.slow-operations.capacity:100}") int capacity,
+        @Value("${graphql.slow-operations.file:}") String file,
+        @Value("${graphql.slow-operations.max-file-size-mb:10}") long maxFileSizeMb,
+        @Value("${graphql.slow-operations.max-files:5}") int maxFiles,
+        @Value("${graphql.slow-operations.explain:false}") boolean explain,
+        @Value("${graphql.slow-operations.explain-statements:3}") int explainStatements) {
+      this.capacity = capacity;
+      this.file = Optional.ofNullable(file).filter(f -> !f.isBlank()).map(Paths::get);
+      this.maxFileBytes = maxFileSizeMb * BYTES_PER_MB;
+      this.maxFiles = Math.max(0, maxFiles);
+      this.explain = explain;
+      this.explainStatements = explainStatements;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micronaut.context.annotation.Value;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Singleton;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.graphql.dataloader.CountingBatchLoader;
+import patio.infrastructure.persistence.StatementCounter;
+
+/**
+ * Counts the SQL statements executed, and the rows they read or changed, by every GraphQL
+ * operation. Counts are added to the response <b>extensions</b> when <b>graphql.debug</b> is
+ * enabled. Slow operations are reported with their counts by {@link SlowOperationInstrumentation}.
+ *
+ * <p>The counter of the operation is kept in its {@link Context} and it's only active while a non
+ * trivial resolver runs, in whatever thread graphql-java runs it. Batch loads dispatched by data
+ * loaders are counted by {@link CountingBatchLoader}, which activates the counters of the
+ * operations that requested the keys. Statements executed by the operation outside resolvers, or by
+ * resolvers once their future is returned, are not counted.
+ *
+ * @since 0.1.0
+ * @see StatementCounter
+ */
+@Singleton
+public class StatementCountInstrumentation extends SimpleInstrumentation {
+
+  /**
+   * Name of the response extension holding the counts
+   *
+   * @since 0.1.0
+   */
+  public static final String EXTENSION = "sql";
+
+  private final transient boolean debug;
+
+  /**
+   * Initializes the instrumentation
+   *
+   * @param debug whether to add the counts to the response extensions or not
+   * @since 0.1.0
+   */
+  public StatementCountInstrumentation(@Value("${graphql.debug:false}") boolean debug) {
+    this.debug = debug;
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters params) {
+    StatementCountState state = new StatementCountState();
+    Object context = params.getExecutionInput().getContext();
+    if (context instanceof Context) {
+      ((Context) context).setStatementCounter(state.counter);
+    }
+
+    return state;
+  }
+
+  @Override
+  public DataFetcher<?> instrumentDataFetcher(
+      DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters params) {
+    if (params.isTrivialDataFetcher()) {
+      return dataFetcher;
+    }
+
+    StatementCountState state = params.getInstrumentationState();
+    return (env) -> {
+      try (StatementCounter.Scope scope = state.counter.activate()) {
+        return dataFetcher.get(env);
+      }
+    };
+  }
+
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+      ExecutionResult executionResult, InstrumentationExecutionParameters params) {
+    if (!debug) {
+      return CompletableFuture.completedFuture(executionResult);
+    }
+
+    StatementCountState state = params.getInstrumentationState();
+    StatementCounter counter = state.counter;
+
+    Map<String, Object> counts = new LinkedHashMap<>();
+    counts.put("statements", counter.getStatements());
+    counts.put("rows", counter.getRows());
+
+    return CompletableFuture.completedFuture(
+        ExecutionResultImpl.newExecutionResult()
+            .from(executionResult)
+            .addExtension(EXTENSION, counts)
+            .build());
+  }
+
+  /**
+   * Keeps the counter of the operation
+   *
+   * @since 0.1.0
+   */
+  private static class StatementCountState implements InstrumentationState {
+    private final transient StatementCounter counter = new StatementCounter();
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionPath;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLTypeUtil;
+import java.util.Optional;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.tracing.Span;
+import patio.infrastructure.tracing.Tracer;
+
+/**
+ * Records a span per GraphQL operation and a child span per non trivial resolver. Resolver spans
+ * are active while their fetcher runs, so service and repository spans become their children. The
+ * operation span is the one started when the request arrived, if any, so it includes the principal
+ * lookup.
+ *
+ * <p>It should be the first instrumentation of the chain: its span covers the checks done by the
+ * following instrumentations while only the fetcher itself runs with the resolver span active.
+ *
+ * @since 0.1.0
+ */
+public class TracingInstrumentation extends SimpleInstrumentation {
+
+  /**
+   * Name of the span of a GraphQL operation
+   *
+   * @since 0.1.0
+   */
+  public static final String OPERATION_SPAN = "graphql.operation";
+
+  private final transient Tracer tracer;
+
+  /**
+   * Initializes the instrumentation
+   *
+   * @param tracer used to start spans
+   * @since 0.1.0
+   */
+  public TracingInstrumentation(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public InstrumentationState createState(InstrumentationCreateStateParameters params) {
+    return new TracingState();
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters params) {
+    if (!tracer.isEnabled()) {
+      return super.beginExecution(params);
+    }
+
+    Object context = params.getContext();
+    Span span =
+        Optional.ofNullable(context)
+            .filter(Context.class::isInstance)
+            .map(Context.class::cast)
+            .map(Context::getSpan)
+            .filter(Span::isRecording)
+            .orElseGet(() -> tracer.start(OPERATION_SPAN));
+
+    span.tag("graphql.operation.name", params.getOperation());
+    TracingState state = params.getInstrumentationState();
+    state.setOperation(span);
+
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, error) -> {
+          if (error != null) {
+            span.error(error);
+          } else if (result != null && !result.getErrors().isEmpty()) {
+            span.tag("graphql.errors", result.getErrors().size());
+          }
+          span.end();
+        });
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters params) {
+    TracingState state = params.getInstrumentationState();
+    state
+        .getOperation()
+        .tag(
+            "graphql.operation.type",
+            params.getExecutionContext().getOperationDefinition().getOperation());
+
+    return super.beginExecuteOperation(params);
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters params) {
+    if (!tracer.isEnabled() || params.isTrivialDataFetcher()) {
+      return super.beginFieldFetch(params);
+    }
+
+    TracingState state = params.getInstrumentationState();
+    ExecutionPath path = params.getEnvironment().getExecutionStepInfo().getPath();
+    String parentType = GraphQLTypeUtil.simplePrint(params.getEnvironment().getParentType());
+    Span span =
+        tracer
+            .start(
+                parentType + "." + params.getField().getName(),
+                state.getParentOf(path).getContext())
+            .tag("graphql.field.path", path);
+
+    state.putResolver(path, span);
+
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, error) -> {
+          if (error != null) {
+            span.error(error);
+          }
+          span.end();
+        });
+  }
+
+  @Override
+  public DataFetcher<?> instrumentDataFetcher(
+      DataFetcher<?> fetcher, InstrumentationFieldFetchParameters params) {
+    if (!tracer.isEnabled() || params.isTrivialDataFetcher()) {
+      return fetcher;
+    }
+
+    TracingState state = params.getInstrumentationState();
+
+    return env -> {
+      Optional<Span> span = state.getResolver(env.getExecutionStepInfo().getPath());
+      if (span.isEmpty()) {
+        return fetcher.get(env);
+      }
+
+      try (Span.Scope scope = span.get().activate()) {
+        return fetcher.get(env);
+      }
+    };
+  }
+}
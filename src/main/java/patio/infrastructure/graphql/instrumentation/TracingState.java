@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.instrumentation;
+
+import graphql.execution.ExecutionPath;
+import graphql.execution.instrumentation.InstrumentationState;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import patio.infrastructure.tracing.Span;
+
+/**
+ * Keeps the spans of a GraphQL operation and of its resolvers by execution path
+ *
+ * @since 0.1.0
+ */
+class TracingState implements InstrumentationState {
+  private final transient Map<ExecutionPath, Span> resolvers = new ConcurrentHashMap<>();
+  private transient Span operation = Span.NOOP;
+
+  /**
+   * Returns the span of the whole operation
+   *
+   * @return the operation span
+   * @since 0.1.0
+   */
+  /* default */ Span getOperation() {
+    return operation;
+  }
+
+  /**
+   * Sets the span of the whole operation
+   *
+   * @param operation the operation span
+   * @since 0.1.0
+   */
+  /* default */ void setOperation(Span operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * Keeps the span of the resolver of the field at the given path
+   *
+   * @param path execution path of the field
+   * @param span the resolver span
+   * @since 0.1.0
+   */
+  /* default */ void putResolver(ExecutionPath path, Span span) {
+    resolvers.put(path, span);
+  }
+
+  /**
+   * Returns the span of the resolver of the field at the given path
+   *
+   * @param path execution path of the field
+   * @return the resolver span or an empty {@link Optional} if the field wasn't traced
+   * @since 0.1.0
+   */
+  /* default */ Optional<Span> getResolver(ExecutionPath path) {
+    return Optional.ofNullable(resolvers.get(path));
+  }
+
+  /**
+   * Returns the span a new resolver span should be a child of: the closest traced ancestor field or
+   * the operation if there's none
+   *
+   * @param path execution path of the field being resolved
+   * @return the parent span
+   * @since 0.1.0
+   */
+  /* default */ Span getParentOf(ExecutionPath path) {
+    List<Object> segments = path.toList();
+
+    for (int size = segments.size() - 1; size > 0; size--) {
+      Span ancestor = resolvers.get(ExecutionPath.fromList(segments.subList(0, size)));
+      if (ancestor != null) {
+        return ancestor;
+      }
+    }
+
+    return operation;
+  }
+}
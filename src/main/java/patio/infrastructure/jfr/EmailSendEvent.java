@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import patio.infrastructure.email.domain.Email;
+
+/**
+ * Flight recorder event emitted for every email sent through an email provider
+ *
+ * @since 0.1.0
+ */
+@Name("patio.EmailSend")
+@Label("Email Send")
+@Category({"Patio", "Email"})
+@Description("Delivery of an email to the email provider")
+@StackTrace(false)
+@SuppressWarnings("PMD.BeanMembersShouldSerialize") // JFR doesn't record transient fields
+public class EmailSendEvent extends Event {
+
+  @Label("Provider")
+  private final String provider;
+
+  @Label("Recipients")
+  @Description("Number of to, cc and bcc recipients")
+  private final int recipients;
+
+  @Label("Sent")
+  @Description("Whether the provider accepted the email or not")
+  private boolean sent;
+
+  /**
+   * Initializes the event
+   *
+   * @param provider name of the email provider (e.g. ses or smtp)
+   * @param email the email being sent
+   * @since 0.1.0
+   */
+  public EmailSendEvent(String provider, Email email) {
+    super();
+    this.provider = provider;
+    this.recipients = 1 + sizeOf(email.getCc()) + sizeOf(email.getBcc());
+  }
+
+  /**
+   * Sets whether the provider accepted the email or not
+   *
+   * @param sent true if the email was sent
+   * @since 0.1.0
+   */
+  public void setSent(boolean sent) {
+    this.sent = sent;
+  }
+
+  private static int sizeOf(List<String> addresses) {
+    return addresses == null ? 0 : addresses.size();
+  }
+}
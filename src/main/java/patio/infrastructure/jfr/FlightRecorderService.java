@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import io.micronaut.context.annotation.Value;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts and dumps a flight recording on demand. The recording uses the low overhead <b>default</b>
+ * JFR settings plus the application events, and it's bounded by age, size and duration so it can be
+ * left running in production. When no recording is running the application events cost a single
+ * check.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class FlightRecorderService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderService.class);
+  private static final String RECORDING_NAME = "patio";
+  private static final String SETTINGS = "default";
+  private static final String NONE = "NONE";
+  private static final DateTimeFormatter FILE_SUFFIX =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+  private static final List<Class<? extends Event>> EVENTS =
+      List.of(
+          GraphQLOperationEvent.class,
+          VotingCheckEvent.class,
+          EmailSendEvent.class,
+          StatsRecomputationEvent.class);
+
+  private final transient Duration maxAge;
+  private final transient long maxSize;
+  private final transient Duration duration;
+  private final transient Path directory;
+  private final transient Clock clock;
+
+  private transient Recording recording;
+  private transient Path lastDump;
+
+  /**
+   * Initializes the service
+   *
+   * @param maxAge maximum age of the recorded data
+   * @param maxSizeMb maximum size, in megabytes, of the recorded data
+   * @param duration time after which a started recording stops by itself
+   * @param directory directory dumps are written to
+   * @since 0.1.0
+   */
+  public FlightRecorderService(
+      @Value("${jfr.max-age:30m}") Duration maxAge,
+      @Value("${jfr.max-size-mb:100}") long maxSizeMb,
+      @Value("${jfr.duration:2h}") Duration duration,
+      @Value("${jfr.directory:recordings}") String directory) {
+    this(maxAge, maxSizeMb * 1024 * 1024, duration, Paths.get(directory), Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the service
+   *
+   * @param maxAge maximum age of the recorded data
+   * @param maxSize maximum size, in bytes, of the recorded data
+   * @param duration time after which a started recording stops by itself
+   * @param directory directory dumps are written to
+   * @param clock used to name the dumped files
+   * @since 0.1.0
+   */
+  public FlightRecorderService(
+      Duration maxAge, long maxSize, Duration duration, Path directory, Clock clock) {
+    this.maxAge = maxAge;
+    this.maxSize = maxSize;
+    this.duration = duration;
+    this.directory = directory;
+    this.clock = clock;
+  }
+
+  /**
+   * Starts a new recording unless there's one already running
+   *
+   * @return the status of the running recording
+   * @since 0.1.0
+   */
+  public synchronized RecordingStatus start() {
+    if (isRunning()) {
+      return getStatus();
+    }
+
+    closeRecording();
+    recording = new Recording(loadSettings());
+    recording.setName(RECORDING_NAME);
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSize);
+    recording.setDuration(duration);
+    EVENTS.forEach(event -> recording.enable(event).withoutThreshold());
+    recording.start();
+
+    LOG.info("flight recording started (max age {}, max size {} bytes)", maxAge, maxSize);
+    return getStatus();
+  }
+
+  /**
+   * Writes the data recorded so far to a new file in the configured directory
+   *
+   * @return the file written or an empty {@link Optional} if no recording was started
+   * @since 0.1.0
+   */
+  public synchronized Optional<Path> dump() {
+    if (recording == null || recording.getState() == RecordingState.CLOSED) {
+      return Optional.empty();
+    }
+
+    Path file =
+        directory.resolve(RECORDING_NAME + "-" + FILE_SUFFIX.format(clock.instant()) + ".jfr");
+    try {
+      Files.createDirectories(directory);
+      recording.dump(file);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    lastDump = file;
+    LOG.info("flight recording dumped to {}", file.toAbsolutePath());
+    return Optional.of(file);
+  }
+
+  /**
+   * Stops the running recording discarding the data not dumped
+   *
+   * @return the status of the stopped recording
+   * @since 0.1.0
+   */
+  public synchronized RecordingStatus stop() {
+    closeRecording();
+    LOG.info("flight recording stopped");
+    return getStatus();
+  }
+
+  /**
+   * Returns the state of the recording
+   *
+   * @return the current {@link RecordingStatus}
+   * @since 0.1.0
+   */
+  public synchronized RecordingStatus getStatus() {
+    if (recording == null) {
+      return new RecordingStatus(NONE, null, maxAge, maxSize, duration, lastDump);
+    }
+
+    return new RecordingStatus(
+        recording.getState().name(),
+        recording.getStartTime(),
+        recording.getMaxAge(),
+        recording.getMaxSize(),
+        recording.getDuration(),
+        lastDump);
+  }
+
+  /**
+   * Discards the running recording when the application stops
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public synchronized void close() {
+    closeRecording();
+  }
+
+  private boolean isRunning() {
+    return recording != null && recording.getState() == RecordingState.RUNNING;
+  }
+
+  private void closeRecording() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private static Configuration loadSettings() {
+    try {
+      return Configuration.getConfiguration(SETTINGS);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (ParseException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event emitted for every executed GraphQL operation
+ *
+ * @since 0.1.0
+ */
+@Name("patio.GraphQLOperation")
+@Label("GraphQL Operation")
+@Category({"Patio", "GraphQL"})
+@Description("Execution of a GraphQL query or mutation")
+@StackTrace(false)
+@SuppressWarnings("PMD.BeanMembersShouldSerialize") // JFR doesn't record transient fields
+public class GraphQLOperationEvent extends Event {
+
+  @Label("Operation Name")
+  private String operationName;
+
+  @Label("Operation Type")
+  private String operationType;
+
+  @Label("Field Count")
+  @Description("Number of fields resolved")
+  private int fieldCount;
+
+  @Label("Error Count")
+  private int errorCount;
+
+  /**
+   * Sets the name of the operation
+   *
+   * @param operationName the operation name, null if the document had an anonymous operation
+   * @since 0.1.0
+   */
+  public void setOperationName(String operationName) {
+    this.operationName = operationName;
+  }
+
+  /**
+   * Sets the type of the operation
+   *
+   * @param operationType QUERY, MUTATION or SUBSCRIPTION
+   * @since 0.1.0
+   */
+  public void setOperationType(String operationType) {
+    this.operationType = operationType;
+  }
+
+  /**
+   * Sets the number of fields resolved by the operation
+   *
+   * @param fieldCount number of fields
+   * @since 0.1.0
+   */
+  public void setFieldCount(int fieldCount) {
+    this.fieldCount = fieldCount;
+  }
+
+  /**
+   * Sets the number of errors in the result of the operation
+   *
+   * @param errorCount number of errors
+   * @since 0.1.0
+   */
+  public void setErrorCount(int errorCount) {
+    this.errorCount = errorCount;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import io.micronaut.http.HttpResponse;
+import io.micronaut.management.endpoint.annotation.Delete;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import io.micronaut.management.endpoint.annotation.Selector;
+import io.micronaut.management.endpoint.annotation.Write;
+
+/**
+ * Management endpoint to diagnose slow periods in production with Java Flight Recorder:
+ *
+ * <ul>
+ *   <li><b>GET /recording</b>: returns the state of the recording
+ *   <li><b>POST /recording/start</b>: starts a bounded recording if there's none running
+ *   <li><b>POST /recording/dump</b>: dumps what has been recorded so far to a file
+ *   <li><b>DELETE /recording</b>: stops the recording
+ * </ul>
+ *
+ * <p>It's disabled by default and should only be reachable through the management port (see
+ * <b>endpoints.all.port</b>). It's also sensitive by default, so requests are rejected unless the
+ * endpoint is explicitly marked as not sensitive with <b>endpoints.recording.sensitive: false</b>,
+ * which should only be done when the management port isn't publicly reachable.
+ *
+ * @since 0.1.0
+ */
+@Endpoint(id = "recording", defaultEnabled = false, defaultSensitive = true)
+public class RecordingEndpoint {
+
+  private static final String START = "start";
+  private static final String DUMP = "dump";
+
+  private final transient FlightRecorderService flightRecorderService;
+
+  /**
+   * Initializes the endpoint
+   *
+   * @param flightRecorderService to control the recording
+   * @since 0.1.0
+   */
+  public RecordingEndpoint(FlightRecorderService flightRecorderService) {
+    this.flightRecorderService = flightRecorderService;
+  }
+
+  /**
+   * Returns the state of the recording
+   *
+   * @return the current {@link RecordingStatus}
+   * @since 0.1.0
+   */
+  @Read
+  public RecordingStatus status() {
+    return flightRecorderService.getStatus();
+  }
+
+  /**
+   * Starts a bounded recording, unless there's one already running, or dumps the data recorded so
+   * far to a file
+   *
+   * @param action either <b>start</b> or <b>dump</b>
+   * @return the status of the recording, including the last file written
+   * @since 0.1.0
+   */
+  @Write
+  public HttpResponse<RecordingStatus> execute(@Selector String action) {
+    switch (action) {
+      case START:
+        return HttpResponse.ok(flightRecorderService.start());
+      case DUMP:
+        flightRecorderService.dump();
+        return HttpResponse.ok(flightRecorderService.getStatus());
+      default:
+        return HttpResponse.badRequest(flightRecorderService.getStatus());
+    }
+  }
+
+  /**
+   * Stops the recording discarding the data not dumped
+   *
+   * @return the status of the stopped recording
+   * @since 0.1.0
+   */
+  @Delete
+  public RecordingStatus stop() {
+    return flightRecorderService.stop();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Describes the state of the flight recording started on demand
+ *
+ * @since 0.1.0
+ */
+public class RecordingStatus {
+
+  private final transient String state;
+  private final transient Instant startTime;
+  private final transient Duration maxAge;
+  private final transient long maxSize;
+  private final transient Duration duration;
+  private final transient Path lastDump;
+
+  /**
+   * Initializes the status
+   *
+   * @param state NEW, RUNNING, STOPPED, CLOSED or NONE if no recording was started
+   * @param startTime when the recording started
+   * @param maxAge maximum age of the recorded data
+   * @param maxSize maximum size, in bytes, of the recorded data
+   * @param duration time after which the recording stops by itself
+   * @param lastDump the last file the recording was dumped to
+   * @since 0.1.0
+   */
+  public RecordingStatus(
+      String state,
+      Instant startTime,
+      Duration maxAge,
+      long maxSize,
+      Duration duration,
+      Path lastDump) {
+    this.state = state;
+    this.startTime = startTime;
+    this.maxAge = maxAge;
+    this.maxSize = maxSize;
+    this.duration = duration;
+    this.lastDump = lastDump;
+  }
+
+  /**
+   * Returns the state of the recording
+   *
+   * @return NEW, RUNNING, STOPPED, CLOSED or NONE if no recording was started
+   * @since 0.1.0
+   */
+  public String getState() {
+    return state;
+  }
+
+  /**
+   * Returns when the recording started
+   *
+   * @return the start time or null if it hasn't started
+   * @since 0.1.0
+   */
+  public String getStartTime() {
+    return startTime == null ? null : startTime.toString();
+  }
+
+  /**
+   * Returns the maximum age of the recorded data
+   *
+   * @return an ISO-8601 duration
+   * @since 0.1.0
+   */
+  public String getMaxAge() {
+    return maxAge == null ? null : maxAge.toString();
+  }
+
+  /**
+   * Returns the maximum size of the recorded data
+   *
+   * @return the size in bytes
+   * @since 0.1.0
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the time after which the recording stops by itself
+   *
+   * @return an ISO-8601 duration
+   * @since 0.1.0
+   */
+  public String getDuration() {
+    return duration == null ? null : duration.toString();
+  }
+
+  /**
+   * Returns the last file the recording was dumped to
+   *
+   * @return the absolute path of the file or null if it hasn't been dumped
+   * @since 0.1.0
+   */
+  public String getLastDump() {
+    return lastDump == null ? null : lastDump.toAbsolutePath().toString();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import java.util.UUID;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event emitted every time the statistics of a voting are calculated
+ *
+ * @since 0.1.0
+ */
+@Name("patio.StatsRecomputation")
+@Label("Stats Recomputation")
+@Category({"Patio", "Voting"})
+@Description("Calculation of the average or moving average of a voting")
+@StackTrace(false)
+@SuppressWarnings("PMD.BeanMembersShouldSerialize") // JFR doesn't record transient fields
+public class StatsRecomputationEvent extends Event {
+
+  @Label("Statistic")
+  @Description("Statistic being calculated (e.g. average or movingAverage)")
+  private final String statistic;
+
+  @Label("Voting Id")
+  private final String votingId;
+
+  /**
+   * Initializes the event
+   *
+   * @param statistic statistic being calculated
+   * @param votingId id of the voting, null if it's not saved yet
+   * @since 0.1.0
+   */
+  public StatsRecomputationEvent(String statistic, UUID votingId) {
+    super();
+    this.statistic = statistic;
+    this.votingId = votingId == null ? null : votingId.toString();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event emitted every time the scheduler checks which votings should be created or
+ * expired
+ *
+ * @since 0.1.0
+ */
+@Name("patio.VotingCheck")
+@Label("Voting Check")
+@Category({"Patio", "Scheduling"})
+@Description("Scheduled creation and expiration of votings")
+@StackTrace(false)
+@SuppressWarnings("PMD.BeanMembersShouldSerialize") // JFR doesn't record transient fields
+public class VotingCheckEvent extends Event {
+
+  @Label("Votings Created")
+  private int votingsCreated;
+
+  @Label("Votings Expired")
+  private int votingsExpired;
+
+  /**
+   * Counts a new voting created for a group
+   *
+   * @since 0.1.0
+   */
+  public void votingCreated() {
+    this.votingsCreated++;
+  }
+
+  /**
+   * Counts a voting that has expired
+   *
+   * @since 0.1.0
+   */
+  public void votingExpired() {
+    this.votingsExpired++;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+/**
+ * Hits, misses and puts of a second level cache region since the application started
+ *
+ * @since 0.1.0
+ */
+public class CacheRegionMetrics {
+
+  private final transient long hits;
+  private final transient long misses;
+  private final transient long puts;
+
+  /**
+   * Initializes the metrics
+   *
+   * @param hits number of lookups found in the region
+   * @param misses number of lookups not found in the region
+   * @param puts number of entries put in the region
+   * @since 0.1.0
+   */
+  public CacheRegionMetrics(long hits, long misses, long puts) {
+    this.hits = hits;
+    this.misses = misses;
+    this.puts = puts;
+  }
+
+  /**
+   * Returns the number of lookups found in the region
+   *
+   * @return the number of hits
+   * @since 0.1.0
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups not found in the region
+   *
+   * @return the number of misses
+   * @since 0.1.0
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of entries put in the region
+   *
+   * @return the number of puts
+   * @since 0.1.0
+   */
+  public long getPuts() {
+    return puts;
+  }
+
+  /**
+   * Returns the ratio of lookups found in the region
+   *
+   * @return a value between 0 and 1, 0 if there were no lookups
+   * @since 0.1.0
+   */
+  public double getHitRatio() {
+    long total = hits + misses;
+
+    return total == 0 ? 0 : (double) hits / total;
+  }
+}
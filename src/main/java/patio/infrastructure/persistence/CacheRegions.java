@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+/**
+ * Names of the second level cache regions. Every region has its own size and expiration in the
+ * <b>application.conf</b> cache configuration file.
+ *
+ * @since 0.1.0
+ */
+public final class CacheRegions {
+
+  /**
+   * Region keeping {@link patio.group.domain.Group} entities
+   *
+   * @since 0.1.0
+   */
+  public static final String GROUPS = "patio-groups";
+
+  /**
+   * Region keeping the members collection of every {@link patio.group.domain.Group}
+   *
+   * @since 0.1.0
+   */
+  public static final String GROUP_MEMBERS = "patio-group-members";
+
+  /**
+   * Region keeping {@link patio.user.domain.User} entities
+   *
+   * @since 0.1.0
+   */
+  public static final String USERS = "patio-users";
+
+  /**
+   * Region keeping the groups collection of every {@link patio.user.domain.User}
+   *
+   * @since 0.1.0
+   */
+  public static final String USER_GROUPS = "patio-user-groups";
+
+  /**
+   * Region keeping {@link patio.group.domain.UserGroup} entities
+   *
+   * @since 0.1.0
+   */
+  public static final String MEMBERSHIPS = "patio-memberships";
+
+  /**
+   * Query cache region keeping the results of membership lookups
+   *
+   * @since 0.1.0
+   */
+  public static final String MEMBERSHIP_QUERIES = "patio-membership-queries";
+
+  private CacheRegions() {
+    /* empty */
+  }
+}
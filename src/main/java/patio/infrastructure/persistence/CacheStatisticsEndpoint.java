@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import java.util.Map;
+
+/**
+ * Management endpoint publishing the metrics of every second level cache region:
+ *
+ * <ul>
+ *   <li><b>GET /cache-statistics</b>: hits, misses, puts and hit ratio by region name
+ * </ul>
+ *
+ * <p>Like the rest of management endpoints it's served by the management port (see
+ * <b>endpoints.all.port</b>).
+ *
+ * @since 0.1.0
+ * @see CacheStatisticsReporter
+ */
+@Endpoint(id = "cache-statistics", defaultSensitive = false)
+public class CacheStatisticsEndpoint {
+
+  private final transient CacheStatisticsReporter reporter;
+
+  /**
+   * Initializes the endpoint
+   *
+   * @param reporter to get the metrics of every region from
+   * @since 0.1.0
+   */
+  public CacheStatisticsEndpoint(CacheStatisticsReporter reporter) {
+    this.reporter = reporter;
+  }
+
+  /**
+   * Returns the metrics of every cache region accessed so far
+   *
+   * @return a map with the {@link CacheRegionMetrics} of every region by region name
+   * @since 0.1.0
+   */
+  @Read
+  public Map<String, CacheRegionMetrics> metrics() {
+    return reporter.getMetrics();
+  }
+}
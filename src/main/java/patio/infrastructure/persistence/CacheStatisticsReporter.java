@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import io.micronaut.scheduling.annotation.Scheduled;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.inject.Singleton;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports how effective every second level cache region is. Region metrics are logged periodically
+ * and published by {@link CacheStatisticsEndpoint}. Hibernate only gathers them when the property
+ * <b>hibernate.generate_statistics</b> is enabled.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class CacheStatisticsReporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CacheStatisticsReporter.class);
+
+  private static final List<String> REGIONS =
+      List.of(
+          CacheRegions.GROUPS,
+          CacheRegions.GROUP_MEMBERS,
+          CacheRegions.USERS,
+          CacheRegions.USER_GROUPS,
+          CacheRegions.MEMBERSHIPS,
+          CacheRegions.MEMBERSHIP_QUERIES);
+
+  private final transient Statistics statistics;
+
+  /**
+   * Initializes the reporter
+   *
+   * @param entityManagerFactory to get Hibernate statistics from
+   * @since 0.1.0
+   */
+  public CacheStatisticsReporter(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  /**
+   * Returns the hit ratio, between 0 and 1, of every cache region accessed so far
+   *
+   * @return a map with the hit ratio of every region by region name
+   * @since 0.1.0
+   */
+  public Map<String, Double> getHitRatios() {
+    Map<String, Double> ratios = new LinkedHashMap<>();
+    getMetrics().forEach((region, metrics) -> ratios.put(region, metrics.getHitRatio()));
+    return ratios;
+  }
+
+  /**
+   * Returns the hits, misses and puts of every cache region accessed so far
+   *
+   * @return a map with the {@link CacheRegionMetrics} of every region by region name
+   * @since 0.1.0
+   */
+  public Map<String, CacheRegionMetrics> getMetrics() {
+    Map<String, CacheRegionMetrics> metrics = new LinkedHashMap<>();
+    for (String region : REGIONS) {
+      findRegionStatistics(region)
+          .ifPresent(
+              stats ->
+                  metrics.put(
+                      region,
+                      new CacheRegionMetrics(
+                          stats.getHitCount(), stats.getMissCount(), stats.getPutCount())));
+    }
+    return metrics;
+  }
+
+  /**
+   * Logs the metrics of every cache region
+   *
+   * @since 0.1.0
+   */
+  @Scheduled(fixedDelay = "${second-level-cache.statistics-delay:5m}", initialDelay = "5m")
+  public void report() {
+    if (!statistics.isStatisticsEnabled()) {
+      return;
+    }
+
+    getMetrics()
+        .forEach(
+            (region, metrics) ->
+                LOG.info(
+                    "cache region {}: hits={} misses={} puts={} hit-ratio={}",
+                    region,
+                    metrics.getHits(),
+                    metrics.getMisses(),
+                    metrics.getPuts(),
+                    String.format("%.2f", metrics.getHitRatio())));
+  }
+
+  private Optional<CacheRegionStatistics> findRegionStatistics(String region) {
+    // there're no statistics when the region doesn't exist or the cache is disabled
+    return Optional.ofNullable(statistics.getCacheRegionStatistics(region));
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+/**
+ * Data source whose connections report the statements they execute, and the rows those statements
+ * read or change, to the {@link StatementCounter} active in the current thread. Nothing is counted,
+ * and bound values aren't kept, when there's no active counter.
+ *
+ * @since 0.1.0
+ * @see StatementCountingDataSourceListener
+ */
+public class CountingDataSource implements DataSource {
+
+  private static final Set<String> QUERIES = Set.of("executeQuery");
+  private static final Set<String> UPDATES =
+      Set.of("execute", "executeUpdate", "executeLargeUpdate");
+  private static final Set<String> BATCHES = Set.of("executeBatch", "executeLargeBatch");
+  private static final Set<String> EXECUTIONS =
+      Stream.of(QUERIES, UPDATES, BATCHES).flatMap(Set::stream).collect(Collectors.toSet());
+  private static final String GET_RESULT_SET = "getResultSet";
+  private static final String CLEAR_PARAMETERS = "clearParameters";
+  private static final String SET = "set";
+  private static final String SET_NULL = "setNull";
+  private static final String NEXT = "next";
+
+  private final transient DataSource target;
+
+  /**
+   * Initializes the data source
+   *
+   * @param target the data source actually providing connections
+   * @since 0.1.0
+   */
+  public CountingDataSource(DataSource target) {
+    this.target = target;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxy(Connection.class, target.getConnection(), new ConnectionHandler());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxy(
+        Connection.class, target.getConnection(username, password), new ConnectionHandler());
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return target.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    target.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    target.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return target.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return target.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || target.isWrapperFor(iface);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T instance, Handler handler) {
+    handler.target = instance;
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static String sqlOf(String defaultSql, Object... args) {
+    return args != null && args.length > 0 && args[0] instanceof String
+        ? (String) args[0]
+        : defaultSql;
+  }
+
+  /**
+   * Invokes the proxied JDBC object unwrapping the exceptions thrown by reflection. Proxies are
+   * compared by identity, as they may be kept in hash based collections.
+   *
+   * @since 0.1.0
+   */
+  private abstract static class Handler implements InvocationHandler {
+    protected transient Object target;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object... args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return args.length == 1 && proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return handle(method, args);
+      }
+    }
+
+    /* default */ abstract Object handle(Method method, Object... args) throws Throwable;
+
+    /* default */ Object call(Method method, Object... args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+
+  /**
+   * Wraps the statements created by a connection
+   *
+   * @since 0.1.0
+   */
+  private static class ConnectionHandler extends Handler {
+    @Override
+    @SuppressWarnings("unchecked")
+    /* default */ Object handle(Method method, Object... args) throws Throwable {
+      Object result = call(method, args);
+
+      if (result instanceof Statement && method.getReturnType().isInterface()) {
+        Class<Statement> type = (Class<Statement>) method.getReturnType();
+        return proxy(type, (Statement) result, new StatementHandler(sqlOf(null, args)));
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Counts the statements executed and the rows they changed, keeps how long they took and the
+   * values bound to them, and wraps their result sets
+   *
+   * @since 0.1.0
+   */
+  private static class StatementHandler extends Handler {
+    private final transient String sql;
+    private final transient Map<Integer, Object> binds = new TreeMap<>();
+
+    /* default */ StatementHandler(String sql) {
+      super();
+      this.sql = sql;
+    }
+
+    @Override
+    /* default */ Object handle(Method method, Object... args) throws Throwable {
+      Optional<StatementCounter> current = StatementCounter.current();
+      if (current.isEmpty()) {
+        return call(method, args);
+      }
+
+      String name = method.getName();
+      StatementCounter counter = current.get();
+      if (EXECUTIONS.contains(name)) {
+        long start = System.nanoTime();
+        Object result = call(method, args);
+        counter.addExecution(
+            new StatementExecution(
+                sqlOf(sql, args), System.nanoTime() - start, binds.values().toArray()));
+
+        return count(counter, name, result);
+      }
+
+      bind(name, args);
+      Object result = call(method, args);
+      if (GET_RESULT_SET.equals(name) && result != null) {
+        return proxy(ResultSet.class, (ResultSet) result, new ResultSetHandler(counter));
+      }
+
+      return result;
+    }
+
+    private Object count(StatementCounter counter, String name, Object result) {
+      if (QUERIES.contains(name) && result instanceof ResultSet) {
+        counter.addStatements(1);
+        return proxy(ResultSet.class, (ResultSet) result, new ResultSetHandler(counter));
+      }
+
+      if (UPDATES.contains(name)) {
+        counter.addStatements(1);
+        if (result instanceof Number) {
+          counter.addRows(((Number) result).longValue());
+        }
+      } else if (BATCHES.contains(name)) {
+        long[] counts = toLongs(result);
+        counter.addStatements(counts.length);
+        counter.addRows(Arrays.stream(counts).filter(count -> count > 0).sum());
+      }
+
+      return result;
+    }
+
+    private void bind(String name, Object... args) {
+      if (CLEAR_PARAMETERS.equals(name)) {
+        binds.clear();
+      } else if (name.startsWith(SET)
+          && args != null
+          && args.length > 1
+          && args[0] instanceof Integer) {
+        binds.put((Integer) args[0], SET_NULL.equals(name) ? null : args[1]);
+      }
+    }
+
+    private static long[] toLongs(Object counts) {
+      if (counts instanceof int[]) {
+        return Arrays.stream((int[]) counts).asLongStream().toArray();
+      }
+      return (long[]) counts;
+    }
+  }
+
+  /**
+   * /** Counts the rows read from a result set
+   *
+   * @since 0.1.0
+   */
+  private static class ResultSetHandler extends Handler {
+    private final transient StatementCounter counter;
+
+    /* default */ ResultSetHandler(StatementCounter counter) {
+      super();
+      this.counter = counter;
+    }
+
+    @Override
+    /* default */ Object handle(Method method, Object... args) throws Throwable {
+      Object result = call(method, args);
+
+      if (NEXT.equals(method.getName()) && Boolean.TRUE.equals(result)) {
+        counter.addRows(1);
+      }
+
+      return result;
+    }
+  }
+}
@@ -17,11 +17,22 @@
  */
 package patio.infrastructure.persistence;
 
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.Set;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.PluralAttribute;
+import org.hibernate.Cache;
+import org.hibernate.query.NativeQuery;
 
 /** Base repository to access {@link EntityManager} */
 public class MicroBaseRepository {
+  private static final String UNCACHED_QUERY_SPACE = "patio_uncached";
+
   @PersistenceContext private final transient EntityManager entityManager;
 
   /**
@@ -41,4 +52,83 @@ public class MicroBaseRepository {
   public EntityManager getEntityManager() {
     return entityManager;
   }
+
+  /**
+   * Creates a native SQL statement modifying the database. Hibernate can't tell which tables a
+   * native statement changes, so by default it drops the whole second level cache after running it.
+   * Only the cache regions of the entities passed as arguments are dropped instead, and none if no
+   * entity is passed.
+   *
+   * @param sql the native statement
+   * @param affectedEntities the entities whose cached state may be changed by the statement
+   * @return a {@link Query} ready to receive parameters and be executed
+   */
+  public Query createNativeUpdate(String sql, Class<?>... affectedEntities) {
+    NativeQuery<?> query = getEntityManager().createNativeQuery(sql).unwrap(NativeQuery.class);
+
+    if (affectedEntities.length == 0) {
+      query.addSynchronizedQuerySpace(UNCACHED_QUERY_SPACE);
+    }
+
+    for (Class<?> entity : affectedEntities) {
+      query.addSynchronizedEntityClass(entity);
+    }
+
+    return query;
+  }
+
+  /**
+   * Executes a native statement which modifies the database and returns rows (e.g. <b>INSERT ...
+   * RETURNING</b>). Hibernate only drops cached state for native statements run with {@link
+   * Query#executeUpdate()}, so the entities passed as arguments are evicted explicitly.
+   *
+   * @param query the native statement
+   * @param affectedEntities the entities whose cached state may be changed by the statement
+   * @return the rows returned by the statement
+   * @see #evictFromCache(Class[])
+   */
+  public List<?> getNativeUpdateResultList(Query query, Class<?>... affectedEntities) {
+    List<?> rows = query.getResultList();
+    evictFromCache(affectedEntities);
+
+    return rows;
+  }
+
+  /**
+   * Removes the entities of the given classes, and the collections holding or owned by them, from
+   * the second level cache, now and once the current transaction finishes
+   *
+   * @param entities the entities to evict
+   */
+  public void evictFromCache(Class<?>... entities) {
+    Runnable eviction = () -> evictNow(Set.of(entities));
+    eviction.run();
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(Status status) {
+              eviction.run();
+            }
+          });
+    }
+  }
+
+  private void evictNow(Set<Class<?>> entities) {
+    Cache cache = getEntityManager().getEntityManagerFactory().getCache().unwrap(Cache.class);
+
+    for (EntityType<?> type : getEntityManager().getMetamodel().getEntities()) {
+      if (entities.contains(type.getJavaType())) {
+        cache.evictEntityData(type.getJavaType());
+      }
+
+      for (PluralAttribute<?, ?, ?> collection : type.getPluralAttributes()) {
+        if (entities.contains(type.getJavaType())
+            || entities.contains(collection.getElementType().getJavaType())) {
+          cache.evictCollectionData(type.getJavaType().getName() + "." + collection.getName());
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import java.util.Optional;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+/**
+ * Wraps the default data source with a {@link RoutingDataSource} pointing to the read-only replica.
+ * The replica pool is not registered as a {@link DataSource} bean on purpose, otherwise JPA would
+ * build a second persistence unit for it. It's enabled by setting the property
+ * <b>replica.enabled</b> to <b>true</b>
+ *
+ * @since 0.1.0
+ * @see ReplicaRouting
+ */
+@Singleton
+@Requires(property = "replica.enabled", value = "true")
+public class ReplicaDataSourceListener implements BeanCreatedEventListener<DataSource> {
+
+  private static final String PRIMARY = "default";
+
+  private final transient HikariConfig config;
+  private transient HikariDataSource replica;
+
+  /**
+   * Initializes the replica configuration
+   *
+   * @param url JDBC url of the replica
+   * @param username replica database user
+   * @param password replica database user's password
+   * @param driverClassName JDBC driver class, resolved from the url when empty
+   * @param maximumPoolSize maximum number of connections to the replica
+   * @since 0.1.0
+   */
+  public ReplicaDataSourceListener(
+      @Value("${replica.datasource.url}") String url,
+      @Value("${replica.datasource.username}") String username,
+      @Value("${replica.datasource.password}") String password,
+      @Value("${replica.datasource.driverClassName:}") String driverClassName,
+      @Value("${replica.datasource.maximum-pool-size:10}") int maximumPoolSize) {
+    this.config = new HikariConfig();
+    this.config.setPoolName("replica");
+    this.config.setJdbcUrl(url);
+    this.config.setUsername(username);
+    this.config.setPassword(password);
+    this.config.setMaximumPoolSize(maximumPoolSize);
+    this.config.setReadOnly(true);
+
+    Optional.ofNullable(driverClassName)
+        .filter(driver -> !driver.isBlank())
+        .ifPresent(config::setDriverClassName);
+  }
+
+  @Override
+  public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+    if (!PRIMARY.equals(event.getBeanIdentifier().getName())) {
+      return event.getBean();
+    }
+
+    replica = new HikariDataSource(config);
+    return new RoutingDataSource(event.getBean(), replica);
+  }
+
+  /**
+   * Closes the connections to the replica
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public void close() {
+    Optional.ofNullable(replica).ifPresent(HikariDataSource::close);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Decides whether a read can be served by the read-only replica. Reads are routed to the replica
+ * only when it's enabled and the user hasn't executed a mutation during the last <b>read your
+ * writes window</b>, so users always see their own changes even if the replica lags behind.
+ *
+ * <p>The operations executed through {@link #onReplica(Callable)} get their connections from the
+ * replica. Everything else, like mutations or scheduled jobs, keeps using the primary database.
+ *
+ * @since 0.1.0
+ * @see RoutingDataSource
+ */
+@Singleton
+public class ReplicaRouting {
+
+  private static final ThreadLocal<Boolean> REPLICA = ThreadLocal.withInitial(() -> false);
+
+  private final transient boolean enabled;
+  private final transient Duration window;
+  private final transient Clock clock;
+  private final transient Map<UUID, Instant> recentWriters = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes the routing
+   *
+   * @param enabled whether the replica is enabled or not
+   * @param windowSeconds seconds a user keeps reading from the primary after a mutation
+   * @since 0.1.0
+   */
+  @Inject
+  public ReplicaRouting(
+      @Value("${replica.enabled:false}") boolean enabled,
+      @Value("${replica.read-your-writes-window-seconds:5}") long windowSeconds) {
+    this(enabled, windowSeconds, Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the routing with a specific {@link Clock}
+   *
+   * @param enabled whether the replica is enabled or not
+   * @param windowSeconds seconds a user keeps reading from the primary after a mutation
+   * @param clock clock used to measure the window
+   * @since 0.1.0
+   */
+  public ReplicaRouting(boolean enabled, long windowSeconds, Clock clock) {
+    this.enabled = enabled;
+    this.window = Duration.ofSeconds(windowSeconds);
+    this.clock = clock;
+  }
+
+  /**
+   * Checks whether the reads of the user passed as parameter can be served by the replica
+   *
+   * @param userId the id of the user reading, null if anonymous
+   * @return true if the replica is enabled and the user didn't write recently
+   * @since 0.1.0
+   */
+  public boolean isReplicaAllowed(UUID userId) {
+    if (!enabled) {
+      return false;
+    }
+
+    return Optional.ofNullable(userId)
+        .map(recentWriters::get)
+        .map(until -> !clock.instant().isBefore(until))
+        .orElse(true);
+  }
+
+  /**
+   * Opens the read your writes window of the user passed as parameter
+   *
+   * @param userId the id of the user who executed a mutation
+   * @since 0.1.0
+   */
+  public void recordWrite(UUID userId) {
+    if (enabled) {
+      recentWriters.put(userId, clock.instant().plus(window));
+    }
+  }
+
+  /**
+   * Forgets the users whose read your writes window is already closed
+   *
+   * @since 0.1.0
+   */
+  @Scheduled(fixedDelay = "1m")
+  public void purge() {
+    Instant now = clock.instant();
+    recentWriters.values().removeIf(until -> !now.isBefore(until));
+  }
+
+  /**
+   * Executes the operation using connections from the replica, if enabled
+   *
+   * @param <T> the type of the operation's result
+   * @param operation the operation to execute
+   * @return the operation's result
+   * @throws Exception if the operation fails
+   * @since 0.1.0
+   */
+  @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+  public static <T> T onReplica(Callable<T> operation) throws Exception {
+    boolean previous = REPLICA.get();
+    REPLICA.set(true);
+
+    try {
+      return operation.call();
+    } finally {
+      REPLICA.set(previous);
+    }
+  }
+
+  /**
+   * Whether the current thread is executing an operation meant to be served by the replica
+   *
+   * @return true if the connections should be taken from the replica
+   * @since 0.1.0
+   */
+  public static boolean isReplicaSelected() {
+    return REPLICA.get();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements executed, and the rows they read or changed, while the counter is
+ * active in the current thread. Counting is done by the data source wrapped by {@link
+ * CountingDataSource}. When a counter is activated while another one is already active, statements
+ * are counted by both of them. The first executions are also kept, with their durations, to find
+ * out later which statements made an operation slow.
+ *
+ * @since 0.1.0
+ */
+public class StatementCounter {
+
+  private static final ThreadLocal<StatementCounter> CURRENT = new ThreadLocal<>();
+  private static final int MAX_EXECUTIONS = 100;
+
+  private final transient AtomicLong statements = new AtomicLong();
+  private final transient AtomicLong rows = new AtomicLong();
+  private final transient List<StatementExecution> executions = new ArrayList<>();
+  private transient StatementCounter parent;
+
+  /**
+   * Returns the counter active in the current thread
+   *
+   * @return the active counter or an empty {@link Optional} if there's none
+   * @since 0.1.0
+   */
+  public static Optional<StatementCounter> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Makes this counter the active one in the current thread until the returned scope is closed
+   *
+   * @return a {@link Scope} restoring the previously active counter when closed
+   * @since 0.1.0
+   */
+  public Scope activate() {
+    StatementCounter previous = CURRENT.get();
+    this.parent = previous == this ? null : previous;
+    CURRENT.set(this);
+
+    return () -> {
+      this.parent = null;
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Returns the number of statements executed. Every statement of a batch is counted.
+   *
+   * @return the number of statements
+   * @since 0.1.0
+   */
+  public long getStatements() {
+    return statements.get();
+  }
+
+  /**
+   * Returns the number of rows read by queries or changed by updates
+   *
+   * @return the number of rows
+   * @since 0.1.0
+   */
+  public long getRows() {
+    return rows.get();
+  }
+
+  /**
+   * Returns the first statements executed, at most a hundred of them
+   *
+   * @return the statements executed in order
+   * @since 0.1.0
+   */
+  public List<StatementExecution> getExecutions() {
+    synchronized (executions) {
+      return List.copyOf(executions);
+    }
+  }
+
+  /* default */ void addStatements(long count) {
+    statements.addAndGet(count);
+    if (parent != null) {
+      parent.addStatements(count);
+    }
+  }
+
+  /* default */ void addRows(long count) {
+    rows.addAndGet(count);
+    if (parent != null) {
+      parent.addRows(count);
+    }
+  }
+
+  /* default */ void addExecution(StatementExecution execution) {
+    synchronized (executions) {
+      if (executions.size() < MAX_EXECUTIONS) {
+        executions.add(execution);
+      }
+    }
+    if (parent != null) {
+      parent.addExecution(execution);
+    }
+  }
+
+  /**
+   * Restores the previously active counter when closed
+   *
+   * @since 0.1.0
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
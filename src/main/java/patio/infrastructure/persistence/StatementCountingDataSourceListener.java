@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+/**
+ * Wraps the default data source with a {@link CountingDataSource} so that statements can be counted
+ * per GraphQL operation. It's enabled unless the property <b>sql.counting.enabled</b> is set to
+ * <b>false</b>
+ *
+ * @since 0.1.0
+ * @see StatementCounter
+ */
+@Singleton
+@Requires(property = "sql.counting.enabled", value = "true", defaultValue = "true")
+public class StatementCountingDataSourceListener implements BeanCreatedEventListener<DataSource> {
+
+  private static final String PRIMARY = "default";
+
+  @Override
+  public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+    if (!PRIMARY.equals(event.getBeanIdentifier().getName())) {
+      return event.getBean();
+    }
+
+    return new CountingDataSource(event.getBean());
+  }
+}
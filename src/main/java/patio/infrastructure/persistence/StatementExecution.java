@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A SQL statement executed while a {@link StatementCounter} was active, together with how long it
+ * took and the types of the values bound to it. Bound values are only kept to explain the statement
+ * and are never exposed.
+ *
+ * @since 0.1.0
+ * @see StatementExplainer
+ */
+public class StatementExecution {
+
+  private final transient String sql;
+  private final transient long durationNanos;
+  private final transient Object[] binds;
+
+  /**
+   * Initializes the execution
+   *
+   * @param sql the statement executed
+   * @param durationNanos how long the statement took in nanoseconds
+   * @param binds values bound to the statement parameters, in order
+   * @since 0.1.0
+   */
+  public StatementExecution(String sql, long durationNanos, Object... binds) {
+    this.sql = sql;
+    this.durationNanos = durationNanos;
+    this.binds = binds.clone();
+  }
+
+  /**
+   * Returns the statement executed
+   *
+   * @return the SQL of the statement
+   * @since 0.1.0
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns how long the statement took
+   *
+   * @return the duration in nanoseconds
+   * @since 0.1.0
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * Returns the types of the values bound to the statement parameters, so that executions can be
+   * told apart without exposing the values. Parameters set to null are reported as <b>null</b>.
+   *
+   * @return the simple class name of every bound value
+   * @since 0.1.0
+   */
+  public List<String> getBindShape() {
+    return Arrays.stream(binds)
+        .map(bind -> bind == null ? "null" : bind.getClass().getSimpleName())
+        .collect(Collectors.toList());
+  }
+
+  /* default */ Object[] getBinds() {
+    return binds.clone();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.StringJoiner;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asks the database for the plan of a statement already executed, binding the same values it was
+ * executed with. Only queries are explained, and they're never run again as <b>EXPLAIN</b> without
+ * <b>ANALYZE</b> only plans the statement.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class StatementExplainer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StatementExplainer.class);
+  private static final String EXPLAIN = "EXPLAIN ";
+
+  private final transient DataSource dataSource;
+
+  /**
+   * Initializes the explainer
+   *
+   * @param dataSource data source of the database that executed the statements
+   * @since 0.1.0
+   */
+  public StatementExplainer(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Returns the plan of the statement passed as argument
+   *
+   * @param execution the statement to explain
+   * @return the plan, one line per node, or an empty {@link Optional} if the statement is not a
+   *     query or the plan couldn't be retrieved
+   * @since 0.1.0
+   */
+  public Optional<String> explain(StatementExecution execution) {
+    if (!isQuery(execution.getSql())) {
+      return Optional.empty();
+    }
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(EXPLAIN + execution.getSql())) {
+      bind(statement, execution.getBinds());
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        StringJoiner plan = new StringJoiner(System.lineSeparator());
+        while (resultSet.next()) {
+          plan.add(resultSet.getString(1));
+        }
+        return Optional.of(plan.toString());
+      }
+    } catch (SQLException ex) {
+      LOG.debug("statement couldn't be explained: {}", ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private static boolean isQuery(String sql) {
+    String normalized = Optional.ofNullable(sql).orElse("").stripLeading().toLowerCase(Locale.ROOT);
+    return normalized.startsWith("select") || normalized.startsWith("with");
+  }
+
+  private static void bind(PreparedStatement statement, Object... binds) throws SQLException {
+    for (int i = 0; i < binds.length; i++) {
+      if (binds[i] == null) {
+        statement.setNull(i + 1, Types.NULL);
+      } else {
+        statement.setObject(i + 1, binds[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.startup;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.reactivestreams.Publisher;
+
+/**
+ * Tells the {@link StartupProfiler} when the first GraphQL request has been answered successfully.
+ * Once recorded, requests go straight through the filter.
+ *
+ * @since 0.1.0
+ */
+@Filter("/graphql")
+@Requires(property = "startup.profile.enabled", notEquals = "false")
+public class FirstResponseFilter implements HttpServerFilter {
+
+  private final transient StartupProfiler profiler;
+
+  /**
+   * Initializes the filter
+   *
+   * @param profiler the profiler logging the startup times
+   * @since 0.1.0
+   */
+  public FirstResponseFilter(StartupProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  public Publisher<MutableHttpResponse<?>> doFilter(
+      HttpRequest<?> request, ServerFilterChain chain) {
+    Publisher<MutableHttpResponse<?>> responses = chain.proceed(request);
+
+    if (profiler.isFirstResponseRecorded()) {
+      return responses;
+    }
+
+    return Publishers.map(
+        responses,
+        response -> {
+          if (response.getStatus().getCode() < 300) {
+            profiler.recordFirstResponse();
+          }
+          return response;
+        });
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.startup;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs how long it took, since the JVM was launched, for the server to start listening and for the
+ * first GraphQL request to be answered successfully, together with the number of classes loaded at
+ * each point. Both figures are logged once per process and can be disabled by setting
+ * <b>startup.profile.enabled</b> to false.
+ *
+ * @since 0.1.0
+ * @see FirstResponseFilter
+ */
+@Singleton
+@Requires(property = "startup.profile.enabled", notEquals = "false")
+public class StartupProfiler implements ApplicationEventListener<ServerStartupEvent> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StartupProfiler.class);
+
+  private final transient RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+  private final transient ClassLoadingMXBean classLoading =
+      ManagementFactory.getClassLoadingMXBean();
+  private final transient AtomicBoolean firstResponse = new AtomicBoolean();
+
+  @Override
+  public void onApplicationEvent(ServerStartupEvent event) {
+    LOG.info(
+        "server started {} ms after the JVM was launched ({} classes loaded)",
+        runtime.getUptime(),
+        classLoading.getLoadedClassCount());
+  }
+
+  /**
+   * Logs the time elapsed since the JVM was launched the first time it's called
+   *
+   * @since 0.1.0
+   */
+  public void recordFirstResponse() {
+    if (firstResponse.compareAndSet(false, true)) {
+      LOG.info(
+          "first successful request answered {} ms after the JVM was launched ({} classes loaded)",
+          runtime.getUptime(),
+          classLoading.getLoadedClassCount());
+    }
+  }
+
+  /**
+   * Whether the first successful response has already been recorded or not
+   *
+   * @return true if the first successful response has been recorded
+   * @since 0.1.0
+   */
+  public boolean isFirstResponseRecorded() {
+    return firstResponse.get();
+  }
+}
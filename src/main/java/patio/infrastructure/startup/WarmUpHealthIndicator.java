@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.startup;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.health.HealthStatus;
+import io.micronaut.management.health.indicator.HealthIndicator;
+import io.micronaut.management.health.indicator.HealthResult;
+import java.util.Map;
+import javax.inject.Singleton;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reports the application as down until the warm-up has finished, so that load balancers and
+ * orchestrators using the <b>health</b> endpoint as readiness check don't send traffic to a cold
+ * instance.
+ *
+ * @since 0.1.0
+ * @see WarmUpService
+ */
+@Singleton
+@Requires(property = "warm-up.enabled", notEquals = "false")
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+  private static final String NAME = "warm-up";
+
+  private final transient WarmUpService warmUp;
+
+  /**
+   * Initializes the indicator
+   *
+   * @param warmUp the warm-up whose progress is reported
+   * @since 0.1.0
+   */
+  public WarmUpHealthIndicator(WarmUpService warmUp) {
+    this.warmUp = warmUp;
+  }
+
+  @Override
+  public Publisher<HealthResult> getResult() {
+    boolean finished = warmUp.isFinished();
+    HealthResult result =
+        HealthResult.builder(NAME, finished ? HealthStatus.UP : HealthStatus.DOWN)
+            .details(Map.of("finished", finished))
+            .build();
+
+    return Publishers.just(result);
+  }
+}
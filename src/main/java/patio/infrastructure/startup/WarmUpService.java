@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.startup;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import org.dataloader.DataLoaderRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.graphql.Context;
+import patio.user.repositories.UserRepository;
+
+/**
+ * Warms the application up once the server has started and before it's reported as healthy: opens
+ * the configured number of database connections at once, so the pool is full, and replays a set of
+ * representative GraphQL queries on behalf of a warm-up user, so that the JIT compiles the hot
+ * paths, the operations are parsed and kept in the document cache and the caches used by those
+ * queries are loaded. Replaying stops when either the iterations or the duration budget is spent.
+ * Failures are logged and never prevent the application from becoming healthy.
+ *
+ * @since 0.1.0
+ * @see WarmUpHealthIndicator
+ */
+@Singleton
+@Requires(property = "warm-up.enabled", notEquals = "false")
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class WarmUpService implements ApplicationEventListener<ServerStartupEvent> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WarmUpService.class);
+  private static final String THREAD_NAME = "warm-up";
+
+  private final transient Config config;
+  private final transient GraphQL graphQL;
+  private final transient DataLoaderRegistry dataLoaderRegistry;
+  private final transient UserRepository userRepository;
+  private final transient DataSource dataSource;
+  private final transient ResourceResolver resourceResolver;
+
+  private transient volatile boolean finished;
+
+  /**
+   * Initializes the service
+   *
+   * @param config warm-up budgets, user and operations
+   * @param graphQL engine the operations are executed with
+   * @param dataLoaderRegistry data loaders shared by all operations
+   * @param userRepository to load the warm-up user
+   * @param dataSource the pool to fill
+   * @param resourceResolver to read the operations
+   * @since 0.1.0
+   */
+  public WarmUpService(
+      Config config,
+      GraphQL graphQL,
+      DataLoaderRegistry dataLoaderRegistry,
+      UserRepository userRepository,
+      DataSource dataSource,
+      ResourceResolver resourceResolver) {
+    this.config = config;
+    this.graphQL = graphQL;
+    this.dataLoaderRegistry = dataLoaderRegistry;
+    this.userRepository = userRepository;
+    this.dataSource = dataSource;
+    this.resourceResolver = resourceResolver;
+  }
+
+  @Override
+  public void onApplicationEvent(ServerStartupEvent event) {
+    Thread thread = new Thread(this::warmUp, THREAD_NAME);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Whether the warm-up has finished, successfully or not
+   *
+   * @return true if the warm-up has finished
+   * @since 0.1.0
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Fills the pool and replays the operations until a budget is spent. It's normally run in its own
+   * thread right after the server starts.
+   *
+   * @since 0.1.0
+   */
+  public void warmUp() {
+    long started = System.nanoTime();
+    long deadline = started + config.duration.toNanos();
+
+    try {
+      int connections = fillPool();
+      List<String> operations = loadOperations();
+      Context context = warmUpContext();
+
+      int iterations = 0;
+      int executions = 0;
+      int failures = 0;
+      while (iterations < config.iterations && System.nanoTime() < deadline) {
+        for (String operation : operations) {
+          if (System.nanoTime() >= deadline) {
+            break;
+          }
+          failures += execute(operation, context) ? 0 : 1;
+          executions++;
+        }
+        iterations++;
+      }
+
+      LOG.info(
+          "warm-up finished in {} ms: {} connections, {} iterations, {} operations ({} with errors)",
+          Duration.ofNanos(System.nanoTime() - started).toMillis(),
+          connections,
+          iterations,
+          executions,
+          failures);
+    } catch (RuntimeException | SQLException ex) {
+      LOG.warn("warm-up failed, the application will be reported as healthy anyway", ex);
+    } finally {
+      finished = true;
+    }
+  }
+
+  private int fillPool() throws SQLException {
+    List<Connection> connections = new ArrayList<>(config.connections);
+
+    try {
+      for (int i = 0; i < config.connections; i++) {
+        Connection connection = dataSource.getConnection();
+        connections.add(connection);
+        connection.isValid(1);
+      }
+      return connections.size();
+    } finally {
+      for (Connection connection : connections) {
+        connection.close();
+      }
+    }
+  }
+
+  private List<String> loadOperations() {
+    return config.operations.stream().map(this::loadOperation).collect(Collectors.toList());
+  }
+
+  private String loadOperation(String path) {
+    try (InputStream stream =
+        resourceResolver
+            .getResourceAsStream(path)
+            .orElseThrow(
+                () -> new IllegalArgumentException("warm-up operation not found " + path))) {
+      return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private Context warmUpContext() {
+    Context context = new Context();
+
+    if (config.user.isEmpty()) {
+      LOG.warn("no warm-up user configured, operations will be replayed anonymously");
+    } else {
+      userRepository
+          .findByEmail(config.user)
+          .ifPresentOrElse(
+              context::setAuthenticatedUser,
+              () -> LOG.warn("warm-up user {} not found, replaying anonymously", config.user));
+    }
+
+    return context;
+  }
+
+  private boolean execute(String operation, Context context) {
+    ExecutionInput input =
+        ExecutionInput.newExecutionInput()
+            .query(operation)
+            .context(context)
+            .dataLoaderRegistry(dataLoaderRegistry)
+            .build();
+    ExecutionResult result = graphQL.execute(input);
+
+    if (!result.getErrors().isEmpty() && LOG.isDebugEnabled()) {
+      LOG.debug("warm-up operation returned errors: {}", result.getErrors());
+    }
+
+    return result.getErrors().isEmpty();
+  }
+
+  /**
+   * Warm-up budgets, user and operations
+   *
+   * @since 0.1.0
+   */
+  @Singleton
+  @Requires(property = "warm-up.enabled", notEquals = "false")
+  public static class Config {
+    private final transient String user;
+    private final transient List<String> operations;
+    private final transient int iterations;
+    private final transient Duration duration;
+    private final transient int connections;
+
+    /**
+     * Initializes the warm-up configuration
+     *
+     * @param user email of the user the operations are replayed on behalf of
+     * @param operations comma separated locations of the GraphQL queries to replay
+     * @param iterations maximum number of times the whole set of operations is replayed
+     * @param duration maximum time spent replaying operations
+     * @param connections number of database connections opened at once to fill the pool
+     * @since 0.1.0
+     */
+    public Config(
+        @Value("${warm-up.user:}") String user,
+        @Value(
+                "${warm-up.operations:classpath:warm-up/profile.graphql,classpath:warm-up/groups.graphql}")
+            String operations,
+        @Value("${warm-up.iterations:200}") int iterations,
+        @Value("${warm-up.duration:30s}") Duration duration,
+        @Value("${warm-up.connections:10}") int connections) {
+      this.user = user.strip();
+      this.operations =
+          Arrays.stream(operations.split(","))
+              .map(String::strip)
+              .filter(path -> !path.isEmpty())
+              .collect(Collectors.toList());
+      this.iterations = iterations;
+      this.duration = duration;
+      this.connections = connections;
+    }
+  }
+}
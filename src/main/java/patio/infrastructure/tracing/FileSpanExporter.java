@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line. It's enabled by setting the
+ * property <b>tracing.exporter</b> to <b>file</b>
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@Requires(property = "tracing.exporter", value = "file")
+public class FileSpanExporter implements SpanExporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileSpanExporter.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final transient Writer writer;
+
+  /**
+   * Initializes the exporter creating the file if it doesn't exist
+   *
+   * @param path the file spans are appended to
+   * @since 0.1.0
+   */
+  public FileSpanExporter(@Value("${tracing.file.path:traces.jsonl}") String path) {
+    Path file = Paths.get(path);
+
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      this.writer =
+          Files.newBufferedWriter(
+              file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    LOG.info("exporting spans to {}", file.toAbsolutePath());
+  }
+
+  @Override
+  public void export(Span span) {
+    try {
+      String line = MAPPER.writeValueAsString(toMap(span));
+
+      synchronized (writer) {
+        writer.write(line);
+        writer.write(System.lineSeparator());
+        writer.flush();
+      }
+    } catch (JsonProcessingException ex) {
+      LOG.warn("span {} couldn't be serialized: {}", span.getName(), ex.getMessage());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Closes the file
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public void close() {
+    synchronized (writer) {
+      try {
+        writer.close();
+      } catch (IOException ex) {
+        LOG.warn("spans file couldn't be closed: {}", ex.getMessage());
+      }
+    }
+  }
+
+  private static Map<String, Object> toMap(Span span) {
+    Map<String, Object> json = new LinkedHashMap<>();
+
+    json.put("traceId", span.getContext().getTraceId());
+    json.put("spanId", span.getContext().getSpanId());
+    json.put("parentId", span.getParentId());
+    json.put("name", span.getName());
+    json.put("start", span.getStart().toString());
+    json.put("durationMicros", span.getDurationMicros());
+    json.put("error", span.isError());
+    json.put("tags", span.getTags());
+    json.put("statements", span.getStatements());
+
+    return json;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.inject.Singleton;
+
+/**
+ * Keeps the last finished spans in memory. It's meant to be used in tests and it's enabled by
+ * setting the property <b>tracing.exporter</b> to <b>memory</b>
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@Requires(property = "tracing.exporter", value = "memory")
+public class InMemorySpanExporter implements SpanExporter {
+
+  private final transient int capacity;
+  private final transient Deque<Span> spans;
+
+  /**
+   * Initializes the exporter
+   *
+   * @param capacity maximum number of spans kept. The oldest ones are discarded first
+   * @since 0.1.0
+   */
+  public InMemorySpanExporter(@Value("${tracing.memory.capacity:10000}") int capacity) {
+    this.capacity = Math.max(1, capacity);
+    this.spans = new ArrayDeque<>();
+  }
+
+  @Override
+  public void export(Span span) {
+    synchronized (spans) {
+      if (spans.size() == capacity) {
+        spans.removeFirst();
+      }
+      spans.addLast(span);
+    }
+  }
+
+  /**
+   * Returns the finished spans in the order they ended
+   *
+   * @return a copy of the spans kept
+   * @since 0.1.0
+   */
+  public List<Span> getSpans() {
+    synchronized (spans) {
+      return new ArrayList<>(spans);
+    }
+  }
+
+  /**
+   * Returns the finished spans of a given trace
+   *
+   * @param traceId the id of the trace
+   * @return the spans of the trace in the order they ended
+   * @since 0.1.0
+   */
+  public List<Span> getSpans(String traceId) {
+    return getSpans().stream()
+        .filter(span -> span.getContext().getTraceId().equals(traceId))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Discards all the spans kept
+   *
+   * @since 0.1.0
+   */
+  public void clear() {
+    synchronized (spans) {
+      spans.clear();
+    }
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A timed operation inside a trace. A span can be activated in the current thread, so that spans
+ * started meanwhile become its children, and it's exported once it ends.
+ *
+ * @since 0.1.0
+ */
+public class Span {
+
+  /**
+   * Span doing nothing, returned when tracing is disabled
+   *
+   * @since 0.1.0
+   */
+  public static final Span NOOP = new Span(null, null, null, "noop", span -> {});
+
+  private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+  private static final int MAX_STATEMENTS = 100;
+
+  private final transient SpanContext context;
+  private final transient String parentId;
+  private final transient String name;
+  private final transient Instant start;
+  private final transient long startNanos;
+  private final transient Consumer<Span> onEnd;
+  private final transient AtomicBoolean ended = new AtomicBoolean();
+  private final transient Map<String, String> tags =
+      Collections.synchronizedMap(new LinkedHashMap<>());
+  private final transient List<String> statements = Collections.synchronizedList(new ArrayList<>());
+  private transient volatile long durationNanos;
+  private transient volatile boolean error;
+
+  /**
+   * Initializes a started span
+   *
+   * @param context identifiers of the span
+   * @param parentId id of the parent span or null if it's the root of the trace
+   * @param start wall clock time the span started at
+   * @param name name of the operation
+   * @param onEnd what to do with the span once it ends
+   * @since 0.1.0
+   */
+  /* default */ Span(
+      SpanContext context, String parentId, Instant start, String name, Consumer<Span> onEnd) {
+    this.context = context;
+    this.parentId = parentId;
+    this.start = start;
+    this.name = name;
+    this.onEnd = onEnd;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the span active in the current thread
+   *
+   * @return the active span or an empty {@link Optional} if there's none
+   * @since 0.1.0
+   */
+  public static Optional<Span> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Makes this span the active one in the current thread until the returned scope is closed
+   *
+   * @return a {@link Scope} restoring the previously active span when closed
+   * @since 0.1.0
+   */
+  public Scope activate() {
+    if (!isRecording()) {
+      return () -> {};
+    }
+
+    Span previous = CURRENT.get();
+    CURRENT.set(this);
+
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Adds a tag to the span
+   *
+   * @param key name of the tag
+   * @param value value of the tag
+   * @return the current span
+   * @since 0.1.0
+   */
+  public Span tag(String key, Object value) {
+    if (isRecording() && value != null) {
+      tags.put(key, String.valueOf(value));
+    }
+    return this;
+  }
+
+  /**
+   * Adds a SQL statement executed while the span was active. Only the first statements are kept.
+   *
+   * @param sql the executed statement
+   * @return the current span
+   * @since 0.1.0
+   */
+  public Span statement(String sql) {
+    if (isRecording() && statements.size() < MAX_STATEMENTS) {
+      statements.add(sql);
+    }
+    return this;
+  }
+
+  /**
+   * Marks the span as failed
+   *
+   * @param cause the error causing the failure
+   * @return the current span
+   * @since 0.1.0
+   */
+  public Span error(Throwable cause) {
+    if (isRecording()) {
+      this.error = true;
+      tag("error.type", cause.getClass().getName());
+      tag("error.message", cause.getMessage());
+    }
+    return this;
+  }
+
+  /**
+   * Finishes the span and exports it. Ending a span more than once has no effect.
+   *
+   * @since 0.1.0
+   */
+  public void end() {
+    if (isRecording() && ended.compareAndSet(false, true)) {
+      this.durationNanos = System.nanoTime() - startNanos;
+      onEnd.accept(this);
+    }
+  }
+
+  /**
+   * Whether this span is gathering information or is a no-op span
+   *
+   * @return true if the span will be exported
+   * @since 0.1.0
+   */
+  public boolean isRecording() {
+    return context != null;
+  }
+
+  /**
+   * Returns the span identifiers
+   *
+   * @return the {@link SpanContext} of the span
+   * @since 0.1.0
+   */
+  public SpanContext getContext() {
+    return context;
+  }
+
+  /**
+   * Returns the id of the parent span
+   *
+   * @return the parent id or null if this is a root span
+   * @since 0.1.0
+   */
+  public String getParentId() {
+    return parentId;
+  }
+
+  /**
+   * Returns the name of the operation
+   *
+   * @return the span name
+   * @since 0.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns when the span started
+   *
+   * @return the start time
+   * @since 0.1.0
+   */
+  public Instant getStart() {
+    return start;
+  }
+
+  /**
+   * Returns how long the span lasted
+   *
+   * @return the duration in microseconds or 0 if it hasn't ended
+   * @since 0.1.0
+   */
+  public long getDurationMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(durationNanos);
+  }
+
+  /**
+   * Returns the span tags
+   *
+   * @return a copy of the tags
+   * @since 0.1.0
+   */
+  public Map<String, String> getTags() {
+    synchronized (tags) {
+      return new LinkedHashMap<>(tags);
+    }
+  }
+
+  /**
+   * Returns the SQL statements executed while the span was active
+   *
+   * @return a copy of the statements in execution order
+   * @since 0.1.0
+   */
+  public List<String> getStatements() {
+    synchronized (statements) {
+      return new ArrayList<>(statements);
+    }
+  }
+
+  /**
+   * Whether the operation failed or not
+   *
+   * @return true if the span was marked as failed
+   * @since 0.1.0
+   */
+  public boolean isError() {
+    return error;
+  }
+
+  /**
+   * Restores the previously active span when closed
+   *
+   * @since 0.1.0
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies a span inside a trace. It can be read from and written to a W3C <b>traceparent</b>
+ * header so that traces started by a client continue in the server.
+ *
+ * @since 0.1.0
+ */
+public class SpanContext {
+
+  private static final String VERSION = "00";
+  private static final String SAMPLED = "01";
+  private static final Pattern TRACE_PARENT =
+      Pattern.compile("^[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}$");
+  private static final String INVALID_TRACE = "00000000000000000000000000000000";
+  private static final String INVALID_SPAN = "0000000000000000";
+
+  private final transient String traceId;
+  private final transient String spanId;
+
+  /**
+   * Initializes the context
+   *
+   * @param traceId 32 hexadecimal characters identifying the trace
+   * @param spanId 16 hexadecimal characters identifying the span
+   * @since 0.1.0
+   */
+  public SpanContext(String traceId, String spanId) {
+    this.traceId = traceId;
+    this.spanId = spanId;
+  }
+
+  /**
+   * Creates the context of the first span of a new trace
+   *
+   * @return a new {@link SpanContext} with random identifiers
+   * @since 0.1.0
+   */
+  public static SpanContext newTrace() {
+    return new SpanContext(randomId() + randomId(), randomId());
+  }
+
+  /**
+   * Creates the context of a new span inside the same trace
+   *
+   * @return a new {@link SpanContext} sharing the trace id
+   * @since 0.1.0
+   */
+  public SpanContext newChild() {
+    return new SpanContext(traceId, randomId());
+  }
+
+  /**
+   * Parses a W3C <b>traceparent</b> header
+   *
+   * @param traceParent the header value (e.g. 00-{trace-id}-{span-id}-01)
+   * @return the remote context or an empty {@link Optional} if the header is missing or invalid
+   * @since 0.1.0
+   */
+  public static Optional<SpanContext> fromTraceParent(String traceParent) {
+    return Optional.ofNullable(traceParent)
+        .map(String::trim)
+        .map(header -> header.toLowerCase(Locale.ENGLISH))
+        .filter(header -> TRACE_PARENT.matcher(header).matches())
+        .map(header -> header.split("-"))
+        .filter(parts -> !parts[1].equals(INVALID_TRACE) && !parts[2].equals(INVALID_SPAN))
+        .map(parts -> new SpanContext(parts[1], parts[2]));
+  }
+
+  /**
+   * Returns this context as a W3C <b>traceparent</b> header value
+   *
+   * @return the header value
+   * @since 0.1.0
+   */
+  public String toTraceParent() {
+    return String.join("-", VERSION, traceId, spanId, SAMPLED);
+  }
+
+  /**
+   * Returns the id of the trace
+   *
+   * @return 32 hexadecimal characters
+   * @since 0.1.0
+   */
+  public String getTraceId() {
+    return traceId;
+  }
+
+  /**
+   * Returns the id of the span
+   *
+   * @return 16 hexadecimal characters
+   * @since 0.1.0
+   */
+  public String getSpanId() {
+    return spanId;
+  }
+
+  private static String randomId() {
+    long id = ThreadLocalRandom.current().nextLong();
+    while (id == 0) {
+      id = ThreadLocalRandom.current().nextLong();
+    }
+    return String.format("%016x", id);
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+/**
+ * Sends finished spans somewhere they can be inspected. Every exporter bean found in the context is
+ * used by the {@link Tracer}.
+ *
+ * @since 0.1.0
+ */
+public interface SpanExporter {
+
+  /**
+   * Exports a finished span. It's called by the thread finishing the span so it shouldn't block for
+   * long.
+   *
+   * @param span the finished span
+   * @since 0.1.0
+   */
+  void export(Span span);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import io.micronaut.context.annotation.Value;
+import java.time.Clock;
+import java.util.List;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts spans and hands them to the configured {@link SpanExporter} instances once they end.
+ * Tracing is enabled by setting the property <b>tracing.enabled</b> to true, otherwise all spans
+ * are {@link Span#NOOP}.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class Tracer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Tracer.class);
+
+  private final transient boolean enabled;
+  private final transient List<SpanExporter> exporters;
+  private final transient Clock clock;
+
+  /**
+   * Initializes the tracer
+   *
+   * @param enabled whether spans should be recorded or not
+   * @param exporters where finished spans are sent to
+   * @since 0.1.0
+   */
+  public Tracer(@Value("${tracing.enabled:false}") boolean enabled, List<SpanExporter> exporters) {
+    this(enabled, exporters, Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the tracer
+   *
+   * @param enabled whether spans should be recorded or not
+   * @param exporters where finished spans are sent to
+   * @param clock to get the wall clock time spans start at
+   * @since 0.1.0
+   */
+  public Tracer(boolean enabled, List<SpanExporter> exporters, Clock clock) {
+    this.enabled = enabled && !exporters.isEmpty();
+    this.exporters = List.copyOf(exporters);
+    this.clock = clock;
+  }
+
+  /**
+   * Whether spans are being recorded or not
+   *
+   * @return true if tracing is enabled and there's at least one exporter
+   * @since 0.1.0
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts a span as a child of the span active in the current thread, or as the root of a new
+   * trace if there's no active span
+   *
+   * @param name name of the operation
+   * @return the started span
+   * @since 0.1.0
+   */
+  public Span start(String name) {
+    return start(name, Span.current().map(Span::getContext).orElse(null));
+  }
+
+  /**
+   * Starts a span as a child of the context passed as parameter
+   *
+   * @param name name of the operation
+   * @param parent the parent span context, either local or remote. If it's null a new trace is
+   *     started
+   * @return the started span
+   * @since 0.1.0
+   */
+  public Span start(String name, SpanContext parent) {
+    if (!enabled) {
+      return Span.NOOP;
+    }
+
+    if (parent == null) {
+      return new Span(SpanContext.newTrace(), null, clock.instant(), name, this::export);
+    }
+
+    return new Span(parent.newChild(), parent.getSpanId(), clock.instant(), name, this::export);
+  }
+
+  private void export(Span span) {
+    for (SpanExporter exporter : exporters) {
+      try {
+        exporter.export(span);
+      } catch (RuntimeException ex) {
+        LOG.warn("span {} couldn't be exported: {}", span.getName(), ex.getMessage());
+      }
+    }
+  }
+}
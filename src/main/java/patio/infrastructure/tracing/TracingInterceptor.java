@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Singleton;
+
+/**
+ * Records a span around every call to a method of a bean annotated with {@link Traced}
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class TracingInterceptor implements MethodInterceptor<Object, Object> {
+
+  private final transient Tracer tracer;
+  private final transient Map<Class<?>, Class<?>> userClasses = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes the interceptor
+   *
+   * @param tracer used to start spans
+   * @since 0.1.0
+   */
+  public TracingInterceptor(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  public Object intercept(MethodInvocationContext<Object, Object> context) {
+    if (!tracer.isEnabled()) {
+      return context.proceed();
+    }
+
+    Class<?> type = userClasses.computeIfAbsent(context.getTarget().getClass(), this::userClass);
+    Span span =
+        tracer
+            .start(type.getSimpleName() + "." + context.getMethodName())
+            .tag("code.namespace", type.getName())
+            .tag("code.function", context.getMethodName());
+
+    try (Span.Scope scope = span.activate()) {
+      return context.proceed();
+    } catch (RuntimeException ex) {
+      span.error(ex);
+      throw ex;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Micronaut generates subclasses, whose names contain '$', of intercepted beans and data
+   * repositories. The span is named after the class written by us.
+   */
+  private Class<?> userClass(Class<?> generated) {
+    Class<?> type = generated;
+    while (type.getSimpleName().contains("$") && type.getSuperclass() != null) {
+      type = type.getSuperclass();
+    }
+    return type;
+  }
+}
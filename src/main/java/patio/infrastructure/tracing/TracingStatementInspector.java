@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.tracing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Adds every SQL statement prepared by Hibernate to the span active in the current thread (e.g. the
+ * repository call issuing it). It's registered through the property
+ * <b>hibernate.session_factory.statement_inspector</b> and it never changes the statement.
+ *
+ * @since 0.1.0
+ */
+public class TracingStatementInspector implements StatementInspector {
+
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public String inspect(String sql) {
+    Span.current().ifPresent(span -> span.statement(sql));
+    return sql;
+  }
+}
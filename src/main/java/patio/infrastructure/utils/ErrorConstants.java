@@ -140,6 +140,32 @@ public final class ErrorConstants {
   public static final Error OTP_EXPIRED_FOR_USER =
       new Error("API_ERRORS.OTP_EXPIRED_FOR_USER", "The otp has expired");
 
+  /**
+   * Error code used when the server has no capacity left to process a costly operation (e.g.
+   * password hashing) and the client should retry later
+   *
+   * @since 0.1.0
+   */
+  public static final Error TRY_LATER =
+      new Error("API_ERRORS.TRY_LATER", "The server is busy, please try again later");
+
+  /**
+   * Error code used when a client has attempted an operation too many times in a short period of
+   * time
+   *
+   * @since 0.1.0
+   */
+  public static final Error TOO_MANY_REQUESTS =
+      new Error("API_ERRORS.TOO_MANY_REQUESTS", "Too many attempts, please try again later");
+
+  /**
+   * Error code used when a pagination cursor can't be decoded
+   *
+   * @since 0.1.0
+   */
+  public static final Error INVALID_CURSOR =
+      new Error("API_ERRORS.INVALID_CURSOR", "The pagination cursor is not valid");
+
   private ErrorConstants() {
     /* empty */
   }
@@ -22,6 +22,7 @@ import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Functions used to help handling lambda expressions (filters/transformations/...)
@@ -72,4 +73,35 @@ public final class FunctionsUtils {
   public static <A> Predicate<A> any(Predicate<A>... predicates) {
     return (A a) -> Arrays.stream(predicates).anyMatch(p -> p.test(a));
   }
+
+  /**
+   * Creates a supplier that calls the one passed as argument only the first time it's invoked, and
+   * returns the same value from then on. It's meant to delay the creation of expensive objects
+   * until they're actually used.
+   *
+   * @param <A> type of the supplied value
+   * @param supplier the supplier creating the value
+   * @return a thread-safe {@link Supplier} always returning the first value created
+   * @since 0.1.0
+   */
+  public static <A> Supplier<A> memoize(Supplier<A> supplier) {
+    return new Supplier<>() {
+      private transient volatile A value;
+
+      @Override
+      public A get() {
+        A current = value;
+        if (current == null) {
+          synchronized (this) {
+            current = value;
+            if (current == null) {
+              current = supplier.get();
+              value = current;
+            }
+          }
+        }
+        return current;
+      }
+    };
+  }
 }
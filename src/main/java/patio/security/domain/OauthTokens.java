@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.domain;
+
+import patio.common.domain.utils.Builder;
+
+/**
+ * Represents the tokens returned by an oauth2 provider when exchanging an authorization code
+ *
+ * @since 0.1.0
+ */
+public class OauthTokens {
+  private String accessToken;
+  private String idToken;
+
+  /**
+   * Creates a builder to build a {@link OauthTokens} instance
+   *
+   * @return an instance of {@link Builder}
+   * @since 0.1.0
+   */
+  public static Builder<OauthTokens> builder() {
+    return Builder.build(OauthTokens::new);
+  }
+
+  /**
+   * Returns the access token
+   *
+   * @return the access token
+   * @since 0.1.0
+   */
+  public String getAccessToken() {
+    return accessToken;
+  }
+
+  /**
+   * Sets the access token
+   *
+   * @param accessToken the access token
+   * @since 0.1.0
+   */
+  public void setAccessToken(String accessToken) {
+    this.accessToken = accessToken;
+  }
+
+  /**
+   * Returns the OpenID Connect id token, if the provider returned any
+   *
+   * @return the id token or null
+   * @since 0.1.0
+   */
+  public String getIdToken() {
+    return idToken;
+  }
+
+  /**
+   * Sets the OpenID Connect id token
+   *
+   * @param idToken the id token
+   * @since 0.1.0
+   */
+  public void setIdToken(String idToken) {
+    this.idToken = idToken;
+  }
+}
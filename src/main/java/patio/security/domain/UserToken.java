@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.domain;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import patio.common.domain.utils.Builder;
+import patio.user.domain.User;
+
+/**
+ * Represents a one-time token (e.g. the OTP sent to reset the password) issued to a {@link User}.
+ * Only a hash of the token is stored.
+ *
+ * @since 0.1.0
+ */
+@Entity
+@Table(name = "user_tokens")
+public final class UserToken {
+
+  @Id @GeneratedValue private UUID id;
+
+  @ManyToOne
+  @JoinColumn(name = "user_id")
+  private User user;
+
+  @Column(name = "token_hash")
+  private String tokenHash;
+
+  @Column(name = "created_at")
+  private OffsetDateTime createdAtDateTime;
+
+  @Column(name = "expires_at")
+  private OffsetDateTime expiresAtDateTime;
+
+  /**
+   * Creates a builder to build instances of type {@link UserToken}
+   *
+   * @return a {@link Builder} that creates instances of type {@link UserToken}
+   * @since 0.1.0
+   */
+  public static Builder<UserToken> builder() {
+    return Builder.build(UserToken::new);
+  }
+
+  /**
+   * Returns the token id
+   *
+   * @return the token id
+   * @since 0.1.0
+   */
+  public UUID getId() {
+    return id;
+  }
+
+  /**
+   * Sets the token id
+   *
+   * @param id the token id
+   * @since 0.1.0
+   */
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the user the token was issued to
+   *
+   * @return the token's {@link User}
+   * @since 0.1.0
+   */
+  public User getUser() {
+    return user;
+  }
+
+  /**
+   * Sets the user the token was issued to
+   *
+   * @param user the token's {@link User}
+   * @since 0.1.0
+   */
+  public void setUser(User user) {
+    this.user = user;
+  }
+
+  /**
+   * Returns the hash of the token
+   *
+   * @return the hash of the token
+   * @since 0.1.0
+   */
+  public String getTokenHash() {
+    return tokenHash;
+  }
+
+  /**
+   * Sets the hash of the token
+   *
+   * @param tokenHash the hash of the token
+   * @since 0.1.0
+   */
+  public void setTokenHash(String tokenHash) {
+    this.tokenHash = tokenHash;
+  }
+
+  /**
+   * Returns when the token was created
+   *
+   * @return the token creation date
+   * @since 0.1.0
+   */
+  public OffsetDateTime getCreatedAtDateTime() {
+    return createdAtDateTime;
+  }
+
+  /**
+   * Sets when the token was created
+   *
+   * @param createdAtDateTime the token creation date
+   * @since 0.1.0
+   */
+  public void setCreatedAtDateTime(OffsetDateTime createdAtDateTime) {
+    this.createdAtDateTime = createdAtDateTime;
+  }
+
+  /**
+   * Returns the moment the token is no longer valid
+   *
+   * @return the token expiration date
+   * @since 0.1.0
+   */
+  public OffsetDateTime getExpiresAtDateTime() {
+    return expiresAtDateTime;
+  }
+
+  /**
+   * Sets the moment the token is no longer valid
+   *
+   * @param expiresAtDateTime the token expiration date
+   * @since 0.1.0
+   */
+  public void setExpiresAtDateTime(OffsetDateTime expiresAtDateTime) {
+    this.expiresAtDateTime = expiresAtDateTime;
+  }
+}
@@ -17,8 +17,14 @@
  */
 package patio.security.graphql;
 
+import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import javax.inject.Singleton;
+import patio.common.domain.utils.Result;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.graphql.ResultUtils;
+import patio.infrastructure.utils.ErrorConstants;
+import patio.security.services.LoginThrottleService;
 import patio.security.services.ResetPasswordService;
 import patio.user.domain.User;
 import patio.user.services.internal.DefaultUserService;
@@ -38,25 +44,36 @@ public class ResetPasswordFetcher {
    */
   private final transient ResetPasswordService service;
 
+  private final transient LoginThrottleService loginThrottleService;
+
   /**
    * Constructor initializing the access to the business logic
    *
    * @param service instance of {@link DefaultUserService}
+   * @param loginThrottleService service limiting the number of reset attempts
    * @since 0.1.0
    */
-  public ResetPasswordFetcher(ResetPasswordService service) {
+  public ResetPasswordFetcher(
+      ResetPasswordService service, LoginThrottleService loginThrottleService) {
     this.service = service;
+    this.loginThrottleService = loginThrottleService;
   }
 
   /**
    * Initiates the process of resetting the password for a user
    *
    * @param env GraphQL execution environment
-   * @return true
+   * @return true or an error if there were too many attempts
    */
-  public Boolean resetPassword(DataFetchingEnvironment env) {
+  public DataFetcherResult<Boolean> resetPassword(DataFetchingEnvironment env) {
     String email = env.getArgument("email");
+    Context context = env.getContext();
+
+    if (!loginThrottleService.tryAcquireForAccount(context.getClientAddress(), email)) {
+      return ResultUtils.render(ErrorConstants.TOO_MANY_REQUESTS);
+    }
+
     service.resetPasswordRequest(email);
-    return true;
+    return ResultUtils.render(Result.result(true));
   }
 }
@@ -21,8 +21,11 @@ import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import javax.inject.Singleton;
 import patio.common.domain.utils.Result;
+import patio.infrastructure.graphql.Context;
 import patio.infrastructure.graphql.ResultUtils;
+import patio.infrastructure.utils.ErrorConstants;
 import patio.security.domain.Login;
+import patio.security.services.LoginThrottleService;
 import patio.security.services.SecurityService;
 import patio.user.domain.User;
 
@@ -35,15 +38,19 @@ import patio.user.domain.User;
 public class SecurityFetcher {
 
   private final transient SecurityService securityService;
+  private final transient LoginThrottleService loginThrottleService;
 
   /**
    * Initializes fetcher with the {@link SecurityService} instance
    *
    * @param securityService service responsible to check security constraints
+   * @param loginThrottleService service limiting the number of login attempts
    * @since 0.1.0
    */
-  public SecurityFetcher(SecurityService securityService) {
+  public SecurityFetcher(
+      SecurityService securityService, LoginThrottleService loginThrottleService) {
     this.securityService = securityService;
+    this.loginThrottleService = loginThrottleService;
   }
 
   /**
@@ -55,8 +62,17 @@ public class SecurityFetcher {
    */
   public DataFetcherResult<Login> loginByCredentials(DataFetchingEnvironment environment) {
     LoginInput input = SecurityFetcherUtils.login(environment);
+
+    if (!tryAcquire(environment, input.getEmail())) {
+      return ResultUtils.render(ErrorConstants.TOO_MANY_REQUESTS);
+    }
+
     Result<Login> login = securityService.loginByCredentials(input);
 
+    if (hasBadCredentials(login)) {
+      loginThrottleService.recordFailure(input.getEmail());
+    }
+
     return ResultUtils.render(login);
   }
 
@@ -85,6 +101,10 @@ public class SecurityFetcher {
   public DataFetcherResult<Login> loginByOtp(DataFetchingEnvironment environment) {
     String otpCode = environment.getArgument("otpCode");
 
+    if (!tryAcquire(environment, null)) {
+      return ResultUtils.render(ErrorConstants.TOO_MANY_REQUESTS);
+    }
+
     Result<Login> login = securityService.loginByOtp(otpCode);
 
     return ResultUtils.render(login);
@@ -100,6 +120,21 @@ public class SecurityFetcher {
   public DataFetcherResult<Boolean> changePassword(DataFetchingEnvironment env) {
     ChangePasswordInput input = SecurityFetcherUtils.changePassword(env);
 
+    if (!tryAcquire(env, null)) {
+      return ResultUtils.render(ErrorConstants.TOO_MANY_REQUESTS);
+    }
+
     return ResultUtils.render(securityService.changePassword(input));
   }
+
+  private static boolean hasBadCredentials(Result<Login> login) {
+    return login.getErrorList().stream()
+        .anyMatch(error -> ErrorConstants.BAD_CREDENTIALS.getCode().equals(error.getCode()));
+  }
+
+  private boolean tryAcquire(DataFetchingEnvironment environment, String account) {
+    Context context = environment.getContext();
+
+    return loginThrottleService.tryAcquire(context.getClientAddress(), account);
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.repositories;
+
+import io.micronaut.data.repository.PageableRepository;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import patio.security.domain.UserToken;
+import patio.user.domain.User;
+
+/** All database actions related to {@link UserToken} entity */
+public interface UserTokenRepository extends PageableRepository<UserToken, UUID> {
+
+  /**
+   * Gets a token by its hash
+   *
+   * @param tokenHash the hash of the token
+   * @return an {@link Optional} of the {@link UserToken}
+   */
+  Optional<UserToken> findByTokenHash(String tokenHash);
+
+  /**
+   * Removes all tokens issued to a given user
+   *
+   * @param user the {@link User} the tokens were issued to
+   * @return the number of removed tokens
+   */
+  int deleteAllByUser(User user);
+
+  /**
+   * Removes, at most, a batch of tokens which expired before a given date
+   *
+   * @param dateTime tokens expired before this date will be removed
+   * @param batchSize maximum number of tokens to remove
+   * @return the number of removed tokens
+   */
+  int deleteExpired(OffsetDateTime dateTime, int batchSize);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.repositories.internal;
+
+import io.micronaut.data.annotation.Repository;
+import java.time.OffsetDateTime;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
+import patio.security.domain.UserToken;
+import patio.security.repositories.UserTokenRepository;
+import patio.user.domain.User;
+
+/** Persistence implementation access for {@link UserToken} */
+@Repository
+@Traced
+public abstract class MicroUserTokenRepository extends MicroBaseRepository
+    implements UserTokenRepository {
+
+  /**
+   * Initializes repository with {@link EntityManager}
+   *
+   * @param entityManager persistence {@link EntityManager} instance
+   */
+  public MicroUserTokenRepository(EntityManager entityManager) {
+    super(entityManager);
+  }
+
+  @Override
+  @Transactional
+  public int deleteAllByUser(User user) {
+    return getEntityManager()
+        .createQuery("DELETE FROM UserToken t WHERE t.user = :user")
+        .setParameter("user", user)
+        .executeUpdate();
+  }
+
+  @Override
+  @Transactional
+  public int deleteExpired(OffsetDateTime dateTime, int batchSize) {
+    var sql =
+        "DELETE FROM user_tokens WHERE id IN ("
+            + " SELECT id FROM user_tokens WHERE expires_at < :dateTime LIMIT :batchSize)";
+
+    return createNativeUpdate(sql, UserToken.class)
+        .setParameter("dateTime", dateTime)
+        .setParameter("batchSize", batchSize)
+        .executeUpdate();
+  }
+}
@@ -61,6 +61,7 @@ public interface CryptoService {
    *
    * @param text the text to hash
    * @return the hashed text
+   * @throws java.util.concurrent.RejectedExecutionException if there's no capacity left to hash
    * @since 0.1.0
    */
   String hash(String text);
@@ -71,7 +72,18 @@ public interface CryptoService {
    * @param plain plain text
    * @param hashed hashed version of the plain text
    * @return true if plain text and hashed password are considered equal
+   * @throws java.util.concurrent.RejectedExecutionException if there's no capacity left to verify
    * @since 0.1.0
    */
   boolean verifyWithHash(String plain, String hashed);
+
+  /**
+   * Checks whether a hash was created with different settings than the current ones and therefore
+   * should be recalculated the next time the plain text is available
+   *
+   * @param hashed hashed text
+   * @return true if the hash should be recalculated
+   * @since 0.1.0
+   */
+  boolean needsRehash(String hashed);
 }
@@ -18,6 +18,7 @@
 package patio.security.services;
 
 import java.util.Optional;
+import patio.security.domain.OauthTokens;
 import patio.user.domain.User;
 
 /**
@@ -28,11 +29,11 @@ import patio.user.domain.User;
 public interface GoogleUserService {
 
   /**
-   * Loads a given's user information from a previously acquired access token
+   * Loads a given's user information from previously acquired tokens
    *
-   * @param accessToken Google's access token
+   * @param tokens Google's access and id tokens
    * @return a basic {@link User}'s information
    * @since 0.1.0
    */
-  Optional<User> loadFromAccessToken(String accessToken);
+  Optional<User> loadFromTokens(OauthTokens tokens);
 }
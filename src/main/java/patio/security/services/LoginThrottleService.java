@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services;
+
+/**
+ * Limits how many times anonymous and costly security operations (e.g. login) can be attempted in a
+ * period of time by the same client address or for the same account
+ *
+ * @since 0.1.0
+ */
+public interface LoginThrottleService {
+
+  /**
+   * Records a new attempt from the client address and checks whether it's allowed or not. The
+   * attempt is only counted against the account when it fails, see {@link #recordFailure(String)},
+   * so that nobody can lock an account out just by sending requests on its behalf.
+   *
+   * @param address client's address, it may be null if it couldn't be resolved
+   * @param account the account the operation is attempted for (e.g. an email), it may be null
+   * @return true if the attempt is allowed, false if it should be rejected
+   * @since 0.1.0
+   */
+  boolean tryAcquire(String address, String account);
+
+  /**
+   * Records a new attempt from the client address and for the account and checks whether it's
+   * allowed or not. Unlike {@link #tryAcquire(String, String)} every attempt is counted against the
+   * account, which suits operations that shouldn't be repeated for the same account no matter who
+   * asks for them (e.g. sending a reset password email). These attempts are counted apart from
+   * failed credential checks, so they never lock the account's logins.
+   *
+   * @param address client's address, it may be null if it couldn't be resolved
+   * @param account the account the operation is attempted for (e.g. an email), it may be null
+   * @return true if the attempt is allowed, false if it should be rejected
+   * @since 0.1.0
+   */
+  boolean tryAcquireForAccount(String address, String account);
+
+  /**
+   * Records a failed credentials check for the account
+   *
+   * @param account the account whose credentials were wrong (e.g. an email), it may be null
+   * @since 0.1.0
+   */
+  void recordFailure(String account);
+}
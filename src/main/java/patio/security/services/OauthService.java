@@ -18,6 +18,7 @@
 package patio.security.services;
 
 import java.util.Optional;
+import patio.security.domain.OauthTokens;
 
 /**
  * Service to complete authorization workflow. Workflow has started in the front-end getting the
@@ -29,11 +30,12 @@ import java.util.Optional;
 public interface OauthService {
 
   /**
-   * Gets an access token from a previously acquired authorization code
+   * Gets the access token, and the id token if available, from a previously acquired authorization
+   * code
    *
    * @param authorizationCode authorization code acquired in oauth2 previous steps
-   * @return an access token
+   * @return the tokens issued by the oauth2 provider
    * @since 0.1.0
    */
-  Optional<String> getAccessToken(String authorizationCode);
+  Optional<OauthTokens> getTokens(String authorizationCode);
 }
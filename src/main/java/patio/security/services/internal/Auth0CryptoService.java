@@ -28,7 +28,6 @@ import java.util.Optional;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import patio.security.domain.Tokens;
 import patio.security.services.CryptoService;
 import patio.user.domain.User;
@@ -42,16 +41,19 @@ import patio.user.domain.User;
 public class Auth0CryptoService implements CryptoService {
 
   private final transient SecurityConfiguration configuration;
+  private final transient PasswordHasher passwordHasher;
   private static final Logger LOGGER = LoggerFactory.getLogger(Auth0CryptoService.class);
 
   /**
    * Initializes the service with a specific {@link Algorithm} instance
    *
    * @param configuration configuration values to init security service
+   * @param passwordHasher to hash and verify passwords out of the request threads
    * @since 0.1.0
    */
-  public Auth0CryptoService(SecurityConfiguration configuration) {
+  public Auth0CryptoService(SecurityConfiguration configuration, PasswordHasher passwordHasher) {
     this.configuration = configuration;
+    this.passwordHasher = passwordHasher;
   }
 
   @Override
@@ -94,11 +96,16 @@ public class Auth0CryptoService implements CryptoService {
 
   @Override
   public String hash(String text) {
-    return BCrypt.hashpw(text, BCrypt.gensalt());
+    return passwordHasher.hash(text);
   }
 
   @Override
   public boolean verifyWithHash(String plain, String hashed) {
-    return BCrypt.checkpw(plain, hashed);
+    return passwordHasher.verify(plain, hashed);
+  }
+
+  @Override
+  public boolean needsRehash(String hashed) {
+    return passwordHasher.needsRehash(hashed);
   }
 }
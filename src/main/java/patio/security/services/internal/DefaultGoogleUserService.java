@@ -17,34 +17,102 @@
  */
 package patio.security.services.internal;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.services.oauth2.Oauth2;
 import com.google.api.services.oauth2.model.Userinfoplus;
+import io.micronaut.context.annotation.Value;
 import java.io.IOException;
 import java.util.Optional;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import patio.infrastructure.tracing.Traced;
+import patio.security.domain.OauthTokens;
 import patio.security.services.GoogleUserService;
 import patio.user.domain.User;
 
 /**
- * Default implementation of the {@link GoogleUserService} by using Google's java api
+ * Default implementation of the {@link GoogleUserService} by using Google's java api. When
+ * <b>oauth2.id-token.verify</b> is enabled the user's information is taken from the id token,
+ * verified locally, instead of calling Google's userinfo endpoint.
  *
  * @since 0.1.0
  */
 @Singleton
+@Traced
 public class DefaultGoogleUserService implements GoogleUserService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultGoogleUserService.class);
 
+  private final transient Provider<HttpTransport> transport;
+  private final transient Provider<JsonFactory> jsonFactory;
+  private final transient Provider<IdTokenVerifier> idTokenVerifier;
+  private final transient boolean verifyIdToken;
+  private final transient String apiUrl;
+
+  /**
+   * Initializes the service. Google's clients are resolved the first time a user is loaded instead
+   * of when the application starts.
+   *
+   * @param transport provider of the shared {@link HttpTransport}
+   * @param jsonFactory provider of the shared {@link JsonFactory}
+   * @param idTokenVerifier provider of the verifier used to check id tokens locally
+   * @param verifyIdToken whether to take the user's information from the id token or not
+   * @param apiUrl root url of Google's apis
+   * @since 0.1.0
+   */
+  public DefaultGoogleUserService(
+      Provider<HttpTransport> transport,
+      Provider<JsonFactory> jsonFactory,
+      Provider<IdTokenVerifier> idTokenVerifier,
+      @Value("${oauth2.id-token.verify:false}") boolean verifyIdToken,
+      @Value("${oauth2.api-url:https://www.googleapis.com/}") String apiUrl) {
+    this.transport = transport;
+    this.jsonFactory = jsonFactory;
+    this.idTokenVerifier = idTokenVerifier;
+    this.verifyIdToken = verifyIdToken;
+    this.apiUrl = apiUrl;
+  }
+
   @Override
-  public Optional<User> loadFromAccessToken(String accessToken) {
+  public Optional<User> loadFromTokens(OauthTokens tokens) {
+    Optional<String> idToken =
+        Optional.ofNullable(tokens.getIdToken()).filter(token -> verifyIdToken);
+
+    return idToken.isPresent()
+        ? loadFromIdToken(idToken.get())
+        : loadFromAccessToken(tokens.getAccessToken());
+  }
+
+  private Optional<User> loadFromIdToken(String idToken) {
+    return idTokenVerifier
+        .get()
+        .verify(idToken)
+        .filter(DefaultGoogleUserService::hasVerifiedEmail)
+        .map(
+            token ->
+                User.builder()
+                    .with(u -> u.setEmail(token.getClaim("email").asString()))
+                    .with(u -> u.setName(token.getClaim("name").asString()))
+                    .build());
+  }
+
+  private static boolean hasVerifiedEmail(DecodedJWT token) {
+    Boolean verified = token.getClaim("email_verified").asBoolean();
+
+    return token.getClaim("email").asString() != null && !Boolean.FALSE.equals(verified);
+  }
+
+  private Optional<User> loadFromAccessToken(String accessToken) {
     GoogleCredential credential = new GoogleCredential().setAccessToken(accessToken);
     Oauth2 oauth2 =
-        new Oauth2.Builder(new NetHttpTransport(), new JacksonFactory(), credential).build();
+        new Oauth2.Builder(transport.get(), jsonFactory.get(), credential)
+            .setRootUrl(apiUrl)
+            .build();
 
     Optional<User> user = Optional.empty();
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import io.micronaut.context.annotation.Value;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.tracing.Traced;
+import patio.security.services.LoginThrottleService;
+
+/**
+ * Throttles login attempts with fixed-size {@link SlidingWindowSketch}: one counting attempts per
+ * client address, another one counting failed credential checks per account and a last one counting
+ * the operations requested per account (e.g. password resets). Rejections are decided in memory,
+ * without hashing passwords or querying the database.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@Traced
+public class DefaultLoginThrottleService implements LoginThrottleService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DefaultLoginThrottleService.class);
+  private static final int SLOTS = 6;
+  private static final int DEPTH = 4;
+
+  private final transient boolean enabled;
+  private final transient int maxPerAddress;
+  private final transient int maxPerAccount;
+  private final transient SlidingWindowSketch addresses;
+  private final transient SlidingWindowSketch accounts;
+  private final transient SlidingWindowSketch requests;
+
+  /**
+   * Initializes the throttle
+   *
+   * @param enabled whether to throttle attempts or not
+   * @param windowSeconds length of the sliding window in seconds
+   * @param maxPerAddress maximum attempts allowed per address within the window
+   * @param maxPerAccount maximum failed attempts, or requests, allowed per account within the
+   *     window
+   * @param width counters per sketch row, it bounds memory and accuracy
+   * @since 0.1.0
+   */
+  @Inject
+  public DefaultLoginThrottleService(
+      @Value("${throttle.login.enabled:true}") boolean enabled,
+      @Value("${throttle.login.window-seconds:60}") long windowSeconds,
+      @Value("${throttle.login.max-per-address:30}") int maxPerAddress,
+      @Value("${throttle.login.max-per-account:10}") int maxPerAccount,
+      @Value("${throttle.login.width:4096}") int width) {
+    this(enabled, windowSeconds, maxPerAddress, maxPerAccount, width, Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the throttle with a specific {@link Clock}
+   *
+   * @param enabled whether to throttle attempts or not
+   * @param windowSeconds length of the sliding window in seconds
+   * @param maxPerAddress maximum attempts allowed per address within the window
+   * @param maxPerAccount maximum failed attempts, or requests, allowed per account within the
+   *     window
+   * @param width counters per sketch row, it bounds memory and accuracy
+   * @param clock clock used to slide the window
+   * @since 0.1.0
+   */
+  public DefaultLoginThrottleService(
+      boolean enabled,
+      long windowSeconds,
+      int maxPerAddress,
+      int maxPerAccount,
+      int width,
+      Clock clock) {
+    Duration window = Duration.ofSeconds(windowSeconds);
+
+    this.enabled = enabled;
+    this.maxPerAddress = maxPerAddress;
+    this.maxPerAccount = maxPerAccount;
+    this.addresses = new SlidingWindowSketch(window, SLOTS, DEPTH, width, clock);
+    this.accounts = new SlidingWindowSketch(window, SLOTS, DEPTH, width, clock);
+    this.requests = new SlidingWindowSketch(window, SLOTS, DEPTH, width, clock);
+  }
+
+  @Override
+  public boolean tryAcquire(String address, String account) {
+    if (!enabled) {
+      return true;
+    }
+
+    boolean accountAllowed =
+        Optional.ofNullable(account)
+            .map(DefaultLoginThrottleService::normalize)
+            .map(accounts::estimate)
+            .map(failures -> failures < maxPerAccount)
+            .orElse(true);
+
+    return isAllowed(address, accountAllowed);
+  }
+
+  @Override
+  public boolean tryAcquireForAccount(String address, String account) {
+    if (!enabled) {
+      return true;
+    }
+
+    boolean accountAllowed =
+        Optional.ofNullable(account)
+            .map(DefaultLoginThrottleService::normalize)
+            .map(requests::incrementAndEstimate)
+            .map(count -> count <= maxPerAccount)
+            .orElse(true);
+
+    return isAllowed(address, accountAllowed);
+  }
+
+  @Override
+  public void recordFailure(String account) {
+    if (enabled && account != null) {
+      accounts.incrementAndEstimate(normalize(account));
+    }
+  }
+
+  private boolean isAllowed(String address, boolean accountAllowed) {
+    boolean addressAllowed =
+        Optional.ofNullable(address)
+            .map(addresses::incrementAndEstimate)
+            .map(count -> count <= maxPerAddress)
+            .orElse(true);
+
+    if (!addressAllowed || !accountAllowed) {
+      LOG.warn("throttling attempt from {}", address);
+    }
+
+    return addressAllowed && accountAllowed;
+  }
+
+  private static String normalize(String account) {
+    return account.trim().toLowerCase(Locale.ENGLISH);
+  }
+}
@@ -18,19 +18,22 @@
 package patio.security.services.internal;
 
 import io.micronaut.context.annotation.Value;
+import java.security.SecureRandom;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.EmailService;
 import patio.infrastructure.email.services.internal.EmailComposerService;
 import patio.infrastructure.email.services.internal.templates.URLResolverService;
+import patio.infrastructure.tracing.Traced;
+import patio.security.domain.UserToken;
+import patio.security.repositories.UserTokenRepository;
 import patio.security.services.ResetPasswordService;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -42,13 +45,16 @@ import patio.user.repositories.UserRepository;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultResetPasswordService implements ResetPasswordService {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultResetPasswordService.class);
 
   private final transient String resetPasswordUrl;
+  private final transient long otpExpiryMinutes;
   private final transient UserRepository userRepository;
-  private final transient Auth0CryptoService cryptoService;
+  private final transient UserTokenRepository userTokenRepository;
+  private final transient SecureRandom random = new SecureRandom();
   private final transient EmailComposerService emailComposerService;
   private final transient EmailService emailService;
   private final transient URLResolverService urlResolverService;
@@ -57,22 +63,25 @@ public class DefaultResetPasswordService implements ResetPasswordService {
    * Initializes service by using the required services
    *
    * @param resetPasswordUrl to get the link from configuration
+   * @param otpExpiryMinutes minutes a reset password otp is valid
    * @param userRepository an instance of {@link UserRepository}
-   * @param auth0CryptoService an instance of {@link Auth0CryptoService}
+   * @param userTokenRepository to store the hashed otp
    * @param emailComposerService service to compose the {@link Email} notifications
    * @param emailService to be able to send notifications to group members
    * @param urlResolverService to resolve possible link urls for emails
    */
   public DefaultResetPasswordService(
       @Value("${front.urls.change-password:none}") String resetPasswordUrl,
+      @Value("${otp.expirytime.minutes:3}") long otpExpiryMinutes,
       UserRepository userRepository,
-      Auth0CryptoService auth0CryptoService,
+      UserTokenRepository userTokenRepository,
       EmailComposerService emailComposerService,
       EmailService emailService,
       URLResolverService urlResolverService) {
     this.resetPasswordUrl = resetPasswordUrl;
+    this.otpExpiryMinutes = otpExpiryMinutes;
     this.userRepository = userRepository;
-    this.cryptoService = auth0CryptoService;
+    this.userTokenRepository = userTokenRepository;
     this.emailComposerService = emailComposerService;
     this.emailService = emailService;
     this.urlResolverService = urlResolverService;
@@ -80,7 +89,7 @@ public class DefaultResetPasswordService implements ResetPasswordService {
 
   @Override
   public void resetPasswordRequest(String userEmail) {
-    final String randomOTP = cryptoService.hash(RandomStringUtils.randomAlphanumeric(17));
+    final String randomOTP = OtpUtils.generate(random);
     final Optional<User> user = userRepository.findByEmail(userEmail);
 
     user.ifPresent(
@@ -88,19 +97,27 @@ public class DefaultResetPasswordService implements ResetPasswordService {
           LOG.info(String.format("Notifying user %s to reset her password", u.getEmail()));
 
           setOTPForUser(randomOTP, u);
-          Email resettingEmail = composeResettingEmail(u);
+          Email resettingEmail = composeResettingEmail(u, randomOTP);
           emailService.send(resettingEmail);
         });
   }
 
   private void setOTPForUser(String randomToken, User user) {
-    user.setOtp(randomToken);
-    user.setOtpCreationDateTime(OffsetDateTime.now());
-    userRepository.save(user);
+    OffsetDateTime now = OffsetDateTime.now();
+    UserToken token =
+        UserToken.builder()
+            .with(t -> t.setUser(user))
+            .with(t -> t.setTokenHash(OtpUtils.hash(randomToken)))
+            .with(t -> t.setCreatedAtDateTime(now))
+            .with(t -> t.setExpiresAtDateTime(now.plusMinutes(otpExpiryMinutes)))
+            .build();
+
+    userTokenRepository.deleteAllByUser(user);
+    userTokenRepository.save(token);
   }
 
   @SuppressWarnings("PMD.UseConcurrentHashMap")
-  private Email composeResettingEmail(User user) {
+  private Email composeResettingEmail(User user, String otp) {
     String emailRecipient = user.getEmail();
     String emailSubject = emailComposerService.getMessage("resetPassword.subject");
     String emailMainMessage = emailComposerService.getMessage("resetPassword.main");
@@ -117,7 +134,7 @@ public class DefaultResetPasswordService implements ResetPasswordService {
     emailBodyVars.put("subject", emailSubject);
     emailBodyVars.put("greetings", greetingsMessage);
     emailBodyVars.put("main", emailMainMessage);
-    emailBodyVars.put("link", this.getChangePasswordLink(user.getOtp()));
+    emailBodyVars.put("link", this.getChangePasswordLink(otp));
     emailBodyVars.put("notRequested", notRequestedMessage);
     emailBodyVars.put("thanks", thanksMessage);
     emailBodyVars.put("patioTeam", patioTeamMessage);
@@ -19,16 +19,21 @@ package patio.security.services.internal;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import patio.common.domain.utils.Result;
+import patio.infrastructure.tracing.Traced;
 import patio.infrastructure.utils.ErrorConstants;
 import patio.security.domain.Login;
 import patio.security.domain.Tokens;
+import patio.security.domain.UserToken;
 import patio.security.graphql.ChangePasswordInput;
 import patio.security.graphql.LoginInput;
+import patio.security.repositories.UserTokenRepository;
 import patio.security.services.CryptoService;
 import patio.security.services.GoogleUserService;
 import patio.security.services.OauthService;
@@ -43,6 +48,7 @@ import patio.user.repositories.UserRepository;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultSecurityService implements SecurityService {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultSecurityService.class);
@@ -50,6 +56,7 @@ public class DefaultSecurityService implements SecurityService {
   private final transient CryptoService cryptoService;
   private final transient OauthService oauthService;
   private final transient UserRepository userRepository;
+  private final transient UserTokenRepository userTokenRepository;
   private final transient GoogleUserService googleUserService;
   private final transient OtpExpiredForUser otpExpiredForUser;
 
@@ -60,6 +67,7 @@ public class DefaultSecurityService implements SecurityService {
    * @param googleUserService service to get user information from Google
    * @param oauthService service to interact with an oauth2 provider
    * @param userRepository service used to check user data constraints
+   * @param userTokenRepository to find and consume one-time tokens
    * @param otpExpiredForUser to validate an otp has not expired
    * @since 0.1.0
    */
@@ -68,11 +76,13 @@ public class DefaultSecurityService implements SecurityService {
       GoogleUserService googleUserService,
       OauthService oauthService,
       UserRepository userRepository,
+      UserTokenRepository userTokenRepository,
       OtpExpiredForUser otpExpiredForUser) {
     this.cryptoService = cryptoService;
     this.googleUserService = googleUserService;
     this.oauthService = oauthService;
     this.userRepository = userRepository;
+    this.userTokenRepository = userTokenRepository;
     this.otpExpiredForUser = otpExpiredForUser;
   }
 
@@ -96,20 +106,24 @@ public class DefaultSecurityService implements SecurityService {
 
   @Override
   public Result<Login> loginByCredentials(LoginInput input) {
-    Optional<User> user = userRepository.findByEmail(input.getEmail());
-
-    return user.filter(
-            user1 -> cryptoService.verifyWithHash(input.getPassword(), user1.getPassword()))
-        .flatMap(this::getLoginFromUser)
-        .map(Result::result)
-        .orElse(Result.error(ErrorConstants.BAD_CREDENTIALS));
+    return whenHashingAvailable(
+        () -> {
+          Optional<User> user = userRepository.findByEmail(input.getEmail());
+
+          return user.filter(
+                  user1 -> cryptoService.verifyWithHash(input.getPassword(), user1.getPassword()))
+              .map(user1 -> rehashIfNeeded(user1, input.getPassword()))
+              .flatMap(this::getLoginFromUser)
+              .map(Result::result)
+              .orElse(Result.error(ErrorConstants.BAD_CREDENTIALS));
+        });
   }
 
   @Override
   public Result<Login> loginByOauth2(String code) {
     return Optional.ofNullable(code)
-        .flatMap(oauthService::getAccessToken)
-        .flatMap(googleUserService::loadFromAccessToken)
+        .flatMap(oauthService::getTokens)
+        .flatMap(googleUserService::loadFromTokens)
         .flatMap(userRepository::findByEmailOrCreate)
         .flatMap(this::getLoginFromUser)
         .map(Result::result)
@@ -119,8 +133,9 @@ public class DefaultSecurityService implements SecurityService {
   @Override
   public Result<Login> loginByOtp(String otpCode) {
     return Optional.ofNullable(otpCode)
-        .flatMap(userRepository::findByOtp)
-        .flatMap(this::clearOtpForUser)
+        .flatMap(this::findToken)
+        .filter(token -> !otpExpiredForUser.check(Optional.of(token)).hasError())
+        .map(this::consumeToken)
         .flatMap(this::getLoginFromUser)
         .map(Result::result)
         .orElse(Result.error(ErrorConstants.BAD_CREDENTIALS));
@@ -138,8 +153,12 @@ public class DefaultSecurityService implements SecurityService {
 
   @Override
   public Result<Boolean> changePassword(ChangePasswordInput input) {
-    Optional<User> user =
-        Optional.ofNullable(input.getOtpCode()).flatMap(userRepository::findByOtp);
+    return whenHashingAvailable(() -> changePasswordWithOtp(input));
+  }
+
+  private Result<Boolean> changePasswordWithOtp(ChangePasswordInput input) {
+    Optional<UserToken> token = Optional.ofNullable(input.getOtpCode()).flatMap(this::findToken);
+    Optional<User> user = token.map(UserToken::getUser);
     String newPassword = Optional.ofNullable(input.getPassword()).orElse("");
 
     PasswordIsBlank passwordIsBlank = new PasswordIsBlank();
@@ -151,26 +170,51 @@ public class DefaultSecurityService implements SecurityService {
     return user.map(
             u -> {
               return Result.<Boolean>create()
-                  .thenCheck(() -> this.otpExpiredForUser.check(user))
+                  .thenCheck(() -> this.otpExpiredForUser.check(token))
                   .thenCheck(() -> passwordIsBlank.check(newPassword))
                   .thenCheck(() -> samePassword.check(u, newPassword))
                   .then(() -> updatePasswordIfSuccess(u, input.getPassword()))
-                  .sideEffect((success) -> this.clearOtpForUser(u));
+                  .sideEffect((success) -> token.ifPresent(this::consumeToken));
             })
         .orElse(Result.result(true));
   }
 
+  private static <T> Result<T> whenHashingAvailable(Supplier<Result<T>> operation) {
+    try {
+      return operation.get();
+    } catch (RejectedExecutionException ex) {
+      LOG.warn("Password hashing rejected: {}", ex.getMessage());
+      return Result.error(ErrorConstants.TRY_LATER);
+    }
+  }
+
+  private User rehashIfNeeded(User user, String password) {
+    if (!cryptoService.needsRehash(user.getPassword())) {
+      return user;
+    }
+    try {
+      user.setPassword(cryptoService.hash(password));
+      return userRepository.save(user);
+    } catch (RejectedExecutionException ex) {
+      LOG.debug("Rehashing postponed for user {}", user.getId());
+      return user;
+    }
+  }
+
   private Optional<Login> getLoginFromUser(User user) {
     Tokens tokens = cryptoService.createTokens(user);
 
     return Optional.of(new Login(tokens, user));
   }
 
-  private Optional<User> clearOtpForUser(User user) {
-    user.setOtp("");
-    user.setOtpCreationDateTime(null);
+  private Optional<UserToken> findToken(String otp) {
+    return userTokenRepository.findByTokenHash(OtpUtils.hash(otp));
+  }
+
+  private User consumeToken(UserToken token) {
+    userTokenRepository.delete(token);
 
-    return Optional.of(userRepository.save(user));
+    return token.getUser();
   }
 
   private Boolean updatePasswordIfSuccess(User user, String password) {
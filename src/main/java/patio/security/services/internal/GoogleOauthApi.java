@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import com.github.scribejava.apis.GoogleApi20;
+
+/**
+ * Google's oauth2 api whose token endpoint can be replaced by configuration, i.e. to point to a
+ * local oauth2 server while testing
+ *
+ * @since 0.1.0
+ */
+public class GoogleOauthApi extends GoogleApi20 {
+
+  private final transient String tokenUrl;
+
+  /**
+   * Initializes the api with the token endpoint to use
+   *
+   * @param tokenUrl url used to exchange authorization codes for tokens
+   * @since 0.1.0
+   */
+  public GoogleOauthApi(String tokenUrl) {
+    super();
+    this.tokenUrl = tokenUrl;
+  }
+
+  @Override
+  public String getAccessTokenEndpoint() {
+    return tokenUrl;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micronaut.context.annotation.Value;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies OpenID Connect id tokens locally using the provider's public keys: signature, audience,
+ * expiration date and issuer.
+ *
+ * @since 0.1.0
+ * @see JwksKeyProvider
+ */
+@Singleton
+public class IdTokenVerifier {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IdTokenVerifier.class);
+  private static final long LEEWAY_SECONDS = 60;
+
+  private final transient JWTVerifier verifier;
+  private final transient List<String> issuers;
+
+  /**
+   * Initializes the verifier
+   *
+   * @param keyProvider provides the public keys used to sign the id tokens
+   * @param clientId oauth2 client id, expected as the token's audience
+   * @param issuers comma separated list of accepted issuers
+   * @since 0.1.0
+   */
+  public IdTokenVerifier(
+      JwksKeyProvider keyProvider,
+      @Value("${oauth2.apikey:none}") String clientId,
+      @Value("${oauth2.id-token.issuers:https://accounts.google.com,accounts.google.com}")
+          String issuers) {
+    this.verifier =
+        JWT.require(Algorithm.RSA256(keyProvider))
+            .withAudience(clientId)
+            .acceptLeeway(LEEWAY_SECONDS)
+            .build();
+    this.issuers = Arrays.asList(issuers.split(","));
+  }
+
+  /**
+   * Verifies the id token passed as parameter
+   *
+   * @param idToken the encoded id token
+   * @return the decoded token if it's valid or an empty {@link Optional} otherwise
+   * @since 0.1.0
+   */
+  public Optional<DecodedJWT> verify(String idToken) {
+    Optional<DecodedJWT> decoded = Optional.empty();
+    try {
+      decoded = Optional.of(verifier.verify(idToken)).filter(t -> issuers.contains(t.getIssuer()));
+    } catch (JWTVerificationException e) {
+      LOG.warn("invalid id token: {}", e.getMessage());
+    }
+
+    return decoded;
+  }
+}
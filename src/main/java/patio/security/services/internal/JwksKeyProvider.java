@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpTransport;
+import io.micronaut.context.annotation.Value;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a local copy of the oauth2 provider's public keys (JWKS) so that id tokens can be verified
+ * without calling the provider for every login. Keys are refreshed periodically and, at most once
+ * every <b>minRefreshInterval</b>, when a token is signed with an unknown key (key rotation).
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class JwksKeyProvider implements RSAKeyProvider {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JwksKeyProvider.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final transient HttpRequestFactory requestFactory;
+  private final transient GenericUrl jwksUrl;
+  private final transient Duration refreshInterval;
+  private final transient Duration minRefreshInterval;
+  private final transient ReentrantLock lock = new ReentrantLock();
+  private transient volatile Map<String, RSAPublicKey> keys = Map.of();
+  private transient volatile Instant lastRefresh = Instant.EPOCH;
+
+  /**
+   * Initializes the provider. Keys are not fetched until the first token is verified.
+   *
+   * @param transport shared {@link HttpTransport} used to fetch the keys
+   * @param jwksUrl url of the JSON web key set
+   * @param refreshMinutes minutes before the key set is considered stale
+   * @param minRefreshSeconds minimum seconds between two fetches caused by unknown keys
+   * @since 0.1.0
+   */
+  public JwksKeyProvider(
+      HttpTransport transport,
+      @Value("${oauth2.id-token.jwks-url:https://www.googleapis.com/oauth2/v3/certs}")
+          String jwksUrl,
+      @Value("${oauth2.id-token.jwks-refresh-minutes:60}") long refreshMinutes,
+      @Value("${oauth2.id-token.jwks-min-refresh-seconds:10}") long minRefreshSeconds) {
+    this.requestFactory = transport.createRequestFactory();
+    this.jwksUrl = new GenericUrl(jwksUrl);
+    this.refreshInterval = Duration.ofMinutes(refreshMinutes);
+    this.minRefreshInterval = Duration.ofSeconds(minRefreshSeconds);
+  }
+
+  @Override
+  public RSAPublicKey getPublicKeyById(String keyId) {
+    Instant observedRefresh = lastRefresh;
+    if (isOlderThan(observedRefresh, refreshInterval)) {
+      refresh(observedRefresh);
+    }
+
+    Optional<RSAPublicKey> key = findKey(keyId);
+    observedRefresh = lastRefresh;
+    if (key.isEmpty() && isOlderThan(observedRefresh, minRefreshInterval)) {
+      refresh(observedRefresh);
+      key = findKey(keyId);
+    }
+
+    return key.orElse(null);
+  }
+
+  @Override
+  public RSAPrivateKey getPrivateKey() {
+    return null;
+  }
+
+  @Override
+  public String getPrivateKeyId() {
+    return null;
+  }
+
+  private Optional<RSAPublicKey> findKey(String keyId) {
+    return Optional.ofNullable(keyId).map(keys::get);
+  }
+
+  private static boolean isOlderThan(Instant refresh, Duration duration) {
+    return Duration.between(refresh, Instant.now()).compareTo(duration) >= 0;
+  }
+
+  private void refresh(Instant observedRefresh) {
+    lock.lock();
+    try {
+      // another thread may have refreshed the keys while waiting for the lock
+      if (lastRefresh.equals(observedRefresh)) {
+        keys = fetchKeys().orElse(keys);
+        lastRefresh = Instant.now();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Optional<Map<String, RSAPublicKey>> fetchKeys() {
+    try {
+      String content = requestFactory.buildGetRequest(jwksUrl).execute().parseAsString();
+      Map<String, RSAPublicKey> fetched = new HashMap<>();
+
+      for (JsonNode node : MAPPER.readTree(content).path("keys")) {
+        if ("RSA".equals(node.path("kty").asText())) {
+          fetched.put(node.path("kid").asText(), toPublicKey(node));
+        }
+      }
+
+      LOG.debug("fetched {} keys from {}", fetched.size(), jwksUrl);
+      return Optional.of(Map.copyOf(fetched));
+    } catch (IOException | GeneralSecurityException e) {
+      LOG.warn("error while fetching JWKS from {}: {}", jwksUrl, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private static RSAPublicKey toPublicKey(JsonNode node) throws GeneralSecurityException {
+    Base64.Decoder decoder = Base64.getUrlDecoder();
+    BigInteger modulus = new BigInteger(1, decoder.decode(node.path("n").asText()));
+    BigInteger exponent = new BigInteger(1, decoder.decode(node.path("e").asText()));
+
+    return (RSAPublicKey)
+        KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import com.github.scribejava.core.builder.ServiceBuilder;
+import com.github.scribejava.core.oauth.OAuth20Service;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import javax.inject.Singleton;
+
+/**
+ * Creates the clients used to talk to the oauth2 provider. All of them are shared singletons so
+ * that HTTP keep-alive connections, and the TLS sessions behind them, are reused between logins
+ * instead of being created for every request.
+ *
+ * @since 0.1.0
+ */
+@Factory
+public class OauthClientFactory {
+
+  /**
+   * Provides the HTTP transport shared by all Google api clients
+   *
+   * @return a thread-safe {@link HttpTransport}
+   * @since 0.1.0
+   */
+  @Singleton
+  public HttpTransport httpTransport() {
+    return new NetHttpTransport();
+  }
+
+  /**
+   * Provides the JSON parser shared by all Google api clients
+   *
+   * @return a thread-safe {@link JsonFactory}
+   * @since 0.1.0
+   */
+  @Singleton
+  public JsonFactory jsonFactory() {
+    return JacksonFactory.getDefaultInstance();
+  }
+
+  /**
+   * Provides a single instance of {@link OAuth20Service} with its properties configured from the
+   * application.yml values
+   *
+   * @param apiKey the Oauth2 api key
+   * @param apiSecret the Oauth2 api secret
+   * @param callback a valid url callback declared in oauth2 service provider
+   * @param tokenUrl url used to exchange authorization codes for tokens
+   * @return an instance of {@link OAuth20Service}
+   * @since 0.1.0
+   */
+  @Singleton
+  public OAuth20Service oauth20Service(
+      @Value("${oauth2.apikey:none}") String apiKey,
+      @Value("${oauth2.apisecret:none}") String apiSecret,
+      @Value("${oauth2.callback:none}") String callback,
+      @Value("${oauth2.token-url:https://www.googleapis.com/oauth2/v4/token}") String tokenUrl) {
+    return new ServiceBuilder(apiKey)
+        .apiSecret(apiSecret)
+        .callback(callback)
+        .build(new GoogleOauthApi(tokenUrl));
+  }
+}
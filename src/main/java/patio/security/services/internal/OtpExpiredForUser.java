@@ -19,14 +19,13 @@ package patio.security.services.internal;
 
 import static patio.common.domain.utils.Check.checkIsTrue;
 
-import io.micronaut.context.annotation.Value;
 import java.time.OffsetDateTime;
 import java.util.Optional;
 import javax.inject.Singleton;
 import patio.common.domain.utils.Check;
 import patio.common.domain.utils.Result;
 import patio.infrastructure.utils.ErrorConstants;
-import patio.user.domain.User;
+import patio.security.domain.UserToken;
 
 /**
  * This checker expects the user's otp has not expired, otherwise it will return a failing {@link
@@ -37,34 +36,19 @@ import patio.user.domain.User;
 @Singleton
 public class OtpExpiredForUser {
 
-  private final transient Integer otpExpiryMinutes;
-
-  /**
-   * Initializes the checker with required values from configuration
-   *
-   * @param otpExpiryMinutes minutes taken from configuration
-   */
-  public OtpExpiredForUser(@Value("${otp.expirytime.minutes:none}") Integer otpExpiryMinutes) {
-    this.otpExpiryMinutes = otpExpiryMinutes;
-  }
-
   /**
    * Checks the user's opt has not expired. Otherwise will build a failing {@link Result} containing
    * an error {@link ErrorConstants#OTP_EXPIRED_FOR_USER}
    *
-   * @param user {@link User} to check her otp code for
+   * @param token {@link UserToken} holding the otp expiration date
    * @return a failing {@link Result} if the user's otp has expired
    * @since 0.1.0
    */
-  public Check check(Optional<User> user) {
+  public Check check(Optional<UserToken> token) {
     var operationDate = OffsetDateTime.now();
-    boolean hasExpired =
-        user.map(User::getOtpCreationDateTime)
-            .map(
-                creationDate ->
-                    operationDate.isBefore(creationDate.plusMinutes(this.otpExpiryMinutes)))
-            .orElse(false);
+    boolean isValid =
+        token.map(UserToken::getExpiresAtDateTime).map(operationDate::isBefore).orElse(false);
 
-    return checkIsTrue(hasExpired, ErrorConstants.OTP_EXPIRED_FOR_USER);
+    return checkIsTrue(isValid, ErrorConstants.OTP_EXPIRED_FOR_USER);
   }
 }
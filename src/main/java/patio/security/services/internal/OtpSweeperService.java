@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import java.time.OffsetDateTime;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.tracing.Traced;
+import patio.security.domain.UserToken;
+import patio.security.repositories.UserTokenRepository;
+
+/**
+ * Periodically removes expired {@link UserToken} instances. Tokens are removed in small batches so
+ * that the sweep never holds locks on a big range of rows.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@Traced
+public class OtpSweeperService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OtpSweeperService.class);
+
+  private final transient int batchSize;
+  private final transient UserTokenRepository userTokenRepository;
+
+  /**
+   * Initializes the sweeper
+   *
+   * @param batchSize maximum number of tokens removed per statement
+   * @param userTokenRepository to remove expired tokens
+   * @since 0.1.0
+   */
+  public OtpSweeperService(
+      @Value("${otp.sweeper.batch-size:500}") int batchSize,
+      UserTokenRepository userTokenRepository) {
+    this.batchSize = Math.max(1, batchSize);
+    this.userTokenRepository = userTokenRepository;
+  }
+
+  /**
+   * Removes all tokens expired by now
+   *
+   * @return the number of removed tokens
+   * @since 0.1.0
+   */
+  @Scheduled(fixedDelay = "${otp.sweeper.delay:5m}", initialDelay = "1m")
+  public int sweep() {
+    OffsetDateTime now = OffsetDateTime.now();
+    int total = 0;
+    int removed;
+
+    do {
+      removed = userTokenRepository.deleteExpired(now, batchSize);
+      total += removed;
+    } while (removed == batchSize);
+
+    LOG.info("removed {} expired otp tokens", total);
+
+    return total;
+  }
+}
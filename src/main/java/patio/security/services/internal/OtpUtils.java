@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Functions to create one-time tokens and the hash used to store and look them up. Tokens are
+ * random enough to make a fast hash like SHA-256 safe, no need for a slow one like BCrypt.
+ *
+ * @since 0.1.0
+ */
+public final class OtpUtils {
+
+  private static final int OTP_BYTES = 24;
+
+  private OtpUtils() {
+    /* empty */
+  }
+
+  /**
+   * Creates a new url-safe random token
+   *
+   * @param random source of randomness
+   * @return a new random token
+   * @since 0.1.0
+   */
+  public static String generate(SecureRandom random) {
+    byte[] bytes = new byte[OTP_BYTES];
+    random.nextBytes(bytes);
+
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  /**
+   * Hashes the token passed as parameter
+   *
+   * @param token the token to hash
+   * @return the hex representation of the SHA-256 hash of the token
+   * @since 0.1.0
+   */
+  public static String hash(String token) {
+    return DigestUtils.sha256Hex(token);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import io.micronaut.context.annotation.Value;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Runs BCrypt hashing and verification in a dedicated, bounded pool of threads so that a burst of
+ * logins can't take every core away from the rest of the requests. When all threads are busy and
+ * the waiting queue is full the operation is rejected right away with a {@link
+ * RejectedExecutionException} instead of queueing indefinitely.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class PasswordHasher {
+
+  private static final String THREAD_PREFIX = "bcrypt-";
+  private static final int COST_START = 4;
+  private static final int COST_END = 6;
+
+  private final transient int cost;
+  private final transient ThreadPoolExecutor executor;
+
+  /**
+   * Initializes the hasher and its pool of threads
+   *
+   * @param cost BCrypt log rounds used when hashing new passwords
+   * @param threads number of threads dedicated to hashing
+   * @param queueSize number of operations allowed to wait for a free thread
+   * @since 0.1.0
+   */
+  public PasswordHasher(
+      @Value("${crypto.bcrypt.cost:10}") int cost,
+      @Value("${crypto.bcrypt.threads:2}") int threads,
+      @Value("${crypto.bcrypt.queue-size:16}") int queueSize) {
+    this.cost = cost;
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            new HasherThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Hashes the text passed as argument with the configured cost
+   *
+   * @param plain the text to hash
+   * @return the hashed text
+   * @throws RejectedExecutionException if the hashing pool is saturated
+   * @since 0.1.0
+   */
+  public String hash(String plain) {
+    return run(() -> BCrypt.hashpw(plain, BCrypt.gensalt(cost)));
+  }
+
+  /**
+   * Verifies that the plain text matches the hashed version
+   *
+   * @param plain plain text
+   * @param hashed hashed version of the plain text
+   * @return true if both are considered equal
+   * @throws RejectedExecutionException if the hashing pool is saturated
+   * @since 0.1.0
+   */
+  public boolean verify(String plain, String hashed) {
+    return run(() -> BCrypt.checkpw(plain, hashed));
+  }
+
+  /**
+   * Checks whether the hashed text was created with a cost different than the one currently
+   * configured
+   *
+   * @param hashed a BCrypt hash
+   * @return true if the hash should be recalculated with the current cost
+   * @since 0.1.0
+   */
+  public boolean needsRehash(String hashed) {
+    return Optional.ofNullable(hashed)
+        .filter(hash -> hash.length() > COST_END && hash.charAt(COST_END) == '$')
+        .map(hash -> hash.substring(COST_START, COST_END))
+        .filter(rounds -> rounds.chars().allMatch(Character::isDigit))
+        .map(Integer::parseInt)
+        .map(rounds -> rounds != cost)
+        .orElse(false);
+  }
+
+  /**
+   * Stops the hashing pool
+   *
+   * @since 0.1.0
+   */
+  @PreDestroy
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private <T> T run(Callable<T> operation) {
+    Future<T> future = executor.submit(operation);
+
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("interrupted while hashing", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalArgumentException(ex.getCause());
+    }
+  }
+
+  private static class HasherThreadFactory implements ThreadFactory {
+    private final transient AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, THREAD_PREFIX + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
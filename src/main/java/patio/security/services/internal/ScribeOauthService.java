@@ -17,15 +17,18 @@
  */
 package patio.security.services.internal;
 
+import com.github.scribejava.apis.openid.OpenIdOAuth2AccessToken;
 import com.github.scribejava.core.model.OAuth2AccessToken;
 import com.github.scribejava.core.oauth.OAuth20Service;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import patio.security.domain.OauthTokens;
 import patio.security.services.OauthService;
 
 /**
@@ -38,30 +41,45 @@ import patio.security.services.OauthService;
 public class ScribeOauthService implements OauthService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ScribeOauthService.class);
-  private final transient OAuth20Service oAuth20Service;
+  private final transient Provider<OAuth20Service> oAuth20Service;
 
   /**
-   * Default constructor
+   * Default constructor. The oauth2 client is resolved the first time a token is requested instead
+   * of when the application starts.
    *
-   * @param oAuth20Service implementation used
+   * @param oAuth20Service provider of the implementation used
    * @since 0.1.0
    */
   @Inject
-  public ScribeOauthService(OAuth20Service oAuth20Service) {
+  public ScribeOauthService(Provider<OAuth20Service> oAuth20Service) {
     this.oAuth20Service = oAuth20Service;
   }
 
   @Override
-  public Optional<String> getAccessToken(String authorizationCode) {
-    Optional<String> accessToken = Optional.empty();
+  public Optional<OauthTokens> getTokens(String authorizationCode) {
+    Optional<OauthTokens> tokens = Optional.empty();
     try {
-      accessToken =
-          Optional.of(oAuth20Service.getAccessToken(authorizationCode))
-              .map(OAuth2AccessToken::getAccessToken);
+      tokens =
+          Optional.of(oAuth20Service.get().getAccessToken(authorizationCode))
+              .map(this::toOauthTokens);
     } catch (IOException | InterruptedException | ExecutionException e) {
       LOGGER.error("error while getting access token from auth code");
     }
 
-    return accessToken;
+    return tokens;
+  }
+
+  private OauthTokens toOauthTokens(OAuth2AccessToken token) {
+    String idToken =
+        Optional.of(token)
+            .filter(OpenIdOAuth2AccessToken.class::isInstance)
+            .map(OpenIdOAuth2AccessToken.class::cast)
+            .map(OpenIdOAuth2AccessToken::getOpenIdToken)
+            .orElse(null);
+
+    return OauthTokens.builder()
+        .with(t -> t.setAccessToken(token.getAccessToken()))
+        .with(t -> t.setIdToken(idToken))
+        .build();
   }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate, fixed-size, sliding-window counter of events per key. The window is divided in
+ * slots, and every slot is a count-min sketch: a few rows of counters where every key is hashed to
+ * one counter per row. The estimated count of a key is the minimum of its counters, so it may
+ * overestimate but never underestimate the real count.
+ *
+ * <p>Memory doesn't depend on the number of keys: it's always slots * depth * width integers.
+ * Updates are lock-free, each one only touches <b>depth</b> counters, so concurrent updates of
+ * different keys rarely contend on the same memory. Recycling a slot when its time comes is done
+ * with a CAS, increments racing with the reset may be lost, which is fine for an approximation.
+ *
+ * @since 0.1.0
+ */
+public class SlidingWindowSketch {
+
+  private static final long[] SEEDS = {
+    0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+    0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+  };
+
+  private final transient Clock clock;
+  private final transient long slotMillis;
+  private final transient int depth;
+  private final transient int widthMask;
+  private final transient Slot[] slots;
+
+  /**
+   * Initializes the sketch
+   *
+   * @param window length of the sliding window
+   * @param slotCount number of slots the window is divided in, the more the smoother it slides
+   * @param depth number of rows per slot (at most 8), the more the more accurate
+   * @param width counters per row, rounded up to a power of two, the more the more accurate
+   * @param clock clock used to find out the current slot
+   * @since 0.1.0
+   */
+  public SlidingWindowSketch(Duration window, int slotCount, int depth, int width, Clock clock) {
+    this.clock = clock;
+    this.slotMillis = Math.max(1, window.toMillis() / slotCount);
+    this.depth = Math.min(depth, SEEDS.length);
+    this.widthMask = Integer.highestOneBit(Math.max(2, width) * 2 - 1) - 1;
+    this.slots = new Slot[slotCount];
+
+    for (int i = 0; i < slotCount; i++) {
+      this.slots[i] = new Slot(this.depth * (widthMask + 1));
+    }
+  }
+
+  /**
+   * Records a new event for the key and returns the estimated number of events of that key within
+   * the window, including the new one
+   *
+   * @param key the key of the event
+   * @return the estimated number of events of that key in the current window
+   * @since 0.1.0
+   */
+  public int incrementAndEstimate(String key) {
+    long epoch = currentEpoch();
+    long hash = hash(key);
+    Slot current = slotFor(epoch);
+    int estimate = Integer.MAX_VALUE;
+
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, current.counters.incrementAndGet(index(hash, row)));
+    }
+
+    return estimate + estimatePrevious(hash, epoch);
+  }
+
+  /**
+   * Returns the estimated number of events of the key within the window
+   *
+   * @param key the key of the events
+   * @return the estimated number of events of that key in the current window
+   * @since 0.1.0
+   */
+  public int estimate(String key) {
+    long epoch = currentEpoch();
+    long hash = hash(key);
+
+    return estimateSlot(slots[(int) (epoch % slots.length)], epoch, hash)
+        + estimatePrevious(hash, epoch);
+  }
+
+  private int estimatePrevious(long hash, long epoch) {
+    int total = 0;
+    for (long previous = epoch - slots.length + 1; previous < epoch; previous++) {
+      total += estimateSlot(slots[(int) (Math.floorMod(previous, slots.length))], previous, hash);
+    }
+    return total;
+  }
+
+  private int estimateSlot(Slot slot, long epoch, long hash) {
+    if (slot.epoch.get() != epoch) {
+      return 0;
+    }
+
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, slot.counters.get(index(hash, row)));
+    }
+    return estimate;
+  }
+
+  private long currentEpoch() {
+    return clock.millis() / slotMillis;
+  }
+
+  private Slot slotFor(long epoch) {
+    Slot slot = slots[(int) (epoch % slots.length)];
+    long slotEpoch = slot.epoch.get();
+
+    if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+      for (int i = 0; i < slot.counters.length(); i++) {
+        slot.counters.set(i, 0);
+      }
+    }
+
+    return slot;
+  }
+
+  private int index(long hash, int row) {
+    return row * (widthMask + 1) + (int) (mix(hash ^ SEEDS[row]) & widthMask);
+  }
+
+  private static long hash(String key) {
+    long hash = 1_125_899_906_842_597L;
+    for (int i = 0; i < key.length(); i++) {
+      hash = 31 * hash + key.charAt(i);
+    }
+    return hash;
+  }
+
+  private static long mix(long value) {
+    long mixed = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return mixed ^ (mixed >>> 33);
+  }
+
+  /**
+   * Counters of a time slot along with the slot's epoch (number of slots elapsed since 1970)
+   *
+   * @since 0.1.0
+   */
+  private static class Slot {
+    private final transient AtomicLong epoch = new AtomicLong(-1);
+    private final transient AtomicIntegerArray counters;
+
+    private Slot(int size) {
+      this.counters = new AtomicIntegerArray(size);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.slowoperation.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.context.annotation.Value;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Singleton;
+import patio.common.domain.utils.Result;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.graphql.ResultUtils;
+import patio.infrastructure.graphql.instrumentation.SlowOperation;
+import patio.infrastructure.graphql.instrumentation.SlowOperationLog;
+import patio.infrastructure.utils.ErrorConstants;
+import patio.user.domain.User;
+
+/**
+ * Exposes the last slow operations to the users whose emails are listed in the property
+ * <b>graphql.slow-operations.admins</b>
+ *
+ * @since 0.1.0
+ * @see SlowOperationLog
+ */
+@Singleton
+public class SlowOperationFetcher {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int DEFAULT_MAX = 20;
+
+  private final transient SlowOperationLog log;
+  private final transient Set<String> admins;
+
+  /**
+   * Initializes the fetcher
+   *
+   * @param log where slow operations are kept
+   * @param admins comma separated emails of the users allowed to read slow operations
+   * @since 0.1.0
+   */
+  public SlowOperationFetcher(
+      SlowOperationLog log, @Value("${graphql.slow-operations.admins:}") String admins) {
+    this.log = log;
+    this.admins =
+        Arrays.stream(admins.split(","))
+            .map(String::strip)
+            .filter(email -> !email.isEmpty())
+            .collect(Collectors.toSet());
+  }
+
+  /**
+   * Lists the last slow operations
+   *
+   * @param env GraphQL execution environment
+   * @return the operations, most recent first, or an error if the current user is not an admin
+   * @since 0.1.0
+   */
+  @SuppressWarnings("unchecked")
+  public DataFetcherResult<List<SlowOperation>> listSlowOperations(DataFetchingEnvironment env) {
+    Context ctx = env.getContext();
+    String email = Optional.ofNullable(ctx.getAuthenticatedUser()).map(User::getEmail).orElse("");
+
+    if (!admins.contains(email)) {
+      return ResultUtils.render(ErrorConstants.NOT_ALLOWED);
+    }
+
+    int max = Optional.ofNullable(env.<Integer>getArgument("max")).orElse(DEFAULT_MAX);
+    return ResultUtils.render(Result.result(log.list(max)));
+  }
+
+  /**
+   * Renders the redacted variables of a slow operation as JSON
+   *
+   * @param env GraphQL execution environment
+   * @return the variables as a JSON object
+   * @throws JsonProcessingException if the variables can't be serialized
+   * @since 0.1.0
+   */
+  public String getVariables(DataFetchingEnvironment env) throws JsonProcessingException {
+    SlowOperation operation = env.getSource();
+    return MAPPER.writeValueAsString(operation.getVariables());
+  }
+}
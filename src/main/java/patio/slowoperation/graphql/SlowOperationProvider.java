@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.slowoperation.graphql;
+
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.TypeRuntimeWiring;
+import java.util.function.UnaryOperator;
+import javax.inject.Singleton;
+import patio.infrastructure.graphql.QueryProvider;
+import patio.infrastructure.graphql.TypeProvider;
+
+/**
+ * Contains the mapped fetchers for queries and types of slow operations
+ *
+ * @see QueryProvider
+ * @see TypeProvider
+ */
+@Singleton
+public class SlowOperationProvider implements QueryProvider, TypeProvider {
+
+  private final transient SlowOperationFetcher slowOperationFetcher;
+
+  /**
+   * Initializes providers with its required dependencies
+   *
+   * @param slowOperationFetcher data fetchers for slow operations
+   */
+  public SlowOperationProvider(SlowOperationFetcher slowOperationFetcher) {
+    this.slowOperationFetcher = slowOperationFetcher;
+  }
+
+  @Override
+  public UnaryOperator<TypeRuntimeWiring.Builder> getQueries() {
+    return (builder) ->
+        builder.dataFetcher("listSlowOperations", slowOperationFetcher::listSlowOperations);
+  }
+
+  @Override
+  public UnaryOperator<RuntimeWiring.Builder> getTypes() {
+    return (runtime) ->
+        runtime.type(
+            "SlowOperation",
+            builder -> builder.dataFetcher("variables", slowOperationFetcher::getVariables));
+  }
+}
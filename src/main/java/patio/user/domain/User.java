@@ -17,19 +17,23 @@
  */
 package patio.user.domain;
 
-import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import javax.persistence.Column;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import patio.common.domain.utils.Builder;
 import patio.group.domain.UserGroup;
+import patio.infrastructure.persistence.CacheRegions;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
 
 /**
  * Represents the users of patio
@@ -37,20 +41,25 @@ import patio.group.domain.UserGroup;
  * @since 0.1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Table(name = "users")
 public final class User {
 
-  @Id @GeneratedValue private UUID id;
+  @Id
+  @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+  @GenericGenerator(
+      name = TimeOrderedUuidGenerator.NAME,
+      strategy = TimeOrderedUuidGenerator.STRATEGY)
+  private UUID id;
+
   private String name;
   private String email;
 
   private String password;
-  private String otp;
-
-  @Column(name = "otp_creation_date")
-  private OffsetDateTime otpCreationDateTime;
 
   @OneToMany(mappedBy = "user")
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_GROUPS)
   private Set<UserGroup> groups;
 
   /**
@@ -135,42 +144,6 @@ public final class User {
     this.email = email;
   }
 
-  /**
-   * Gets otp.
-   *
-   * @return Value of otp.
-   */
-  public String getOtp() {
-    return otp;
-  }
-
-  /**
-   * Sets new otp.
-   *
-   * @param otp New value of otp.
-   */
-  public void setOtp(String otp) {
-    this.otp = otp;
-  }
-
-  /**
-   * Gets the time when the otp was created.
-   *
-   * @return Otp creation time.
-   */
-  public OffsetDateTime getOtpCreationDateTime() {
-    return otpCreationDateTime;
-  }
-
-  /**
-   * Sets the {@link OffsetDateTime} when the otp is created.
-   *
-   * @param otpCreationDateTime Otp creation time.
-   */
-  public void setOtpCreationDateTime(OffsetDateTime otpCreationDateTime) {
-    this.otpCreationDateTime = otpCreationDateTime;
-  }
-
   /**
    * Gets user's groups
    *
@@ -35,6 +35,14 @@ public interface UserRepository extends PageableRepository<User, UUID> {
    */
   List<User> findAllByIdInList(List<UUID> ids);
 
+  /**
+   * Finds all the users registered with the given emails
+   *
+   * @param emails the emails to look for
+   * @return a list of users, in no particular order
+   */
+  List<User> findAllByEmailInList(List<String> emails);
+
   /**
    * Finds all users of a given {@link Group}
    *
@@ -43,6 +51,21 @@ public interface UserRepository extends PageableRepository<User, UUID> {
    */
   Iterable<User> findAllByGroup(Group group);
 
+  /**
+   * Lists, sorted by name ignoring case and id, the members of a group coming after a given member
+   *
+   * @param groupId the id of the group
+   * @param namePrefix only members whose name starts with this prefix (ignoring case) are listed,
+   *     or all of them if it's null
+   * @param afterName name of the member after which the listing starts, or null to start from the
+   *     first member
+   * @param afterId id of the member after which the listing starts
+   * @param limit maximum number of members to return
+   * @return a list of members of the group
+   */
+  List<User> findAllByGroupAfter(
+      UUID groupId, String namePrefix, String afterName, UUID afterId, int limit);
+
   /**
    * Tries to find a given user in the database and if it's not there, then the {@link User} is
    * persisted
@@ -61,10 +84,25 @@ public interface UserRepository extends PageableRepository<User, UUID> {
   Optional<User> findByEmail(String email);
 
   /**
-   * Gets a persisted {@link User} by its OTP
+   * Sets the favourite group of a given user
    *
-   * @param otpCode the user's OTP code
-   * @return an {@link Optional} of the {@link User}
+   * @param userId the user's id
+   * @param groupId the id of the user's new favourite group
+   */
+  void updateFavouriteGroup(UUID userId, UUID groupId);
+
+  /**
+   * Sets the group passed as argument as favourite group of all its members not having one yet
+   *
+   * @param groupId the group's id
+   */
+  void updateFavouriteGroupWhereMissing(UUID groupId);
+
+  /**
+   * Removes the favourite group of a user only if it's the group passed as argument
+   *
+   * @param userId the user's id
+   * @param groupId the group's id
    */
-  Optional<User> findByOtp(String otpCode);
+  void removeFavouriteGroup(UUID userId, UUID groupId);
 }
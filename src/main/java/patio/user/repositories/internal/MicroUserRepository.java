@@ -18,16 +18,22 @@
 package patio.user.repositories.internal;
 
 import io.micronaut.data.annotation.Repository;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
 import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
 import patio.group.domain.Group;
 import patio.group.domain.UserGroup;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
 
 /** Persistence implementation access for {@link User} */
 @Repository
+@Traced
 public abstract class MicroUserRepository extends MicroBaseRepository implements UserRepository {
 
   /**
@@ -49,10 +55,86 @@ public abstract class MicroUserRepository extends MicroBaseRepository implements
     return getEntityManager().createQuery(select).getResultList();
   }
 
+  @Override
+  public List<User> findAllByGroupAfter(
+      UUID groupId, String namePrefix, String afterName, UUID afterId, int limit) {
+    // filtering, sorting and paging on the same key lets users_lower_name_id_idx serve them all
+    var sql = new StringBuilder(256);
+    sql.append("SELECT u.* FROM users u JOIN users_groups ug ON ug.user_id = u.id")
+        .append(" WHERE ug.group_id = :groupId");
+
+    if (namePrefix != null) {
+      sql.append(" AND lower(u.name) COLLATE \"C\" LIKE :namePrefix ESCAPE '!'");
+    }
+
+    if (afterName != null) {
+      sql.append(" AND (lower(u.name) COLLATE \"C\", u.id)")
+          .append(" > (lower(CAST(:afterName AS text)) COLLATE \"C\", :afterId)");
+    }
+
+    sql.append(" ORDER BY lower(u.name) COLLATE \"C\", u.id");
+
+    var query =
+        getEntityManager()
+            .createNativeQuery(sql.toString(), User.class)
+            .setParameter("groupId", groupId)
+            .setMaxResults(limit);
+
+    if (namePrefix != null) {
+      query.setParameter("namePrefix", escapeLike(namePrefix.toLowerCase(Locale.ROOT)) + "%");
+    }
+
+    if (afterName != null) {
+      query.setParameter("afterName", afterName).setParameter("afterId", afterId);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<User> members = query.getResultList();
+
+    return members;
+  }
+
+  private static String escapeLike(String text) {
+    return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+
   @Override
   public Optional<User> findByEmailOrCreate(User user) {
     return Optional.ofNullable(user.getEmail())
         .flatMap(this::findByEmail)
         .or(() -> Optional.of(save(user)));
   }
+
+  @Override
+  @Transactional
+  public void updateFavouriteGroup(UUID userId, UUID groupId) {
+    createNativeUpdate("UPDATE users SET favourite_group_id = :groupId WHERE id = :userId")
+        .setParameter("groupId", groupId)
+        .setParameter("userId", userId)
+        .executeUpdate();
+  }
+
+  @Override
+  @Transactional
+  public void updateFavouriteGroupWhereMissing(UUID groupId) {
+    var sql =
+        "UPDATE users SET favourite_group_id = :groupId "
+            + "WHERE favourite_group_id IS NULL "
+            + "AND id IN (SELECT user_id FROM users_groups WHERE group_id = :groupId)";
+
+    createNativeUpdate(sql).setParameter("groupId", groupId).executeUpdate();
+  }
+
+  @Override
+  @Transactional
+  public void removeFavouriteGroup(UUID userId, UUID groupId) {
+    var sql =
+        "UPDATE users SET favourite_group_id = NULL "
+            + "WHERE id = :userId AND favourite_group_id = :groupId";
+
+    createNativeUpdate(sql)
+        .setParameter("userId", userId)
+        .setParameter("groupId", groupId)
+        .executeUpdate();
+  }
 }
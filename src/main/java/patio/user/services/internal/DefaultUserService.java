@@ -24,6 +24,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
+import patio.infrastructure.tracing.Traced;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
 import patio.user.services.UserService;
@@ -35,6 +36,7 @@ import patio.user.services.UserService;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultUserService implements UserService {
 
   private final transient UserRepository userRepository;
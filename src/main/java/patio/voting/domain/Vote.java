@@ -27,7 +27,9 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import org.hibernate.annotations.GenericGenerator;
 import patio.common.domain.utils.Builder;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
 import patio.user.domain.User;
 
 /**
@@ -39,7 +41,12 @@ import patio.user.domain.User;
 @Table(name = "vote")
 public final class Vote {
 
-  @Id @GeneratedValue private UUID id;
+  @Id
+  @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+  @GenericGenerator(
+      name = TimeOrderedUuidGenerator.NAME,
+      strategy = TimeOrderedUuidGenerator.STRATEGY)
+  private UUID id;
 
   @ManyToOne
   @JoinColumn(name = "voting_id")
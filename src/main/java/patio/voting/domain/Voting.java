@@ -31,8 +31,10 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import org.hibernate.annotations.GenericGenerator;
 import patio.common.domain.utils.Builder;
 import patio.group.domain.Group;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
 import patio.user.domain.User;
 
 /**
@@ -44,7 +46,12 @@ import patio.user.domain.User;
 @Table(name = "voting")
 public final class Voting {
 
-  @Id @GeneratedValue private UUID id;
+  @Id
+  @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+  @GenericGenerator(
+      name = TimeOrderedUuidGenerator.NAME,
+      strategy = TimeOrderedUuidGenerator.STRATEGY)
+  private UUID id;
 
   @DateCreated
   @Column(name = "created_at")
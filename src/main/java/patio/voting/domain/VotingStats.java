@@ -27,7 +27,9 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import org.hibernate.annotations.GenericGenerator;
 import patio.common.domain.utils.Builder;
+import patio.infrastructure.persistence.TimeOrderedUuidGenerator;
 
 /**
  * Represents all the statistics which belong to a {@link Voting}
@@ -38,7 +40,12 @@ import patio.common.domain.utils.Builder;
 @Table(name = "voting_stats")
 public final class VotingStats {
 
-  @Id @GeneratedValue private UUID id;
+  @Id
+  @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+  @GenericGenerator(
+      name = TimeOrderedUuidGenerator.NAME,
+      strategy = TimeOrderedUuidGenerator.STRATEGY)
+  private UUID id;
 
   @OneToOne
   @JoinColumn(name = "voting_id", referencedColumnName = "id")
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.graphql;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.inject.Singleton;
+import org.dataloader.BatchLoader;
+import patio.voting.domain.Voting;
+import patio.voting.services.VotingService;
+
+/**
+ * Loads a list of {@link Voting} by their ids
+ *
+ * @since 0.1.0
+ */
+@Singleton
+public class VotingBatchLoader implements BatchLoader<UUID, Voting> {
+
+  private final transient VotingService votingService;
+
+  /**
+   * Initializes the data loader with a {@link VotingService}
+   *
+   * @param votingService required to retrieve votings
+   * @since 0.1.0
+   */
+  public VotingBatchLoader(VotingService votingService) {
+    this.votingService = votingService;
+  }
+
+  @Override
+  public CompletionStage<List<Voting>> load(List<UUID> keys) {
+    List<Voting> votingList = votingService.listVotingsByIds(keys);
+    return CompletableFuture.completedFuture(votingList);
+  }
+}
@@ -187,7 +187,25 @@ public class VotingFetcher {
 
     return Optional.ofNullable(vote.getCreatedBy())
         .map(User::getId)
-        .map(userDataLoader::load)
+        .map(id -> userDataLoader.load(id, env.getContext()))
+        .orElse(null);
+  }
+
+  /**
+   * Fetches the last {@link Voting} of a given group. Lookups of the groups resolved in the same
+   * request are batched together.
+   *
+   * @param env GraphQL execution environment
+   * @return the last voting of the source {@link Group}
+   * @since 0.1.0
+   */
+  public CompletableFuture<Voting> getLastVoting(DataFetchingEnvironment env) {
+    Group group = env.getSource();
+    DataLoader<UUID, Voting> votingDataLoader =
+        env.getDataLoader(DataLoaderRegistryFactory.DL_VOTINGS_BY_IDS);
+
+    return Optional.ofNullable(group.getLastVotingId())
+        .map(id -> votingDataLoader.load(id, env.getContext()))
         .orElse(null);
   }
 
@@ -51,7 +51,9 @@ public interface VoteRepository extends PageableRepository<Vote, UUID> {
   Optional<Vote> findByCreatedByAndVoting(User createdBy, Voting voting);
 
   /**
-   * Finds all votes a given {@link User} in a given {@link Group} between two dates
+   * Finds all votes a given {@link User} in a given {@link Group} between two dates. A vote can't
+   * be older than its voting, so votings are bounded by the upper limit too, letting the database
+   * skip monthly partitions out of range.
    *
    * @param user the user the votes you want to get
    * @param group the group the votes are created about
@@ -63,7 +65,8 @@ public interface VoteRepository extends PageableRepository<Vote, UUID> {
       "SELECT v FROM Vote v JOIN v.voting vo WHERE "
           + "v.createdBy = :user AND "
           + "vo.group = :group AND "
-          + "v.createdAtDateTime BETWEEN :fromDate AND :toDate")
+          + "v.createdAtDateTime BETWEEN :fromDate AND :toDate AND "
+          + "vo.createdAtDateTime <= :toDate")
   Stream<Vote> findAllByUserAndGroupAndCreatedAtBetween(
       User user, Group group, OffsetDateTime fromDate, OffsetDateTime toDate);
 
@@ -82,7 +85,7 @@ public interface VoteRepository extends PageableRepository<Vote, UUID> {
    * @param voting the voting we are asking the result for
    * @return the maximum number of votes there could be in a voting
    */
-  @Query("SELECT COUNT(u) FROM Voting v JOIN v.group.users u WHERE v = :voting")
+  @Query("SELECT CAST(v.group.memberCount AS long) FROM Voting v WHERE v = :voting")
   Long getMaxExpectedVoteCountByVoting(Voting voting);
 
   /**
@@ -19,6 +19,7 @@ package patio.voting.repositories;
 
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.repository.PageableRepository;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -70,6 +71,14 @@ public interface VotingRepository extends PageableRepository<Voting, UUID> {
   @Query("SELECT AVG(v.score) FROM Vote v WHERE v.voting = :voting")
   Integer findVoteAverage(Voting voting);
 
+  /**
+   * Gets a list of {@link Voting} instances by their ids
+   *
+   * @param ids list of ids of the {@link Voting} instances to get
+   * @return a list of {@link Voting} instances
+   */
+  List<Voting> findAllByIdInList(List<UUID> ids);
+
   /**
    * Finds the last voting that belongs to a group
    *
@@ -89,7 +98,8 @@ public interface VotingRepository extends PageableRepository<Voting, UUID> {
   List<VoteByMoodDTO> findAllVotesByMood(Voting voting);
 
   /**
-   * Returns what is the number of people usually voting in the given {@link Voting} group
+   * Returns what is the number of people usually voting in the given {@link Voting} group. Votings
+   * already moved to the archive are not taken into account
    *
    * @param voting the voting we want the average number of people voting
    * @return the average number of people voting in this voting's group
@@ -125,4 +135,26 @@ public interface VotingRepository extends PageableRepository<Voting, UUID> {
           + "AND v.createdAtDateTime > :date "
           + "ORDER BY v.createdAtDateTime ASC")
   Optional<Voting> getNextVotingByGroupAndDate(Group group, OffsetDateTime date);
+
+  /**
+   * Makes sure there are monthly partitions for votings and votes from the month of the first date
+   * to the month of the last date, both inclusive
+   *
+   * @param fromMonth any day of the first month
+   * @param toMonth any day of the last month
+   * @since 0.1.0
+   */
+  void createMonthlyPartitions(LocalDate fromMonth, LocalDate toMonth);
+
+  /**
+   * Detaches the monthly partitions of votings and votes ending before the given date and moves
+   * them to the <b>patio_archive</b> schema. Groups cached by other instances may still point to an
+   * archived voting until their cache entry expires, which resolves to no voting just like the
+   * cleared <b>last_voting_id</b>
+   *
+   * @param before first day of the oldest month to keep
+   * @return the archived months as <b>YYYY_MM</b>
+   * @since 0.1.0
+   */
+  List<String> archivePartitionsBefore(LocalDate before);
 }
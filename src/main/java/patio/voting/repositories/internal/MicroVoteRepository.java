@@ -20,11 +20,13 @@ package patio.voting.repositories.internal;
 import io.micronaut.data.annotation.Repository;
 import javax.persistence.EntityManager;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 import patio.voting.domain.Vote;
 import patio.voting.repositories.VoteRepository;
 
 /** Persistence implementation access for {@link Vote} */
 @Repository
+@Traced
 public abstract class MicroVoteRepository extends MicroBaseRepository implements VoteRepository {
 
   /**
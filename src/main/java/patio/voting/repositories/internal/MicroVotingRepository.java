@@ -19,15 +19,21 @@ package patio.voting.repositories.internal;
 
 import io.micronaut.data.annotation.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import patio.group.domain.Group;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 import patio.voting.domain.Vote;
 import patio.voting.domain.Voting;
 import patio.voting.repositories.VotingRepository;
 
 /** Persistence implementation access for {@link Voting} and {@link Vote} */
 @Repository
+@Traced
 public abstract class MicroVotingRepository extends MicroBaseRepository
     implements VotingRepository {
 
@@ -61,4 +67,31 @@ public abstract class MicroVotingRepository extends MicroBaseRepository
 
     return Optional.ofNullable(bigDecimal).map(BigDecimal::longValue);
   }
+
+  @Override
+  @Transactional
+  public void createMonthlyPartitions(LocalDate fromMonth, LocalDate toMonth) {
+    getEntityManager()
+        .createNativeQuery("SELECT CAST(create_monthly_voting_partitions(?, ?) AS text)")
+        .setParameter(1, fromMonth)
+        .setParameter(2, toMonth)
+        .getSingleResult();
+  }
+
+  @Override
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public List<String> archivePartitionsBefore(LocalDate before) {
+    List<String> archived =
+        getEntityManager()
+            .createNativeQuery("SELECT archive_voting_partitions(?)")
+            .setParameter(1, before)
+            .getResultList();
+
+    if (!archived.isEmpty()) {
+      getEntityManager().getEntityManagerFactory().getCache().evict(Group.class);
+    }
+
+    return archived;
+  }
 }
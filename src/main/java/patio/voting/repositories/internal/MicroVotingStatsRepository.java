@@ -23,11 +23,13 @@ import patio.common.domain.utils.OffsetPaginationRequest;
 import patio.common.domain.utils.OffsetPaginationResult;
 import patio.group.domain.Group;
 import patio.infrastructure.persistence.MicroBaseRepository;
+import patio.infrastructure.tracing.Traced;
 import patio.voting.domain.VotingStats;
 import patio.voting.repositories.VotingStatsRepository;
 
 /** Persistence implementation access for {@link VotingStats} */
 @Repository
+@Traced
 public abstract class MicroVotingStatsRepository extends MicroBaseRepository
     implements VotingStatsRepository {
 
@@ -108,6 +108,14 @@ public interface VotingService {
    */
   Optional<Voting> getLastVoting(Optional<Group> group);
 
+  /**
+   * Gets a list of votings by their ids
+   *
+   * @param ids the ids of the votings
+   * @return a list with the voting of each id, in the same order, or null if it doesn't exist
+   */
+  List<Voting> listVotingsByIds(List<UUID> ids);
+
   /**
    * Fetches the votes that belongs to an user in a group between two dates. The current user and
    * the user should be members of the group
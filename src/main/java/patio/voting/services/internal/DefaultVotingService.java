@@ -43,7 +43,9 @@ import patio.group.domain.UserGroup;
 import patio.group.domain.UserGroupKey;
 import patio.group.repositories.GroupRepository;
 import patio.group.repositories.UserGroupRepository;
+import patio.group.services.internal.GroupMembershipIndex;
 import patio.group.services.internal.UserIsInGroup;
+import patio.infrastructure.tracing.Traced;
 import patio.infrastructure.utils.ErrorConstants;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -70,6 +72,7 @@ import patio.voting.services.VotingStatsService;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultVotingService implements VotingService {
   private final transient VotingRepository votingRepository;
   private final transient VoteRepository voteRepository;
@@ -77,6 +80,7 @@ public class DefaultVotingService implements VotingService {
   private final transient UserGroupRepository userGroupRepository;
   private final transient UserRepository userRepository;
   private final transient GroupRepository groupRepository;
+  private final transient GroupMembershipIndex membershipIndex;
 
   /**
    * Initializes service by using the database repositories
@@ -87,6 +91,7 @@ public class DefaultVotingService implements VotingService {
    * @param userGroupRepository an instance of {@link UserGroupRepository}
    * @param userRepository an instance of {@link UserRepository}
    * @param groupRepository an instance of {@link GroupRepository}
+   * @param membershipIndex an instance of {@link GroupMembershipIndex}
    * @since 0.1.0
    */
   public DefaultVotingService(
@@ -95,13 +100,15 @@ public class DefaultVotingService implements VotingService {
       VotingStatsService votingStatsService,
       UserGroupRepository userGroupRepository,
       UserRepository userRepository,
-      GroupRepository groupRepository) {
+      GroupRepository groupRepository,
+      GroupMembershipIndex membershipIndex) {
     this.votingRepository = votingRepository;
     this.voteRepository = voteRepository;
     this.votingStatsService = votingStatsService;
     this.userGroupRepository = userGroupRepository;
     this.userRepository = userRepository;
     this.groupRepository = groupRepository;
+    this.membershipIndex = membershipIndex;
   }
 
   @Override
@@ -127,7 +134,15 @@ public class DefaultVotingService implements VotingService {
                   .build();
             });
 
-    return voting.map(votingRepository::save).orElse(null);
+    return voting
+        .map(votingRepository::save)
+        .map(
+            (Voting saved) -> {
+              groupRepository.updateLastVoting(saved.getGroup().getId(), saved.getId());
+              userRepository.updateFavouriteGroupWhereMissing(saved.getGroup().getId());
+              return saved;
+            })
+        .orElse(null);
   }
 
   @Override
@@ -141,7 +156,7 @@ public class DefaultVotingService implements VotingService {
     var userOnlyVotedOnce = new UserOnlyVotedOnce(voteRepository);
     var votingHasExpired = new VotingHasExpired();
     var notPresent = new NotPresent();
-    var userIsInGroup = new UserIsInGroup();
+    var userIsInGroup = new UserIsInGroup(membershipIndex);
     var anonymousAllowed = new VoteAnonymousAllowedInGroup();
 
     return Result.<Vote>create()
@@ -156,7 +171,9 @@ public class DefaultVotingService implements VotingService {
             (v) -> {
               votingStatsService.updateAverage(v.getVoting());
               votingStatsService.updateMovingAverage(v.getVoting());
-            });
+            })
+        .sideEffect(
+            (v) -> userRepository.updateFavouriteGroup(input.getUserId(), group.get().getId()));
   }
 
   private Supplier<Vote> createVote(
@@ -221,7 +238,7 @@ public class DefaultVotingService implements VotingService {
     Optional<Group> group = groupRepository.findById(input.getGroupId());
 
     Optional<Voting> votingFound = getLastVoting(group);
-    var userIsInGroup = new UserIsInGroup();
+    var userIsInGroup = new UserIsInGroup(membershipIndex);
     var notPresent = new NotPresent();
 
     return Result.<Voting>create()
@@ -233,7 +250,16 @@ public class DefaultVotingService implements VotingService {
 
   @Override
   public Optional<Voting> getLastVoting(Optional<Group> group) {
-    return group.flatMap(votingRepository::findByGroupOrderByCreatedAtDateTimeDesc);
+    return group.map(Group::getLastVotingId).flatMap(votingRepository::findById);
+  }
+
+  @Override
+  public List<Voting> listVotingsByIds(List<UUID> ids) {
+    Map<UUID, Voting> votings =
+        votingRepository.findAllByIdInList(ids).stream()
+            .collect(Collectors.toMap(Voting::getId, Function.identity()));
+
+    return ids.stream().map(votings::get).collect(Collectors.toList());
   }
 
   @Override
@@ -242,7 +268,7 @@ public class DefaultVotingService implements VotingService {
     Optional<User> user = userRepository.findById(input.getUserId());
     Optional<Group> group = groupRepository.findById(input.getGroupId());
 
-    UserIsInGroup userIsInGroup = new UserIsInGroup();
+    UserIsInGroup userIsInGroup = new UserIsInGroup(membershipIndex);
 
     return Result.<List<Vote>>create()
         .thenCheck(() -> userIsInGroup.check(currentUser, group))
@@ -330,7 +356,15 @@ public class DefaultVotingService implements VotingService {
     return Result.from(previousVoting);
   }
 
-  private List<VoteByMoodDTO> completeList(List<VoteByMoodDTO> fromDatabase) {
+  /**
+   * Fills the moods missing in the list with empty counts, sorted from the highest mood to the
+   * lowest
+   *
+   * @param fromDatabase vote counts by mood as stored in the database
+   * @return a list with the count of every mood
+   * @since 0.1.0
+   */
+  /* default */ static List<VoteByMoodDTO> completeList(List<VoteByMoodDTO> fromDatabase) {
     var votesByMoodMap =
         fromDatabase.stream()
             .collect(Collectors.toMap(VoteByMoodDTO::getMood, Function.identity()));
@@ -26,6 +26,8 @@ import patio.common.domain.utils.OffsetPaginationRequest;
 import patio.common.domain.utils.OffsetPaginationResult;
 import patio.group.domain.Group;
 import patio.group.repositories.GroupRepository;
+import patio.infrastructure.jfr.StatsRecomputationEvent;
+import patio.infrastructure.tracing.Traced;
 import patio.voting.domain.Voting;
 import patio.voting.domain.VotingStats;
 import patio.voting.graphql.GetStatsByGroupInput;
@@ -41,8 +43,11 @@ import patio.voting.services.VotingStatsService;
  */
 @Singleton
 @Transactional
+@Traced
 public class DefaultVotingStatsService implements VotingStatsService {
   public static final int DAYS_MOVING_INTERVAL = 59;
+  private static final String AVERAGE = "average";
+  private static final String MOVING_AVERAGE = "movingAverage";
 
   private final transient VotingStatsRepository votingStatsRep;
   private final transient VotingRepository votingRepository;
@@ -71,6 +76,9 @@ public class DefaultVotingStatsService implements VotingStatsService {
 
   @Override
   public void createVotingStat(Voting voting) {
+    StatsRecomputationEvent event = new StatsRecomputationEvent(MOVING_AVERAGE, voting.getId());
+    event.begin();
+
     VotingStats votingStats = VotingStats.newBuilder().with(vs -> vs.setVoting(voting)).build();
 
     getMovingAverageByGroup(voting).ifPresent(votingStats::setMovingAverage);
@@ -78,19 +86,28 @@ public class DefaultVotingStatsService implements VotingStatsService {
 
     voting.setStats(votingStats);
     votingRepository.save(voting);
+    event.commit();
   }
 
   @Override
   public void updateMovingAverage(Voting voting) {
+    StatsRecomputationEvent event = new StatsRecomputationEvent(MOVING_AVERAGE, voting.getId());
+    event.begin();
+
     var votingStats = voting.getStats();
     getMovingAverageByGroup(voting).ifPresent(votingStats::setMovingAverage);
     votingStatsRep.save(votingStats);
+    event.commit();
   }
 
   @Override
   public void updateAverage(Voting voting) {
+    StatsRecomputationEvent event = new StatsRecomputationEvent(AVERAGE, voting.getId());
+    event.begin();
+
     voting.getStats().setAverage(voteRepository.findAvgScoreByVoting(voting));
     votingRepository.update(voting);
+    event.commit();
   }
 
   @Override
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.services.internal;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import patio.infrastructure.tracing.Traced;
+import patio.voting.domain.Vote;
+import patio.voting.domain.Voting;
+import patio.voting.repositories.VotingRepository;
+
+/**
+ * Keeps the monthly partitions of {@link Voting} and {@link Vote} tables up to date. Partitions for
+ * the upcoming months are created ahead of time, and when archiving is enabled, partitions older
+ * than the configured retention are detached and moved to the <b>patio_archive</b> schema.
+ *
+ * @since 0.1.0
+ */
+@Singleton
+@Traced
+public class VotingPartitionService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VotingPartitionService.class);
+
+  private final transient int monthsAhead;
+  private final transient boolean archiveEnabled;
+  private final transient int retentionMonths;
+  private final transient VotingRepository votingRepository;
+  private final transient Clock clock;
+
+  /**
+   * Initializes the service
+   *
+   * @param monthsAhead number of months to create partitions for in advance
+   * @param archiveEnabled whether old partitions should be archived or not
+   * @param retentionMonths number of months, besides the current one, kept in the live tables
+   * @param votingRepository to create and archive partitions
+   * @since 0.1.0
+   */
+  @Inject
+  public VotingPartitionService(
+      @Value("${partitions.months-ahead:3}") int monthsAhead,
+      @Value("${partitions.archive.enabled:false}") boolean archiveEnabled,
+      @Value("${partitions.archive.retention-months:24}") int retentionMonths,
+      VotingRepository votingRepository) {
+    this(monthsAhead, archiveEnabled, retentionMonths, votingRepository, Clock.systemUTC());
+  }
+
+  /**
+   * Initializes the service with a specific {@link Clock}
+   *
+   * @param monthsAhead number of months to create partitions for in advance
+   * @param archiveEnabled whether old partitions should be archived or not
+   * @param retentionMonths number of months, besides the current one, kept in the live tables
+   * @param votingRepository to create and archive partitions
+   * @param clock clock used to find out the current month
+   * @since 0.1.0
+   */
+  public VotingPartitionService(
+      int monthsAhead,
+      boolean archiveEnabled,
+      int retentionMonths,
+      VotingRepository votingRepository,
+      Clock clock) {
+    this.monthsAhead = Math.max(1, monthsAhead);
+    this.archiveEnabled = archiveEnabled;
+    this.retentionMonths = Math.max(1, retentionMonths);
+    this.votingRepository = votingRepository;
+    this.clock = clock;
+  }
+
+  /**
+   * Creates the partitions of the upcoming months and archives the expired ones if enabled
+   *
+   * @return the archived months as <b>YYYY_MM</b>
+   * @since 0.1.0
+   */
+  @Scheduled(fixedDelay = "${partitions.delay:12h}", initialDelay = "10s")
+  public List<String> maintain() {
+    LocalDate currentMonth = LocalDate.now(clock).withDayOfMonth(1);
+
+    votingRepository.createMonthlyPartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+
+    if (!archiveEnabled) {
+      return List.of();
+    }
+
+    List<String> archived =
+        votingRepository.archivePartitionsBefore(currentMonth.minusMonths(retentionMonths));
+
+    LOG.info("archived {} voting partitions {}", archived.size(), archived);
+
+    return archived;
+  }
+}
@@ -35,7 +35,10 @@ import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.EmailService;
 import patio.infrastructure.email.services.internal.EmailComposerService;
 import patio.infrastructure.email.services.internal.templates.URLResolverService;
+import patio.infrastructure.jfr.VotingCheckEvent;
+import patio.infrastructure.tracing.Traced;
 import patio.user.domain.User;
+import patio.user.repositories.UserRepository;
 import patio.voting.domain.Voting;
 import patio.voting.repositories.VotingRepository;
 import patio.voting.services.VotingScheduling;
@@ -47,6 +50,7 @@ import patio.voting.services.VotingStatsService;
  * @since 0.1.0
  */
 @Singleton
+@Traced
 public class VotingSchedulingService implements VotingScheduling {
 
   private static final Logger LOG = LoggerFactory.getLogger(VotingSchedulingService.class);
@@ -54,6 +58,7 @@ public class VotingSchedulingService implements VotingScheduling {
   private final transient String votingUrl;
   private final transient GroupRepository groupRepository;
   private final transient VotingRepository votingRepository;
+  private final transient UserRepository userRepository;
   private final transient VotingStatsService votingStatsService;
   private final transient EmailComposerService emailComposerService;
   private final transient EmailService emailService;
@@ -66,6 +71,7 @@ public class VotingSchedulingService implements VotingScheduling {
    * @param votingUrl to get the link from configuration
    * @param groupRepository to be able to get group details
    * @param votingRepository to be able to create a new {@link Voting}
+   * @param userRepository to keep the favourite group of the group members
    * @param votingStatsService to be able to create a new {@link VotingStatsService}
    * @param emailComposerService service to compose the {@link Email} notifications
    * @param emailService to be able to send notifications to group members
@@ -76,6 +82,7 @@ public class VotingSchedulingService implements VotingScheduling {
       @Value("${front.urls.voting:none}") String votingUrl,
       GroupRepository groupRepository,
       VotingRepository votingRepository,
+      UserRepository userRepository,
       VotingStatsService votingStatsService,
       EmailComposerService emailComposerService,
       EmailService emailService,
@@ -83,6 +90,7 @@ public class VotingSchedulingService implements VotingScheduling {
     this.votingUrl = votingUrl;
     this.groupRepository = groupRepository;
     this.votingRepository = votingRepository;
+    this.userRepository = userRepository;
     this.votingStatsService = votingStatsService;
     this.emailComposerService = emailComposerService;
     this.emailService = emailService;
@@ -98,8 +106,24 @@ public class VotingSchedulingService implements VotingScheduling {
   @Transactional
   /* default */ void checkVoting() {
     LOG.info("checking voting creation");
-    this.findAllToCreateVotingFrom().map(this::createVoting).forEach(this::notifyMembers);
-    this.findAllToExpireVotingFrom().forEach(this::expireVoting);
+    VotingCheckEvent event = new VotingCheckEvent();
+    event.begin();
+
+    this.findAllToCreateVotingFrom()
+        .map(this::createVoting)
+        .forEach(
+            voting -> {
+              notifyMembers(voting);
+              event.votingCreated();
+            });
+    this.findAllToExpireVotingFrom()
+        .forEach(
+            voting -> {
+              expireVoting(voting);
+              event.votingExpired();
+            });
+
+    event.commit();
   }
 
   private Stream<Voting> findAllToExpireVotingFrom() {
@@ -131,6 +155,8 @@ public class VotingSchedulingService implements VotingScheduling {
     Voting savedVoting = votingRepository.save(voting);
 
     votingStatsService.createVotingStat(savedVoting);
+    groupRepository.updateLastVoting(group.getId(), savedVoting.getId());
+    userRepository.updateFavouriteGroupWhereMissing(group.getId());
 
     LOG.info(String.format("created voting %s", savedVoting.getId()));
     return voting;
@@ -0,0 +1,34 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+CREATE TABLE IF NOT EXISTS user_tokens (
+  id UUID PRIMARY KEY,
+  user_id UUID NOT NULL,
+  token_hash varchar(64) NOT NULL,
+  created_at timestamp with time zone NOT NULL,
+  expires_at timestamp with time zone NOT NULL,
+  FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS user_tokens_token_hash_idx ON user_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS user_tokens_expires_at_idx ON user_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS user_tokens_user_id_idx ON user_tokens (user_id);
+
+-- pending OTPs are short-lived and stored in plain text, they're not migrated
+ALTER TABLE users DROP COLUMN IF EXISTS otp;
+ALTER TABLE users DROP COLUMN IF EXISTS otp_creation_date;
@@ -0,0 +1,38 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS favourite_group_id UUID;
+ALTER TABLE users ADD CONSTRAINT users_favourite_group_fk
+  FOREIGN KEY (favourite_group_id) REFERENCES groups(id) ON DELETE SET NULL;
+
+-- the favourite group is the group of the user's last vote...
+UPDATE users u SET favourite_group_id = (
+  SELECT v.group_id FROM vote vo
+  JOIN voting v ON v.id = vo.voting_id
+  JOIN users_groups ug ON ug.group_id = v.group_id AND ug.user_id = u.id
+  WHERE vo.created_by = u.id
+  ORDER BY vo.created_at DESC
+  LIMIT 1);
+
+-- ...or the first of the user's groups having a voting
+UPDATE users u SET favourite_group_id = (
+  SELECT v.group_id FROM voting v
+  JOIN users_groups ug ON ug.group_id = v.group_id AND ug.user_id = u.id
+  ORDER BY v.created_at
+  LIMIT 1)
+WHERE u.favourite_group_id IS NULL;
@@ -0,0 +1,29 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+-- there's no foreign key to voting: voting gets partitioned (V19) and PostgreSQL 10 doesn't
+-- support foreign keys pointing to partitioned tables. Archiving votings clears the pointer instead
+ALTER TABLE groups ADD COLUMN IF NOT EXISTS last_voting_id UUID;
+
+UPDATE groups g SET last_voting_id = last.id
+FROM (
+  SELECT DISTINCT ON (v.group_id) v.group_id, v.id
+  FROM voting v
+  ORDER BY v.group_id, v.created_at DESC
+) last
+WHERE last.group_id = g.id;
@@ -0,0 +1,45 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+ALTER TABLE groups ADD COLUMN IF NOT EXISTS member_count integer NOT NULL DEFAULT 0;
+
+UPDATE groups g SET member_count = (
+  SELECT count(*) FROM users_groups ug WHERE ug.group_id = g.id);
+
+CREATE OR REPLACE FUNCTION update_group_member_count() RETURNS trigger AS $$
+BEGIN
+  IF (TG_OP = 'INSERT') THEN
+    UPDATE groups SET member_count = member_count + 1 WHERE id = NEW.group_id;
+    RETURN NEW;
+  END IF;
+
+  UPDATE groups SET member_count = member_count - 1 WHERE id = OLD.group_id;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_groups_member_count
+  AFTER INSERT OR DELETE ON users_groups
+  FOR EACH ROW EXECUTE PROCEDURE update_group_member_count();
+
+-- users_groups primary key starts with user_id, members of a group need their own index
+CREATE INDEX IF NOT EXISTS users_groups_group_id_idx ON users_groups (group_id, user_id);
+
+-- member listings are filtered by a case insensitive name prefix, sorted and paged by the same
+-- lowercased name and id. The "C" collation lets the index serve both the prefix and the order
+CREATE INDEX IF NOT EXISTS users_lower_name_id_idx ON users ((lower(name) COLLATE "C"), id);
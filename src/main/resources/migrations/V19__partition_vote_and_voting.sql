@@ -0,0 +1,187 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+-- vote and voting are partitioned by month on created_at. PostgreSQL 10 doesn't support primary
+-- keys, indexes or foreign keys on partitioned tables, so every partition gets its own, and
+-- foreign keys pointing to voting can't exist anymore (groups.last_voting_id never had one).
+-- Constraint triggers on every partition and on voting_stats enforce them instead
+CREATE SCHEMA IF NOT EXISTS patio_archive;
+
+-- replaces the foreign keys of vote.voting_id and voting_stats.voting_id. Every voting partition
+-- is probed by its primary key, as there's no index on the id of all votings
+CREATE OR REPLACE FUNCTION check_voting_exists() RETURNS trigger AS $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM voting WHERE id = NEW.voting_id) THEN
+    RAISE EXCEPTION 'insert or update on table "%" violates foreign key to voting', TG_TABLE_NAME
+      USING ERRCODE = 'foreign_key_violation', DETAIL = format('Key (voting_id)=(%s) is not present in table "voting".', NEW.voting_id);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- replaces the ON DELETE actions of the foreign keys pointing to voting: stats are deleted with
+-- their voting (it was ON DELETE CASCADE) and votings with votes can't be deleted
+CREATE OR REPLACE FUNCTION delete_voting_references() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM vote WHERE voting_id = OLD.id) THEN
+    RAISE EXCEPTION 'update or delete on table "%" violates foreign key on table "vote"', TG_TABLE_NAME
+      USING ERRCODE = 'foreign_key_violation', DETAIL = format('Key (id)=(%s) is still referenced from table "vote".', OLD.id);
+  END IF;
+  DELETE FROM voting_stats WHERE voting_id = OLD.id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE patio_archive.voting_stats (LIKE voting_stats INCLUDING ALL);
+
+ALTER TABLE voting_stats DROP CONSTRAINT IF EXISTS voting_stats_voting_id_fkey;
+
+ALTER TABLE vote RENAME TO vote_unpartitioned;
+ALTER TABLE voting RENAME TO voting_unpartitioned;
+
+CREATE TABLE voting (
+  id UUID NOT NULL,
+  group_id UUID NOT NULL,
+  created_at timestamp with time zone NOT NULL,
+  created_by UUID,
+  voting_stats_id UUID NULL,
+  expired boolean NOT NULL DEFAULT false
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE vote (
+  id UUID NOT NULL,
+  voting_id UUID NOT NULL,
+  created_by UUID,
+  created_at timestamp with time zone NOT NULL,
+  comment text,
+  score int NOT NULL,
+  hue_mood VARCHAR (200) NULL
+) PARTITION BY RANGE (created_at);
+
+-- creates the missing vote and voting partitions of every month between both dates (UTC months)
+CREATE OR REPLACE FUNCTION create_monthly_voting_partitions(from_month date, to_month date) RETURNS void AS $$
+DECLARE
+  month_start date := date_trunc('month', from_month);
+  month_end date;
+  voting_partition text;
+  vote_partition text;
+BEGIN
+  WHILE month_start <= to_month LOOP
+    month_end := month_start + interval '1 month';
+    voting_partition := 'voting_' || to_char(month_start, 'YYYY_MM');
+    vote_partition := 'vote_' || to_char(month_start, 'YYYY_MM');
+
+    IF to_regclass(voting_partition) IS NULL THEN
+      EXECUTE format('CREATE TABLE %I PARTITION OF voting FOR VALUES FROM (%L) TO (%L)',
+        voting_partition, month_start::timestamp AT TIME ZONE 'UTC', month_end::timestamp AT TIME ZONE 'UTC');
+      EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id)', voting_partition);
+      EXECUTE format('ALTER TABLE %I ADD FOREIGN KEY (group_id) REFERENCES groups(id)', voting_partition);
+      EXECUTE format('ALTER TABLE %I ADD FOREIGN KEY (created_by) REFERENCES users(id)', voting_partition);
+      EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (voting_stats_id) REFERENCES voting_stats(id) DEFERRABLE INITIALLY DEFERRED', voting_partition, voting_partition || '_voting_stats_id_fkey');
+      EXECUTE format('CREATE INDEX ON %I (group_id, created_at)', voting_partition);
+      EXECUTE format('CREATE CONSTRAINT TRIGGER voting_references AFTER DELETE ON %I FOR EACH ROW EXECUTE PROCEDURE delete_voting_references()', voting_partition);
+    END IF;
+
+    IF to_regclass(vote_partition) IS NULL THEN
+      EXECUTE format('CREATE TABLE %I PARTITION OF vote FOR VALUES FROM (%L) TO (%L)',
+        vote_partition, month_start::timestamp AT TIME ZONE 'UTC', month_end::timestamp AT TIME ZONE 'UTC');
+      EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id)', vote_partition);
+      EXECUTE format('ALTER TABLE %I ADD FOREIGN KEY (created_by) REFERENCES users(id)', vote_partition);
+      EXECUTE format('CREATE INDEX ON %I (voting_id)', vote_partition);
+      EXECUTE format('CREATE INDEX ON %I (created_by, created_at)', vote_partition);
+      EXECUTE format('CREATE CONSTRAINT TRIGGER vote_voting_id_fkey AFTER INSERT OR UPDATE OF voting_id ON %I FOR EACH ROW EXECUTE PROCEDURE check_voting_exists()', vote_partition);
+    END IF;
+
+    month_start := month_end;
+  END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- moves the vote and voting partitions of the months ended before the date to the archive schema.
+-- Every partition is archived by its own month. Votes cast in a later month than their voting
+-- follow the voting to the archive, and so do the stats of the archived votings
+CREATE OR REPLACE FUNCTION archive_voting_partitions(before date) RETURNS SETOF text AS $$
+DECLARE
+  suffix text;
+  voting_partition text;
+  vote_partition text;
+BEGIN
+  FOR suffix IN
+    SELECT DISTINCT right(c.relname, 7)
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    JOIN pg_class p ON p.oid = i.inhparent
+    JOIN pg_namespace n ON n.oid = p.relnamespace
+    WHERE p.relname IN ('voting', 'vote')
+    AND n.nspname = current_schema()
+    AND to_date(right(c.relname, 7), 'YYYY_MM') + interval '1 month' <= before
+    ORDER BY 1
+  LOOP
+    voting_partition := 'voting_' || suffix;
+    vote_partition := 'vote_' || suffix;
+
+    IF to_regclass(vote_partition) IS NOT NULL THEN
+      EXECUTE format('ALTER TABLE vote DETACH PARTITION %I', vote_partition);
+      EXECUTE format('ALTER TABLE %I SET SCHEMA patio_archive', vote_partition);
+      EXECUTE format('DROP TRIGGER IF EXISTS vote_voting_id_fkey ON patio_archive.%I', vote_partition);
+    ELSE
+      EXECUTE format('CREATE TABLE patio_archive.%I (LIKE vote INCLUDING DEFAULTS)', vote_partition);
+    END IF;
+
+    IF to_regclass(voting_partition) IS NOT NULL THEN
+      EXECUTE format('UPDATE groups SET last_voting_id = NULL WHERE last_voting_id IN (SELECT id FROM %I)', voting_partition);
+      EXECUTE format('ALTER TABLE voting DETACH PARTITION %I', voting_partition);
+      EXECUTE format('ALTER TABLE %I SET SCHEMA patio_archive', voting_partition);
+      EXECUTE format('DROP TRIGGER IF EXISTS voting_references ON patio_archive.%I', voting_partition);
+
+      EXECUTE format('WITH moved AS (DELETE FROM vote WHERE created_at >= %L AND voting_id IN (SELECT id FROM patio_archive.%I) RETURNING *) '
+        'INSERT INTO patio_archive.%I SELECT * FROM moved',
+        to_date(suffix, 'YYYY_MM')::timestamp AT TIME ZONE 'UTC', voting_partition, vote_partition);
+
+      EXECUTE format('ALTER TABLE patio_archive.%I DROP CONSTRAINT IF EXISTS %I', voting_partition, voting_partition || '_voting_stats_id_fkey');
+      EXECUTE format('WITH moved AS (DELETE FROM voting_stats WHERE voting_id IN (SELECT id FROM patio_archive.%I) RETURNING *) '
+        'INSERT INTO patio_archive.voting_stats SELECT * FROM moved',
+        voting_partition);
+    END IF;
+
+    RETURN NEXT suffix;
+  END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- partitions from the beginning of the project, or the oldest row, up to three months ahead
+SELECT create_monthly_voting_partitions(
+  LEAST(
+    date '2019-01-01',
+    (SELECT min(created_at) AT TIME ZONE 'UTC' FROM voting_unpartitioned)::date,
+    (SELECT min(created_at) AT TIME ZONE 'UTC' FROM vote_unpartitioned)::date),
+  GREATEST(
+    (now() + interval '3 months')::date,
+    (SELECT max(created_at) AT TIME ZONE 'UTC' FROM voting_unpartitioned)::date,
+    (SELECT max(created_at) AT TIME ZONE 'UTC' FROM vote_unpartitioned)::date));
+
+INSERT INTO voting (id, group_id, created_at, created_by, voting_stats_id, expired)
+  SELECT id, group_id, created_at, created_by, voting_stats_id, expired FROM voting_unpartitioned;
+
+INSERT INTO vote (id, voting_id, created_by, created_at, comment, score, hue_mood)
+  SELECT id, voting_id, created_by, created_at, comment, score, hue_mood FROM vote_unpartitioned;
+
+DROP TABLE vote_unpartitioned;
+DROP TABLE voting_unpartitioned;
+
+CREATE CONSTRAINT TRIGGER voting_stats_voting_id_fkey AFTER INSERT OR UPDATE OF voting_id ON voting_stats
+  FOR EACH ROW EXECUTE PROCEDURE check_voting_exists();
@@ -21,9 +21,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import io.micronaut.test.annotation.MicronautTest;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.AfterEach;
@@ -181,6 +183,38 @@ public class GroupRepositoryTests {
     return uuid::equals;
   }
 
+  @Test
+  void testFindAllGroupsOfUserSortedByName() {
+    // given: a set of fixtures
+    fixtures.load(GroupRepositoryTests.class, "testFindFavouriteGroup.sql");
+
+    UUID userId = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea6");
+
+    // when: asking for the user's groups
+    List<Group> groups = repository.findAllByUserIdOrderByName(userId);
+
+    // then: we should get all of them sorted by name
+    assertEquals(
+        List.of("Fantastic Five", "Fantastic Four"),
+        groups.stream().map(Group::getName).collect(Collectors.toList()));
+  }
+
+  @Test
+  void testUpdateLastVoting() {
+    // given: a set of fixtures
+    fixtures.load(GroupRepositoryTests.class, "testFindFavouriteGroup.sql");
+
+    UUID groupId = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+    UUID votingId = UUID.fromString("953951f9-3f6f-421e-a12c-270cfcabb2d0");
+
+    // when: pointing the group to its last voting
+    repository.updateLastVoting(groupId, votingId);
+
+    // then: the group should reference the voting
+    Optional<UUID> lastVotingId = repository.findById(groupId).map(Group::getLastVotingId);
+    assertEquals(Optional.of(votingId), lastVotingId);
+  }
+
   @Test
   void testFindFavouriteGroup() {
     // given: a set of fixtures
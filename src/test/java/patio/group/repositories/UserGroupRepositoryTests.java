@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.repositories;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micronaut.test.annotation.MicronautTest;
+import java.util.List;
+import java.util.UUID;
+import javax.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import patio.group.domain.UserGroup;
+import patio.group.domain.UserGroupKey;
+import patio.infrastructure.tests.Fixtures;
+
+/**
+ * Tests DATABASE integration regarding {@link UserGroup} persistence
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Testcontainers
+public class UserGroupRepositoryTests {
+
+  @Container
+  @SuppressWarnings("unused")
+  private static PostgreSQLContainer DATABASE = new PostgreSQLContainer();
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient UserGroupRepository repository;
+
+  @Inject transient GroupRepository groupRepository;
+
+  @Inject transient Fixtures fixtures;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+  }
+
+  @Test
+  void testAddMembers() {
+    // given: a group with a single member
+    fixtures.load(UserGroupRepositoryTests.class, "testAddMembers.sql");
+
+    UUID fantasticFour = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+    UUID ben = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea1");
+    UUID johnny = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea2");
+    UUID reed = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea3");
+
+    // when: adding the member and two new users to the group
+    var added = repository.addMembers(fantasticFour, List.of(ben, johnny, reed));
+
+    // then: only the new users are reported as added
+    assertThat(added, containsInAnyOrder(johnny, reed));
+
+    // and: the existing membership is kept as it was
+    var benMembership = repository.findById(new UserGroupKey(ben, fantasticFour));
+    assertEquals(true, benMembership.map(UserGroup::isAdmin).orElse(false));
+
+    // and: new members are not admins
+    var reedMembership = repository.findById(new UserGroupKey(reed, fantasticFour));
+    assertEquals(false, reedMembership.map(UserGroup::isAdmin).orElse(true));
+
+    // and: the group keeps the number of members
+    assertEquals(
+        Integer.valueOf(3), groupRepository.findById(fantasticFour).get().getMemberCount());
+  }
+}
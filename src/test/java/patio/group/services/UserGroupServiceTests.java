@@ -18,23 +18,37 @@
 package patio.group.services;
 
 import static io.github.benas.randombeans.api.EnhancedRandom.random;
+import static io.github.benas.randombeans.api.EnhancedRandom.randomListOf;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.iterableWithSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import patio.group.domain.AddUserToGroupResult;
+import patio.group.domain.AddUserToGroupResult.Status;
 import patio.group.domain.Group;
 import patio.group.domain.UserGroup;
-import patio.group.domain.UserGroupKey;
 import patio.group.graphql.AddUserToGroupInput;
+import patio.group.graphql.AddUsersToGroupInput;
+import patio.group.graphql.ListMembersInput;
 import patio.group.repositories.GroupRepository;
 import patio.group.repositories.UserGroupRepository;
 import patio.group.services.internal.DefaultUserGroupService;
+import patio.group.services.internal.GroupMembershipIndex;
+import patio.infrastructure.utils.ErrorConstants;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
 
@@ -54,15 +68,15 @@ public class UserGroupServiceTests {
     var group = Optional.of(random(Group.class, "users"));
     when(groupRepository.findById(any(UUID.class))).thenReturn(group);
 
-    var userGroupAdmin = new UserGroup(loggedUser.get(), group.get());
-    userGroupAdmin.setAdmin(true);
-    when(userGroupRepository.findById(any(UserGroupKey.class)))
-        .thenReturn(Optional.of(userGroupAdmin))
-        .thenReturn(Optional.empty());
+    // and: the current user is admin and the invited user is not in the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isAdmin(any(UUID.class), any(UUID.class))).thenReturn(true);
+    when(membershipIndex.isMember(any(UUID.class), any(UUID.class))).thenReturn(false);
 
     // when: trying to add a user into a group
     var userGroupService =
-        new DefaultUserGroupService(groupRepository, userRepository, userGroupRepository);
+        new DefaultUserGroupService(
+            groupRepository, userRepository, userGroupRepository, membershipIndex);
     var userToInvite = Optional.of(random(User.class));
     var input =
         new AddUserToGroupInput(
@@ -75,8 +89,15 @@ public class UserGroupServiceTests {
     // and: and the invocations are correct
     verify(userRepository, times(1)).findByEmail(any(String.class));
     verify(groupRepository, times(1)).findById(any(UUID.class));
-    verify(userGroupRepository, times(2)).findById(any(UserGroupKey.class));
+    verify(membershipIndex, times(1)).isAdmin(any(UUID.class), any(UUID.class));
+    verify(membershipIndex, times(1)).isMember(any(UUID.class), any(UUID.class));
     verify(userGroupRepository, times(1)).save(any(UserGroup.class));
+
+    // and: the cached group is evicted because its member count changed
+    verify(groupRepository, times(1)).evictFromCache(group.get().getId());
+
+    // and: the memberships of the invited user are refreshed
+    verify(membershipIndex, times(1)).invalidate(loggedUser.get().getId());
   }
 
   @Test
@@ -93,13 +114,14 @@ public class UserGroupServiceTests {
     var group = Optional.of(random(Group.class, "users"));
     when(groupRepository.findById(any(UUID.class))).thenReturn(group);
 
-    when(userGroupRepository.findById(any(UserGroupKey.class)))
-        .thenReturn(Optional.of(new UserGroup(loggedUser.get(), group.get())))
-        .thenReturn(Optional.empty());
+    // and: the current user is not an admin of the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isAdmin(any(UUID.class), any(UUID.class))).thenReturn(false);
 
     // when: trying to add a user into a group
     var userGroupService =
-        new DefaultUserGroupService(groupRepository, userRepository, userGroupRepository);
+        new DefaultUserGroupService(
+            groupRepository, userRepository, userGroupRepository, membershipIndex);
     var userToInvite = Optional.of(random(User.class));
     var input =
         new AddUserToGroupInput(
@@ -112,7 +134,8 @@ public class UserGroupServiceTests {
     // and: and the invocations are correct
     verify(userRepository, times(1)).findByEmail(any(String.class));
     verify(groupRepository, times(1)).findById(any(UUID.class));
-    verify(userGroupRepository, times(1)).findById(any(UserGroupKey.class));
+    verify(membershipIndex, times(1)).isAdmin(any(UUID.class), any(UUID.class));
+    verify(userGroupRepository, times(0)).save(any(UserGroup.class));
   }
 
   @Test
@@ -129,15 +152,15 @@ public class UserGroupServiceTests {
     var group = Optional.of(random(Group.class, "users"));
     when(groupRepository.findById(any(UUID.class))).thenReturn(group);
 
-    var userGroupAdmin = new UserGroup(loggedUser.get(), group.get());
-    userGroupAdmin.setAdmin(true);
-    when(userGroupRepository.findById(any(UserGroupKey.class)))
-        .thenReturn(Optional.of(userGroupAdmin))
-        .thenReturn(Optional.of(new UserGroup(random(User.class), random(Group.class))));
+    // and: the invited user already belongs to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isAdmin(any(UUID.class), any(UUID.class))).thenReturn(true);
+    when(membershipIndex.isMember(any(UUID.class), any(UUID.class))).thenReturn(true);
 
     // when: trying to add a user into a group
     var userGroupService =
-        new DefaultUserGroupService(groupRepository, userRepository, userGroupRepository);
+        new DefaultUserGroupService(
+            groupRepository, userRepository, userGroupRepository, membershipIndex);
     var userToInvite = Optional.of(random(User.class));
     var input =
         new AddUserToGroupInput(
@@ -150,6 +173,159 @@ public class UserGroupServiceTests {
     // and: and the invocations are correct
     verify(userRepository, times(1)).findByEmail(any(String.class));
     verify(groupRepository, times(1)).findById(any(UUID.class));
-    verify(userGroupRepository, times(2)).findById(any(UserGroupKey.class));
+    verify(membershipIndex, times(1)).isMember(any(UUID.class), any(UUID.class));
+    verify(userGroupRepository, times(0)).save(any(UserGroup.class));
+  }
+
+  @Test
+  public void testAddUsersToGroupSuccessfully() {
+    // setup: mocked repositories
+    var userRepository = mock(UserRepository.class);
+    var groupRepository = mock(GroupRepository.class);
+    var userGroupRepository = mock(UserGroupRepository.class);
+    var membershipIndex = mock(GroupMembershipIndex.class);
+
+    // and: the current user is admin of an existing group
+    var group = random(Group.class, "users");
+    when(groupRepository.findById(any(UUID.class))).thenReturn(Optional.of(group));
+    when(membershipIndex.isAdmin(any(UUID.class), any(UUID.class))).thenReturn(true);
+
+    // and: two registered users, one of them already in the group
+    var newcomer = random(User.class);
+    var member = random(User.class);
+    when(userRepository.findAllByEmailInList(any())).thenReturn(List.of(newcomer, member));
+    when(userGroupRepository.addMembers(any(), any())).thenReturn(List.of(newcomer.getId()));
+
+    // when: adding both users and an unknown email
+    var userGroupService =
+        new DefaultUserGroupService(
+            groupRepository, userRepository, userGroupRepository, membershipIndex);
+    var emails = List.of(newcomer.getEmail(), member.getEmail(), "unknown@example.com");
+    var result =
+        userGroupService.addUsersToGroup(
+            new AddUsersToGroupInput(UUID.randomUUID(), emails, group.getId()));
+
+    // then: every email gets its own result
+    assertTrue(result.isSuccess());
+    assertEquals(
+        List.of(Status.ADDED, Status.ALREADY_MEMBER, Status.USER_NOT_FOUND),
+        result.getSuccess().stream().map(AddUserToGroupResult::getStatus).collect(toList()));
+
+    // and: admin rights and emails are checked once
+    verify(membershipIndex, times(1)).isAdmin(any(UUID.class), any(UUID.class));
+    verify(userRepository, times(1)).findAllByEmailInList(any());
+    verify(userGroupRepository, times(1)).addMembers(any(), any());
+
+    // and: only the added user's memberships are invalidated
+    verify(membershipIndex, times(1)).invalidate(newcomer.getId());
+    verify(membershipIndex, times(0)).invalidate(member.getId());
+  }
+
+  @Test
+  public void testAddUsersToGroupFailsBecauseIsNotAdmin() {
+    // setup: mocked repositories
+    var userRepository = mock(UserRepository.class);
+    var groupRepository = mock(GroupRepository.class);
+    var userGroupRepository = mock(UserGroupRepository.class);
+    var membershipIndex = mock(GroupMembershipIndex.class);
+
+    // and: the current user is not admin of the group
+    var group = random(Group.class, "users");
+    when(groupRepository.findById(any(UUID.class))).thenReturn(Optional.of(group));
+    when(membershipIndex.isAdmin(any(UUID.class), any(UUID.class))).thenReturn(false);
+
+    // when: trying to add users to the group
+    var userGroupService =
+        new DefaultUserGroupService(
+            groupRepository, userRepository, userGroupRepository, membershipIndex);
+    var result =
+        userGroupService.addUsersToGroup(
+            new AddUsersToGroupInput(
+                UUID.randomUUID(), List.of("sstorm@email.com"), group.getId()));
+
+    // then: the operation fails without touching users or memberships
+    assertTrue(result.hasErrors());
+    assertEquals(ErrorConstants.NOT_AN_ADMIN.getCode(), result.getErrorList().get(0).getCode());
+    verifyZeroInteractions(userRepository, userGroupRepository);
+  }
+
+  @Test
+  public void testListMembersWithNextPage() {
+    // setup: the repository returns one member more than the page size
+    var userRepository = mock(UserRepository.class);
+    var members = randomListOf(3, User.class);
+    when(userRepository.findAllByGroupAfter(any(), any(), any(), any(), anyInt()))
+        .thenReturn(members);
+
+    // when: asking for the first page of two members
+    var groupId = UUID.randomUUID();
+    var result = service(userRepository).listMembers(membersInput(groupId, 2, null));
+
+    // then: only the page size is returned and there're more pages
+    assertTrue(result.isSuccess());
+    var page = result.getSuccess();
+    assertThat(page.getEdges(), iterableWithSize(2));
+    assertTrue(page.getPageInfo().isHasNextPage());
+    assertEquals(page.getEdges().get(1).getCursor(), page.getPageInfo().getEndCursor());
+    verify(userRepository, times(1)).findAllByGroupAfter(groupId, null, null, null, 3);
+
+    // when: asking for the members after the end cursor
+    service(userRepository)
+        .listMembers(membersInput(groupId, 2, page.getPageInfo().getEndCursor()));
+
+    // then: the cursor is decoded into the last member's name and id
+    var last = members.get(1);
+    verify(userRepository, times(1))
+        .findAllByGroupAfter(groupId, null, last.getName(), last.getId(), 3);
+  }
+
+  @Test
+  public void testListMembersLastPage() {
+    // setup: the repository returns less members than the maximum page size
+    var userRepository = mock(UserRepository.class);
+    when(userRepository.findAllByGroupAfter(any(), any(), any(), any(), anyInt()))
+        .thenReturn(randomListOf(3, User.class));
+
+    // when: asking for too many members
+    var groupId = UUID.randomUUID();
+    var result = service(userRepository).listMembers(membersInput(groupId, 1000, null));
+
+    // then: every member is returned and there're no more pages
+    assertThat(result.getSuccess().getEdges(), iterableWithSize(3));
+    assertFalse(result.getSuccess().getPageInfo().isHasNextPage());
+
+    // and: the page size is capped
+    verify(userRepository, times(1)).findAllByGroupAfter(groupId, null, null, null, 101);
+  }
+
+  @Test
+  public void testListMembersWithInvalidCursor() {
+    // setup: a mocked repository
+    var userRepository = mock(UserRepository.class);
+
+    // when: asking for members after a cursor which is not valid
+    var result =
+        service(userRepository).listMembers(membersInput(UUID.randomUUID(), 2, "not-a-cursor"));
+
+    // then: an error is returned without querying the database
+    assertTrue(result.hasErrors());
+    assertEquals(ErrorConstants.INVALID_CURSOR.getCode(), result.getErrorList().get(0).getCode());
+    verifyZeroInteractions(userRepository);
+  }
+
+  private static DefaultUserGroupService service(UserRepository userRepository) {
+    return new DefaultUserGroupService(
+        mock(GroupRepository.class),
+        userRepository,
+        mock(UserGroupRepository.class),
+        mock(GroupMembershipIndex.class));
+  }
+
+  private static ListMembersInput membersInput(UUID groupId, Integer first, String after) {
+    return ListMembersInput.newBuilder()
+        .with(input -> input.setGroupId(groupId))
+        .with(input -> input.setFirst(first))
+        .with(input -> input.setAfter(after))
+        .build();
   }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.group.services.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import patio.group.repositories.UserGroupRepository;
+
+/**
+ * Tests {@link GroupMembershipIndex}
+ *
+ * @since 0.1.0
+ */
+public class GroupMembershipIndexTests {
+
+  @Test
+  void testMembershipsAreLoadedOnce() {
+    // given: a user who is admin of one group and member of another
+    var userId = UUID.randomUUID();
+    var adminGroup = UUID.randomUUID();
+    var memberGroup = UUID.randomUUID();
+    var repository = mock(UserGroupRepository.class);
+    when(repository.findAllMembershipsByUserId(userId))
+        .thenReturn(Map.of(adminGroup, true, memberGroup, false));
+
+    // when: checking several memberships of the user
+    var index = index(repository, 10);
+
+    // then: the answers are consistent with the stored memberships
+    assertThat("member of admin group", index.isMember(userId, adminGroup), is(true));
+    assertThat("member of the other group", index.isMember(userId, memberGroup), is(true));
+    assertThat("admin of admin group", index.isAdmin(userId, adminGroup), is(true));
+    assertThat("not admin of the other group", index.isAdmin(userId, memberGroup), is(false));
+    assertThat("not in unknown group", index.isMember(userId, UUID.randomUUID()), is(false));
+    assertThat("not admin of unknown group", index.isAdmin(userId, UUID.randomUUID()), is(false));
+
+    // and: the database is only queried once
+    verify(repository, times(1)).findAllMembershipsByUserId(userId);
+  }
+
+  @Test
+  void testMissingIdsAreNotMembers() {
+    // given: an index
+    var repository = mock(UserGroupRepository.class);
+    var index = index(repository, 10);
+
+    // expect: missing ids don't belong to any group
+    assertThat("no user", index.isMember(null, UUID.randomUUID()), is(false));
+    assertThat("no group", index.isAdmin(UUID.randomUUID(), null), is(false));
+
+    // and: the database is not queried at all
+    verify(repository, times(0)).findAllMembershipsByUserId(any());
+  }
+
+  @Test
+  void testInvalidateReloadsMemberships() {
+    // given: a user who doesn't belong to a group at first
+    var userId = UUID.randomUUID();
+    var groupId = UUID.randomUUID();
+    var repository = mock(UserGroupRepository.class);
+    when(repository.findAllMembershipsByUserId(userId))
+        .thenReturn(Map.of())
+        .thenReturn(Map.of(groupId, false));
+
+    var index = index(repository, 10);
+    assertThat("not a member yet", index.isMember(userId, groupId), is(false));
+
+    // when: the user memberships are invalidated
+    index.invalidate(userId);
+
+    // then: the new membership is visible
+    assertThat("now is a member", index.isMember(userId, groupId), is(true));
+    verify(repository, times(2)).findAllMembershipsByUserId(userId);
+  }
+
+  @Test
+  void testLeastRecentlyUsedUsersAreEvicted() {
+    // given: an index able to keep only two users
+    var groupId = UUID.randomUUID();
+    var repository = mock(UserGroupRepository.class);
+    when(repository.findAllMembershipsByUserId(any())).thenReturn(Map.of(groupId, true));
+
+    var index = index(repository, 2);
+    var first = UUID.randomUUID();
+    var second = UUID.randomUUID();
+    var third = UUID.randomUUID();
+
+    // when: checking three different users, using the first one again before the third
+    index.isMember(first, groupId);
+    index.isMember(second, groupId);
+    index.isMember(first, groupId);
+    index.isMember(third, groupId);
+
+    // then: the size of the index is bounded
+    assertThat("only two users are kept", index.size(), is(2));
+
+    // and: the least recently used user is the one evicted
+    index.isMember(first, groupId);
+    index.isMember(second, groupId);
+    verify(repository, times(1)).findAllMembershipsByUserId(first);
+    verify(repository, times(2)).findAllMembershipsByUserId(second);
+  }
+
+  @Test
+  void testMembershipsExpire() {
+    // given: a user who belongs to a group
+    var userId = UUID.randomUUID();
+    var groupId = UUID.randomUUID();
+    var repository = mock(UserGroupRepository.class);
+    when(repository.findAllMembershipsByUserId(userId))
+        .thenReturn(Map.of(groupId, false))
+        .thenReturn(Map.of());
+
+    // and: an index keeping memberships for 30 seconds
+    var now = Instant.parse("2020-01-01T10:00:00Z");
+    var clock = mock(Clock.class);
+    when(clock.instant())
+        .thenReturn(now, now.plusSeconds(29), now.plusSeconds(30), now.plusSeconds(31));
+    var index = new GroupMembershipIndex(repository, 10, Duration.ofSeconds(30), clock);
+
+    // when: the user is removed from the group on another instance
+    assertThat("member at first", index.isMember(userId, groupId), is(true));
+    assertThat("still cached", index.isMember(userId, groupId), is(true));
+
+    // then: once the entry expires the removal is visible
+    assertThat("not a member anymore", index.isMember(userId, groupId), is(false));
+    assertThat("reloaded entry is cached", index.isMember(userId, groupId), is(false));
+    verify(repository, times(2)).findAllMembershipsByUserId(userId);
+  }
+
+  private static GroupMembershipIndex index(UserGroupRepository repository, int maxSize) {
+    return new GroupMembershipIndex(repository, maxSize, Duration.ofHours(1), Clock.systemUTC());
+  }
+}
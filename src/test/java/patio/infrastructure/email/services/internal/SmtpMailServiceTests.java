@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.email.services.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.email.domain.Email;
+
+/**
+ * Tests {@link SmtpMailService} and {@link SmtpConnectionPool} against an in-process SMTP server
+ *
+ * @since 0.1.0
+ */
+public class SmtpMailServiceTests {
+
+  private static final String USER = "patio";
+  private static final String PASSWORD = "secret";
+
+  private transient GreenMail greenMail;
+
+  @BeforeEach
+  void startServer() {
+    greenMail = new GreenMail(ServerSetupTest.SMTP);
+    greenMail.setUser("patio@localhost", USER, PASSWORD);
+    greenMail.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    greenMail.stop();
+  }
+
+  @Test
+  void testSendEmails() throws Exception {
+    // given: an enabled smtp service
+    var service = new SmtpMailService(config(true, 2, 100));
+
+    // when: sending several emails
+    for (int i = 0; i < 5; i++) {
+      service.send(email("john" + i + "@example.com", "<b>hi</b>"));
+    }
+    service.close();
+
+    // then: all of them should have been received
+    greenMail.waitForIncomingEmail(5_000, 5);
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertThat("all messages are received", received.length, is(5));
+
+    // and: html bodies should be sent as html
+    assertThat(
+        "body is html", received[0].getContentType().toLowerCase(), containsString("text/html"));
+    assertThat("body content", GreenMailUtil.getBody(received[0]), containsString("<b>hi</b>"));
+  }
+
+  @Test
+  void testSendingDisabled() {
+    // given: a disabled smtp service
+    var service = new SmtpMailService(config(false, 2, 100));
+
+    // when: sending an email
+    service.send(email("john@example.com", "hi"));
+
+    // then: nothing should have been received
+    assertThat("no message is sent", greenMail.getReceivedMessages().length, is(0));
+  }
+
+  @Test
+  void testPoolReusesConnections() throws Exception {
+    // given: a pool with a single connection allowing many messages
+    var pool = pool(1, 100);
+
+    // when: sending several messages
+    for (int i = 0; i < 3; i++) {
+      pool.send(message("john" + i + "@example.com"));
+    }
+
+    // then: messages are received
+    greenMail.waitForIncomingEmail(5_000, 3);
+    assertThat("all messages are received", greenMail.getReceivedMessages().length, is(3));
+
+    // and: the connection is kept open to be reused
+    assertThat("connection is kept", pool.getIdleConnections(), is(1));
+    pool.close();
+    assertThat("pool is empty after closing", pool.getIdleConnections(), is(0));
+  }
+
+  @Test
+  void testPoolRetiresConnectionsAfterMaxMessages() throws Exception {
+    // given: a pool allowing only two messages per connection
+    var pool = pool(1, 2);
+
+    // when: sending one message
+    pool.send(message("john@example.com"));
+
+    // then: the connection can still be reused
+    assertThat("connection is kept", pool.getIdleConnections(), is(1));
+
+    // when: reaching the limit
+    pool.send(message("peter@example.com"));
+
+    // then: the connection is closed
+    assertThat("connection is retired", pool.getIdleConnections(), is(0));
+    greenMail.waitForIncomingEmail(5_000, 2);
+    assertThat("all messages are received", greenMail.getReceivedMessages().length, is(2));
+  }
+
+  @Test
+  void testPoolDiscardsIdleConnections() throws Exception {
+    // given: a pool whose connections can't stay idle at all
+    var session = Session.getInstance(smtpProperties());
+    var settings = new SmtpConnectionPool.Settings(1, 100, Duration.ZERO, Duration.ofSeconds(1));
+    var pool = new SmtpConnectionPool(session, USER, PASSWORD, settings, Clock.systemUTC());
+
+    // when: sending two messages
+    pool.send(message("john@example.com"));
+    pool.send(message("peter@example.com"));
+
+    // then: the stale connection is replaced and both messages are delivered
+    greenMail.waitForIncomingEmail(5_000, 2);
+    assertThat("all messages are received", greenMail.getReceivedMessages().length, is(2));
+    assertThat(
+        "recipient of the last message",
+        greenMail.getReceivedMessages()[1].getAllRecipients()[0].toString(),
+        equalTo("peter@example.com"));
+    pool.close();
+  }
+
+  @Test
+  void testPoolDiscardsConnectionsFailingUnexpectedly() throws Exception {
+    // given: a pool whose transport fails with a runtime exception
+    var session = Session.getInstance(smtpProperties());
+    session.setProvider(
+        new Provider(Provider.Type.TRANSPORT, "smtp", FailingTransport.class.getName(), "", ""));
+    var settings =
+        new SmtpConnectionPool.Settings(1, 100, Duration.ofSeconds(30), Duration.ofSeconds(1));
+    var pool = new SmtpConnectionPool(session, USER, PASSWORD, settings, Clock.systemUTC());
+    FailingTransport.CLOSED.set(0);
+
+    // when: sending a message
+    assertThrows(IllegalStateException.class, () -> pool.send(message("john@example.com")));
+
+    // then: the connection is closed instead of leaked
+    assertThat("connection is closed", FailingTransport.CLOSED.get(), is(1));
+    assertThat("connection is not reused", pool.getIdleConnections(), is(0));
+
+    // and: the permit is given back
+    assertThrows(IllegalStateException.class, () -> pool.send(message("peter@example.com")));
+  }
+
+  private static SmtpMailService.Config config(boolean enabled, int size, int maxMessages) {
+    return new SmtpMailService.Config(
+        enabled,
+        "localhost",
+        ServerSetupTest.SMTP.getPort(),
+        USER,
+        PASSWORD,
+        false,
+        "noreply@patio.com",
+        size,
+        maxMessages,
+        30,
+        5);
+  }
+
+  private static SmtpConnectionPool pool(int size, int maxMessages) {
+    var session = Session.getInstance(smtpProperties());
+    var settings =
+        new SmtpConnectionPool.Settings(
+            size, maxMessages, Duration.ofSeconds(30), Duration.ofSeconds(1));
+
+    return new SmtpConnectionPool(session, USER, PASSWORD, settings, Clock.systemUTC());
+  }
+
+  private static Properties smtpProperties() {
+    var properties = new Properties();
+    properties.setProperty("mail.transport.protocol", "smtp");
+    properties.setProperty("mail.smtp.host", "localhost");
+    properties.setProperty("mail.smtp.port", String.valueOf(ServerSetupTest.SMTP.getPort()));
+    properties.setProperty("mail.smtp.auth", "true");
+    return properties;
+  }
+
+  private static MimeMessage message(String recipient) throws Exception {
+    var message = new MimeMessage(Session.getInstance(smtpProperties()));
+    message.setFrom(new InternetAddress("noreply@patio.com"));
+    message.setRecipients(MimeMessage.RecipientType.TO, recipient);
+    message.setSubject("subject");
+    message.setText("body");
+    return message;
+  }
+
+  private static Email email(String recipient, String htmlBody) {
+    return Email.builder()
+        .with(email -> email.setRecipient(recipient))
+        .with(email -> email.setSubject("How are you?"))
+        .with(email -> email.setHtmlBody(htmlBody))
+        .with(email -> email.setCc(List.of()))
+        .build();
+  }
+
+  /**
+   * Transport failing with an unexpected exception whenever a message is sent
+   *
+   * @since 0.1.0
+   */
+  public static class FailingTransport extends Transport {
+    private static final AtomicInteger CLOSED = new AtomicInteger();
+
+    /**
+     * Initializes the transport
+     *
+     * @param session mail session
+     * @param urlName server location
+     * @since 0.1.0
+     */
+    public FailingTransport(Session session, URLName urlName) {
+      super(session, urlName);
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password) {
+      return true;
+    }
+
+    @Override
+    public void sendMessage(Message message, Address[] addresses) {
+      throw new IllegalStateException("transport failed");
+    }
+
+    @Override
+    public synchronized void close() throws MessagingException {
+      CLOSED.incrementAndGet();
+      super.close();
+    }
+  }
+}
@@ -30,7 +30,7 @@ public class JadeTemplateServiceTests {
     var configuration = new JadeConfigurationFactory("UTF-8", false).get();
 
     // and: a template service
-    var templateService = new JadeTemplateService(configuration);
+    var templateService = new JadeTemplateService(() -> configuration);
 
     // and: provided data
     var data = Map.<String, Object>of("name", "john", "age", 22);
@@ -51,7 +51,7 @@ public class JadeTemplateServiceTests {
     var configuration = new JadeConfigurationFactory("UTF-8", false).get();
 
     // and: a template service
-    var templateService = new JadeTemplateService(configuration);
+    var templateService = new JadeTemplateService(() -> configuration);
 
     // when: rendering and unknown template
     var emptyResult = templateService.render("templates/unknown.pig", Map.of());
@@ -17,13 +17,19 @@
  */
 package patio.infrastructure.graphql;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import graphql.ExecutionInput;
 import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
+import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Optional;
 import org.dataloader.DataLoaderRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import patio.infrastructure.tracing.InMemorySpanExporter;
+import patio.infrastructure.tracing.Tracer;
 import patio.security.services.SecurityService;
 import patio.user.domain.User;
 import reactor.test.StepVerifier;
@@ -35,6 +41,8 @@ import reactor.test.StepVerifier;
  */
 class ExecutionInputCustomizerTests {
 
+  private static final Tracer TRACER = new Tracer(false, List.of());
+
   @Test
   void testCustomizeExecutionInputWithUser() {
     // given: a request authorization header
@@ -50,7 +58,8 @@ class ExecutionInputCustomizerTests {
         .thenReturn(Optional.of(User.builder().build()));
 
     // when: customizing a given ExecutionInput
-    var builder = new ExecutionInputCustomizer(mockedService, new DataLoaderRegistry());
+    var builder =
+        new ExecutionInputCustomizer(mockedService, new DataLoaderRegistry(), false, TRACER);
     var sourceExecutionInput = ExecutionInput.newExecutionInput().build();
     var customizedExecutionInput = builder.customize(sourceExecutionInput, httpRequest);
 
@@ -76,7 +85,7 @@ class ExecutionInputCustomizerTests {
     Mockito.when(httpHeaders.getAuthorization()).thenReturn(Optional.empty());
 
     // and: a builder with no service (no necessary)
-    var builder = new ExecutionInputCustomizer(null, new DataLoaderRegistry());
+    var builder = new ExecutionInputCustomizer(null, new DataLoaderRegistry(), false, TRACER);
     var sourceExecutionInput = ExecutionInput.newExecutionInput().build();
     var customizedExecutionInput = builder.customize(sourceExecutionInput, httpRequest);
 
@@ -91,4 +100,74 @@ class ExecutionInputCustomizerTests {
         .expectComplete()
         .verify();
   }
+
+  @Test
+  void testCustomizeExecutionInputWithClientAddress() {
+    // given: a request coming through a proxy
+    var httpRequest = Mockito.mock(HttpRequest.class);
+    var httpHeaders = Mockito.mock(HttpHeaders.class);
+
+    Mockito.when(httpRequest.getHeaders()).thenReturn(httpHeaders);
+    Mockito.when(httpRequest.getRemoteAddress())
+        .thenReturn(InetSocketAddress.createUnresolved("10.0.0.1", 8080));
+    Mockito.when(httpHeaders.getAuthorization()).thenReturn(Optional.empty());
+    Mockito.when(httpHeaders.get("X-Forwarded-For")).thenReturn("203.0.113.7, 10.0.0.1");
+
+    // when: customizing the input trusting or not the proxy
+    var input = ExecutionInput.newExecutionInput().build();
+    var trusted = new ExecutionInputCustomizer(null, new DataLoaderRegistry(), true, TRACER);
+    var untrusted = new ExecutionInputCustomizer(null, new DataLoaderRegistry(), false, TRACER);
+
+    // then: the client address is taken from the header only if the proxy is trusted
+    StepVerifier.create(trusted.customize(input, httpRequest))
+        .expectNextMatches(
+            executionInput ->
+                "203.0.113.7".equals(((Context) executionInput.getContext()).getClientAddress()))
+        .expectComplete()
+        .verify();
+
+    StepVerifier.create(untrusted.customize(input, httpRequest))
+        .expectNextMatches(
+            executionInput ->
+                "10.0.0.1".equals(((Context) executionInput.getContext()).getClientAddress()))
+        .expectComplete()
+        .verify();
+  }
+
+  @Test
+  void testCustomizeExecutionInputContinuesTrace() {
+    // given: a request with a W3C traceparent header
+    var httpRequest = Mockito.mock(HttpRequest.class);
+    var httpHeaders = Mockito.mock(HttpHeaders.class);
+
+    Mockito.when(httpRequest.getHeaders()).thenReturn(httpHeaders);
+    Mockito.when(httpHeaders.getAuthorization()).thenReturn(Optional.empty());
+    Mockito.when(httpHeaders.get("traceparent"))
+        .thenReturn("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+
+    // and: an enabled tracer
+    var exporter = new InMemorySpanExporter(10);
+    var tracer = new Tracer(true, List.of(exporter));
+
+    // when: customizing the input
+    var input = ExecutionInput.newExecutionInput().build();
+    var customizer = new ExecutionInputCustomizer(null, new DataLoaderRegistry(), false, tracer);
+
+    // then: the request span continues the remote trace
+    StepVerifier.create(customizer.customize(input, httpRequest))
+        .expectNextMatches(
+            executionInput -> {
+              var span = ((Context) executionInput.getContext()).getSpan();
+
+              return span.getContext().getTraceId().equals("0af7651916cd43dd8448eb211c80319c")
+                  && span.getParentId().equals("b7ad6b7169203331");
+            })
+        .expectComplete()
+        .verify();
+
+    // and: the principal lookup is recorded as a child of the request span
+    var principal = exporter.getSpans("0af7651916cd43dd8448eb211c80319c");
+    assertEquals(1, principal.size());
+    assertEquals("graphql.principal", principal.get(0).getName());
+  }
 }
@@ -23,17 +23,29 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import graphql.ExecutionInput;
 import graphql.schema.idl.TypeRuntimeWiring;
 import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.transaction.TransactionCallback;
+import io.micronaut.transaction.TransactionOperations;
+import java.sql.Connection;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
+import javax.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import patio.common.graphql.CommonScalarProvider;
 import patio.group.domain.Group;
+import patio.infrastructure.graphql.instrumentation.SlowOperationInstrumentation;
+import patio.infrastructure.graphql.instrumentation.SlowOperationLog;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.infrastructure.tracing.Tracer;
 import patio.user.domain.User;
 
 class GraphQLFactoryTest {
 
   @Test
+  @SuppressWarnings("unchecked")
   void testCreateSchema() {
     // and: mocking group fetcher behavior
     List<QueryProvider> queryProviders = List.of(this::mockQueryFetcherProvider);
@@ -50,7 +62,24 @@ class GraphQLFactoryTest {
                 List.of(),
                 List.of(),
                 List.of(new CommonScalarProvider()));
-    var graphQLEngine = new GraphQLFactory().graphQL(schema);
+    var transactions = Mockito.mock(TransactionOperations.class);
+    Mockito.when(transactions.executeRead(Mockito.any()))
+        .thenAnswer(inv -> inv.<TransactionCallback<Connection, ?>>getArgument(0).call(null));
+    var graphQLEngine =
+        new GraphQLFactory()
+            .graphQL(
+                schema,
+                transactions,
+                new ReplicaRouting(false, 5),
+                Mockito.mock(EntityManager.class),
+                new Tracer(false, List.of()),
+                new StatementCountInstrumentation(false),
+                new SlowOperationInstrumentation(
+                    new SlowOperationLog(
+                        new SlowOperationLog.Config(100, "", 10, 5, false, 3), null),
+                    Duration.ofSeconds(1)),
+                new ParsedDocumentCache(100),
+                true);
 
     // and: querying the schema with an authenticated user
     var context = new Context();
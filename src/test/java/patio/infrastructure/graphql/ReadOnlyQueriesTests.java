@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.transaction.TransactionCallback;
+import io.micronaut.transaction.TransactionOperations;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import patio.infrastructure.graphql.instrumentation.ReadOnlyQueries;
+import patio.infrastructure.graphql.instrumentation.ReadOnlyQueryStrategy;
+import patio.infrastructure.persistence.ReplicaRouting;
+import patio.user.domain.User;
+
+/**
+ * Tests {@link ReadOnlyQueryStrategy} and {@link ReadOnlyQueries}
+ *
+ * @since 0.1.0
+ */
+public class ReadOnlyQueriesTests {
+
+  private transient TransactionOperations<Connection> transactions;
+  private transient ReplicaRouting routing;
+  private transient Session session;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    transactions = Mockito.mock(TransactionOperations.class);
+    Mockito.when(transactions.executeRead(any()))
+        .thenAnswer(inv -> inv.<TransactionCallback<Connection, ?>>getArgument(0).call(null));
+    routing = new ReplicaRouting(true, 60);
+    session = Mockito.mock(Session.class);
+    Mockito.when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+  }
+
+  @Test
+  void testQueryRunsInReadOnlyTransaction() {
+    // when: executing a query
+    var result = createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: the fetcher result is returned
+    assertEquals("Hi", payload.get("sayHi"));
+
+    // and: the fetcher was executed in a read-only transaction
+    verify(transactions, times(1)).executeRead(any());
+  }
+
+  @Test
+  void testOperationRunsInOneTransaction() {
+    // when: executing a query selecting several fields
+    var result =
+        createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ sayHi whereAmI }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: every fetcher result is returned
+    assertEquals("Hi", payload.get("sayHi"));
+    assertEquals("replica", payload.get("whereAmI"));
+
+    // and: all the fetchers shared the same read-only transaction
+    verify(transactions, times(1)).executeRead(any());
+  }
+
+  @Test
+  void testReadWriteQueryIsNotRouted() {
+    // when: executing a query annotated with @readWrite
+    var result = createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ login }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: the fetcher result is returned
+    assertEquals("token", payload.get("login"));
+
+    // and: no read-only transaction was opened
+    verify(transactions, never()).executeRead(any());
+  }
+
+  @Test
+  void testOperationWithReadWriteQueryIsNotRouted() {
+    // when: executing an operation selecting a field annotated with @readWrite among others
+    var result =
+        createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ sayHi login }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: every fetcher result is returned
+    assertEquals("Hi", payload.get("sayHi"));
+    assertEquals("token", payload.get("login"));
+
+    // and: no read-only transaction was opened
+    verify(transactions, never()).executeRead(any());
+  }
+
+  @Test
+  void testMutationIsNotRouted() {
+    // when: executing a mutation
+    var result =
+        createGraphQL().execute(ExecutionInput.newExecutionInput().query("mutation { saveHi }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: the fetcher result is returned
+    assertEquals("saved", payload.get("saveHi"));
+
+    // and: no read-only transaction was opened
+    verify(transactions, never()).executeRead(any());
+  }
+
+  @Test
+  void testQueryRunsOnReplica() {
+    // when: executing a query with the replica enabled
+    var result = createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ whereAmI }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: the fetcher was executed against the replica
+    assertEquals("replica", payload.get("whereAmI"));
+  }
+
+  @Test
+  void testReplicaDoesNotPopulateCache() {
+    // when: executing a query with the replica enabled
+    createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ whereAmI }"));
+
+    // then: the session only read from the second level cache
+    verify(session, times(1)).setCacheMode(CacheMode.GET);
+
+    // and: the cache mode was restored afterwards
+    verify(session, times(1)).setCacheMode(CacheMode.NORMAL);
+  }
+
+  @Test
+  void testPrimaryPopulatesCache() {
+    // when: executing a query routed to the primary
+    routing = new ReplicaRouting(false, 60);
+    createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ whereAmI }"));
+
+    // then: the cache mode of the session is untouched
+    verify(session, never()).setCacheMode(any());
+  }
+
+  @Test
+  void testQueryAfterMutationRunsOnPrimary() {
+    // given: an authenticated user
+    var context = new Context();
+    context.setAuthenticatedUser(User.builder().with(u -> u.setId(UUID.randomUUID())).build());
+
+    // when: the user executes a mutation and then a query
+    var graphQL = createGraphQL();
+    graphQL.execute(
+        ExecutionInput.newExecutionInput().query("mutation { saveHi }").context(context));
+    var result =
+        graphQL.execute(ExecutionInput.newExecutionInput().query("{ whereAmI }").context(context));
+    Map<String, ?> payload = result.getData();
+
+    // then: the query reads the user's own writes from the primary
+    assertEquals("primary", payload.get("whereAmI"));
+
+    // and: other users keep reading from the replica
+    var otherResult = graphQL.execute(ExecutionInput.newExecutionInput().query("{ whereAmI }"));
+    Map<String, ?> otherPayload = otherResult.getData();
+    assertEquals("replica", otherPayload.get("whereAmI"));
+  }
+
+  private EntityManager entityManager() {
+    var entityManager = Mockito.mock(EntityManager.class);
+    Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+    return entityManager;
+  }
+
+  private GraphQL createGraphQL() {
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder
+                        .dataFetcher("sayHi", (env) -> "Hi")
+                        .dataFetcher("login", (env) -> "token")
+                        .dataFetcher(
+                            "whereAmI",
+                            (env) -> ReplicaRouting.isReplicaSelected() ? "replica" : "primary"))
+            .type("Mutation", builder -> builder.dataFetcher("saveHi", (env) -> "saved"))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+
+    return GraphQL.newGraphQL(schema)
+        .instrumentation(new ReadOnlyQueries(routing))
+        .queryExecutionStrategy(new ReadOnlyQueryStrategy(transactions, routing, entityManager()))
+        .build();
+  }
+}
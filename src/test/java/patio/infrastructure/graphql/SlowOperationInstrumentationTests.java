@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import io.micronaut.core.io.ResourceResolver;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.graphql.instrumentation.SlowOperation;
+import patio.infrastructure.graphql.instrumentation.SlowOperationInstrumentation;
+import patio.infrastructure.graphql.instrumentation.SlowOperationLog;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.persistence.CountingDataSource;
+import patio.infrastructure.persistence.StatementExecution;
+import patio.infrastructure.persistence.StatementExplainer;
+
+/**
+ * Tests {@link SlowOperationInstrumentation} and {@link SlowOperationLog}
+ *
+ * @since 0.1.0
+ */
+public class SlowOperationInstrumentationTests {
+
+  private static final String QUERY = "{ login }";
+  private static final String SQL = "select * from users where email = ?";
+
+  private transient DataSource dataSource;
+  private transient Path directory;
+
+  @BeforeEach
+  void setUp() throws SQLException, IOException {
+    var resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+
+    var statement = mock(PreparedStatement.class);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    var connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    var target = mock(DataSource.class);
+    when(target.getConnection()).thenReturn(connection);
+
+    dataSource = new CountingDataSource(target);
+    directory = Files.createTempDirectory("slow-operations");
+  }
+
+  @AfterEach
+  void cleanUp() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  void testSlowOperationIsRecorded() {
+    // given: a log recording every operation
+    var log = new SlowOperationLog(config("", 10, 5, false), null);
+
+    // when: executing an operation running a statement
+    createGraphQL(log, Duration.ZERO).execute(login("sue@email.com"));
+
+    // then: the operation is recorded
+    List<SlowOperation> operations = log.list(10);
+    assertEquals(1, operations.size());
+
+    var operation = operations.get(0);
+    assertEquals(64, operation.getOperationHash().length());
+    assertEquals(1, operation.getStatementCount());
+    assertEquals(1, operation.getRowCount());
+
+    // and: variables are kept without their values
+    assertEquals(Map.of("email", "String"), operation.getVariables());
+
+    // and: the resolver and the statement are included
+    assertEquals("Query.login", operation.getResolvers().get(0).getField());
+    assertEquals(SQL, operation.getStatements().get(0).getSql());
+    assertEquals(List.of("String"), operation.getStatements().get(0).getBindShape());
+  }
+
+  @Test
+  void testSameOperationSameHash() {
+    // given: a log recording every operation
+    var log = new SlowOperationLog(config("", 10, 5, false), null);
+    var graphQL = createGraphQL(log, Duration.ZERO);
+
+    // when: executing the same operation formatted differently
+    graphQL.execute(ExecutionInput.newExecutionInput().query(QUERY));
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{\n  login\n}"));
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+
+    // then: both executions share the same hash
+    var operations = log.list(10);
+    assertEquals(operations.get(1).getOperationHash(), operations.get(2).getOperationHash());
+    assertFalse(operations.get(0).getOperationHash().equals(operations.get(1).getOperationHash()));
+  }
+
+  @Test
+  void testFastOperationsAreNotRecorded() {
+    // given: a log recording operations slower than a minute
+    var log = new SlowOperationLog(config("", 10, 5, false), null);
+
+    // when: executing a fast operation
+    createGraphQL(log, Duration.ofMinutes(1)).execute(login("sue@email.com"));
+
+    // then: nothing is recorded
+    assertTrue(log.list(10).isEmpty());
+  }
+
+  @Test
+  void testRingBufferKeepsLastOperations() {
+    // given: a log keeping two operations
+    var log = new SlowOperationLog(config("", 2, 5, false), null);
+    var graphQL = createGraphQL(log, Duration.ZERO);
+
+    // when: executing three operations
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+    graphQL.execute(ExecutionInput.newExecutionInput().query(QUERY));
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{ whereAmI }"));
+
+    // then: only the last two are kept, most recent first
+    var operations = log.list(10);
+    assertEquals(2, operations.size());
+    assertEquals(List.of("Query.whereAmI"), fields(operations.get(0)));
+    assertEquals(List.of("Query.login"), fields(operations.get(1)));
+  }
+
+  @Test
+  void testFileIsRotated() throws IOException {
+    // given: a log rotating its file after every operation and keeping two rotated files
+    var file = directory.resolve("slow.jsonl");
+    var log = new SlowOperationLog(config(file.toString(), 10, 2, false), null);
+    var graphQL = createGraphQL(log, Duration.ZERO);
+
+    // when: executing four operations
+    for (int i = 0; i < 4; i++) {
+      graphQL.execute(login("sue@email.com"));
+    }
+    log.close();
+
+    // then: the current file and two rotated ones are kept
+    assertTrue(Files.exists(file));
+    assertTrue(Files.exists(directory.resolve("slow.jsonl.1")));
+    assertTrue(Files.exists(directory.resolve("slow.jsonl.2")));
+    assertFalse(Files.exists(directory.resolve("slow.jsonl.3")));
+
+    // and: every file has one operation without the values of its variables
+    var line = Files.readAllLines(file).get(0);
+    assertTrue(line.contains("\"operationHash\""));
+    assertFalse(line.contains("sue@email.com"));
+  }
+
+  @Test
+  void testSlowestStatementsAreExplained() {
+    // given: a log explaining statements
+    var explainer = mock(StatementExplainer.class);
+    when(explainer.explain(any(StatementExecution.class))).thenReturn(Optional.of("Seq Scan"));
+    var log = new SlowOperationLog(config("", 10, 5, true), explainer);
+
+    // when: executing a slow operation
+    createGraphQL(log, Duration.ZERO).execute(login("sue@email.com"));
+    log.close();
+
+    // then: the plan of its statement is added to the operation
+    assertEquals("Seq Scan", log.list(1).get(0).getStatements().get(0).getPlan());
+  }
+
+  private static SlowOperationLog.Config config(
+      String file, int capacity, int maxFiles, boolean explain) {
+    return new SlowOperationLog.Config(capacity, file, 0, maxFiles, explain, 3);
+  }
+
+  private static ExecutionInput login(String email) {
+    return ExecutionInput.newExecutionInput()
+        .query(QUERY)
+        .variables(Map.of("email", email))
+        .context(new Context())
+        .build();
+  }
+
+  private static List<String> fields(SlowOperation operation) {
+    return operation.getResolvers().stream()
+        .map(SlowOperation.Resolver::getField)
+        .collect(Collectors.toList());
+  }
+
+  private GraphQL createGraphQL(SlowOperationLog log, Duration threshold) {
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder
+                        .dataFetcher("sayHi", (env) -> "Hi")
+                        .dataFetcher("whereAmI", (env) -> "Here")
+                        .dataFetcher(
+                            "login",
+                            (env) -> {
+                              try (var connection = dataSource.getConnection();
+                                  var statement = connection.prepareStatement(SQL)) {
+                                statement.setString(1, "sue@email.com");
+                                statement.executeQuery().next();
+                              }
+                              return "token";
+                            }))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+    var instrumentation =
+        new ChainedInstrumentation(
+            List.of(
+                new StatementCountInstrumentation(false),
+                new SlowOperationInstrumentation(log, threshold)));
+
+    return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import io.micronaut.core.io.ResourceResolver;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.graphql.dataloader.CountingBatchLoader;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.persistence.CountingDataSource;
+import patio.infrastructure.persistence.StatementCounter;
+
+/**
+ * Tests {@link StatementCountInstrumentation}
+ *
+ * @since 0.1.0
+ */
+public class StatementCountInstrumentationTests {
+
+  @Test
+  void testCounterIsActiveOnlyWhileExecuting() {
+    // when: executing an operation
+    var result = createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+    Map<String, ?> payload = result.getData();
+
+    // then: the counter was active while the operation was executing
+    assertEquals("true", payload.get("sayHi"));
+
+    // and: it's not active anymore once the operation finished
+    assertFalse(StatementCounter.current().isPresent());
+  }
+
+  @Test
+  void testPreviousCounterIsRestored() {
+    // given: a counter already active in the thread
+    var outer = new StatementCounter();
+
+    try (var scope = outer.activate()) {
+      // when: executing several operations
+      var graphQL = createGraphQL();
+      graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+      graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+
+      // then: the previous counter is active again
+      assertTrue(StatementCounter.current().map(outer::equals).orElse(false));
+    }
+
+    // and: no counter is left active afterwards
+    assertFalse(StatementCounter.current().isPresent());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBatchLoadsAreCounted() throws SQLException {
+    // given: a data loader executing a query per batch
+    var dataSource = countingDataSource();
+    BatchLoader<String, String> loader =
+        (keys) -> {
+          try (var connection = dataSource.getConnection();
+              var statement = connection.prepareStatement("SELECT")) {
+            statement.executeQuery().next();
+          } catch (SQLException e) {
+            throw new IllegalStateException(e);
+          }
+          return CompletableFuture.completedFuture(keys);
+        };
+    var dataLoaders =
+        new DataLoaderRegistry()
+            .register("places", DataLoader.newDataLoader(new CountingBatchLoader<>(loader)));
+
+    // when: executing an operation resolving a field with the data loader
+    var result =
+        createGraphQLWithDataLoader()
+            .execute(
+                ExecutionInput.newExecutionInput()
+                    .query("{ whereAmI }")
+                    .context(new Context())
+                    .dataLoaderRegistry(dataLoaders));
+    Map<String, ?> payload = result.getData();
+
+    // then: the field is resolved by the data loader
+    assertEquals("here", payload.get("whereAmI"));
+
+    // and: the statement of the batch load is counted in the operation
+    Map<String, Object> counts = (Map<String, Object>) result.getExtensions().get("sql");
+    assertEquals(1L, counts.get("statements"));
+    assertEquals(1L, counts.get("rows"));
+
+    // and: no counter is left active afterwards
+    assertFalse(StatementCounter.current().isPresent());
+  }
+
+  private static DataSource countingDataSource() throws SQLException {
+    var resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+
+    var statement = mock(PreparedStatement.class);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    var connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    var target = mock(DataSource.class);
+    when(target.getConnection()).thenReturn(connection);
+
+    return new CountingDataSource(target);
+  }
+
+  private static GraphQL createGraphQLWithDataLoader() {
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder.dataFetcher(
+                        "whereAmI",
+                        (env) -> env.getDataLoader("places").load("here", env.getContext())))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+
+    return GraphQL.newGraphQL(schema)
+        .instrumentation(
+            new ChainedInstrumentation(
+                List.of(
+                    new StatementCountInstrumentation(true),
+                    new DataLoaderDispatcherInstrumentation())))
+        .build();
+  }
+
+  private static GraphQL createGraphQL() {
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder.dataFetcher("sayHi", (env) -> StatementCounter.current().isPresent()))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+
+    return GraphQL.newGraphQL(schema)
+        .instrumentation(new StatementCountInstrumentation(false))
+        .build();
+  }
+}
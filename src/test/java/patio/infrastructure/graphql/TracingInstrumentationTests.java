@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import io.micronaut.core.io.ResourceResolver;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.graphql.instrumentation.TracingInstrumentation;
+import patio.infrastructure.tracing.InMemorySpanExporter;
+import patio.infrastructure.tracing.Span;
+import patio.infrastructure.tracing.SpanContext;
+import patio.infrastructure.tracing.Tracer;
+import patio.infrastructure.tracing.TracingStatementInspector;
+
+/**
+ * Tests {@link TracingInstrumentation}
+ *
+ * @since 0.1.0
+ */
+public class TracingInstrumentationTests {
+
+  private static final String TRACE_PARENT =
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+  private transient InMemorySpanExporter exporter;
+
+  @BeforeEach
+  void setUp() {
+    exporter = new InMemorySpanExporter(100);
+  }
+
+  @Test
+  void testOperationAndResolverSpans() {
+    // when: executing a query with tracing enabled
+    var graphQL = createGraphQL(new Tracer(true, List.of(exporter)));
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+
+    // then: there's a span for the operation
+    var operation = findSpan("graphql.operation");
+    assertNull(operation.getParentId());
+    assertEquals("QUERY", operation.getTags().get("graphql.operation.type"));
+
+    // and: a child span for the resolver
+    var resolver = findSpan("Query.sayHi");
+    assertEquals(operation.getContext().getSpanId(), resolver.getParentId());
+    assertEquals(operation.getContext().getTraceId(), resolver.getContext().getTraceId());
+  }
+
+  @Test
+  void testSpansInsideResolversAreChildren() {
+    // when: executing a query whose resolver starts its own spans and runs SQL
+    var graphQL = createGraphQL(new Tracer(true, List.of(exporter)));
+    graphQL.execute(ExecutionInput.newExecutionInput().query("{ login }"));
+
+    // then: the span started in the resolver is a child of the resolver span
+    var resolver = findSpan("Query.login");
+    var repository = findSpan("UserRepository.findByEmail");
+    assertEquals(resolver.getContext().getSpanId(), repository.getParentId());
+
+    // and: the statement is tagged in the span active when it was executed
+    assertEquals(List.of("select * from users"), repository.getStatements());
+    assertTrue(resolver.getStatements().isEmpty());
+  }
+
+  @Test
+  void testOperationContinuesRequestSpan() {
+    // given: a request span continuing a remote trace
+    var tracer = new Tracer(true, List.of(exporter));
+    var context = new Context();
+    context.setSpan(
+        tracer.start(
+            TracingInstrumentation.OPERATION_SPAN,
+            SpanContext.fromTraceParent(TRACE_PARENT).orElseThrow()));
+
+    // when: executing a query
+    createGraphQL(tracer)
+        .execute(ExecutionInput.newExecutionInput().query("{ sayHi }").context(context));
+
+    // then: all spans belong to the remote trace
+    var spans = exporter.getSpans("4bf92f3577b34da6a3ce929d0e0e4736");
+    assertEquals(2, spans.size());
+    assertEquals("00f067aa0ba902b7", findSpan("graphql.operation").getParentId());
+  }
+
+  @Test
+  void testNoSpansWhenDisabled() {
+    // when: executing a query with tracing disabled
+    var graphQL = createGraphQL(new Tracer(false, List.of(exporter)));
+    var result = graphQL.execute(ExecutionInput.newExecutionInput().query("{ sayHi }"));
+
+    // then: the query works as usual
+    assertTrue(result.getErrors().isEmpty());
+
+    // and: nothing is exported
+    assertTrue(exporter.getSpans().isEmpty());
+    assertTrue(Span.current().isEmpty());
+  }
+
+  private Span findSpan(String name) {
+    Optional<Span> span =
+        exporter.getSpans().stream().filter(s -> s.getName().equals(name)).findFirst();
+
+    return span.orElseThrow(() -> new AssertionError("span not found: " + name));
+  }
+
+  private static GraphQL createGraphQL(Tracer tracer) {
+    var inspector = new TracingStatementInspector();
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder
+                        .dataFetcher("sayHi", (env) -> "Hi")
+                        .dataFetcher(
+                            "login",
+                            (env) -> {
+                              Span span = tracer.start("UserRepository.findByEmail");
+                              try (Span.Scope scope = span.activate()) {
+                                inspector.inspect("select * from users");
+                              } finally {
+                                span.end();
+                              }
+                              return "token";
+                            }))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+
+    return GraphQL.newGraphQL(schema).instrumentation(new TracingInstrumentation(tracer)).build();
+  }
+}
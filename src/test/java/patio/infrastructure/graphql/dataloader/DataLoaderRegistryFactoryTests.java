@@ -23,6 +23,7 @@ import org.dataloader.DataLoaderRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import patio.user.graphql.UserBatchLoader;
+import patio.voting.graphql.VotingBatchLoader;
 
 /**
  * Tests {@link DataLoaderRegistryFactory}
@@ -38,9 +39,11 @@ public class DataLoaderRegistryFactoryTests {
 
     // when: adding required data loaders
     UserBatchLoader mockedLoader = Mockito.mock(UserBatchLoader.class);
-    DataLoaderRegistry registry = factory.create(mockedLoader);
+    VotingBatchLoader mockedVotingLoader = Mockito.mock(VotingBatchLoader.class);
+    DataLoaderRegistry registry = factory.create(mockedLoader, mockedVotingLoader);
 
     // then: you should be able to retrieve data loaders by its key
     assertNotNull(registry.getDataLoader(DataLoaderRegistryFactory.DL_USERS_BY_IDS));
+    assertNotNull(registry.getDataLoader(DataLoaderRegistryFactory.DL_VOTINGS_BY_IDS));
   }
 }
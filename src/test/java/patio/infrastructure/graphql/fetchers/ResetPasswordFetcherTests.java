@@ -20,8 +20,6 @@ package patio.infrastructure.graphql.fetchers;
 import static io.github.benas.randombeans.api.EnhancedRandom.random;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static org.hamcrest.Matchers.isEmptyString;
-import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.util.Map;
@@ -29,8 +27,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.internal.EmailComposerService;
+import patio.infrastructure.graphql.I18nGraphQLError;
 import patio.infrastructure.graphql.fetchers.utils.FetcherTestUtils;
+import patio.infrastructure.utils.ErrorConstants;
 import patio.security.graphql.ResetPasswordFetcher;
+import patio.security.services.LoginThrottleService;
 import patio.security.services.internal.DefaultResetPasswordService;
 import patio.user.domain.User;
 import patio.user.graphql.UserFetcher;
@@ -50,18 +51,42 @@ public class ResetPasswordFetcherTests {
     // given: mocked services
     var mockedService = Mockito.mock(DefaultResetPasswordService.class);
     var emailComposerService = Mockito.mock(EmailComposerService.class);
+    var throttle = Mockito.mock(LoginThrottleService.class);
+    Mockito.when(throttle.tryAcquireForAccount(any(), any())).thenReturn(true);
 
     // and: a mocked environment
     var mockedEnvironment =
         FetcherTestUtils.generateMockedEnvironment(user, Map.of("email", user.getEmail()));
 
     // when: fetching user list invoking the service
-    ResetPasswordFetcher fetchers = new ResetPasswordFetcher(mockedService);
-    fetchers.resetPassword(mockedEnvironment);
+    ResetPasswordFetcher fetchers = new ResetPasswordFetcher(mockedService, throttle);
+    var result = fetchers.resetPassword(mockedEnvironment);
 
     // then: check certain assertions should be met
-    assertThat("The user's OTP is now defined", user.getOtp(), is(not(isEmptyString())));
+    assertThat("reset is requested", result.getData(), is(true));
+    Mockito.verify(mockedService).resetPasswordRequest(user.getEmail());
     Mockito.when(emailComposerService.composeEmail(any(), any(), any(), any()))
         .thenReturn(random(Email.class));
   }
+
+  @Test
+  void testResetPasswordThrottled() {
+    // given: a throttle rejecting every attempt
+    var mockedService = Mockito.mock(DefaultResetPasswordService.class);
+    var throttle = Mockito.mock(LoginThrottleService.class);
+
+    // and: a mocked environment
+    var mockedEnvironment =
+        FetcherTestUtils.generateMockedEnvironment(null, Map.of("email", "john@example.com"));
+
+    // when: requesting a password reset
+    var result = new ResetPasswordFetcher(mockedService, throttle).resetPassword(mockedEnvironment);
+
+    // then: a too many requests error is returned
+    I18nGraphQLError error = (I18nGraphQLError) result.getErrors().get(0);
+    assertThat("error code", error.getCode(), is(ErrorConstants.TOO_MANY_REQUESTS.getCode()));
+
+    // and: no reset is requested
+    Mockito.verifyZeroInteractions(mockedService);
+  }
 }
@@ -25,17 +25,18 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 
-import graphql.schema.DataFetchingEnvironment;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import patio.common.domain.utils.Result;
 import patio.infrastructure.graphql.I18nGraphQLError;
 import patio.infrastructure.graphql.fetchers.utils.FetcherTestUtils;
+import patio.infrastructure.utils.ErrorConstants;
 import patio.security.domain.Login;
 import patio.security.domain.Tokens;
 import patio.security.graphql.LoginInput;
 import patio.security.graphql.SecurityFetcher;
+import patio.security.services.LoginThrottleService;
 import patio.security.services.SecurityService;
 import patio.user.domain.User;
 
@@ -54,8 +55,8 @@ public class SecurityFetcherTests {
         .thenReturn(Result.result(random(Login.class)));
 
     // when: the fetcher is invoked for login query
-    var securityFetcher = new SecurityFetcher(securityService);
-    var fetchingEnvironment = Mockito.mock(DataFetchingEnvironment.class);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
+    var fetchingEnvironment = FetcherTestUtils.generateMockedEnvironment(null, Map.of());
     var result = securityFetcher.loginByCredentials(fetchingEnvironment);
 
     // then: there should be no errors
@@ -77,8 +78,8 @@ public class SecurityFetcherTests {
         .thenReturn(Result.error(code, message));
 
     // when: the fetcher is invoked for login query
-    var securityFetcher = new SecurityFetcher(securityService);
-    var fetchingEnvironment = Mockito.mock(DataFetchingEnvironment.class);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
+    var fetchingEnvironment = FetcherTestUtils.generateMockedEnvironment(null, Map.of());
     var result = securityFetcher.loginByCredentials(fetchingEnvironment);
 
     // then: there should be errors
@@ -94,9 +95,9 @@ public class SecurityFetcherTests {
 
   @Test
   void testLoginByOtpSuccess() {
-    // given: a user with an otp
+    // given: a user and an otp
     var otp = random(String.class);
-    var user = User.builder().with(u -> u.setOtp(otp)).build();
+    var user = random(User.class);
 
     // and: mocking the service with a SUCCESSFUL Login response
     var securityService = Mockito.mock(SecurityService.class);
@@ -108,7 +109,7 @@ public class SecurityFetcherTests {
         FetcherTestUtils.generateMockedEnvironment(null, Map.of("otpCode", otp));
 
     // when: the fetcher is invoked for login by otp query
-    var securityFetcher = new SecurityFetcher(securityService);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
     var result = securityFetcher.loginByOtp(mockedEnvironment);
 
     // then: there should be no errors
@@ -136,7 +137,7 @@ public class SecurityFetcherTests {
         FetcherTestUtils.generateMockedEnvironment(null, Map.of("otpCode", otpCode));
 
     // when: the fetcher is invoked for login query
-    var securityFetcher = new SecurityFetcher(securityService);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
     var result = securityFetcher.loginByOtp(mockedEnvironment);
 
     // then: there should be errors
@@ -164,7 +165,7 @@ public class SecurityFetcherTests {
         FetcherTestUtils.generateMockedEnvironment(user, Map.of("password", random(String.class)));
 
     // when: the fetcher is invoked for changing the password by otp mutation
-    var securityFetcher = new SecurityFetcher(securityService);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
     var result = securityFetcher.changePassword(mockedEnvironment);
 
     // then: there should be no errors
@@ -192,7 +193,7 @@ public class SecurityFetcherTests {
         FetcherTestUtils.generateMockedEnvironment(user, Map.of("password", random(String.class)));
 
     // when: the fetcher is invoked for changing the password by otp mutation
-    var securityFetcher = new SecurityFetcher(securityService);
+    var securityFetcher = new SecurityFetcher(securityService, allowAll());
     var result = securityFetcher.changePassword(mockedEnvironment);
 
     // then: there should be errors
@@ -205,4 +206,48 @@ public class SecurityFetcherTests {
     // and: a login payload should be missing
     assertNull(result.getData());
   }
+
+  @Test
+  void testLoginThrottled() {
+    // given: a throttle rejecting every attempt
+    var securityService = Mockito.mock(SecurityService.class);
+    var throttle = Mockito.mock(LoginThrottleService.class);
+
+    // when: the fetcher is invoked for login query
+    var securityFetcher = new SecurityFetcher(securityService, throttle);
+    var fetchingEnvironment = FetcherTestUtils.generateMockedEnvironment(null, Map.of());
+    var result = securityFetcher.loginByCredentials(fetchingEnvironment);
+
+    // then: there should be a too many requests error
+    I18nGraphQLError error = (I18nGraphQLError) result.getErrors().get(0);
+    assertEquals(ErrorConstants.TOO_MANY_REQUESTS.getCode(), error.getCode());
+
+    // and: the security service should never be called
+    Mockito.verifyZeroInteractions(securityService);
+  }
+
+  @Test
+  void testLoginFailuresAreRecorded() {
+    // given: a security service rejecting the credentials
+    var securityService = Mockito.mock(SecurityService.class);
+    Mockito.when(securityService.loginByCredentials(any(LoginInput.class)))
+        .thenReturn(Result.error(ErrorConstants.BAD_CREDENTIALS));
+    var throttle = allowAll();
+
+    // when: the fetcher is invoked for login query
+    var securityFetcher = new SecurityFetcher(securityService, throttle);
+    var fetchingEnvironment =
+        FetcherTestUtils.generateMockedEnvironment(
+            null, Map.of("email", "john@example.com", "password", "wrong"));
+    securityFetcher.loginByCredentials(fetchingEnvironment);
+
+    // then: the failure is counted against the account
+    Mockito.verify(throttle).recordFailure("john@example.com");
+  }
+
+  private static LoginThrottleService allowAll() {
+    var throttle = Mockito.mock(LoginThrottleService.class);
+    Mockito.when(throttle.tryAcquire(any(), any())).thenReturn(true);
+    return throttle;
+  }
 }
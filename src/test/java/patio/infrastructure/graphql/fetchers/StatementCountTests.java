@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.fetchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static patio.infrastructure.graphql.fetchers.utils.StatementCountUtils.assertStatementsAtMost;
+import static patio.infrastructure.graphql.fetchers.utils.StatementCountUtils.count;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.annotation.MicronautTest;
+import java.util.Map;
+import java.util.UUID;
+import javax.inject.Inject;
+import org.dataloader.DataLoaderRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.graphql.instrumentation.StatementCountInstrumentation;
+import patio.infrastructure.tests.Fixtures;
+import patio.user.domain.User;
+
+/**
+ * Checks the number of SQL statements executed by representative GraphQL queries doesn't grow with
+ * the number of items they return
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Property(name = "graphql.debug", value = "true")
+public class StatementCountTests {
+
+  private static final UUID BEN = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea1");
+  private static final UUID GROUP = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+  private static final UUID VOTING = UUID.fromString("7772e35c-5a87-4ba3-ab93-da8a957037f3");
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient Fixtures fixtures;
+
+  @Inject transient GraphQL graphQL;
+
+  @Inject transient DataLoaderRegistry dataLoaderRegistry;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+    fixtures.load(StatementCountTests.class, "statementCount.sql");
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+  }
+
+  @Test
+  void testListMyGroups() {
+    var query = "{ listMyGroups { name members { name } lastVoting { stats { average } } } }";
+
+    // expect: groups, members and last votings to be loaded without a query per group
+    assertStatementsAtMost(8, () -> assertNoErrors(graphQL.execute(as(BEN, query))));
+  }
+
+  @Test
+  void testGetStatsByGroup() {
+    var query =
+        "{ getStatsByGroup(groupId: \""
+            + GROUP
+            + "\", max: 10) { totalCount data { average movingAverage voting { id } } } }";
+
+    // expect: stats of every voting to be loaded without a query per voting
+    assertStatementsAtMost(8, () -> assertNoErrors(graphQL.execute(as(BEN, query))));
+  }
+
+  @Test
+  void testGetVotingVotes() {
+    var query =
+        "{ getVoting(id: \""
+            + VOTING
+            + "\") { stats { average } votes { data { score createdBy { name } } } } }";
+
+    // expect: the authors of the votes to be loaded in a single batch
+    assertStatementsAtMost(8, () -> assertNoErrors(graphQL.execute(as(BEN, query))));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCountsAreAddedToExtensions() {
+    var query = "{ getGroup(id: \"" + GROUP + "\") { name } }";
+    var results = new ExecutionResult[1];
+
+    // when: executing a query in debug mode
+    var counter = count(() -> results[0] = graphQL.execute(as(BEN, query)));
+
+    // then: the response includes the statements executed by the operation
+    var counts =
+        (Map<String, Object>)
+            results[0].getExtensions().get(StatementCountInstrumentation.EXTENSION);
+    assertEquals(counter.getStatements(), counts.get("statements"));
+    assertTrue(counter.getRows() > 0);
+  }
+
+  private ExecutionInput as(UUID userId, String query) {
+    var context = new Context();
+    context.setAuthenticatedUser(User.builder().with(u -> u.setId(userId)).build());
+
+    return ExecutionInput.newExecutionInput()
+        .query(query)
+        .context(context)
+        .dataLoaderRegistry(dataLoaderRegistry)
+        .build();
+  }
+
+  private static void assertNoErrors(ExecutionResult result) {
+    assertTrue(result.getErrors().isEmpty(), () -> result.getErrors().toString());
+  }
+}
@@ -53,7 +53,9 @@ import patio.voting.domain.Voting;
 import patio.voting.graphql.CreateVoteInput;
 import patio.voting.graphql.CreateVotingInput;
 import patio.voting.graphql.ListVotingsGroupInput;
+import patio.voting.graphql.VotingBatchLoader;
 import patio.voting.graphql.VotingFetcher;
+import patio.voting.services.VotingService;
 import patio.voting.services.internal.DefaultVotingService;
 import reactor.test.StepVerifier;
 
@@ -270,4 +272,36 @@ class VotingFetcherTests {
         .expectComplete()
         .verify();
   }
+
+  @Test
+  void testGetLastVoting() {
+    // given: a mocked voting service
+    Voting lastVoting = random(Voting.class);
+    VotingService mockedService = Mockito.mock(VotingService.class);
+    Mockito.when(mockedService.listVotingsByIds(List.of(lastVoting.getId())))
+        .thenReturn(List.of(lastVoting));
+
+    // and: a mocked environment
+    Group group = Group.builder().with(g -> g.setLastVotingId(lastVoting.getId())).build();
+    DataLoader<UUID, Voting> dataLoader =
+        DataLoader.newDataLoader(
+            new VotingBatchLoader(mockedService),
+            DataLoaderOptions.newOptions().setBatchingEnabled(false));
+
+    DataFetchingEnvironment mockedEnvironment =
+        FetcherTestUtils.create()
+            .dataLoader(DataLoaderRegistryFactory.DL_VOTINGS_BY_IDS, dataLoader)
+            .source(group)
+            .build();
+
+    // when: retrieving the last voting of the group
+    VotingFetcher fetcher = new VotingFetcher(null);
+    CompletableFuture<Voting> completableFuture = fetcher.getLastVoting(mockedEnvironment);
+
+    // then: we should get the expected voting
+    StepVerifier.create(Publishers.fromCompletableFuture(completableFuture))
+        .expectNextMatches(voting -> voting.getId().equals(lastVoting.getId()))
+        .expectComplete()
+        .verify();
+  }
 }
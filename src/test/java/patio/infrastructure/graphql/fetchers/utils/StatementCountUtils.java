@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.graphql.fetchers.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import patio.infrastructure.persistence.StatementCounter;
+
+/**
+ * Contains functions to check how many SQL statements an operation executes, so that changes
+ * turning a handful of queries into one query per item are caught by tests
+ *
+ * @since 0.1.0
+ */
+public abstract class StatementCountUtils {
+
+  /**
+   * Runs the operation counting the SQL statements it executes in the current thread
+   *
+   * @param operation the operation to run
+   * @return the {@link StatementCounter} with the statements and rows of the operation
+   * @since 0.1.0
+   */
+  public static StatementCounter count(Runnable operation) {
+    var counter = new StatementCounter();
+    try (var scope = counter.activate()) {
+      operation.run();
+    }
+    return counter;
+  }
+
+  /**
+   * Runs the operation and checks it doesn't execute more SQL statements than expected
+   *
+   * @param max maximum number of statements allowed
+   * @param operation the operation to run
+   * @return the {@link StatementCounter} with the statements and rows of the operation
+   * @since 0.1.0
+   */
+  public static StatementCounter assertStatementsAtMost(long max, Runnable operation) {
+    var counter = count(operation);
+    assertTrue(
+        counter.getStatements() <= max,
+        () -> "expected at most " + max + " statements but were " + counter.getStatements());
+    return counter;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import io.micronaut.core.io.ResourceResolver;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.infrastructure.email.domain.Email;
+import patio.infrastructure.graphql.TypeDefinitionRegistryFactory;
+import patio.infrastructure.graphql.instrumentation.FlightRecorderInstrumentation;
+
+/**
+ * Tests {@link FlightRecorderService} and the application flight recorder events
+ *
+ * @since 0.1.0
+ */
+public class FlightRecorderServiceTests {
+
+  private transient Path directory;
+  private transient FlightRecorderService service;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("recordings");
+    service =
+        new FlightRecorderService(
+            Duration.ofMinutes(5),
+            10 * 1024 * 1024,
+            Duration.ofMinutes(5),
+            directory,
+            Clock.systemUTC());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    service.close();
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  void testStartAndStop() {
+    // when: starting a recording
+    var started = service.start();
+
+    // then: it's running with the configured bounds
+    assertEquals("RUNNING", started.getState());
+    assertEquals("PT5M", started.getMaxAge());
+
+    // and: starting it again keeps the same recording
+    assertEquals(started.getStartTime(), service.start().getStartTime());
+
+    // when: stopping it
+    var stopped = service.stop();
+
+    // then: there's no recording anymore
+    assertEquals("NONE", stopped.getState());
+    assertTrue(service.dump().isEmpty());
+  }
+
+  @Test
+  void testDumpContainsApplicationEvents() throws Exception {
+    // given: a running recording
+    service.start();
+
+    // when: the application emits its events
+    createGraphQL().execute(ExecutionInput.newExecutionInput().query("{ sayHi login }"));
+
+    var check = new VotingCheckEvent();
+    check.begin();
+    check.votingCreated();
+    check.commit();
+
+    var email = Email.builder().with(e -> e.setCc(List.of("cc@example.com"))).build();
+    var send = new EmailSendEvent("smtp", email);
+    send.begin();
+    send.setSent(true);
+    send.commit();
+
+    // and: the recording is dumped
+    Path file = service.dump().orElseThrow();
+
+    // then: the file contains the application events
+    var events =
+        RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().startsWith("patio."))
+            .collect(Collectors.toList());
+
+    var operation = findEvent(events, "patio.GraphQLOperation");
+    assertEquals("QUERY", operation.getString("operationType"));
+    assertEquals(2, operation.getInt("fieldCount"));
+    assertEquals(1, findEvent(events, "patio.VotingCheck").getInt("votingsCreated"));
+    assertEquals(2, findEvent(events, "patio.EmailSend").getInt("recipients"));
+
+    // and: the status points to the file
+    assertEquals(file.toAbsolutePath().toString(), service.getStatus().getLastDump());
+  }
+
+  private static RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("event not found: " + name));
+  }
+
+  private static GraphQL createGraphQL() {
+    var wiring =
+        RuntimeWiring.newRuntimeWiring()
+            .type(
+                "Query",
+                builder ->
+                    builder
+                        .dataFetcher("sayHi", (env) -> "Hi")
+                        .dataFetcher("login", (env) -> "token"))
+            .build();
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load(
+                "classpath:patio/infrastructure/graphql/readwrite_schema.graphql",
+                new ResourceResolver());
+
+    var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring);
+
+    return GraphQL.newGraphQL(schema).instrumentation(new FlightRecorderInstrumentation()).build();
+  }
+}
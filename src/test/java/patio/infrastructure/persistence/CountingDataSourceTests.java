@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CountingDataSource} reports statements and rows to the active {@link
+ * StatementCounter}
+ *
+ * @since 0.1.0
+ */
+public class CountingDataSourceTests {
+
+  private transient DataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    var resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, true, true, false);
+
+    var statement = mock(PreparedStatement.class);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(statement.executeUpdate()).thenReturn(2);
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1, PreparedStatement.SUCCESS_NO_INFO});
+
+    var connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    var target = mock(DataSource.class);
+    when(target.getConnection()).thenReturn(connection);
+
+    dataSource = new CountingDataSource(target);
+  }
+
+  @Test
+  void testCountQueriesAndRows() throws SQLException {
+    // when: executing a query with an active counter
+    var counter = new StatementCounter();
+    try (var scope = counter.activate()) {
+      var resultSet = dataSource.getConnection().prepareStatement("SELECT").executeQuery();
+      while (resultSet.next()) {
+        resultSet.getString(1);
+      }
+    }
+
+    // then: the statement and the rows read are counted
+    assertEquals(1, counter.getStatements());
+    assertEquals(3, counter.getRows());
+  }
+
+  @Test
+  void testCountUpdatesAndBatches() throws SQLException {
+    // when: executing an update and a batch of three statements
+    var counter = new StatementCounter();
+    try (var scope = counter.activate()) {
+      var statement = dataSource.getConnection().prepareStatement("UPDATE");
+      statement.executeUpdate();
+      statement.executeBatch();
+    }
+
+    // then: every statement is counted together with the rows changed
+    assertEquals(4, counter.getStatements());
+    assertEquals(4, counter.getRows());
+  }
+
+  @Test
+  void testNestedCounters() throws SQLException {
+    // when: executing statements with nested counters
+    var outer = new StatementCounter();
+    var inner = new StatementCounter();
+    try (var outerScope = outer.activate()) {
+      try (var innerScope = inner.activate()) {
+        dataSource.getConnection().prepareStatement("UPDATE").executeUpdate();
+      }
+      dataSource.getConnection().prepareStatement("UPDATE").executeUpdate();
+    }
+
+    // then: the outer counter includes the statements of the inner one
+    assertEquals(1, inner.getStatements());
+    assertEquals(2, outer.getStatements());
+
+    // and: nothing is counted without an active counter
+    dataSource.getConnection().prepareStatement("UPDATE").executeUpdate();
+    assertEquals(2, outer.getStatements());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.annotation.MicronautTest;
+import java.util.Map;
+import java.util.UUID;
+import javax.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.group.repositories.GroupRepository;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.tests.Fixtures;
+import patio.user.domain.User;
+
+/**
+ * Tests that GraphQL queries are served by the read-only replica while mutations, the user's own
+ * reads and anything outside GraphQL use the primary database. Both databases are different
+ * PostgreSQL instances started by testcontainers, the replica is never updated so it behaves as a
+ * replica lagging behind.
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Property(name = "replica.enabled", value = "true")
+@Property(name = "replica.datasource.url", value = ReplicaDataSourceTests.REPLICA_URL)
+@Property(name = "replica.datasource.username", value = "patio")
+@Property(name = "replica.datasource.password", value = "patio")
+@Property(
+    name = "replica.datasource.driverClassName",
+    value = "org.testcontainers.jdbc.ContainerDatabaseDriver")
+@Property(name = "replica.read-your-writes-window-seconds", value = "60")
+public class ReplicaDataSourceTests {
+
+  /* default */ static final String REPLICA_URL =
+      "jdbc:tc:postgresql:10-alpine://localhost/patio_replica";
+
+  private static final UUID BEN = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea1");
+  private static final UUID SUE = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea4");
+  private static final UUID GROUP = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+  private static final String GET_GROUP = "{ getGroup(id: \"" + GROUP + "\") { name } }";
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient Fixtures fixtures;
+
+  @Inject transient GraphQL graphQL;
+
+  @Inject transient GroupRepository groupRepository;
+
+  private transient Flyway replicaFlyway;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+    fixtures.load(ReplicaDataSourceTests.class, "replica.sql");
+
+    replicaFlyway =
+        Flyway.configure()
+            .dataSource(REPLICA_URL, "patio", "patio")
+            .locations("classpath:migrations")
+            .load();
+    replicaFlyway.migrate();
+
+    var replicaFixtures = new Fixtures(replicaFlyway.getConfiguration().getDataSource());
+    replicaFixtures.load(ReplicaDataSourceTests.class, "replica.sql");
+    replicaFixtures.load(ReplicaDataSourceTests.class, "replicaLag.sql");
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+    replicaFlyway.clean();
+  }
+
+  @Test
+  void testQueriesAreServedByReplica() {
+    // when: querying a group
+    var result = graphQL.execute(as(BEN, GET_GROUP));
+
+    // then: the group comes from the replica
+    assertEquals("Fantastic Three", groupName(result.getData()));
+  }
+
+  @Test
+  void testReadYourWrites() {
+    // when: a user renames the group
+    var mutation =
+        "mutation { updateGroup(groupId: \""
+            + GROUP
+            + "\", name: \"Fantastic Five\", votingTime: \"10:00:00Z\", votingDays: [MONDAY]) "
+            + "{ name } }";
+    graphQL.execute(as(SUE, mutation));
+
+    // then: the user who renamed the group reads it from the primary
+    var result = graphQL.execute(as(SUE, GET_GROUP));
+    assertEquals("Fantastic Five", groupName(result.getData()));
+
+    // and: other users keep reading from the replica
+    var otherResult = graphQL.execute(as(BEN, GET_GROUP));
+    assertEquals("Fantastic Three", groupName(otherResult.getData()));
+  }
+
+  @Test
+  void testOperationsOutsideGraphQLUsePrimary() {
+    // expect: services and scheduled jobs to read from the primary
+    assertEquals("Fantastic Four", groupRepository.findById(GROUP).get().getName());
+  }
+
+  private static ExecutionInput as(UUID userId, String query) {
+    var context = new Context();
+    context.setAuthenticatedUser(User.builder().with(u -> u.setId(userId)).build());
+
+    return ExecutionInput.newExecutionInput().query(query).context(context).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String groupName(Map<String, Object> data) {
+    return ((Map<String, String>) data.get("getGroup")).get("name");
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests {@link ReplicaRouting}
+ *
+ * @since 0.1.0
+ */
+public class ReplicaRoutingTests {
+
+  private static final Instant NOW = Instant.parse("2020-01-01T10:00:00Z");
+
+  @Test
+  void testReplicaDisabled() {
+    // given: a routing with the replica disabled
+    var routing = new ReplicaRouting(false, 5, clockAt(NOW));
+
+    // expect: reads are never routed to the replica
+    assertFalse(routing.isReplicaAllowed(null));
+    assertFalse(routing.isReplicaAllowed(UUID.randomUUID()));
+  }
+
+  @Test
+  void testReadYourWritesWindow() {
+    // given: a routing with a window of five seconds
+    var clock = clockAt(NOW);
+    var routing = new ReplicaRouting(true, 5, clock);
+    var writer = UUID.randomUUID();
+    var reader = UUID.randomUUID();
+
+    // when: a user executes a mutation
+    routing.recordWrite(writer);
+
+    // then: the writer reads from the primary
+    assertFalse(routing.isReplicaAllowed(writer));
+
+    // and: anybody else reads from the replica
+    assertTrue(routing.isReplicaAllowed(reader));
+    assertTrue(routing.isReplicaAllowed(null));
+
+    // when: the window is closed
+    Mockito.when(clock.instant()).thenReturn(NOW.plusSeconds(5));
+
+    // then: the writer reads from the replica again
+    assertTrue(routing.isReplicaAllowed(writer));
+  }
+
+  @Test
+  void testOnReplica() throws Exception {
+    // expect: operations to be routed only while executing them
+    assertFalse(ReplicaRouting.isReplicaSelected());
+    assertEquals(Boolean.TRUE, ReplicaRouting.onReplica(ReplicaRouting::isReplicaSelected));
+    assertFalse(ReplicaRouting.isReplicaSelected());
+  }
+
+  private static Clock clockAt(Instant instant) {
+    var clock = Mockito.mock(Clock.class);
+    Mockito.when(clock.instant()).thenReturn(instant);
+
+    return clock;
+  }
+}
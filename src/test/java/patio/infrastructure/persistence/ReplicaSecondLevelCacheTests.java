@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.annotation.MicronautTest;
+import java.util.Map;
+import java.util.UUID;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.group.domain.Group;
+import patio.group.repositories.GroupRepository;
+import patio.infrastructure.graphql.Context;
+import patio.infrastructure.tests.Fixtures;
+import patio.user.domain.User;
+
+/**
+ * Tests that entities read from a lagging replica never reach the second level cache, so reads
+ * served by the primary don't get the stale state of the replica. Both databases are different
+ * PostgreSQL instances started by testcontainers, the same way as in {@link
+ * ReplicaDataSourceTests}.
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Property(name = "jpa.default.properties.hibernate.cache.use_second_level_cache", value = "true")
+@Property(name = "jpa.default.properties.hibernate.cache.use_query_cache", value = "true")
+@Property(name = "replica.enabled", value = "true")
+@Property(name = "replica.datasource.url", value = ReplicaDataSourceTests.REPLICA_URL)
+@Property(name = "replica.datasource.username", value = "patio")
+@Property(name = "replica.datasource.password", value = "patio")
+@Property(
+    name = "replica.datasource.driverClassName",
+    value = "org.testcontainers.jdbc.ContainerDatabaseDriver")
+public class ReplicaSecondLevelCacheTests {
+
+  private static final UUID BEN = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea1");
+  private static final UUID GROUP = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+  private static final String GET_GROUP = "{ getGroup(id: \"" + GROUP + "\") { name } }";
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient Fixtures fixtures;
+
+  @Inject transient GraphQL graphQL;
+
+  @Inject transient GroupRepository groupRepository;
+
+  @Inject transient EntityManagerFactory entityManagerFactory;
+
+  private transient Flyway replicaFlyway;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+    fixtures.load(ReplicaDataSourceTests.class, "replica.sql");
+
+    replicaFlyway =
+        Flyway.configure()
+            .dataSource(ReplicaDataSourceTests.REPLICA_URL, "patio", "patio")
+            .locations("classpath:migrations")
+            .load();
+    replicaFlyway.migrate();
+
+    var replicaFixtures = new Fixtures(replicaFlyway.getConfiguration().getDataSource());
+    replicaFixtures.load(ReplicaDataSourceTests.class, "replica.sql");
+    replicaFixtures.load(ReplicaDataSourceTests.class, "replicaLag.sql");
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+    replicaFlyway.clean();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void testReplicaReadsAreNotCached() {
+    // when: querying a group served by the replica
+    var result = graphQL.execute(as(BEN, GET_GROUP));
+    assertEquals("Fantastic Three", groupName(result.getData()));
+
+    // then: the stale group is not kept in the cache
+    assertFalse(entityManagerFactory.getCache().contains(Group.class, GROUP));
+
+    // and: reads from the primary get the current group
+    assertEquals("Fantastic Four", groupRepository.findById(GROUP).get().getName());
+  }
+
+  @Test
+  void testReplicaReadsUseCache() {
+    // given: a group cached by a read from the primary
+    assertEquals("Fantastic Four", groupRepository.findById(GROUP).get().getName());
+
+    // when: querying the group through the replica
+    var result = graphQL.execute(as(BEN, GET_GROUP));
+
+    // then: the group still comes from the cache
+    assertEquals("Fantastic Four", groupName(result.getData()));
+  }
+
+  private static ExecutionInput as(UUID userId, String query) {
+    var context = new Context();
+    context.setAuthenticatedUser(User.builder().with(u -> u.setId(userId)).build());
+
+    return ExecutionInput.newExecutionInput().query(query).context(context).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String groupName(Map<String, Object> data) {
+    return ((Map<String, String>) data.get("getGroup")).get("name");
+  }
+}
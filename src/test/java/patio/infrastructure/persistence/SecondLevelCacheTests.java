@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.annotation.MicronautTest;
+import java.time.DayOfWeek;
+import java.time.OffsetTime;
+import java.util.List;
+import java.util.UUID;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import patio.group.domain.Group;
+import patio.group.graphql.LeaveGroupInput;
+import patio.group.graphql.UpsertGroupInput;
+import patio.group.repositories.GroupRepository;
+import patio.group.repositories.UserGroupRepository;
+import patio.group.services.GroupService;
+import patio.group.services.UserGroupService;
+import patio.infrastructure.tests.Fixtures;
+
+/**
+ * Tests that entities kept in the second level cache are invalidated when they change
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Testcontainers
+@Property(name = "jpa.default.properties.hibernate.cache.use_second_level_cache", value = "true")
+@Property(name = "jpa.default.properties.hibernate.cache.use_query_cache", value = "true")
+public class SecondLevelCacheTests {
+
+  private static final UUID BEN = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea1");
+  private static final UUID SUE = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea4");
+  private static final UUID GROUP = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+
+  @Container
+  @SuppressWarnings("unused")
+  private static PostgreSQLContainer DATABASE = new PostgreSQLContainer();
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient Fixtures fixtures;
+
+  @Inject transient EntityManagerFactory entityManagerFactory;
+
+  @Inject transient GroupRepository groupRepository;
+
+  @Inject transient UserGroupRepository userGroupRepository;
+
+  @Inject transient GroupService groupService;
+
+  @Inject transient UserGroupService userGroupService;
+
+  @Inject transient CacheStatisticsReporter cacheStatistics;
+
+  @Inject transient CacheStatisticsEndpoint cacheStatisticsEndpoint;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+    fixtures.load(SecondLevelCacheTests.class, "secondLevelCache.sql");
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void testGroupsAreCached() {
+    // when: loading the same group twice
+    groupRepository.findById(GROUP);
+    groupRepository.findById(GROUP);
+
+    // then: the group is kept in the cache
+    assertTrue(entityManagerFactory.getCache().contains(Group.class, GROUP));
+
+    // and: the second load was a cache hit
+    assertThat(cacheStatistics.getHitRatios().get(CacheRegions.GROUPS), greaterThan(0.0));
+
+    // and: the hit is published by the metrics endpoint
+    var metrics = cacheStatisticsEndpoint.metrics().get(CacheRegions.GROUPS);
+    assertThat(metrics.getHits(), greaterThan(0L));
+  }
+
+  @Test
+  void testUpdateGroupInvalidatesCache() {
+    // given: a cached group
+    assertEquals("Fantastic Four", groupRepository.findById(GROUP).get().getName());
+
+    // when: the admin renames the group
+    var input =
+        UpsertGroupInput.newBuilder()
+            .with(i -> i.setCurrentUserId(BEN))
+            .with(i -> i.setGroupId(GROUP))
+            .with(i -> i.setName("Fantastic Five"))
+            .with(i -> i.setVotingDays(List.of(DayOfWeek.MONDAY)))
+            .with(i -> i.setVotingTime(OffsetTime.now()))
+            .with(i -> i.setVotingDuration(24))
+            .build();
+    assertTrue(groupService.updateGroup(input).isSuccess());
+
+    // then: the group is loaded with its new name
+    assertEquals("Fantastic Five", groupRepository.findById(GROUP).get().getName());
+  }
+
+  @Test
+  void testLeaveGroupInvalidatesCache() {
+    // given: a cached group and cached memberships
+    assertEquals(Integer.valueOf(2), groupRepository.findById(GROUP).get().getMemberCount());
+    assertTrue(userGroupRepository.findAllMembershipsByUserId(SUE).containsKey(GROUP));
+
+    // when: a member leaves the group
+    var input = LeaveGroupInput.newBuilder().withCurrentUserId(SUE).withGroupId(GROUP).build();
+    assertTrue(userGroupService.leaveGroup(input).isSuccess());
+
+    // then: the group's member count is updated
+    assertEquals(Integer.valueOf(1), groupRepository.findById(GROUP).get().getMemberCount());
+
+    // and: cached membership lookups are not used anymore
+    assertFalse(userGroupRepository.findAllMembershipsByUserId(SUE).containsKey(GROUP));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link TimeOrderedUuidGenerator}
+ *
+ * @since 0.1.0
+ */
+public class TimeOrderedUuidGeneratorTests {
+
+  private static final long NOW = 1_577_872_800_000L;
+
+  @Test
+  void testVersionAndVariant() {
+    // when: generating an id
+    var id = TimeOrderedUuidGenerator.next();
+
+    // then: it's a version 7 IETF UUID
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+  }
+
+  @Test
+  void testTimestampIsTheMostSignificantPart() {
+    // when: generating an id for a given time
+    var id = TimeOrderedUuidGenerator.next(NOW);
+
+    // then: its first 48 bits are the milliseconds since the epoch
+    assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+  }
+
+  @Test
+  void testIdsAreOrderedByTime() {
+    // when: generating ids at consecutive milliseconds
+    List<UUID> ids =
+        LongStream.range(0, 100)
+            .mapToObj(offset -> TimeOrderedUuidGenerator.next(NOW + offset))
+            .collect(Collectors.toList());
+
+    // then: their textual representation, as compared by PostgreSQL, keeps the creation order
+    var sorted =
+        ids.stream().sorted(Comparator.comparing(UUID::toString)).collect(Collectors.toList());
+    assertEquals(ids, sorted);
+  }
+
+  @Test
+  void testIdsInTheSameMillisecondAreUnique() {
+    // when: generating two ids at the same time
+    var first = TimeOrderedUuidGenerator.next(NOW);
+    var second = TimeOrderedUuidGenerator.next(NOW);
+
+    // then: they share the time prefix but they're different
+    assertTrue(first.toString().startsWith(second.toString().substring(0, 13)));
+    assertNotEquals(first, second);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.infrastructure.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import graphql.GraphQL;
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.health.HealthStatus;
+import io.reactivex.Flowable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import patio.common.graphql.CommonScalarProvider;
+import patio.infrastructure.graphql.GraphQLSchemaFactory;
+import patio.infrastructure.graphql.ParsedDocumentCache;
+import patio.infrastructure.graphql.TypeDefinitionRegistryFactory;
+import patio.user.domain.User;
+import patio.user.repositories.UserRepository;
+
+/**
+ * Tests {@link WarmUpService} and {@link WarmUpHealthIndicator}
+ *
+ * @since 0.1.0
+ */
+public class WarmUpServiceTests {
+
+  private static final String OPERATIONS =
+      "classpath:warm-up/profile.graphql,classpath:warm-up/groups.graphql";
+
+  @Test
+  void testWarmUpParsesOperationsAndFillsPool() throws SQLException {
+    // given: a pool and a warm-up user
+    var connection = Mockito.mock(Connection.class);
+    var dataSource = Mockito.mock(DataSource.class);
+    Mockito.when(dataSource.getConnection()).thenReturn(connection);
+
+    var userRepository = Mockito.mock(UserRepository.class);
+    Mockito.when(userRepository.findByEmail("warmup@patio.com"))
+        .thenReturn(Optional.of(User.builder().build()));
+
+    // and: a warm-up budget of three iterations
+    var documents = new ParsedDocumentCache(10);
+    var config =
+        new WarmUpService.Config("warmup@patio.com", OPERATIONS, 3, Duration.ofMinutes(1), 4);
+    var warmUp = warmUpService(config, documents, dataSource, userRepository);
+    var indicator = new WarmUpHealthIndicator(warmUp);
+
+    // then: the application is not ready before warming up
+    assertEquals(
+        HealthStatus.DOWN,
+        Flowable.fromPublisher(indicator.getResult()).blockingFirst().getStatus());
+
+    // when: warming up
+    warmUp.warmUp();
+
+    // then: every connection was opened at once and released afterwards
+    Mockito.verify(dataSource, Mockito.times(4)).getConnection();
+    Mockito.verify(connection, Mockito.times(4)).close();
+
+    // and: operations are valid and their documents are kept
+    assertEquals(2, documents.size());
+
+    // and: the application is ready
+    assertTrue(warmUp.isFinished());
+    assertEquals(
+        HealthStatus.UP, Flowable.fromPublisher(indicator.getResult()).blockingFirst().getStatus());
+  }
+
+  @Test
+  void testWarmUpFinishesWhenItFails() throws SQLException {
+    // given: a database which is not available
+    var dataSource = Mockito.mock(DataSource.class);
+    Mockito.when(dataSource.getConnection()).thenThrow(new SQLException("unavailable"));
+
+    var config = new WarmUpService.Config("", OPERATIONS, 3, Duration.ofMinutes(1), 4);
+    var warmUp =
+        warmUpService(
+            config, new ParsedDocumentCache(10), dataSource, Mockito.mock(UserRepository.class));
+
+    // when: warming up
+    warmUp.warmUp();
+
+    // then: the application is ready anyway
+    assertTrue(warmUp.isFinished());
+  }
+
+  @Test
+  void testWarmUpStopsWhenDurationIsSpent() throws SQLException {
+    // given: a warm-up without time to replay operations
+    var dataSource = Mockito.mock(DataSource.class);
+    Mockito.when(dataSource.getConnection()).thenReturn(Mockito.mock(Connection.class));
+
+    var documents = new ParsedDocumentCache(10);
+    var config = new WarmUpService.Config("", OPERATIONS, 1000, Duration.ZERO, 1);
+    var warmUp = warmUpService(config, documents, dataSource, Mockito.mock(UserRepository.class));
+
+    // when: warming up
+    warmUp.warmUp();
+
+    // then: no operation is replayed
+    assertTrue(warmUp.isFinished());
+    assertEquals(0, documents.size());
+  }
+
+  private static WarmUpService warmUpService(
+      WarmUpService.Config config,
+      ParsedDocumentCache documents,
+      DataSource dataSource,
+      UserRepository userRepository) {
+    var registry =
+        new TypeDefinitionRegistryFactory()
+            .load("classpath:graphql/schema.graphqls", new ResourceResolver());
+    var schema =
+        new GraphQLSchemaFactory()
+            .getSchema(
+                registry, List.of(), List.of(), List.of(), List.of(new CommonScalarProvider()));
+    var graphQL = GraphQL.newGraphQL(schema).preparsedDocumentProvider(documents).build();
+
+    return new WarmUpService(
+        config,
+        graphQL,
+        new DataLoaderRegistry(),
+        userRepository,
+        dataSource,
+        new ResourceResolver());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.repositories;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import io.micronaut.test.annotation.MicronautTest;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import patio.infrastructure.tests.Fixtures;
+import patio.security.domain.UserToken;
+import patio.security.services.internal.OtpSweeperService;
+import patio.user.domain.User;
+
+/**
+ * Tests DATABASE integration regarding {@link UserToken} persistence
+ *
+ * @since 0.1.0
+ */
+@MicronautTest
+@Testcontainers
+class UserTokenRepositoryTests {
+
+  private static final UUID TONY = UUID.fromString("3465094c-5545-4007-a7bc-da2b1a88d9dc");
+
+  @Container
+  @SuppressWarnings("unused")
+  private static PostgreSQLContainer DATABASE = new PostgreSQLContainer();
+
+  @Inject transient Flyway flyway;
+
+  @Inject transient UserTokenRepository repository;
+
+  @Inject transient Fixtures fixtures;
+
+  @BeforeEach
+  void loadFixtures() {
+    flyway.migrate();
+  }
+
+  @AfterEach
+  void cleanFixtures() {
+    flyway.clean();
+  }
+
+  @Test
+  void testFindByTokenHash() {
+    // given: a pre-loaded fixtures
+    fixtures.load(UserTokenRepositoryTests.class, "testUserTokens.sql");
+
+    // when: looking for a token by its hash
+    var token = repository.findByTokenHash("hash-sue-valid");
+
+    // then: we should get the token and its user
+    assertThat("token is found", token.isPresent(), is(true));
+    assertThat("token user", token.get().getUser().getEmail(), is("sstorm@email.com"));
+
+    // and: unknown hashes shouldn't match anything
+    assertThat("no token", repository.findByTokenHash("unknown").isPresent(), is(false));
+  }
+
+  @Test
+  void testDeleteAllByUser() {
+    // given: a pre-loaded fixtures
+    fixtures.load(UserTokenRepositoryTests.class, "testUserTokens.sql");
+
+    // when: removing all tokens of a user
+    var tony = User.builder().with(u -> u.setId(TONY)).build();
+    var removed = repository.deleteAllByUser(tony);
+
+    // then: only tony's tokens are removed
+    assertThat("removed tokens", removed, is(2));
+    assertThat("remaining tokens", repository.count(), is(2L));
+  }
+
+  @Test
+  void testDeleteExpiredInBatches() {
+    // given: a pre-loaded fixtures
+    fixtures.load(UserTokenRepositoryTests.class, "testUserTokens.sql");
+
+    // when: removing expired tokens in batches of two
+    var removed = repository.deleteExpired(OffsetDateTime.now(), 2);
+
+    // then: the batch size is honored
+    assertThat("removed tokens", removed, is(2));
+
+    // when: sweeping the rest
+    var sweeper = new OtpSweeperService(2, repository);
+    var swept = sweeper.sweep();
+
+    // then: only the valid token remains
+    assertThat("swept tokens", swept, is(1));
+    assertThat("remaining tokens", repository.count(), is(1L));
+    assertThat("valid token", repository.findByTokenHash("hash-sue-valid").isPresent(), is(true));
+  }
+}
@@ -20,20 +20,24 @@ package patio.security.services;
 import static io.github.benas.randombeans.api.EnhancedRandom.random;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.verify;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import patio.infrastructure.email.domain.Email;
 import patio.infrastructure.email.services.EmailService;
 import patio.infrastructure.email.services.internal.EmailComposerService;
 import patio.infrastructure.email.services.internal.templates.URLResolverService;
-import patio.security.services.internal.Auth0CryptoService;
+import patio.security.domain.UserToken;
+import patio.security.repositories.UserTokenRepository;
 import patio.security.services.internal.DefaultResetPasswordService;
+import patio.security.services.internal.OtpUtils;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
 
@@ -47,21 +51,12 @@ public class ResetPasswordServiceTests {
   @Test
   void testResetPasswordRequest() {
     // given: a user
-    var user =
-        User.builder()
-            .with(u -> u.setOtp(""))
-            .with(u -> u.setOtpCreationDateTime(null))
-            .with(u -> u.setName("Peter"))
-            .build();
-
-    // and: a new randomly-generated One-time Password (OTP)
-    var randomOTP = "$2a$10$ccXSNGubl.ja9eV2Dfrxmhd9t";
-    var auth0CryptoService = Mockito.mock(Auth0CryptoService.class);
-    Mockito.when(auth0CryptoService.hash(any())).thenReturn(randomOTP);
+    var user = User.builder().with(u -> u.setName("Peter")).build();
 
     // given: mocked repositories and services
     var userRepository = Mockito.mock(UserRepository.class);
     Mockito.when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
 
     // and: other mocked services
     var emailComposerService = Mockito.mock(EmailComposerService.class);
@@ -72,22 +67,34 @@ public class ResetPasswordServiceTests {
     var defaultResetPasswordService =
         new DefaultResetPasswordService(
             "/user/{0}/reset?otp={1}",
+            3,
             userRepository,
-            auth0CryptoService,
+            tokenRepository,
             emailComposerService,
             emailService,
             urlResolverService);
     defaultResetPasswordService.resetPasswordRequest(user.getEmail());
 
-    // then: we should have set an OTP for the user
-    assertThat("The user's otp is now defined", user.getOtp(), is(randomOTP));
-    assertThat(
-        "The user's otpCreationDate is defined",
-        user.getOtpCreationDateTime().toString(),
-        is(not("")));
+    // then: the link sent by email contains a random url-safe OTP
+    var otpCaptor = ArgumentCaptor.forClass(String.class);
+    verify(urlResolverService).resolve(eq("/user/{0}/reset?otp={1}"), otpCaptor.capture());
+    var otp = otpCaptor.getValue();
+
+    assertThat("The otp is defined", otp.length(), is(32));
+    assertThat("The otp is url-safe", otp.matches("[A-Za-z0-9_-]+"), is(true));
 
-    // and: user changes are persisted
-    verify(userRepository, atLeast(1)).save(any(User.class));
+    // and: previous tokens are removed and only the otp hash is stored
+    var tokenCaptor = ArgumentCaptor.forClass(UserToken.class);
+    verify(tokenRepository).deleteAllByUser(user);
+    verify(tokenRepository).save(tokenCaptor.capture());
+    var token = tokenCaptor.getValue();
+
+    assertThat("The token belongs to the user", token.getUser(), is(user));
+    assertThat("Only the hash is stored", token.getTokenHash(), is(OtpUtils.hash(otp)));
+    assertThat(
+        "The token expires in the future",
+        token.getExpiresAtDateTime().isAfter(OffsetDateTime.now()),
+        is(true));
 
     // and: an password resetting email is generated
     verify(emailComposerService, atLeast(1)).composeEmail(any(), any(), any(), any());
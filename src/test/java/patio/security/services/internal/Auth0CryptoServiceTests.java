@@ -40,6 +40,7 @@ public class Auth0CryptoServiceTests {
   private static final Algorithm CONF_ALGORITHM = Algorithm.HMAC256("secret");
   private static final String CONF_ISSUER = "issuer";
   private static final Integer CONF_DAYS = 1;
+  private static final PasswordHasher PASSWORD_HASHER = new PasswordHasher(4, 1, 16);
 
   private transient SecurityConfiguration configuration;
 
@@ -52,7 +53,7 @@ public class Auth0CryptoServiceTests {
   @DisplayName("Verify token: correct token")
   void testCreateAndVerifyToken() {
     // given: an instance of CryptoService and User's information
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
     var user = random(User.class);
 
     // when: generating the token
@@ -69,7 +70,7 @@ public class Auth0CryptoServiceTests {
   @DisplayName("Verify token: failure because short token")
   void testVerifyTokenFails() {
     // given: an instance of CryptoService and User's information
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
 
     // when: verifying the token
     Optional<DecodedJWT> subject = cryptoService.verifyToken("a");
@@ -82,7 +83,7 @@ public class Auth0CryptoServiceTests {
   @DisplayName("Verify token: failure because bad token")
   void testVerifyTokenIncorrect() {
     // given: an instance of CryptoService and User's information
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
     var user = random(User.class);
 
     // when: generating the token
@@ -99,7 +100,7 @@ public class Auth0CryptoServiceTests {
   @Test
   void testHashingPassword() {
     // given: an instance of crypto service
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
 
     // and: an obvious password to hash
     var plainTextPassword = "adminadmin";
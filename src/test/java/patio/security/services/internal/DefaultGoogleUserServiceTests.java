@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.github.scribejava.core.oauth.OAuth20Service;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patio.security.domain.OauthTokens;
+import patio.user.domain.User;
+
+/**
+ * Tests the oauth2 login flow, {@link ScribeOauthService} and {@link DefaultGoogleUserService},
+ * against a local stand-in oauth2 server
+ *
+ * @since 0.1.0
+ */
+public class DefaultGoogleUserServiceTests {
+
+  private transient OauthServerStub server;
+
+  @BeforeEach
+  void startServer() throws Exception {
+    server = new OauthServerStub();
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop();
+  }
+
+  @Test
+  void testLoadFromVerifiedIdToken() {
+    // given: an oauth2 service returning access and id tokens
+    var tokens = new ScribeOauthService(this::oauth20Service).getTokens("code").get();
+
+    // and: a user service verifying id tokens
+    var userService = userService(true);
+
+    // when: loading the user twice
+    var user = userService.loadFromTokens(tokens).map(User::getEmail);
+    userService.loadFromTokens(tokens);
+
+    // then: the user's information is taken from the id token
+    assertThat("user's email", user.get(), is("john@example.com"));
+
+    // and: userinfo is never called and keys are fetched once
+    assertThat("no userinfo calls", server.getUserinfoHits(), is(0));
+    assertThat("keys are cached", server.getJwksHits(), is(1));
+  }
+
+  @Test
+  void testLoadFromUserinfoWhenVerificationIsDisabled() {
+    // given: an oauth2 service returning access and id tokens
+    var tokens = new ScribeOauthService(this::oauth20Service).getTokens("code").get();
+
+    // when: loading the user without id token verification
+    var user = userService(false).loadFromTokens(tokens).map(User::getEmail);
+
+    // then: the user's information is taken from userinfo
+    assertThat("user's email", user.get(), is("john@example.com"));
+    assertThat("userinfo call", server.getUserinfoHits(), is(1));
+    assertThat("no keys fetched", server.getJwksHits(), is(0));
+  }
+
+  @Test
+  void testRejectIdTokenForAnotherAudience() {
+    // given: an id token issued for another client
+    var tokens =
+        OauthTokens.builder()
+            .with(t -> t.setAccessToken("access"))
+            .with(t -> t.setIdToken(server.idToken("john@example.com", "another-client")))
+            .build();
+
+    // when: loading the user
+    var user = userService(true).loadFromTokens(tokens);
+
+    // then: no user is loaded and there's no fallback to userinfo
+    assertThat("no user", user.isPresent(), is(false));
+    assertThat("no userinfo calls", server.getUserinfoHits(), is(0));
+  }
+
+  @Test
+  void testRejectIdTokenSignedWithUnknownKey() throws Exception {
+    // given: a user service which already cached the server keys
+    var userService = userService(true);
+    userService.loadFromTokens(tokens(server.idToken("john@example.com", clientId())));
+
+    // and: a token signed by a key the server doesn't publish
+    var anotherServer = new OauthServerStub();
+    var forged = anotherServer.idToken("john@example.com", clientId());
+    anotherServer.stop();
+
+    // when: loading the user
+    var user = userService.loadFromTokens(tokens(forged));
+
+    // then: no user is loaded
+    assertThat("no user", user.isPresent(), is(false));
+  }
+
+  private DefaultGoogleUserService userService(boolean verifyIdToken) {
+    var transport = new NetHttpTransport();
+    var keyProvider = new JwksKeyProvider(transport, server.url("/jwks"), 60, 0);
+    var verifier = new IdTokenVerifier(keyProvider, clientId(), OauthServerStub.ISSUER);
+
+    return new DefaultGoogleUserService(
+        () -> transport,
+        JacksonFactory::getDefaultInstance,
+        () -> verifier,
+        verifyIdToken,
+        server.url("/"));
+  }
+
+  private OAuth20Service oauth20Service() {
+    return new OauthClientFactory()
+        .oauth20Service(clientId(), "secret", "http://localhost/callback", server.url("/token"));
+  }
+
+  private static OauthTokens tokens(String idToken) {
+    return OauthTokens.builder().with(t -> t.setIdToken(idToken)).build();
+  }
+
+  private static String clientId() {
+    return OauthServerStub.CLIENT_ID;
+  }
+}
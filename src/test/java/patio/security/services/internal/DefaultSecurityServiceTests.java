@@ -21,6 +21,7 @@ import static io.github.benas.randombeans.api.EnhancedRandom.random;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,11 +31,14 @@ import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import java.time.OffsetDateTime;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import patio.infrastructure.utils.ErrorConstants;
+import patio.security.domain.UserToken;
 import patio.security.graphql.ChangePasswordInput;
 import patio.security.graphql.LoginInput;
+import patio.security.repositories.UserTokenRepository;
 import patio.security.services.CryptoService;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -46,6 +50,8 @@ import patio.user.repositories.UserRepository;
  */
 public class DefaultSecurityServiceTests {
 
+  private static final PasswordHasher PASSWORD_HASHER = new PasswordHasher(4, 1, 16);
+
   @Test
   void findUserByTokenWithGoodToken() {
     // given: mocked calls
@@ -65,12 +71,16 @@ public class DefaultSecurityServiceTests {
     var providedUser = Optional.of(random(User.class));
     Mockito.when(userRepository.findByEmailOrCreate(any())).thenReturn(providedUser);
 
+    // and: a token repository
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing security service with a good token
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var user = securityService.resolveUser("good_token");
 
     // then: we should build the information of the matching user
@@ -91,12 +101,16 @@ public class DefaultSecurityServiceTests {
 
     var userRepository = Mockito.mock(UserRepository.class);
 
+    // and: a token repository
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing security service with a wrong token
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var user = securityService.resolveUser("good_token");
 
     // then: we should build NO user
@@ -107,7 +121,7 @@ public class DefaultSecurityServiceTests {
   void testLoginWithGoodCredentials() {
     // given: a security configuration
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
     var plainPassword = "password";
 
     // and: a repository returning a specific user
@@ -116,12 +130,16 @@ public class DefaultSecurityServiceTests {
     storedUser.get().setPassword(cryptoService.hash(plainPassword));
     Mockito.when(userRepository.findByEmail(any())).thenReturn(storedUser);
 
+    // and: a token repository
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing the security service with good credentials
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result =
         securityService.loginByCredentials(
             new LoginInput(storedUser.get().getEmail(), plainPassword));
@@ -140,18 +158,22 @@ public class DefaultSecurityServiceTests {
   void testLoginWithBadCredentials() {
     // given: a security configuration
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
 
     // and: a repository returning a specific user
     var userRepository = Mockito.mock(UserRepository.class);
     Mockito.when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
 
+    // and: a token repository
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing the security service with good credentials
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
 
     var loginInput = random(LoginInput.class);
     var result = securityService.loginByCredentials(loginInput);
@@ -170,30 +192,29 @@ public class DefaultSecurityServiceTests {
   void testLoginWithValidOtp() {
     // given: a security configuration
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
     var plainPassword = "password";
-    var otp = "$2a$10$L0gD4";
+    var otp = "L0gD4";
 
-    // and: a user with an OTP code and password
+    // and: a user with a password
     var user =
-        User.builder()
-            .with(user1 -> user1.setOtp(otp))
-            .with(user1 -> user1.setPassword(cryptoService.hash(plainPassword)))
-            .build();
+        User.builder().with(user1 -> user1.setPassword(cryptoService.hash(plainPassword))).build();
     var storedUser = Optional.of(user);
-
-    // and: a mocked user repository
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp(otp)).thenReturn(storedUser);
-    Mockito.when(userRepository.save(user)).thenReturn(user);
+
+    // and: a token issued for that user
+    var token = token(user, OffsetDateTime.now().plusMinutes(3));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash(otp))).thenReturn(token);
 
     // and: an otp checker
-    var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
+    var otpExpiredForUser = new OtpExpiredForUser();
 
     // when: executing the security service with the user's otp
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
-    var result = securityService.loginByOtp(storedUser.get().getOtp());
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
+    var result = securityService.loginByOtp(otp);
 
     // then: we should build a token that matches the user stored in database
     var resultUser = result.getSuccess().getUser();
@@ -203,38 +224,62 @@ public class DefaultSecurityServiceTests {
     assertNotNull(resultUser);
     assertNotNull(result);
     assertEquals(resultEmail.getSubject(), storedUser.get().getEmail());
+
+    // and: the token can't be used again
+    verify(tokenRepository, times(1)).delete(token.get());
+  }
+
+  @Test
+  void testLoginWithExpiredOtp() {
+    // given: a security configuration
+    var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
+    var otp = "L0gD4";
+
+    // and: an expired token
+    var token = token(random(User.class), OffsetDateTime.now().minusMinutes(1));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash(otp))).thenReturn(token);
+
+    // when: executing the security service with the expired otp
+    var securityService =
+        new DefaultSecurityService(
+            cryptoService, null, null, null, tokenRepository, new OtpExpiredForUser());
+    var result = securityService.loginByOtp(otp);
+
+    // then: we should build an error because of bad credentials
+    assertEquals(result.getErrorList().size(), 1);
+    assertEquals(result.getErrorList().get(0).getCode(), ErrorConstants.BAD_CREDENTIALS.getCode());
   }
 
   @Test
   void testLoginWithInvalidOtp() {
     // given: a security configuration
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
     var plainPassword = "password";
-    var otp = "$2a$10$L0gD4";
+    var otp = "L0gD4";
 
     // and: another otp
     var anotherOtp = "not the same otp";
 
-    // and: a user with an OTP code and password
+    // and: a user with a password
     var user =
-        User.builder()
-            .with(user1 -> user1.setOtp(otp))
-            .with(user1 -> user1.setPassword(cryptoService.hash(plainPassword)))
-            .build();
-    var storedUser = Optional.of(user);
-
-    // and: a mocked user repository
+        User.builder().with(user1 -> user1.setPassword(cryptoService.hash(plainPassword))).build();
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp(otp)).thenReturn(storedUser);
-    Mockito.when(userRepository.save(user)).thenReturn(user);
+
+    // and: a token issued for that user
+    var token = token(user, OffsetDateTime.now().plusMinutes(3));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash(otp))).thenReturn(token);
 
     // and: an otp checker
-    var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
+    var otpExpiredForUser = new OtpExpiredForUser();
 
     // when: executing the security service with the user's otp
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result = securityService.loginByOtp(anotherOtp);
 
     // then: we should build an error because of bad credentials
@@ -263,15 +308,20 @@ public class DefaultSecurityServiceTests {
 
     // and: a mocked user repository
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp("otpCode")).thenReturn(storedUser);
     Mockito.when(userRepository.save(user)).thenReturn(user);
 
+    // and: a token issued for that user
+    var token = token(user, OffsetDateTime.now().plusMinutes(3));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash("otpCode"))).thenReturn(token);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing the security service to change her password
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result = securityService.changePassword(new ChangePasswordInput("otpCode", newPassword));
 
     // then: the result is correct
@@ -280,17 +330,16 @@ public class DefaultSecurityServiceTests {
     // and: the new encrypted password is stored in database
     verify(cryptoService, times(1)).hash(newPassword);
 
-    // and: otp users fields are cleared from database and persisted
-    assertEquals(user.getOtp(), "");
-    assertEquals(user.getOtpCreationDateTime(), null);
-    verify(userRepository, times(2)).save(user);
+    // and: the token is removed
+    verify(userRepository, times(1)).save(user);
+    verify(tokenRepository, times(1)).delete(token.get());
   }
 
   @Test
   void testInvalidPasswordChangeIsTheSame() {
     // given: a crypto security service
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
 
     // and: a user who wants to change its previous password
     var oldPassword = "old password";
@@ -303,15 +352,20 @@ public class DefaultSecurityServiceTests {
 
     // and: a mocked user repository
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp("otpCode")).thenReturn(storedUser);
     Mockito.when(userRepository.save(user)).thenReturn(user);
 
+    // and: a token issued for that user
+    var token = token(user, OffsetDateTime.now().plusMinutes(3));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash("otpCode"))).thenReturn(token);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing the security service to change her password
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result = securityService.changePassword(new ChangePasswordInput("otpCode", newPassword));
 
     // then: an error is returned because of the same password
@@ -329,16 +383,11 @@ public class DefaultSecurityServiceTests {
   void testInvalidPasswordChangeIsBlank() {
     // given: a crypto security service
     var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
-    var cryptoService = new Auth0CryptoService(configuration);
+    var cryptoService = new Auth0CryptoService(configuration, PASSWORD_HASHER);
 
     // and: a user who wants to change its previous password
     var oldPassword = "old password";
-    var user =
-        User.builder()
-            .with(u -> u.setPassword(cryptoService.hash(oldPassword)))
-            .with(u -> u.setOtp(random(String.class)))
-            .with(u -> u.setOtpCreationDateTime(OffsetDateTime.now()))
-            .build();
+    var user = User.builder().with(u -> u.setPassword(cryptoService.hash(oldPassword))).build();
     var storedUser = Optional.of(user);
 
     // and: the new intended password left blank
@@ -346,15 +395,20 @@ public class DefaultSecurityServiceTests {
 
     // and: a mocked user repository
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp("otpCode")).thenReturn(storedUser);
     Mockito.when(userRepository.save(user)).thenReturn(user);
 
+    // and: a token issued for that user
+    var token = token(user, OffsetDateTime.now().plusMinutes(3));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash("otpCode"))).thenReturn(token);
+
     // and: an otp checker
     var otpExpiredForUser = Mockito.mock(OtpExpiredForUser.class);
 
     // when: executing the security service to change her password
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result = securityService.changePassword(new ChangePasswordInput("otpCode", newPassword));
 
     // then: an error is returned because of the same password
@@ -384,15 +438,20 @@ public class DefaultSecurityServiceTests {
 
     // and: a mocked user repository
     var userRepository = Mockito.mock(UserRepository.class);
-    Mockito.when(userRepository.findByOtp("otpCode")).thenReturn(storedUser);
     Mockito.when(userRepository.save(user)).thenReturn(user);
 
-    // and: an otp checker that will always fails (expiration time of 0 minutes)
-    var otpExpiredForUser = new OtpExpiredForUser(0);
+    // and: an already expired token
+    var token = token(user, OffsetDateTime.now().minusMinutes(1));
+    var tokenRepository = Mockito.mock(UserTokenRepository.class);
+    Mockito.when(tokenRepository.findByTokenHash(OtpUtils.hash("otpCode"))).thenReturn(token);
+
+    // and: an otp checker
+    var otpExpiredForUser = new OtpExpiredForUser();
 
     // when: executing the security service to change her password
     var securityService =
-        new DefaultSecurityService(cryptoService, null, null, userRepository, otpExpiredForUser);
+        new DefaultSecurityService(
+            cryptoService, null, null, userRepository, tokenRepository, otpExpiredForUser);
     var result = securityService.changePassword(new ChangePasswordInput("otpCode", newPassword));
 
     // then: an error is returned because of the same password
@@ -405,4 +464,64 @@ public class DefaultSecurityServiceTests {
     assertEquals(errors.size(), 1);
     assertEquals(samePasswordError.getCode(), ErrorConstants.OTP_EXPIRED_FOR_USER.getCode());
   }
+
+  @Test
+  void testLoginWhenHashingIsBusy() {
+    // given: a crypto service without hashing capacity left
+    var cryptoService = Mockito.mock(CryptoService.class);
+    Mockito.when(cryptoService.verifyWithHash(any(), any()))
+        .thenThrow(new RejectedExecutionException("busy"));
+
+    // and: a repository returning a specific user
+    var userRepository = Mockito.mock(UserRepository.class);
+    Mockito.when(userRepository.findByEmail(any())).thenReturn(Optional.of(random(User.class)));
+
+    // when: trying to login
+    var securityService =
+        new DefaultSecurityService(cryptoService, null, null, userRepository, null, null);
+    var result = securityService.loginByCredentials(random(LoginInput.class));
+
+    // then: we should get a try later error
+    assertEquals(result.getErrorList().size(), 1);
+    assertEquals(result.getErrorList().get(0).getCode(), ErrorConstants.TRY_LATER.getCode());
+  }
+
+  @Test
+  void testLoginRehashesPasswordWhenCostChanges() {
+    // given: a password hashed with a previous cost
+    var plainPassword = "password";
+    var user = random(User.class);
+    user.setPassword(PASSWORD_HASHER.hash(plainPassword));
+
+    // and: a crypto service configured with a new cost
+    var configuration = new SecurityConfiguration("issuer", 1, Algorithm.HMAC256("secret"));
+    var cryptoService = new Auth0CryptoService(configuration, new PasswordHasher(5, 1, 16));
+
+    // and: a repository returning that user
+    var userRepository = Mockito.mock(UserRepository.class);
+    Mockito.when(userRepository.findByEmail(any())).thenReturn(Optional.of(user));
+    Mockito.when(userRepository.save(user)).thenReturn(user);
+
+    // when: login with good credentials
+    var securityService =
+        new DefaultSecurityService(cryptoService, null, null, userRepository, null, null);
+    var result = securityService.loginByCredentials(new LoginInput(user.getEmail(), plainPassword));
+
+    // then: login succeeds
+    assertNotNull(result.getSuccess());
+
+    // and: the password has been rehashed with the new cost
+    verify(userRepository, times(1)).save(user);
+    assertEquals(user.getPassword().substring(0, 7), "$2a$05$");
+    assertTrue(cryptoService.verifyWithHash(plainPassword, user.getPassword()));
+  }
+
+  private static Optional<UserToken> token(User user, OffsetDateTime expiresAt) {
+    return Optional.of(
+        UserToken.builder()
+            .with(t -> t.setUser(user))
+            .with(t -> t.setCreatedAtDateTime(expiresAt.minusMinutes(3)))
+            .with(t -> t.setExpiresAtDateTime(expiresAt))
+            .build());
+  }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.auth0.jwt.JWT;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link JwksKeyProvider} against a local stand-in oauth2 server
+ *
+ * @since 0.1.0
+ */
+public class JwksKeyProviderTests {
+
+  private transient OauthServerStub server;
+
+  @BeforeEach
+  void startServer() throws Exception {
+    server = new OauthServerStub();
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop();
+  }
+
+  @Test
+  void testKeysAreCached() {
+    // given: a provider
+    var provider = provider(0);
+    var keyId = keyIdOf(server.idToken("john@example.com", OauthServerStub.CLIENT_ID));
+
+    // when: asking several times for the same key
+    var first = provider.getPublicKeyById(keyId);
+    var second = provider.getPublicKeyById(keyId);
+
+    // then: the key is found
+    assertThat("key is found", first, is(notNullValue()));
+    assertThat("key is the same", second, is(first));
+
+    // and: the key set has been fetched only once
+    assertThat("fetched once", server.getJwksHits(), is(1));
+  }
+
+  @Test
+  void testKeysAreFetchedAgainWhenRotated() {
+    // given: a provider which already fetched the current keys
+    var provider = provider(0);
+    provider.getPublicKeyById(keyIdOf(server.idToken("john@example.com", "patio")));
+
+    // when: the server rotates its key
+    server.rotateKey();
+    var rotatedKeyId = keyIdOf(server.idToken("john@example.com", "patio"));
+
+    // then: the new key is fetched
+    assertThat("new key is found", provider.getPublicKeyById(rotatedKeyId), is(notNullValue()));
+    assertThat("fetched twice", server.getJwksHits(), is(2));
+  }
+
+  @Test
+  void testUnknownKeysDoNotFetchOnEveryRequest() {
+    // given: a provider which can't fetch keys more than once a minute
+    var provider = provider(60);
+
+    // when: asking several times for an unknown key
+    var first = provider.getPublicKeyById("unknown");
+    var second = provider.getPublicKeyById("unknown");
+
+    // then: no key is found
+    assertThat("no key", first, is(nullValue()));
+    assertThat("no key", second, is(nullValue()));
+
+    // and: the key set has been fetched only once
+    assertThat("fetched once", server.getJwksHits(), is(1));
+  }
+
+  private JwksKeyProvider provider(long minRefreshSeconds) {
+    return new JwksKeyProvider(new NetHttpTransport(), server.url("/jwks"), 60, minRefreshSeconds);
+  }
+
+  private static String keyIdOf(String token) {
+    return JWT.decode(token).getKeyId();
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Google's oauth2 endpoints: token exchange, JWKS and userinfo. It signs id
+ * tokens with its own RSA key, which can be rotated, and counts the requests received by each
+ * endpoint.
+ *
+ * @since 0.1.0
+ */
+public class OauthServerStub {
+
+  /** Issuer of the tokens signed by this server */
+  public static final String ISSUER = "https://accounts.google.com";
+
+  /** Audience (client id) of the tokens signed by this server */
+  public static final String CLIENT_ID = "patio-client";
+
+  private final transient HttpServer server;
+  private final transient AtomicInteger jwksHits = new AtomicInteger();
+  private final transient AtomicInteger userinfoHits = new AtomicInteger();
+  private final transient AtomicInteger keyCounter = new AtomicInteger();
+  private transient volatile KeyPair keyPair;
+  private transient volatile String keyId;
+
+  /**
+   * Creates the server listening on a random local port
+   *
+   * @throws IOException if the server can't be created
+   * @since 0.1.0
+   */
+  public OauthServerStub() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.server.createContext("/token", exchange -> respond(exchange, tokenResponse()));
+    this.server.createContext(
+        "/jwks",
+        exchange -> {
+          jwksHits.incrementAndGet();
+          respond(exchange, jwks());
+        });
+    this.server.createContext(
+        "/oauth2/v2/userinfo",
+        exchange -> {
+          userinfoHits.incrementAndGet();
+          respond(exchange, "{\"email\":\"john@example.com\",\"name\":\"John\"}");
+        });
+    rotateKey();
+  }
+
+  /**
+   * Starts listening
+   *
+   * @since 0.1.0
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Stops the server
+   *
+   * @since 0.1.0
+   */
+  public void stop() {
+    server.stop(0);
+  }
+
+  /**
+   * Returns the absolute url of the path passed as parameter
+   *
+   * @param path path starting with a slash
+   * @return an absolute url pointing to this server
+   * @since 0.1.0
+   */
+  public String url(String path) {
+    return "http://localhost:" + server.getAddress().getPort() + path;
+  }
+
+  /**
+   * Replaces the signing key by a new one with a different key id
+   *
+   * @since 0.1.0
+   */
+  public final void rotateKey() {
+    try {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(2048);
+      keyPair = generator.generateKeyPair();
+      keyId = "key-" + keyCounter.incrementAndGet();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Creates an id token signed with the current key
+   *
+   * @param email the email claim
+   * @param audience the audience of the token
+   * @return a signed id token
+   * @since 0.1.0
+   */
+  public String idToken(String email, String audience) {
+    Algorithm algorithm =
+        Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate());
+
+    return JWT.create()
+        .withKeyId(keyId)
+        .withIssuer(ISSUER)
+        .withAudience(audience)
+        .withSubject("1234")
+        .withClaim("email", email)
+        .withClaim("email_verified", true)
+        .withClaim("name", "John")
+        .withExpiresAt(Date.from(Instant.now().plusSeconds(3600)))
+        .sign(algorithm);
+  }
+
+  /**
+   * Returns the number of requests received by the JWKS endpoint
+   *
+   * @return the number of JWKS requests
+   * @since 0.1.0
+   */
+  public int getJwksHits() {
+    return jwksHits.get();
+  }
+
+  /**
+   * Returns the number of requests received by the userinfo endpoint
+   *
+   * @return the number of userinfo requests
+   * @since 0.1.0
+   */
+  public int getUserinfoHits() {
+    return userinfoHits.get();
+  }
+
+  private String tokenResponse() {
+    return String.format(
+        "{\"access_token\":\"access\",\"token_type\":\"Bearer\",\"expires_in\":3600,"
+            + "\"id_token\":\"%s\"}",
+        idToken("john@example.com", CLIENT_ID));
+  }
+
+  private String jwks() {
+    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    return String.format(
+        "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"%s\","
+            + "\"n\":\"%s\",\"e\":\"%s\"}]}",
+        keyId,
+        encoder.encodeToString(publicKey.getModulus().toByteArray()),
+        encoder.encodeToString(publicKey.getPublicExponent().toByteArray()));
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    byte[] bytes = body.getBytes(UTF_8);
+    exchange.getRequestBody().readAllBytes();
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+}
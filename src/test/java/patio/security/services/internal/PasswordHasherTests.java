@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PasswordHasher}
+ *
+ * @since 0.1.0
+ */
+public class PasswordHasherTests {
+
+  @Test
+  void testHashAndVerify() {
+    // given: a hasher
+    var hasher = new PasswordHasher(4, 1, 1);
+
+    // when: hashing a password
+    var hashed = hasher.hash("password");
+
+    // then: the hash is created with the configured cost
+    assertTrue(hashed.startsWith("$2a$04$"));
+
+    // and: it can be verified
+    assertTrue(hasher.verify("password", hashed));
+    assertFalse(hasher.verify("another", hashed));
+    hasher.close();
+  }
+
+  @Test
+  void testNeedsRehash() {
+    // given: hashers with different costs
+    var oldHasher = new PasswordHasher(4, 1, 1);
+    var newHasher = new PasswordHasher(5, 1, 1);
+    var hashed = oldHasher.hash("password");
+
+    // expect: only the hasher with a different cost requires rehashing
+    assertFalse(oldHasher.needsRehash(hashed));
+    assertTrue(newHasher.needsRehash(hashed));
+
+    // and: unknown values are not considered for rehashing
+    assertFalse(newHasher.needsRehash(null));
+    assertFalse(newHasher.needsRehash("plain"));
+    oldHasher.close();
+    newHasher.close();
+  }
+
+  @Test
+  void testRejectWhenSaturated() throws InterruptedException {
+    // given: a slow hasher with a single thread and a single waiting slot
+    var hasher = new PasswordHasher(13, 1, 1);
+    var callers = 6;
+    var executor = Executors.newFixedThreadPool(callers);
+    var start = new CountDownLatch(1);
+    var futures = new ArrayList<Future<String>>();
+
+    // when: several callers hash at the same time
+    for (int i = 0; i < callers; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return hasher.hash("password");
+              }));
+    }
+    start.countDown();
+
+    // then: some of them are rejected right away
+    var rejected = 0;
+    for (Future<String> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException ex) {
+        assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        rejected++;
+      }
+    }
+
+    assertEquals(callers - 2, rejected);
+    executor.shutdown();
+    hasher.close();
+  }
+}
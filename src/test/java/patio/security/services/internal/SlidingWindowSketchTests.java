@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.security.services.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link SlidingWindowSketch} and {@link DefaultLoginThrottleService}
+ *
+ * @since 0.1.0
+ */
+public class SlidingWindowSketchTests {
+
+  private static final Instant NOW = Instant.parse("2020-01-01T10:00:00Z");
+
+  @Test
+  void testCountsEventsPerKey() {
+    // given: a sketch
+    var sketch = new SlidingWindowSketch(Duration.ofSeconds(60), 6, 4, 1024, clockAt(NOW));
+
+    // when: recording events of two keys
+    IntStream.range(0, 5).forEach(i -> sketch.incrementAndEstimate("10.0.0.1"));
+    var estimate = sketch.incrementAndEstimate("john@example.com");
+
+    // then: every key is counted on its own
+    assertThat("events of the first key", sketch.estimate("10.0.0.1"), is(5));
+    assertThat("events of the second key", estimate, is(1));
+    assertThat("events of unknown keys", sketch.estimate("unknown"), is(0));
+  }
+
+  @Test
+  void testWindowSlides() {
+    // given: a sketch with a 60 seconds window split in 10 seconds slots
+    var clock = new MutableClock(NOW);
+    var sketch = new SlidingWindowSketch(Duration.ofSeconds(60), 6, 4, 1024, clock);
+
+    // when: recording events at different moments
+    sketch.incrementAndEstimate("key");
+    clock.instant = NOW.plusSeconds(30);
+    sketch.incrementAndEstimate("key");
+
+    // then: events within the window are counted
+    assertThat("events in window", sketch.estimate("key"), is(2));
+
+    // and: old events are forgotten as the window slides
+    clock.instant = NOW.plusSeconds(65);
+    assertThat("first event expired", sketch.estimate("key"), is(1));
+
+    clock.instant = NOW.plusSeconds(95);
+    assertThat("all events expired", sketch.estimate("key"), is(0));
+  }
+
+  @Test
+  void testNeverUnderestimatesWithManyKeys() {
+    // given: a small sketch
+    var sketch = new SlidingWindowSketch(Duration.ofSeconds(60), 6, 4, 64, clockAt(NOW));
+
+    // when: recording more keys than counters
+    IntStream.range(0, 1_000).forEach(i -> sketch.incrementAndEstimate("key-" + i));
+    IntStream.range(0, 10).forEach(i -> sketch.incrementAndEstimate("target"));
+
+    // then: the estimation may be higher but never lower than the real count
+    assertThat("estimate", sketch.estimate("target"), is(greaterThanOrEqualTo(10)));
+  }
+
+  @Test
+  void testConcurrentIncrements() {
+    // given: a sketch
+    var sketch = new SlidingWindowSketch(Duration.ofSeconds(60), 6, 4, 1024, clockAt(NOW));
+
+    // when: recording events from several threads
+    CompletableFuture.allOf(
+            IntStream.range(0, 8)
+                .mapToObj(
+                    i ->
+                        CompletableFuture.runAsync(
+                            () ->
+                                IntStream.range(0, 1_000)
+                                    .forEach(j -> sketch.incrementAndEstimate("key"))))
+                .toArray(CompletableFuture[]::new))
+        .join();
+
+    // then: no increment is lost
+    assertThat("events", sketch.estimate("key"), is(8_000));
+  }
+
+  @Test
+  void testThrottleByAddressAndAccount() {
+    // given: a throttle allowing 3 attempts per address and 2 failures per account
+    var throttle = new DefaultLoginThrottleService(true, 60, 3, 2, 1024, clockAt(NOW));
+
+    // when: failing to log in the same account from an address
+    var first = throttle.tryAcquire("10.0.0.1", "john@example.com");
+    throttle.recordFailure("john@example.com");
+    var second = throttle.tryAcquire("10.0.0.1", "John@Example.com ");
+    throttle.recordFailure("John@Example.com ");
+    var third = throttle.tryAcquire("10.0.0.1", "john@example.com");
+
+    // then: attempts over the account limit are rejected
+    assertThat("first attempt", first, is(true));
+    assertThat("second attempt", second, is(true));
+    assertThat("third attempt", third, is(false));
+
+    // and: attempts over the address limit are rejected for any account
+    assertThat("another account", throttle.tryAcquire("10.0.0.1", "peter@example.com"), is(false));
+
+    // and: other addresses and accounts are not affected
+    assertThat("another client", throttle.tryAcquire("10.0.0.2", "peter@example.com"), is(true));
+  }
+
+  @Test
+  void testAttemptsWithoutFailuresDontLockAccounts() {
+    // given: a throttle allowing 30 attempts per address and 10 failures per account
+    var throttle = new DefaultLoginThrottleService(true, 60, 30, 10, 1024, clockAt(NOW));
+
+    // when: a client keeps sending requests on behalf of a victim's account
+    IntStream.range(0, 100).forEach(i -> throttle.tryAcquire("10.0.0.66", "victim@example.com"));
+
+    // then: the client is throttled
+    assertThat("attacker", throttle.tryAcquire("10.0.0.66", "victim@example.com"), is(false));
+
+    // and: the victim can still log in from its own address
+    assertThat("victim", throttle.tryAcquire("10.0.0.1", "victim@example.com"), is(true));
+  }
+
+  @Test
+  void testRequestsAreCountedPerAccount() {
+    // given: a throttle allowing 30 attempts per address and 3 requests per account
+    var throttle = new DefaultLoginThrottleService(true, 60, 30, 3, 1024, clockAt(NOW));
+
+    // when: requesting password resets for the same account from different addresses
+    var allowed =
+        IntStream.range(0, 3)
+            .mapToObj(i -> throttle.tryAcquireForAccount("10.0.0." + i, "victim@example.com"))
+            .allMatch(Boolean::booleanValue);
+    var fourth = throttle.tryAcquireForAccount("10.0.0.4", "Victim@Example.com");
+
+    // then: requests over the account limit are rejected
+    assertThat("first requests", allowed, is(true));
+    assertThat("fourth request", fourth, is(false));
+
+    // and: other accounts are not affected
+    assertThat(
+        "another account", throttle.tryAcquireForAccount("10.0.0.4", "john@example.com"), is(true));
+
+    // and: the account can still log in
+    assertThat("login", throttle.tryAcquire("10.0.0.5", "victim@example.com"), is(true));
+  }
+
+  @Test
+  void testDisabledThrottle() {
+    // given: a disabled throttle
+    var throttle = new DefaultLoginThrottleService(false, 60, 1, 1, 1024, clockAt(NOW));
+
+    // when: attempting several times
+    var allowed =
+        IntStream.range(0, 10)
+            .mapToObj(i -> throttle.tryAcquire("10.0.0.1", "john@example.com"))
+            .filter(Boolean::booleanValue)
+            .count();
+
+    // then: every attempt is allowed
+    assertThat("allowed attempts", allowed, is(10L));
+  }
+
+  private static Clock clockAt(Instant instant) {
+    return Clock.fixed(instant, ZoneOffset.UTC);
+  }
+
+  /**
+   * A clock which can be moved forward
+   *
+   * @since 0.1.0
+   */
+  private static class MutableClock extends Clock {
+    private transient Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -26,6 +26,7 @@ import static patio.infrastructure.utils.IterableUtils.iterableToStream;
 
 import io.micronaut.test.annotation.MicronautTest;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -36,6 +37,8 @@ import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import patio.group.domain.Group;
+import patio.group.repositories.GroupRepository;
 import patio.infrastructure.tests.Fixtures;
 import patio.user.domain.User;
 
@@ -56,6 +59,8 @@ class UserRepositoryTests {
 
   @Inject transient UserRepository repository;
 
+  @Inject transient GroupRepository groupRepository;
+
   @Inject transient Fixtures fixtures;
 
   @BeforeEach
@@ -105,4 +110,103 @@ class UserRepositoryTests {
     // then: we get it from db
     assertEquals(found.get().getId(), created.get().getId());
   }
+
+  @Test
+  void testUpdateFavouriteGroup() {
+    // given: a user belonging to two groups without favourite group
+    fixtures.load(UserRepositoryTests.class, "testUpdateFavouriteGroup.sql");
+
+    UUID sue = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea6");
+    UUID outsider = UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea7");
+    UUID fantasticFour = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+    UUID fantasticFive = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d94");
+
+    // when: a voting is created in one of the user's groups
+    repository.updateFavouriteGroupWhereMissing(fantasticFive);
+
+    // then: the group becomes the favourite group of its members only
+    assertEquals(Optional.of(fantasticFive), favouriteGroupId(sue));
+    assertEquals(Optional.empty(), favouriteGroupId(outsider));
+
+    // when: a voting is created in another group
+    repository.updateFavouriteGroupWhereMissing(fantasticFour);
+
+    // then: the favourite group is kept
+    assertEquals(Optional.of(fantasticFive), favouriteGroupId(sue));
+
+    // when: the user votes in the other group
+    repository.updateFavouriteGroup(sue, fantasticFour);
+
+    // then: the favourite group changes
+    assertEquals(Optional.of(fantasticFour), favouriteGroupId(sue));
+
+    // when: removing a group which is not the favourite one
+    repository.removeFavouriteGroup(sue, fantasticFive);
+
+    // then: the favourite group is kept
+    assertEquals(Optional.of(fantasticFour), favouriteGroupId(sue));
+
+    // when: removing the favourite group
+    repository.removeFavouriteGroup(sue, fantasticFour);
+
+    // then: the user has no favourite group
+    assertEquals(Optional.empty(), favouriteGroupId(sue));
+  }
+
+  @Test
+  void testFindAllByGroupAfter() {
+    // given: a group with five members, two of them with the same name
+    fixtures.load(UserRepositoryTests.class, "testFindAllByGroupAfter.sql");
+
+    UUID fantasticFour = UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93");
+
+    // when: asking for the first page
+    var firstPage = repository.findAllByGroupAfter(fantasticFour, null, null, null, 2);
+
+    // then: members are sorted by name
+    assertEquals(List.of("Ben Grimm", "Johnny Storm"), names(firstPage));
+
+    // when: asking for the members after the last one of the page
+    var last = firstPage.get(1);
+    var secondPage =
+        repository.findAllByGroupAfter(fantasticFour, null, last.getName(), last.getId(), 10);
+
+    // then: members with the same name are sorted by id and non members are excluded
+    assertEquals(List.of("Reed Richards", "Sue Storm", "Sue Storm"), names(secondPage));
+    assertEquals(
+        UUID.fromString("486590a3-fcc1-4657-a9ed-5f0f95dadea5"), secondPage.get(2).getId());
+
+    // when: continuing after the first member with a repeated name
+    var sue = secondPage.get(1);
+    var afterSue =
+        repository.findAllByGroupAfter(fantasticFour, null, sue.getName(), sue.getId(), 10);
+
+    // then: the member with the same name and a greater id is not skipped
+    assertEquals(List.of(secondPage.get(2).getId()), ids(afterSue));
+
+    // when: filtering by a name prefix ignoring case
+    var storms = repository.findAllByGroupAfter(fantasticFour, "sue s", null, null, 10);
+
+    // then: only matching members are returned
+    assertEquals(List.of("Sue Storm", "Sue Storm"), names(storms));
+
+    // and: like wildcards in the prefix are not interpreted
+    assertEquals(List.of(), repository.findAllByGroupAfter(fantasticFour, "%", null, null, 10));
+
+    // and: the group keeps the number of members
+    assertEquals(
+        Integer.valueOf(5), groupRepository.findById(fantasticFour).get().getMemberCount());
+  }
+
+  private static List<String> names(List<User> users) {
+    return users.stream().map(User::getName).collect(Collectors.toList());
+  }
+
+  private static List<UUID> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  private Optional<UUID> favouriteGroupId(UUID userId) {
+    return groupRepository.findMyFavouriteGroupByUserId(userId).map(Group::getId);
+  }
 }
@@ -20,11 +20,13 @@ package patio.voting.repositories;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.iterableWithSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static patio.infrastructure.utils.IterableUtils.iterableToStream;
 
 import io.micronaut.data.model.Pageable;
 import io.micronaut.test.annotation.MicronautTest;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Comparator;
 import java.util.List;
@@ -68,6 +70,7 @@ public class VotingRepositoryTests {
   @Inject transient VoteRepository voteRepository;
   @Inject transient VotingRepository votingRepository;
   @Inject transient GroupRepository groupRepository;
+  @Inject transient VotingStatsRepository votingStatsRepository;
 
   @Inject transient Fixtures fixtures;
 
@@ -262,4 +265,74 @@ public class VotingRepositoryTests {
     // then: we should get no voting
     Assert.assertEquals(nextVoting, Optional.empty());
   }
+
+  @Test
+  void testArchivePartitionsBefore() {
+    // given: votings from May and June 2020
+    fixtures.load(VotingRepositoryTests.class, "testArchivePartitionsBefore.sql");
+
+    // when: archiving every month before June 2020
+    var archived = votingRepository.archivePartitionsBefore(LocalDate.parse("2020-06-01"));
+
+    // then: May 2020 is archived but June 2020 is not
+    assertTrue(archived.contains("2020_05"));
+    assertFalse(archived.contains("2020_06"));
+
+    // and: May votings are not reachable anymore
+    assertFalse(
+        votingRepository
+            .findById(UUID.fromString("7772e35c-5a87-4ba3-ab93-da8a957037fd"))
+            .isPresent());
+    assertTrue(
+        votingRepository
+            .findById(UUID.fromString("7772e35c-5a87-4ba3-ab93-da8a957038fd"))
+            .isPresent());
+
+    // and: June votes of May votings are archived with their votings
+    assertFalse(
+        voteRepository
+            .findById(UUID.fromString("d246d65c-be84-4140-85e1-9cf495523732"))
+            .isPresent());
+    assertTrue(
+        voteRepository
+            .findById(UUID.fromString("d246d65c-be84-4140-85e1-9cf495523731"))
+            .isPresent());
+
+    // and: the stats of May votings are archived too
+    assertFalse(
+        votingStatsRepository
+            .findById(UUID.fromString("3e5bd9a5-3a8e-4c3f-9d4b-2e2d8a6b61fd"))
+            .isPresent());
+
+    // and: the group doesn't point to an archived voting
+    var group = groupRepository.findById(UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93"));
+    assertTrue(group.map(g -> g.getLastVotingId() == null).orElse(false));
+
+    // and: archiving again does nothing
+    assertTrue(votingRepository.archivePartitionsBefore(LocalDate.parse("2020-06-01")).isEmpty());
+  }
+
+  @Test
+  void testCreateMonthlyPartitions() {
+    // given: pre-existent data
+    fixtures.load(VotingRepositoryTests.class, "testArchivePartitionsBefore.sql");
+
+    // when: creating partitions far in the future, twice
+    votingRepository.createMonthlyPartitions(
+        LocalDate.parse("2040-01-15"), LocalDate.parse("2040-02-15"));
+    votingRepository.createMonthlyPartitions(
+        LocalDate.parse("2040-01-01"), LocalDate.parse("2040-01-01"));
+
+    // then: votings can be created in those months
+    var group =
+        groupRepository.findById(UUID.fromString("d64db962-3455-11e9-b210-d663bd873d93")).get();
+    var voting =
+        Voting.newBuilder()
+            .with(v -> v.setGroup(group))
+            .with(v -> v.setCreatedAtDateTime(OffsetDateTime.parse("2040-02-28T23:00:00Z")))
+            .build();
+    var saved = votingRepository.save(voting);
+
+    assertTrue(votingRepository.findById(saved.getId()).isPresent());
+  }
 }
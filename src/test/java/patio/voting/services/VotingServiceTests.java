@@ -33,6 +33,7 @@ import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -51,6 +52,7 @@ import patio.group.domain.UserGroup;
 import patio.group.domain.UserGroupKey;
 import patio.group.repositories.GroupRepository;
 import patio.group.repositories.UserGroupRepository;
+import patio.group.services.internal.GroupMembershipIndex;
 import patio.infrastructure.utils.ErrorConstants;
 import patio.user.domain.User;
 import patio.user.repositories.UserRepository;
@@ -90,13 +92,24 @@ public class VotingServiceTests {
     var votingRepository = Mockito.mock(VotingRepository.class);
     var userGroupRepository = Mockito.mock(UserGroupRepository.class);
 
+    var userRepository = Mockito.mock(UserRepository.class);
+    var groupRepository = Mockito.mock(GroupRepository.class);
+
     // and: there're user and voting available
     when(userGroupRepository.findById(any(UserGroupKey.class)))
         .thenReturn(Optional.of(new UserGroup(user, group)));
+    when(votingRepository.save(any(Voting.class))).thenAnswer(inv -> inv.getArgument(0));
 
     // when: invoking the service
     var votingService =
-        new DefaultVotingService(votingRepository, null, null, userGroupRepository, null, null);
+        new DefaultVotingService(
+            votingRepository,
+            null,
+            null,
+            userGroupRepository,
+            userRepository,
+            groupRepository,
+            null);
     var votingInput =
         CreateVotingInput.newBuilder().withUserId(user.getId()).withGroupId(group.getId()).build();
     var votingResult = votingService.createVoting(votingInput);
@@ -108,6 +121,12 @@ public class VotingServiceTests {
     // and: that the voting repository creation has been invoked
     verify(userGroupRepository, times(1)).findById(any(UserGroupKey.class));
     verify(votingRepository, times(1)).save(any(Voting.class));
+
+    // and: the voting becomes the last voting of the group
+    verify(groupRepository, times(1)).updateLastVoting(any(UUID.class), any());
+
+    // and: members without favourite group get this one
+    verify(userRepository, times(1)).updateFavouriteGroupWhereMissing(group.getId());
   }
 
   @Test
@@ -116,11 +135,7 @@ public class VotingServiceTests {
     // given: some mocked data
     var group = random(Group.class);
     var user =
-        User.builder()
-            .with(u -> u.setId(UUID.randomUUID()))
-            .with(u -> u.setName("john"))
-            .with(u -> u.setGroups(Set.of(new UserGroup(new User(), group))))
-            .build();
+        User.builder().with(u -> u.setId(UUID.randomUUID())).with(u -> u.setName("john")).build();
     var voting =
         Voting.newBuilder()
             .with(v -> v.setId(UUID.randomUUID()))
@@ -149,10 +164,20 @@ public class VotingServiceTests {
     when(votingRepository.findById(any(UUID.class))).thenReturn(Optional.of(voting));
     when(voteRepository.save(any(Vote.class))).thenReturn(random(Vote.class));
 
+    // and: the user belongs to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isMember(any(), any())).thenReturn(true);
+
     // when: invoking the service
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository,
+            voteRepository,
+            votingStatsService,
+            null,
+            userRepository,
+            null,
+            membershipIndex);
 
     Result<Vote> vote = votingService.createVote(input);
 
@@ -166,6 +191,9 @@ public class VotingServiceTests {
     verify(userRepository, times(1)).findById(any());
     verify(votingRepository, times(1)).findById(any());
     verify(voteRepository, times(1)).save(any());
+
+    // and: the voting group becomes the user's favourite group
+    verify(userRepository, times(1)).updateFavouriteGroup(user.getId(), group.getId());
   }
 
   @Test
@@ -186,7 +214,7 @@ public class VotingServiceTests {
     // when: invoking the service
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, userGroupRepository, null, null);
+            votingRepository, null, votingStatsService, userGroupRepository, null, null, null);
     var votingInput =
         CreateVotingInput.newBuilder().withUserId(user.getId()).withGroupId(group.getId()).build();
     var votingResult = votingService.createVoting(votingInput);
@@ -236,7 +264,7 @@ public class VotingServiceTests {
     // when: invoking the vote creation
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository, voteRepository, votingStatsService, null, userRepository, null, null);
     Result<Vote> vote = votingService.createVote(input);
 
     // then: vote can't be created
@@ -287,7 +315,7 @@ public class VotingServiceTests {
     // when: invoking the vote creation
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository, voteRepository, votingStatsService, null, userRepository, null, null);
     Result<Vote> vote = votingService.createVote(input);
 
     // then: vote can't be created
@@ -326,11 +354,7 @@ public class VotingServiceTests {
     var voteRepository = Mockito.mock(VoteRepository.class);
 
     var validGroup = new Group();
-    var user =
-        User.builder()
-            .with(u -> u.setName("john"))
-            .with(u -> u.setGroups(Set.of(new UserGroup(new User(), new Group()))))
-            .build();
+    var user = User.builder().with(u -> u.setName("john")).build();
     var voting =
         Voting.newBuilder()
             .with(v -> v.setGroup(validGroup))
@@ -342,10 +366,20 @@ public class VotingServiceTests {
     when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
     when(votingRepository.findById(any(UUID.class))).thenReturn(Optional.of(voting));
 
+    // and: the user doesn't belong to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isMember(any(), any())).thenReturn(false);
+
     // when: invoking the vote creation
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository,
+            voteRepository,
+            votingStatsService,
+            null,
+            userRepository,
+            null,
+            membershipIndex);
     Result<Vote> vote = votingService.createVote(input);
 
     // then: vote can't be created
@@ -389,7 +423,7 @@ public class VotingServiceTests {
     // when: invoking the vote creation
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository, voteRepository, votingStatsService, null, userRepository, null, null);
     Result<Vote> vote = votingService.createVote(input);
 
     // then: vote can't be created
@@ -432,11 +466,7 @@ public class VotingServiceTests {
     var voteRepository = Mockito.mock(VoteRepository.class);
 
     var validGroup = Group.builder().with(g -> g.setAnonymousVote(groupAnonymous)).build();
-    var user =
-        User.builder()
-            .with(u -> u.setName("john"))
-            .with(u -> u.setGroups(Set.of(new UserGroup(new User(), validGroup))))
-            .build();
+    var user = User.builder().with(u -> u.setName("john")).build();
     var voting =
         Voting.newBuilder()
             .with(v -> v.setGroup(validGroup))
@@ -449,10 +479,20 @@ public class VotingServiceTests {
     when(votingRepository.findById(any(UUID.class))).thenReturn(Optional.of(voting));
     when(voteRepository.save(any(Vote.class))).thenReturn(random(Vote.class));
 
+    // and: the user belongs to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isMember(any(), any())).thenReturn(true);
+
     // when: invoking the vote creation
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, userRepository, null);
+            votingRepository,
+            voteRepository,
+            votingStatsService,
+            null,
+            userRepository,
+            null,
+            membershipIndex);
     Result<Vote> vote = votingService.createVote(input);
 
     // then:
@@ -491,7 +531,7 @@ public class VotingServiceTests {
     // when: invoking the voting listing
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, null, groupRepository);
+            votingRepository, null, votingStatsService, null, null, groupRepository, null);
     List<Voting> votings = votingService.listVotingsGroup(input);
 
     // then: the votings are returned
@@ -514,7 +554,7 @@ public class VotingServiceTests {
     // when: getting a voting by id
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, userRepository, null);
+            votingRepository, null, votingStatsService, null, userRepository, null, null);
     var input =
         GetVotingInput.newBuilder()
             .withCurrentUserId(UUID.randomUUID())
@@ -539,7 +579,7 @@ public class VotingServiceTests {
     // when: getting a voting by id
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, userRepository, null);
+            votingRepository, null, votingStatsService, null, userRepository, null, null);
     var input =
         GetVotingInput.newBuilder()
             .withCurrentUserId(UUID.randomUUID())
@@ -574,7 +614,7 @@ public class VotingServiceTests {
     // when: invoking the vote listing
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, null, null);
+            votingRepository, voteRepository, votingStatsService, null, null, null, null);
     var paginatedVotes =
         votingService.listVotesVoting(UUID.randomUUID(), PaginationRequest.from(10, 0));
 
@@ -591,11 +631,7 @@ public class VotingServiceTests {
   void testGetLastVotingSuccessfully() {
     // given: a user that belong to a group with its last voting
     var group = random(Group.class);
-    var user =
-        User.builder()
-            .with(u -> u.setName("john"))
-            .with(u -> u.setGroups(Set.of(new UserGroup(new User(), group))))
-            .build();
+    var user = User.builder().with(u -> u.setName("john")).build();
     var lastVoting = random(Voting.class);
 
     // given: some mocked repositories
@@ -607,13 +643,22 @@ public class VotingServiceTests {
     // and: mocked calls
     when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
     when(groupRepository.findById(group.getId())).thenReturn(Optional.of(group));
-    when(votingRepository.findByGroupOrderByCreatedAtDateTimeDesc(group))
-        .thenReturn(Optional.of(lastVoting));
+    when(votingRepository.findById(group.getLastVotingId())).thenReturn(Optional.of(lastVoting));
+
+    // and: the user belongs to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isMember(any(), any())).thenReturn(true);
 
     // when: getting the last voting from a group
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, userRepository, groupRepository);
+            votingRepository,
+            null,
+            votingStatsService,
+            null,
+            userRepository,
+            groupRepository,
+            membershipIndex);
     var input =
         GetLastVotingInput.newBuilder()
             .with(i -> i.setCurrentUserId(user.getId()))
@@ -633,11 +678,7 @@ public class VotingServiceTests {
   void testGetLastVotingFailsIfUserNotInGroup() {
     // given: a user that doesn't belongs to the group
     var group = random(Group.class);
-    var user =
-        User.builder()
-            .with(u -> u.setName("john"))
-            .with(u -> u.setGroups(Set.of(new UserGroup(new User(), random(Group.class)))))
-            .build();
+    var user = User.builder().with(u -> u.setName("john")).build();
 
     // given: some mocked repositories
     var votingRepository = mock(VotingRepository.class);
@@ -649,10 +690,20 @@ public class VotingServiceTests {
     when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
     when(groupRepository.findById(group.getId())).thenReturn(Optional.of(group));
 
+    // and: the user doesn't belong to the group
+    var membershipIndex = mock(GroupMembershipIndex.class);
+    when(membershipIndex.isMember(any(), any())).thenReturn(false);
+
     // when: getting the last voting from a group
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, userRepository, groupRepository);
+            votingRepository,
+            null,
+            votingStatsService,
+            null,
+            userRepository,
+            groupRepository,
+            membershipIndex);
     var input =
         GetLastVotingInput.newBuilder()
             .with(i -> i.setCurrentUserId(user.getId()))
@@ -691,7 +742,13 @@ public class VotingServiceTests {
     // when: getting the last voting from a group
     var votingService =
         new DefaultVotingService(
-            votingRepository, null, votingStatsService, null, userRepository, groupRepository);
+            votingRepository,
+            null,
+            votingStatsService,
+            null,
+            userRepository,
+            groupRepository,
+            null);
     var input = GetLastVotingInput.newBuilder().with(i -> i.setCurrentUserId(user.getId())).build();
     Result<Voting> result = votingService.getLastVotingByGroup(input);
 
@@ -701,6 +758,27 @@ public class VotingServiceTests {
     assertEquals(ErrorConstants.NOT_FOUND, result.getErrorList().get(0));
   }
 
+  @Test
+  void testListVotingsByIds() {
+    // given: two existing votings and a missing one
+    var first = random(Voting.class);
+    var second = random(Voting.class);
+    var missing = UUID.randomUUID();
+    var ids = List.of(second.getId(), missing, first.getId());
+
+    // and: a mocked repository returning them in any order
+    var votingRepository = mock(VotingRepository.class);
+    when(votingRepository.findAllByIdInList(ids)).thenReturn(List.of(first, second));
+
+    // when: listing the votings by their ids
+    var votingService =
+        new DefaultVotingService(votingRepository, null, null, null, null, null, null);
+    List<Voting> votings = votingService.listVotingsByIds(ids);
+
+    // then: each voting is in the position of its id
+    assertEquals(Arrays.asList(second, null, first), votings);
+  }
+
   @ParameterizedTest
   @MethodSource("getDidUserVotedInVotingData")
   void testDidUserVotedInVoting(Vote vote, Boolean voted) {
@@ -718,7 +796,7 @@ public class VotingServiceTests {
     var votingId = UUID.randomUUID();
     var votingService =
         new DefaultVotingService(
-            votingRepository, voteRepository, votingStatsService, null, null, null);
+            votingRepository, voteRepository, votingStatsService, null, null, null, null);
 
     Result<Boolean> didUserVote = votingService.didUserVotedInVoting(user, votingId);
 
@@ -741,7 +819,7 @@ public class VotingServiceTests {
     when(voteRepository.getMaxExpectedVoteCountByVoting(any(Voting.class))).thenReturn(16L);
 
     var votingService =
-        new DefaultVotingService(votingRepository, voteRepository, null, null, null, null);
+        new DefaultVotingService(votingRepository, voteRepository, null, null, null, null, null);
     var input =
         VotingStatsInput.builder().with(inner -> inner.setVotingId(UUID.randomUUID())).build();
     var result = votingService.getVotingStats(input);
@@ -769,7 +847,7 @@ public class VotingServiceTests {
     when(voteRepository.getMaxExpectedVoteCountByVoting(any(Voting.class))).thenReturn(16L);
 
     var votingService =
-        new DefaultVotingService(votingRepository, voteRepository, null, null, null, null);
+        new DefaultVotingService(votingRepository, voteRepository, null, null, null, null, null);
     var input =
         VotingStatsInput.builder().with(inner -> inner.setVotingId(UUID.randomUUID())).build();
     var result = votingService.getVotingStats(input);
@@ -811,7 +889,8 @@ public class VotingServiceTests {
         .thenReturn(Optional.of(nextVoting));
 
     // when: asking the service to retrieve the data
-    var votingService = new DefaultVotingService(votingRepository, null, null, null, null, null);
+    var votingService =
+        new DefaultVotingService(votingRepository, null, null, null, null, null, null);
     Result<Voting> result = votingService.getNextVoting(voting.getId());
 
     // then: we should build a valid result and return the previous voting
@@ -835,7 +914,8 @@ public class VotingServiceTests {
     when(votingRepository.getNextVotingByGroupAndDate(any(), any())).thenReturn(Optional.empty());
 
     // when: asking the service to retrieve the data
-    var votingService = new DefaultVotingService(votingRepository, null, null, null, null, null);
+    var votingService =
+        new DefaultVotingService(votingRepository, null, null, null, null, null, null);
     Result<Voting> result = votingService.getNextVoting(voting.getId());
 
     // then: a null value is ok because is expected to have nothing after the last voting
@@ -863,7 +943,8 @@ public class VotingServiceTests {
         .thenReturn(Optional.of(previousVoting));
 
     // when: asking the service to retrieve the data
-    var votingService = new DefaultVotingService(votingRepository, null, null, null, null, null);
+    var votingService =
+        new DefaultVotingService(votingRepository, null, null, null, null, null, null);
     Result<Voting> result = votingService.getPreviousVoting(voting.getId());
 
     // then: we should build a valid result and return the previous voting
@@ -887,7 +968,8 @@ public class VotingServiceTests {
         .thenReturn(Optional.empty());
 
     // when: asking the service to retrieve the data
-    var votingService = new DefaultVotingService(votingRepository, null, null, null, null, null);
+    var votingService =
+        new DefaultVotingService(votingRepository, null, null, null, null, null, null);
     Result<Voting> result = votingService.getPreviousVoting(voting.getId());
 
     // then: a null value is ok because we expect to have nothing before the first voting
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Kaleidos Open Source SL
+ *
+ * This file is part of PATIO.
+ * PATIO is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * PATIO is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+ */
+package patio.voting.services.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import patio.voting.repositories.VotingRepository;
+
+/**
+ * Tests {@link VotingPartitionService}
+ *
+ * @since 0.1.0
+ */
+public class VotingPartitionServiceTests {
+
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.parse("2020-06-17T10:00:00Z"), ZoneOffset.UTC);
+
+  @Test
+  void testCreatePartitionsAhead() {
+    // given: a service with archiving disabled
+    var votingRepository = Mockito.mock(VotingRepository.class);
+    var service = new VotingPartitionService(3, false, 24, votingRepository, CLOCK);
+
+    // when: maintaining partitions
+    var archived = service.maintain();
+
+    // then: partitions from the current month to three months ahead are created
+    verify(votingRepository)
+        .createMonthlyPartitions(LocalDate.parse("2020-06-01"), LocalDate.parse("2020-09-01"));
+
+    // and: nothing is archived
+    verify(votingRepository, never()).archivePartitionsBefore(any());
+    assertTrue(archived.isEmpty());
+  }
+
+  @Test
+  void testArchiveExpiredPartitions() {
+    // given: a service keeping twelve months
+    var votingRepository = Mockito.mock(VotingRepository.class);
+    var service = new VotingPartitionService(3, true, 12, votingRepository, CLOCK);
+
+    // and: some expired partitions
+    when(votingRepository.archivePartitionsBefore(any())).thenReturn(List.of("2019_05"));
+
+    // when: maintaining partitions
+    var archived = service.maintain();
+
+    // then: months before June of the previous year are archived
+    verify(votingRepository).archivePartitionsBefore(LocalDate.parse("2019-06-01"));
+    assertEquals(List.of("2019_05"), archived);
+  }
+}
@@ -91,6 +91,7 @@ public class VotingSchedulingServiceTests {
             "/groups/{0}/votings/{1}/vote",
             groupRepository,
             votingRepository,
+            userRepository,
             votingStatsService,
             emailComposerService,
             emailService,
@@ -110,6 +111,12 @@ public class VotingSchedulingServiceTests {
     // and: voting statistics are initialized
     verify(votingStatsService, times(1)).createVotingStat(any());
 
+    // and: the voting becomes the last voting of the group
+    verify(groupRepository, times(1)).updateLastVoting(any(), any());
+
+    // and: members without favourite group get the voting's group
+    verify(userRepository, times(1)).updateFavouriteGroupWhereMissing(any());
+
     // and: verifies the existence of votings to be expired
     verify(groupRepository, times(1)).findAllExpiredVotingsByTime(any());
 
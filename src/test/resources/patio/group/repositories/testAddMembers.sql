@@ -0,0 +1,24 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea1','Ben Grimm', 'bgrimm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea2','Johnny Storm', 'jstorm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea3','Reed Richards', 'rrichards@email.com', 'password');
+
+INSERT INTO groups (id, name, anonymous_vote, voting_time, voting_days, voting_duration) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','Fantastic Four', true, time with time zone '10:48:12.146512+01:00', '{"MONDAY"}', 24);
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea1', 't');
@@ -16,8 +16,8 @@
 -- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
 --
 
-INSERT INTO users (id, name, email, password, otp) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea6','Sue Storm', 'sstorm@email.com', 'password', '');
-INSERT INTO users (id, name, email, password, otp) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea7','Unknown', 'unknown@email.com', 'password', '');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea6','Sue Storm', 'sstorm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea7','Unknown', 'unknown@email.com', 'password');
 
 INSERT INTO groups (id, name, anonymous_vote, voting_time, voting_days, voting_duration) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','Fantastic Four', true, time with time zone '10:48:12.146512+01:00', '{"MONDAY"}', 24);
 INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea6', 'f');
@@ -31,4 +31,5 @@ INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES
 
 INSERT INTO voting (id, group_id, voting_stats_id, created_at, created_by) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957036fd', 'd64db962-3455-11e9-b210-d663bd873d94', '612b08c5-b9e5-4490-a17a-54d3d56def5f', '2020-06-04T10:15:30+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea6');
 INSERT INTO voting_stats (id, voting_id, created_at, average) VALUES ('612b08c5-b9e5-4490-a17a-54d3d56def5f', '7772e35c-5a87-4ba3-ab93-da8a957036fd', now(), 3);
-INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523731', '7772e35c-5a87-4ba3-ab93-da8a957036fd', now() - interval '5 day', '486590a3-fcc1-4657-a9ed-5f0f95dadea6', 'Ut sit labore eius.', 3);
\ No newline at end of file
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523731', '7772e35c-5a87-4ba3-ab93-da8a957036fd', now() - interval '5 day', '486590a3-fcc1-4657-a9ed-5f0f95dadea6', 'Ut sit labore eius.', 3);
+UPDATE users SET favourite_group_id = 'd64db962-3455-11e9-b210-d663bd873d93' WHERE id = '486590a3-fcc1-4657-a9ed-5f0f95dadea6';
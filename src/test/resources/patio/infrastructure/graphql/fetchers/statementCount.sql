@@ -0,0 +1,44 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea1','Ben Grimm', 'bgrimm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea2','Sue Storm', 'sstorm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea3','Johnny Storm', 'jstorm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea4','Reed Richards', 'rrichards@email.com', 'password');
+INSERT INTO groups (id, name, anonymous_vote, voting_time, voting_days, voting_duration) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','Fantastic Four', false, time with time zone '10:48:12.146512+01:00', '{"MONDAY"}', 24);
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea1', 't');
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea2', 'f');
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea3', 'f');
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea4', 'f');
+INSERT INTO voting (id, group_id, voting_stats_id, created_at, created_by) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957037f1', 'd64db962-3455-11e9-b210-d663bd873d93', 'b3576bc7-2cb4-4680-9445-bda0bc615231', '2020-06-07T10:48:12+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1');
+INSERT INTO voting_stats (id, voting_id, created_at, average, moving_average) VALUES ('b3576bc7-2cb4-4680-9445-bda0bc615231', '7772e35c-5a87-4ba3-ab93-da8a957037f1', '2020-06-07T10:48:12+01:00', 3, 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523711', '7772e35c-5a87-4ba3-ab93-da8a957037f1', '2020-06-07T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 2);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523712', '7772e35c-5a87-4ba3-ab93-da8a957037f1', '2020-06-07T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea2', 'Ut sit labore eius.', 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523713', '7772e35c-5a87-4ba3-ab93-da8a957037f1', '2020-06-07T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea3', 'Ut sit labore eius.', 4);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523714', '7772e35c-5a87-4ba3-ab93-da8a957037f1', '2020-06-07T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea4', 'Ut sit labore eius.', 5);
+INSERT INTO voting (id, group_id, voting_stats_id, created_at, created_by) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957037f2', 'd64db962-3455-11e9-b210-d663bd873d93', 'b3576bc7-2cb4-4680-9445-bda0bc615232', '2020-06-14T10:48:12+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1');
+INSERT INTO voting_stats (id, voting_id, created_at, average, moving_average) VALUES ('b3576bc7-2cb4-4680-9445-bda0bc615232', '7772e35c-5a87-4ba3-ab93-da8a957037f2', '2020-06-14T10:48:12+01:00', 3, 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523721', '7772e35c-5a87-4ba3-ab93-da8a957037f2', '2020-06-14T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 2);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523722', '7772e35c-5a87-4ba3-ab93-da8a957037f2', '2020-06-14T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea2', 'Ut sit labore eius.', 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523723', '7772e35c-5a87-4ba3-ab93-da8a957037f2', '2020-06-14T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea3', 'Ut sit labore eius.', 4);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523724', '7772e35c-5a87-4ba3-ab93-da8a957037f2', '2020-06-14T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea4', 'Ut sit labore eius.', 5);
+INSERT INTO voting (id, group_id, voting_stats_id, created_at, created_by) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957037f3', 'd64db962-3455-11e9-b210-d663bd873d93', 'b3576bc7-2cb4-4680-9445-bda0bc615233', '2020-06-21T10:48:12+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1');
+INSERT INTO voting_stats (id, voting_id, created_at, average, moving_average) VALUES ('b3576bc7-2cb4-4680-9445-bda0bc615233', '7772e35c-5a87-4ba3-ab93-da8a957037f3', '2020-06-21T10:48:12+01:00', 3, 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523731', '7772e35c-5a87-4ba3-ab93-da8a957037f3', '2020-06-21T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 2);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523732', '7772e35c-5a87-4ba3-ab93-da8a957037f3', '2020-06-21T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea2', 'Ut sit labore eius.', 3);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523733', '7772e35c-5a87-4ba3-ab93-da8a957037f3', '2020-06-21T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea3', 'Ut sit labore eius.', 4);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523734', '7772e35c-5a87-4ba3-ab93-da8a957037f3', '2020-06-21T12:00:00+01:00', '486590a3-fcc1-4657-a9ed-5f0f95dadea4', 'Ut sit labore eius.', 5);
+UPDATE groups SET last_voting_id = '7772e35c-5a87-4ba3-ab93-da8a957037f3' WHERE id = 'd64db962-3455-11e9-b210-d663bd873d93';
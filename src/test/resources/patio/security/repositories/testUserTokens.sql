@@ -0,0 +1,25 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea6','Sue Storm', 'sstorm@email.com', 'password');
+INSERT INTO users (id, name, email, password) VALUES ('3465094c-5545-4007-a7bc-da2b1a88d9dc','Tony Stark', 'tstark@email.com', 'password');
+
+INSERT INTO user_tokens (id, user_id, token_hash, created_at, expires_at) VALUES ('a1b0b3c4-10a8-4f0c-9ad2-7cb4f4c6f001', '486590a3-fcc1-4657-a9ed-5f0f95dadea6', 'hash-sue-expired', now() - interval '10 minutes', now() - interval '7 minutes');
+INSERT INTO user_tokens (id, user_id, token_hash, created_at, expires_at) VALUES ('a1b0b3c4-10a8-4f0c-9ad2-7cb4f4c6f002', '486590a3-fcc1-4657-a9ed-5f0f95dadea6', 'hash-sue-valid', now(), now() + interval '3 minutes');
+INSERT INTO user_tokens (id, user_id, token_hash, created_at, expires_at) VALUES ('a1b0b3c4-10a8-4f0c-9ad2-7cb4f4c6f003', '3465094c-5545-4007-a7bc-da2b1a88d9dc', 'hash-tony-expired-1', now() - interval '10 minutes', now() - interval '7 minutes');
+INSERT INTO user_tokens (id, user_id, token_hash, created_at, expires_at) VALUES ('a1b0b3c4-10a8-4f0c-9ad2-7cb4f4c6f004', '3465094c-5545-4007-a7bc-da2b1a88d9dc', 'hash-tony-expired-2', now() - interval '9 minutes', now() - interval '6 minutes');
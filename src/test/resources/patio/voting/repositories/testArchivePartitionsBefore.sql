@@ -0,0 +1,35 @@
+--
+-- Copyright (C) 2019 Kaleidos Open Source SL
+--
+-- This file is part of PATIO.
+-- PATIO is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- PATIO is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with PATIO.  If not, see <https://www.gnu.org/licenses/>
+--
+
+INSERT INTO users (id, name, email, password) VALUES ('486590a3-fcc1-4657-a9ed-5f0f95dadea1','Sue Storm', 'sstorm@email.com', 'password');
+INSERT INTO groups (id, name, anonymous_vote, voting_time, voting_days, voting_duration) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','Fantastic Four', true, time with time zone '10:48:12.146512+01:00', '{"MONDAY"}', 24);
+INSERT INTO users_groups (group_id, user_id, is_admin) VALUES ('d64db962-3455-11e9-b210-d663bd873d93','486590a3-fcc1-4657-a9ed-5f0f95dadea1', 't');
+
+INSERT INTO voting (id, group_id, created_at, created_by, expired) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957037fd', 'd64db962-3455-11e9-b210-d663bd873d93', '2020-05-20T12:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', true);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523730', '7772e35c-5a87-4ba3-ab93-da8a957037fd', '2020-05-20T13:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 3);
+INSERT INTO voting_stats (id, voting_id, created_at, average) VALUES ('3e5bd9a5-3a8e-4c3f-9d4b-2e2d8a6b61fd', '7772e35c-5a87-4ba3-ab93-da8a957037fd', '2020-05-21T12:00:00Z', 3);
+UPDATE voting SET voting_stats_id = '3e5bd9a5-3a8e-4c3f-9d4b-2e2d8a6b61fd' WHERE id = '7772e35c-5a87-4ba3-ab93-da8a957037fd';
+
+-- a vote cast in June for a voting opened in May
+INSERT INTO voting (id, group_id, created_at, created_by, expired) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957039fd', 'd64db962-3455-11e9-b210-d663bd873d93', '2020-05-31T23:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', true);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523732', '7772e35c-5a87-4ba3-ab93-da8a957039fd', '2020-06-01T09:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 2);
+
+INSERT INTO voting (id, group_id, created_at, created_by, expired) VALUES ('7772e35c-5a87-4ba3-ab93-da8a957038fd', 'd64db962-3455-11e9-b210-d663bd873d93', '2020-06-20T12:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', true);
+INSERT INTO vote (id, voting_id, created_at, created_by, comment, score) VALUES ('d246d65c-be84-4140-85e1-9cf495523731', '7772e35c-5a87-4ba3-ab93-da8a957038fd', '2020-06-20T13:00:00Z', '486590a3-fcc1-4657-a9ed-5f0f95dadea1', 'Ut sit labore eius.', 4);
+
+UPDATE groups SET last_voting_id = '7772e35c-5a87-4ba3-ab93-da8a957037fd' WHERE id = 'd64db962-3455-11e9-b210-d663bd873d93';